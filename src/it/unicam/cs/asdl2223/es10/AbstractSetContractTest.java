@@ -0,0 +1,213 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test comuni alle tabelle hash che realizzano l'interfaccia Set
+ * (OpenAddressingResizableHashTable, ConcurrentCollisionListHashTable). Ogni
+ * caso viene eseguito con la funzione di hash per divisione e con quella per
+ * moltiplicazione. Ogni sottoclasse indica la tabella da verificare e
+ * aggiunge i test specifici.
+ *
+ * @author collettiva
+ *
+ */
+abstract class AbstractSetContractTest {
+
+    private final PrimaryHashFunction[] hashFunctions = {
+            new DivisionPrimaryHashFunction(),
+            new MultiplicationPrimaryHashFunction() };
+
+    /**
+     * Crea una tabella vuota, con capacità e fattore di caricamento di
+     * default, da verificare.
+     *
+     * @param phf
+     *                la funzione di hash primaria
+     * @return la tabella creata
+     */
+    abstract <E> Set<E> createSet(PrimaryHashFunction phf);
+
+    @Test
+    void testContains() {
+        for (PrimaryHashFunction phf : this.hashFunctions) {
+            Set<Integer> table = this.createSet(phf);
+            assertFalse(table.contains(42));
+            table.add(42);
+            assertTrue(table.contains(42));
+            assertFalse(table.contains(43));
+            assertThrows(NullPointerException.class, () -> table.contains(null));
+        }
+    }
+
+    @Test
+    void testAdd() {
+        for (PrimaryHashFunction phf : this.hashFunctions) {
+            Set<Integer> table = this.createSet(phf);
+            assertTrue(table.add(42));
+            assertFalse(table.add(42));
+            assertEquals(1, table.size());
+            assertThrows(NullPointerException.class, () -> table.add(null));
+        }
+    }
+
+    @Test
+    void testRemove() {
+        for (PrimaryHashFunction phf : this.hashFunctions) {
+            Set<Integer> table = this.createSet(phf);
+            assertFalse(table.remove(42));
+            table.add(42);
+            assertTrue(table.remove(42));
+            assertFalse(table.contains(42));
+            assertTrue(table.isEmpty());
+            assertThrows(NullPointerException.class, () -> table.remove(null));
+        }
+    }
+
+    @Test
+    void testContainsAll() {
+        for (PrimaryHashFunction phf : this.hashFunctions) {
+            Set<Integer> table = this.createSet(phf);
+            table.addAll(Arrays.asList(12, 42, 5, 32, 777, 11));
+            assertTrue(table.containsAll(Arrays.asList(12, 42, 5, 32, 777, 11)));
+            assertFalse(table.containsAll(Arrays.asList(12, 42, 17)));
+            assertThrows(NullPointerException.class,
+                    () -> table.containsAll(Arrays.asList(12, null)));
+        }
+    }
+
+    @Test
+    void testAddAll() {
+        for (PrimaryHashFunction phf : this.hashFunctions) {
+            Set<Integer> table = this.createSet(phf);
+            table.add(12);
+            assertTrue(table.addAll(Arrays.asList(12, 42, 5, 32, 777, 11)));
+            assertFalse(table.addAll(Arrays.asList(12, 42)));
+            assertEquals(6, table.size());
+            assertThrows(NullPointerException.class,
+                    () -> table.addAll(Arrays.asList(1, null)));
+        }
+    }
+
+    @Test
+    void testRemoveAll() {
+        for (PrimaryHashFunction phf : this.hashFunctions) {
+            Set<Integer> table = this.createSet(phf);
+            List<Integer> values = Arrays.asList(12, 42, 5, 32, 777, 11);
+            table.addAll(values);
+            // Un elemento nullo viene rifiutato prima di togliere qualcosa
+            assertThrows(NullPointerException.class,
+                    () -> table.removeAll(Arrays.asList(12, 42, null, 5)));
+            assertEquals(6, table.size());
+            assertTrue(table.removeAll(Arrays.asList(12, 42, -51)));
+            assertFalse(table.removeAll(Arrays.asList(12, -51)));
+            assertEquals(4, table.size());
+            // Collezioni che rifiutano contains(null)
+            assertTrue(table.removeAll(List.of(5, 32)));
+            assertTrue(table.removeAll(Set.of(777, 11)));
+            assertTrue(table.isEmpty());
+            assertThrows(NullPointerException.class,
+                    () -> table.removeAll(null));
+        }
+    }
+
+    @Test
+    void testRetainAll() {
+        for (PrimaryHashFunction phf : this.hashFunctions) {
+            Set<Integer> table = this.createSet(phf);
+            for (int i = 0; i < 100; i++)
+                table.add(i);
+            assertFalse(table.retainAll(table));
+            List<Integer> even = new ArrayList<Integer>();
+            for (int i = 0; i < 200; i += 2)
+                even.add(i);
+            assertTrue(table.retainAll(even));
+            assertEquals(50, table.size());
+            for (int i = 0; i < 100; i++)
+                assertEquals(i % 2 == 0, table.contains(i));
+            assertFalse(table.retainAll(List.copyOf(even)));
+            assertTrue(table.retainAll(List.of()));
+            assertTrue(table.isEmpty());
+            assertThrows(NullPointerException.class,
+                    () -> table.retainAll(null));
+        }
+    }
+
+    @Test
+    void testToArray() {
+        for (PrimaryHashFunction phf : this.hashFunctions) {
+            Set<Integer> table = this.createSet(phf);
+            assertEquals(0, table.toArray().length);
+            Set<Integer> expected = new HashSet<Integer>();
+            for (int i = 0; i < 40; i++) {
+                table.add(i);
+                expected.add(i);
+            }
+            Object[] all = table.toArray();
+            assertEquals(40, all.length);
+            assertEquals(expected, new HashSet<Object>(Arrays.asList(all)));
+            // Array troppo corto: ne viene creato uno nuovo dello stesso tipo
+            Integer[] typed = table.toArray(new Integer[0]);
+            assertEquals(40, typed.length);
+            assertEquals(expected, new HashSet<Integer>(Arrays.asList(typed)));
+            // Array abbastanza lungo: viene riusato e terminato con null
+            Integer[] longer = new Integer[42];
+            Arrays.fill(longer, -1);
+            assertSame(longer, table.toArray(longer));
+            assertNull(longer[40]);
+            assertEquals(-1, (int) longer[41]);
+            assertThrows(NullPointerException.class,
+                    () -> table.toArray((Integer[]) null));
+        }
+    }
+
+    @Test
+    void testIterator() {
+        for (PrimaryHashFunction phf : this.hashFunctions) {
+            Set<Integer> table = this.createSet(phf);
+            table.addAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11));
+            Set<Integer> iterated = new HashSet<Integer>();
+            for (Integer x : table)
+                assertTrue(iterated.add(x));
+            assertEquals(11, iterated.size());
+            assertTrue(table.containsAll(iterated));
+        }
+    }
+
+    @Test
+    void testAgainstHashSet() {
+        for (PrimaryHashFunction phf : this.hashFunctions) {
+            Random random = new Random(3);
+            Set<Integer> table = this.createSet(phf);
+            Set<Integer> expected = new HashSet<Integer>();
+            for (int k = 0; k < 20000; k++) {
+                Integer x = random.nextInt(3000) - 1000;
+                switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.add(x), table.add(x));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(x), table.remove(x));
+                    break;
+                default:
+                    assertEquals(expected.contains(x), table.contains(x));
+                }
+                assertEquals(expected.size(), table.size());
+            }
+            Set<Integer> iterated = new HashSet<Integer>();
+            for (Integer x : table)
+                assertTrue(iterated.add(x));
+            assertEquals(expected, iterated);
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+package it.unicam.cs.asdl2223.es10;
+
+/**
+ * Realizza un filtro di Bloom a blocchi su codici hash interi. Il filtro può
+ * rispondere che un codice non è mai stato aggiunto, e in questo caso la
+ * risposta è sicura, oppure che potrebbe esserlo stato: la probabilità che
+ * questa seconda risposta sia sbagliata (falso positivo) cresce con il numero
+ * di codici aggiunti rispetto a quello previsto alla creazione.
+ *
+ * I bit del filtro sono divisi in blocchi di 512 bit, la dimensione di una
+ * tipica linea di cache. Ogni codice seleziona un blocco e imposta o
+ * controlla BITS_PER_KEY bit al suo interno, per cui un'interrogazione legge
+ * una sola linea di cache invece di una per bit come in un filtro di Bloom
+ * classico. La selezione del blocco e dei bit parte dal codice mescolato con
+ * le funzioni di finalizzazione di MurmurHash3, perché i codici hash di molte
+ * classi, come Integer, non sono distribuiti in modo uniforme.
+ *
+ * Il filtro non permette di togliere un codice: chi lo usa deve ricostruirlo
+ * quando i codici non più presenti diventano troppi.
+ *
+ * @author collettiva
+ *
+ */
+public class BlockedBloomFilter {
+
+    /*
+     * Numero di bit del filtro per ogni codice previsto.
+     */
+    private static final int BITS_PER_ELEMENT = 10;
+
+    /*
+     * Numero di bit impostati per ogni codice all'interno del suo blocco.
+     */
+    private static final int BITS_PER_KEY = 7;
+
+    /*
+     * Numero di long in un blocco di 512 bit.
+     */
+    private static final int BLOCK_WORDS = 8;
+
+    /*
+     * I bit del filtro, un blocco ogni BLOCK_WORDS long.
+     */
+    private final long[] words;
+
+    /*
+     * Numero di blocchi.
+     */
+    private final int blocks;
+
+    /**
+     * Costruisce un filtro vuoto dimensionato per un numero dato di codici.
+     *
+     * @param expectedElements
+     *                             il numero previsto di codici da aggiungere
+     * @throws IllegalArgumentException
+     *                                      se il numero previsto di codici è
+     *                                      negativo
+     */
+    public BlockedBloomFilter(int expectedElements) {
+        if (expectedElements < 0)
+            throw new IllegalArgumentException(
+                    "Numero di elementi non valido: " + expectedElements);
+        long bits = (long) expectedElements * BITS_PER_ELEMENT;
+        this.blocks = (int) Math.max(1, (bits + 511) / 512);
+        this.words = new long[this.blocks * BLOCK_WORDS];
+    }
+
+    /**
+     * Aggiunge un codice al filtro.
+     *
+     * @param hash
+     *                 il codice da aggiungere
+     */
+    public void add(int hash) {
+        int base = this.block(hash);
+        long x = mix(hash);
+        // Ogni bit da impostare è individuato da nove bit di x
+        for (int i = 0; i < BITS_PER_KEY; i++) {
+            int bit = (int) (x >>> (9 * i)) & 511;
+            this.words[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Controlla se un codice potrebbe essere stato aggiunto al filtro.
+     *
+     * @param hash
+     *                 il codice da controllare
+     * @return false se il codice sicuramente non è stato aggiunto, true se
+     *         potrebbe esserlo stato
+     */
+    public boolean mightContain(int hash) {
+        int base = this.block(hash);
+        long x = mix(hash);
+        for (int i = 0; i < BITS_PER_KEY; i++) {
+            int bit = (int) (x >>> (9 * i)) & 511;
+            if ((this.words[base + (bit >>> 6)] & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Toglie tutti i codici dal filtro.
+     */
+    public void clear() {
+        for (int i = 0; i < this.words.length; i++)
+            this.words[i] = 0;
+    }
+
+    /**
+     * Restituisce il numero di bit del filtro.
+     *
+     * @return il numero di bit del filtro
+     */
+    public long getBits() {
+        return 64L * this.words.length;
+    }
+
+    /*
+     * Indice del primo long del blocco di un codice.
+     */
+    private int block(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return (int) (((h & 0xFFFFFFFFL) * this.blocks) >>> 32) * BLOCK_WORDS;
+    }
+
+    /*
+     * Funzione di finalizzazione a 64 bit di MurmurHash3.
+     */
+    private static long mix(int hash) {
+        long x = hash;
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CEB9FE1A85EC53L;
+        x ^= x >>> 33;
+        return x;
+    }
+
+}
@@ -0,0 +1,67 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe BlockedBloomFilter
+ * 
+ * @author collettiva
+ *
+ */
+class BlockedBloomFilterTest {
+
+    @Test
+    void testConstructor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlockedBloomFilter(-1));
+        assertEquals(512, new BlockedBloomFilter(0).getBits());
+        assertEquals(1024, new BlockedBloomFilter(100).getBits());
+        assertFalse(new BlockedBloomFilter(10).mightContain(42));
+    }
+
+    @Test
+    void testNoFalseNegatives() {
+        BlockedBloomFilter filter = new BlockedBloomFilter(10000);
+        Random random = new Random(1);
+        int[] keys = new int[10000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt();
+            filter.add(keys[i]);
+        }
+        for (int key : keys)
+            assertTrue(filter.mightContain(key));
+        // Anche chiavi consecutive
+        for (int i = 0; i < 1000; i++)
+            filter.add(i);
+        for (int i = 0; i < 1000; i++)
+            assertTrue(filter.mightContain(i));
+    }
+
+    @Test
+    void testFalsePositiveRate() {
+        // Con il numero previsto di chiavi i falsi positivi sono pochi
+        BlockedBloomFilter filter = new BlockedBloomFilter(10000);
+        for (int i = 0; i < 10000; i++)
+            filter.add(i);
+        int falsePositives = 0;
+        for (int i = 10000; i < 110000; i++)
+            if (filter.mightContain(i))
+                falsePositives++;
+        assertTrue(falsePositives < 3000);
+    }
+
+    @Test
+    void testClear() {
+        BlockedBloomFilter filter = new BlockedBloomFilter(100);
+        for (int i = 0; i < 100; i++)
+            filter.add(i);
+        filter.clear();
+        for (int i = 0; i < 100; i++)
+            assertFalse(filter.mightContain(i));
+    }
+
+}
@@ -17,9 +17,38 @@ import java.util.*;
  * opportunamente ridefinito nella classe E) e non accetta elementi null.
  *
  * La tabella ha una dimensione iniziale di default (16) e un fattore di
- * caricamento di defaut (0.75). Quando il fattore di bilanciamento effettivo
- * eccede quello di default la tabella viene raddoppiata e viene fatto un
- * riposizionamento di tutti gli elementi.
+ * caricamento di defaut (0.75), che può essere cambiato con un costruttore
+ * apposito. Quando il fattore di bilanciamento effettivo eccede quello
+ * stabilito la tabella viene raddoppiata e viene fatto un riposizionamento di
+ * tutti gli elementi.
+ *
+ * Con un costruttore apposito si può chiedere il resize incrementale: al
+ * raddoppio la vecchia tabella viene tenuta accanto alla nuova e a ogni
+ * chiamata di add, remove e contains vengono spostati al più
+ * MIGRATION_STEP bucket della vecchia tabella nella nuova. Finché lo
+ * spostamento non è concluso le ricerche consultano entrambe le tabelle e i
+ * nuovi elementi vanno nella nuova. In questo modo il costo del
+ * riposizionamento viene distribuito sulle operazioni successive invece di
+ * concentrarsi in una sola chiamata di add.
+ *
+ * Sempre con un costruttore apposito si può mettere davanti alla tabella un
+ * BlockedBloomFilter con i codici hash degli elementi, dimensionato in base
+ * alla capacità e al fattore di caricamento. Una ricerca di un elemento
+ * assente viene di solito risolta dal filtro senza scorrere nessuna lista di
+ * collisione. I codici degli elementi cancellati restano nel filtro e ne
+ * aumentano i falsi positivi, che vengono contati. Per questo il filtro viene
+ * rifatto a ogni resize e, quando le cancellazioni dall'ultima ricostruzione
+ * superano metà della soglia di resize, viene ricostruito un po' alla volta:
+ * come per il resize incrementale, ogni chiamata di add, remove e contains
+ * inserisce nel nuovo filtro gli elementi di al più MIGRATION_STEP bucket, e
+ * il nuovo filtro sostituisce il vecchio quando tutti i bucket sono stati
+ * visitati. Nessuna cancellazione scorre quindi l'intera tabella.
+ *
+ * La raccolta di statistiche sulle operazioni (elementi confrontati da
+ * contains e add, durata dei resize, fattore di bilanciamento nel tempo) si
+ * attiva con setStatsEnabled e si legge con getStats, anche tramite JMX con
+ * HashTableStatsMonitor. Quando è disattivata, come di default, le
+ * operazioni non registrano niente.
  *
  * @author Template: Luca Tesei, Implementazione: collettiva
  *
@@ -37,6 +66,14 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     private static final double LOAD_FACTOR = 0.75;
 
+    /*
+     * Numero massimo di bucket della vecchia tabella spostati da ogni
+     * operazione durante un resize incrementale. Con il fattore di
+     * caricamento di default lo spostamento finisce ben prima che la nuova
+     * tabella raggiunga la sua soglia.
+     */
+    private static final int MIGRATION_STEP = 4;
+
     /*
      * Numero di elementi effettivamente presenti nella hash table in questo
      * momento. ATTENZIONE: questo valore è diverso dalla capacity, che è la
@@ -80,6 +117,74 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     private final PrimaryHashFunction phf;
 
+    /*
+     * Fattore di caricamento oltre il quale la tabella viene raddoppiata.
+     */
+    private final double loadFactor;
+
+    /*
+     * Indica se il resize viene fatto in modo incrementale.
+     */
+    private final boolean incrementalResize;
+
+    /*
+     * Durante un resize incrementale è la tabella precedente, i cui bucket
+     * non ancora spostati sono quelli da migrationIndex in poi. Vale null
+     * quando non c'è un resize in corso.
+     */
+    private Object[] oldTable;
+
+    /*
+     * Primo bucket di oldTable non ancora spostato nella tabella corrente.
+     */
+    private int migrationIndex;
+
+    /*
+     * Filtro di Bloom con i codici hash degli elementi della tabella
+     * corrente, null se non è stato richiesto.
+     */
+    private BlockedBloomFilter filter;
+
+    /*
+     * Durante un resize incrementale con filtro di Bloom è il filtro degli
+     * elementi di oldTable, altrimenti null.
+     */
+    private BlockedBloomFilter oldFilter;
+
+    /*
+     * Numero di cancellazioni dall'ultima ricostruzione del filtro, cioè dei
+     * codici non più validi che il filtro può contenere.
+     */
+    private int removalsSinceRebuild;
+
+    /*
+     * Filtro in ricostruzione, null se non c'è una ricostruzione in corso.
+     * Riceve i codici dei bucket della tabella corrente prima di rebuildIndex
+     * e i codici degli elementi aggiunti nel frattempo.
+     */
+    private BlockedBloomFilter pendingFilter;
+
+    /*
+     * Primo bucket della tabella corrente non ancora inserito in
+     * pendingFilter.
+     */
+    private int rebuildIndex;
+
+    /*
+     * Ricerche di elementi assenti scartate dal filtro e ricerche di elementi
+     * assenti che il filtro non ha scartato.
+     */
+    private long filterNegatives;
+
+    private long filterFalsePositives;
+
+    /*
+     * Statistiche delle operazioni, null se la raccolta non è attiva. Può
+     * essere cambiato da un altro thread tramite JMX: ogni operazione lo
+     * legge una sola volta.
+     */
+    private volatile StatsRecorder stats;
+
     /*
      * Contatore del numero di modifiche. Serve per rendere l'iterator
      * fail-fast.
@@ -99,7 +204,7 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      * getCurrentCapacity * LOAD_FACTOR
      */
     private int getCurrentThreshold() {
-        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+        return (int) (getCurrentCapacity() * this.loadFactor);
     }
 
     /**
@@ -107,8 +212,83 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      * caricamento di default.
      */
     public CollisionListResizableHashTable(PrimaryHashFunction phf) {
+        this(phf, LOAD_FACTOR);
+    }
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default e fattore di
+     * caricamento dato.
+     *
+     * @param phf
+     *                       la funzione di hash primaria
+     * @param loadFactor
+     *                       il fattore di caricamento oltre il quale la
+     *                       tabella viene raddoppiata
+     * @throws IllegalArgumentException
+     *                                      se il fattore di caricamento non è
+     *                                      un numero positivo
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf,
+            double loadFactor) {
+        this(phf, loadFactor, false);
+    }
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default, fattore di
+     * caricamento dato e, se richiesto, resize incrementale.
+     *
+     * @param phf
+     *                              la funzione di hash primaria
+     * @param loadFactor
+     *                              il fattore di caricamento oltre il quale
+     *                              la tabella viene raddoppiata
+     * @param incrementalResize
+     *                              true se gli elementi devono essere
+     *                              spostati nella tabella raddoppiata un po'
+     *                              alla volta dalle operazioni successive
+     * @throws IllegalArgumentException
+     *                                      se il fattore di caricamento non è
+     *                                      un numero positivo
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf,
+            double loadFactor, boolean incrementalResize) {
+        this(phf, loadFactor, incrementalResize, false);
+    }
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default, fattore di
+     * caricamento dato e, se richiesti, resize incrementale e filtro di Bloom
+     * per le ricerche.
+     *
+     * @param phf
+     *                              la funzione di hash primaria
+     * @param loadFactor
+     *                              il fattore di caricamento oltre il quale
+     *                              la tabella viene raddoppiata
+     * @param incrementalResize
+     *                              true se gli elementi devono essere
+     *                              spostati nella tabella raddoppiata un po'
+     *                              alla volta dalle operazioni successive
+     * @param bloomFilter
+     *                              true se le ricerche devono passare prima
+     *                              da un filtro di Bloom
+     * @throws IllegalArgumentException
+     *                                      se il fattore di caricamento non è
+     *                                      un numero positivo
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf,
+            double loadFactor, boolean incrementalResize,
+            boolean bloomFilter) {
+        if (!(loadFactor > 0) || Double.isInfinite(loadFactor))
+            throw new IllegalArgumentException(
+                    "Fattore di caricamento non valido: " + loadFactor);
         this.phf = phf;
+        this.loadFactor = loadFactor;
+        this.incrementalResize = incrementalResize;
         this.table = new Object[INITIAL_CAPACITY];
+        this.oldTable = null;
+        this.filter = bloomFilter ? this.newFilter() : null;
+        this.oldFilter = null;
         this.size = 0;
         this.modCount = 0;
     }
@@ -138,21 +318,75 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
          */
         // Controlla se l'oggetto dato è null
         if(o == null) throw new NullPointerException("L'elemento dato è nullo");
+        StatsRecorder stats = this.stats;
+        boolean found = this.lookup(o, stats);
+        if (stats != null)
+            stats.recordContains();
+        return found;
+    }
+
+    /*
+     * Cerca un elemento non nullo nella tabella, passando dal filtro di Bloom
+     * se c'è, e conta gli elementi confrontati in stats se non è null.
+     */
+    private boolean lookup(Object o, StatsRecorder stats) {
+        if (stats != null)
+            stats.pendingProbes = 0;
+        // Durante un resize incrementale sposta qualche bucket e cerca anche
+        // nella vecchia tabella
+        this.migrateStep();
+        this.rebuildFilterStep();
+        if (this.filter == null)
+            return this.containsInTable(this.table, o, stats)
+                    || (this.oldTable != null
+                            && this.containsInTable(this.oldTable, o, stats));
+        // Il filtro scarta la maggior parte degli elementi assenti senza
+        // scorrere le liste di collisione
+        int hash = o.hashCode();
+        if (!this.filter.mightContain(hash) && (this.oldFilter == null
+                || !this.oldFilter.mightContain(hash))) {
+            this.filterNegatives++;
+            return false;
+        }
+        if (this.containsInTable(this.table, o, stats)
+                || (this.oldTable != null
+                        && this.containsInTable(this.oldTable, o, stats)))
+            return true;
+        this.filterFalsePositives++;
+        return false;
+    }
+
+    /*
+     * Cerca un elemento nella lista di collisioni del suo bucket in una
+     * tabella data, contando gli elementi confrontati in stats se non è null.
+     */
+    private boolean containsInTable(Object[] table, Object o,
+            StatsRecorder stats) {
         // Calcola il bucket in cui cercare l'oggetto dato
-        int bucket = this.phf.hash(o.hashCode(), this.getCurrentCapacity());
+        int bucket = this.phf.hash(o.hashCode(), table.length);
         // Controlla se c'è una lista di collisioni
         if(table[bucket] == null) return false;
         // Ottiene il nodo del bucket ottenuto
-        Node<E> list = (Node<E>) this.table[bucket];
-        // Se il nodo contiene null, ritorna false
+        Node<E> list = (Node<E>) table[bucket];
+        if (stats == null) {
+            // Statistiche disattivate: nessun conteggio
+            do {
+                // Controlla l'elemento corrente
+                if (o.equals(list.item)) return true;
+                // altrimenti vado avanti nella lista di collisioni
+                list = list.next;
+            } while (list != null);
+            return false;
+        }
+        int probes = 0;
         do {
-            // Controlla l'elemento corrente
-            if (o.equals(list.item)) return true;
-            // altrimenti vado avanti nella lista di collisioni
+            probes++;
+            if (o.equals(list.item)) break;
             list = list.next;
         } while (list != null);
-        // Non ha trovato l'elemento, ritorna false
-        return false;
+        stats.pendingProbes += probes;
+        // Se la lista è finita non ha trovato l'elemento
+        return list != null;
     }
 
     @Override
@@ -189,7 +423,11 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         // Controlla se l'elemento dato è null
         if(e == null) throw new NullPointerException();
         // Controlla se la tabella contiene già l'elemento
-        if(this.contains(e)) return false;
+        StatsRecorder stats = this.stats;
+        boolean found = this.lookup(e, stats);
+        if (stats != null)
+            stats.recordAdd();
+        if(found) return false;
         // Ottiene il bucket dell'elemento dato
         int bucket = this.phf.hash(e.hashCode(), this.getCurrentCapacity());
         // Crea nuovo nodo con l'elemento dato
@@ -201,28 +439,70 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
             this.table[bucket] = newNode;
         } else {
             // Altrimenti scorre la lista a cui punta il bucket
-            while(n != null) {
+            while(n.next != null) {
                 n = n.next;
             }
-            // Imposta ultimo nodo al nuovo nodo
-            n = newNode;
+            // Collega il nuovo nodo in fondo alla lista
+            n.next = newNode;
+        }
+        if (this.filter != null) {
+            this.filter.add(e.hashCode());
+            if (this.pendingFilter != null)
+                this.pendingFilter.add(e.hashCode());
         }
         // Incrementa dimensione tabella e Contatore modifiche
         this.size++;
         this.modCount++;
+        if (stats != null)
+            stats.recordModification(this.size, this.getCurrentCapacity());
         // Se ha superato la capacità della tabella, effettua il resize
         if(this.size > this.getCurrentThreshold()) {
-            this.resize();
+            this.resize(stats);
         }
         return true;
     }
 
 
     /*
-     * Raddoppia la tabella corrente e riposiziona tutti gli elementi. Da
-     * chiamare quando this.size diventa maggiore di getCurrentThreshold()
+     * Raddoppia la tabella corrente misurando il tempo impiegato se stats non
+     * è null. Da chiamare quando this.size diventa maggiore di
+     * getCurrentThreshold()
+     */
+    private void resize(StatsRecorder stats) {
+        if (stats == null) {
+            this.grow();
+            return;
+        }
+        long startTimeNano = System.nanoTime();
+        this.grow();
+        stats.recordResize(System.nanoTime() - startTimeNano);
+    }
+
+    /*
+     * Raddoppia la tabella corrente e riposiziona tutti gli elementi.
      */
-    private void resize() {
+    private void grow() {
+        if (this.incrementalResize) {
+            // Un resize precedente ancora in corso viene prima concluso
+            while (this.oldTable != null)
+                this.migrateStep();
+            // La tabella corrente diventa la vecchia tabella, da cui gli
+            // elementi verranno spostati un po' alla volta
+            this.oldTable = this.table;
+            this.migrationIndex = 0;
+            this.table = new Object[this.oldTable.length * 2];
+            // Il filtro corrente resta per gli elementi della vecchia tabella
+            // e quello nuovo riceve gli elementi spostati: non contiene
+            // codici di elementi cancellati e un'eventuale ricostruzione in
+            // corso non serve più
+            if (this.filter != null) {
+                this.oldFilter = this.filter;
+                this.filter = this.newFilter();
+                this.pendingFilter = null;
+                this.removalsSinceRebuild = 0;
+            }
+            return;
+        }
         // Calcola la capacità per la nuova tabella
         int newCapacity = this.getCurrentCapacity() * 2;
         // Crea la nuova tabella
@@ -238,6 +518,85 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         }
         // Sostituisce la tabella attuale con la nuova tabella
         this.table = newTable;
+        if (this.filter != null)
+            this.rebuildFilter();
+    }
+
+    /*
+     * Crea un filtro vuoto dimensionato per la soglia di resize della tabella
+     * corrente.
+     */
+    private BlockedBloomFilter newFilter() {
+        return new BlockedBloomFilter(this.getCurrentThreshold() + 1);
+    }
+
+    /*
+     * Ricostruisce il filtro con i codici degli elementi presenti, togliendo
+     * quelli degli elementi cancellati.
+     */
+    private void rebuildFilter() {
+        this.filter = this.newFilter();
+        this.oldFilter = null;
+        this.pendingFilter = null;
+        this.removalsSinceRebuild = 0;
+        Itr it = (CollisionListResizableHashTable<E>.Itr) this.iterator();
+        while (it.hasNext())
+            this.filter.add(it.next().hashCode());
+    }
+
+    /*
+     * Se è in corso una ricostruzione del filtro inserisce nel nuovo filtro i
+     * codici degli elementi di al più MIGRATION_STEP bucket della tabella
+     * corrente. Quando tutti i bucket sono stati visitati il nuovo filtro
+     * sostituisce quello corrente.
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuildFilterStep() {
+        if (this.pendingFilter == null)
+            return;
+        int end = Math.min(this.rebuildIndex + MIGRATION_STEP,
+                this.table.length);
+        for (; this.rebuildIndex < end; this.rebuildIndex++)
+            for (Node<E> n = (Node<E>) this.table[this.rebuildIndex];
+                    n != null; n = n.next)
+                this.pendingFilter.add(n.item.hashCode());
+        if (this.rebuildIndex == this.table.length) {
+            this.filter = this.pendingFilter;
+            this.pendingFilter = null;
+        }
+    }
+
+    /*
+     * Se è in corso un resize incrementale sposta nella tabella corrente al
+     * più MIGRATION_STEP bucket della vecchia tabella. I nodi vengono
+     * ricollegati in testa alle liste della tabella corrente senza crearne di
+     * nuovi.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrateStep() {
+        if (this.oldTable == null)
+            return;
+        int end = Math.min(this.migrationIndex + MIGRATION_STEP,
+                this.oldTable.length);
+        for (; this.migrationIndex < end; this.migrationIndex++) {
+            Node<E> n = (Node<E>) this.oldTable[this.migrationIndex];
+            this.oldTable[this.migrationIndex] = null;
+            while (n != null) {
+                Node<E> next = n.next;
+                int bucket = this.phf.hash(n.item.hashCode(),
+                        this.getCurrentCapacity());
+                if (this.filter != null)
+                    this.filter.add(n.item.hashCode());
+                n.next = (Node<E>) this.table[bucket];
+                this.table[bucket] = n;
+                n = next;
+            }
+        }
+        // Spostamento concluso
+        if (this.migrationIndex == this.oldTable.length) {
+            this.oldTable = null;
+            this.oldFilter = null;
+        }
     }
 
     /**
@@ -270,18 +629,26 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         // Controlla se l'elemento dato è nullo
         if(o == null) throw new NullPointerException();
         // Controlla se la tabella non contiene l'elemento
-        if(!this.contains(o)) return false;
+        if(!this.lookup(o, null)) return false;
+        // Durante un resize incrementale l'elemento può essere ancora nella
+        // vecchia tabella
+        Object[] table = this.table;
+        if (this.oldTable != null && !this.containsInTable(table, o, null))
+            table = this.oldTable;
         // Ottiene il bucket dell'elemento dato
-        int bucket = this.phf.hash(o.hashCode(), this.getCurrentCapacity());
+        int bucket = this.phf.hash(o.hashCode(), table.length);
         // Ottiene il nodo dalla posizione della tabella
-        Node<E> n = (Node<E>) this.table[bucket];
-        // Se il nodo è diverso da null, allora punta a una lista
-        if(n != null) {
+        Node<E> n = (Node<E>) table[bucket];
+        // Se l'elemento è il primo della lista, il bucket punta al secondo
+        if(n.item.equals(o)) {
+            table[bucket] = n.next;
+        } else {
             // Scorre la lista cercando l'elemento dato
             while(n.next != null) {
                 // Se l'elemento successivo è quello dato, lo elimina
                 if(n.next.item.equals(o)) {
                     n.next = n.next.next;
+                    break;
                 } else {
                     // Altrimenti, passa all'elemento successivo della lista
                     n = n.next;
@@ -291,6 +658,23 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         // Decrementa dimensione tabella e Incrementa numero modifiche
         this.size--;
         this.modCount++;
+        StatsRecorder stats = this.stats;
+        if (stats != null)
+            stats.recordModification(this.size, this.getCurrentCapacity());
+        // Il codice dell'elemento resta nel filtro: troppi codici di
+        // elementi cancellati fanno crescere i falsi positivi, per cui si
+        // avvia una ricostruzione, portata avanti dalle operazioni
+        // successive. Durante un resize incrementale non serve, perché il
+        // nuovo filtro riceve solo gli elementi spostati
+        if (this.filter != null && ++this.removalsSinceRebuild > Math
+                .max(1, this.getCurrentThreshold() / 2)
+                && this.pendingFilter == null && this.oldTable == null) {
+            this.pendingFilter = this.newFilter();
+            this.rebuildIndex = 0;
+            // Le cancellazioni da qui in poi possono lasciare codici anche
+            // nel nuovo filtro
+            this.removalsSinceRebuild = 0;
+        }
         return true;
     }
 
@@ -331,10 +715,200 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
     @Override
     public void clear() {
         this.table = new Object[INITIAL_CAPACITY];
+        this.oldTable = null;
+        if (this.filter != null) {
+            this.filter = this.newFilter();
+            this.oldFilter = null;
+            this.pendingFilter = null;
+            this.removalsSinceRebuild = 0;
+        }
         this.size = 0;
         this.modCount = 0;
     }
 
+    /**
+     * Restituisce il numero di ricerche di elementi assenti risolte dal
+     * filtro di Bloom senza consultare la tabella.
+     *
+     * @return il numero di ricerche scartate dal filtro, 0 se la tabella non
+     *         ha un filtro
+     */
+    public long getBloomFilterNegatives() {
+        return this.filterNegatives;
+    }
+
+    /**
+     * Restituisce il numero di ricerche di elementi assenti che il filtro di
+     * Bloom non ha scartato (falsi positivi).
+     *
+     * @return il numero di falsi positivi del filtro, 0 se la tabella non ha
+     *         un filtro
+     */
+    public long getBloomFilterFalsePositives() {
+        return this.filterFalsePositives;
+    }
+
+    /**
+     * Restituisce la frazione delle ricerche di elementi assenti che il
+     * filtro di Bloom non ha scartato.
+     *
+     * @return il tasso di falsi positivi del filtro, 0 se non ci sono state
+     *         ricerche di elementi assenti o la tabella non ha un filtro
+     */
+    public double getBloomFilterFalsePositiveRate() {
+        long misses = this.filterNegatives + this.filterFalsePositives;
+        return misses == 0 ? 0 : (double) this.filterFalsePositives / misses;
+    }
+
+    /**
+     * Attiva o disattiva la raccolta delle statistiche sulle operazioni.
+     * Attivarla azzera le statistiche raccolte in precedenza.
+     *
+     * @param enabled
+     *                    true per attivare la raccolta, false per
+     *                    disattivarla
+     */
+    public void setStatsEnabled(boolean enabled) {
+        this.stats = enabled ? new StatsRecorder() : null;
+    }
+
+    /**
+     * Indica se la raccolta delle statistiche sulle operazioni è attiva.
+     *
+     * @return true se la raccolta delle statistiche è attiva
+     */
+    public boolean isStatsEnabled() {
+        return this.stats != null;
+    }
+
+    /**
+     * Restituisce una fotografia delle statistiche della tabella. I valori
+     * strutturali sono sempre disponibili, i contatori delle operazioni solo
+     * se la raccolta è attiva.
+     *
+     * @return le statistiche della tabella in questo momento
+     */
+    public HashTableStats getStats() {
+        return this.getStats(true);
+    }
+
+    /*
+     * Fotografia delle statistiche; l'istogramma delle lunghezze delle liste
+     * richiede di scorrere tutta la tabella e viene calcolato solo se
+     * histogram è true, altrimenti è vuoto.
+     */
+    HashTableStats getStats(boolean histogram) {
+        int[] lengths = histogram ? this.chainLengthHistogram() : new int[0];
+        StatsRecorder stats = this.stats;
+        StatsRecorder r = stats != null ? stats : new StatsRecorder();
+        return new HashTableStats(this.getCurrentCapacity(), this.size,
+                lengths, r.containsCount, r.containsProbes,
+                r.maxContainsProbes, r.addCount, r.addProbes, r.maxAddProbes,
+                r.resizeCount, r.totalResizeNanos, r.maxResizeNanos,
+                r.loadFactorHistory());
+    }
+
+    /*
+     * Istogramma delle lunghezze delle liste, di entrambe le tabelle durante
+     * un resize incrementale.
+     */
+    @SuppressWarnings("unchecked")
+    private int[] chainLengthHistogram() {
+        int[] histogram = new int[1];
+        for (int t = 0; t < 2; t++) {
+            Object[] buckets = t == 0 ? this.table : this.oldTable;
+            if (buckets == null)
+                continue;
+            for (Object cell : buckets) {
+                int length = 0;
+                for (Node<E> n = (Node<E>) cell; n != null; n = n.next)
+                    length++;
+                if (length >= histogram.length)
+                    histogram = Arrays.copyOf(histogram, length + 1);
+                histogram[length]++;
+            }
+        }
+        return histogram;
+    }
+
+    /*
+     * Contatori delle statistiche sulle operazioni.
+     */
+    private static class StatsRecorder {
+
+        // Numero di modifiche tra due campioni del fattore di bilanciamento
+        private static final int SAMPLE_INTERVAL = 1024;
+
+        // Numero di campioni conservati
+        private static final int HISTORY_LENGTH = 128;
+
+        // Elementi confrontati dalla ricerca in corso
+        private int pendingProbes;
+
+        private long containsCount;
+
+        private long containsProbes;
+
+        private int maxContainsProbes;
+
+        private long addCount;
+
+        private long addProbes;
+
+        private int maxAddProbes;
+
+        private int resizeCount;
+
+        private long totalResizeNanos;
+
+        private long maxResizeNanos;
+
+        private long modifications;
+
+        // Campioni del fattore di bilanciamento, usato come buffer circolare
+        private final double[] history = new double[HISTORY_LENGTH];
+
+        private long samples;
+
+        private void recordContains() {
+            this.containsCount++;
+            this.containsProbes += this.pendingProbes;
+            this.maxContainsProbes = Math.max(this.maxContainsProbes,
+                    this.pendingProbes);
+        }
+
+        private void recordAdd() {
+            this.addCount++;
+            this.addProbes += this.pendingProbes;
+            this.maxAddProbes = Math.max(this.maxAddProbes,
+                    this.pendingProbes);
+        }
+
+        private void recordResize(long nanos) {
+            this.resizeCount++;
+            this.totalResizeNanos += nanos;
+            this.maxResizeNanos = Math.max(this.maxResizeNanos, nanos);
+        }
+
+        private void recordModification(int size, int capacity) {
+            if (++this.modifications % SAMPLE_INTERVAL == 0)
+                this.history[(int) (this.samples++ % HISTORY_LENGTH)] = (double) size
+                        / capacity;
+        }
+
+        /*
+         * Campioni conservati dal più vecchio al più recente.
+         */
+        private double[] loadFactorHistory() {
+            int n = (int) Math.min(this.samples, HISTORY_LENGTH);
+            double[] result = new double[n];
+            for (int i = 0; i < n; i++)
+                result[i] = this.history[(int) ((this.samples - n + i)
+                        % HISTORY_LENGTH)];
+            return result;
+        }
+    }
+
     /*
      * Classe per i nodi della lista concatenata. Lo specificatore è protected
      * solo per permettere i test JUnit.
@@ -371,6 +945,15 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
             this.numeroModificheAtteso = modCount;
             ArrayList<E> flatten = new ArrayList<>();
 
+            this.flatten(table, flatten);
+            // Durante un resize incrementale scorre anche la vecchia tabella
+            if (oldTable != null)
+                this.flatten(oldTable, flatten);
+
+            this.flattenIterator = flatten.iterator();
+        }
+
+        private void flatten(Object[] table, ArrayList<E> flatten) {
             for(Object cell: table) {
                 if(cell != null) {
                     Node<E> node = (Node<E>) cell;
@@ -380,8 +963,6 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
                     } while(node != null);
                 }
             }
-
-            this.flattenIterator = flatten.iterator();
         }
 
         @Override
@@ -414,4 +995,18 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         return this.phf;
     }
 
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected Object[] getOldTable() {
+        return this.oldTable;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected boolean isFilterRebuildInProgress() {
+        return this.pendingFilter != null;
+    }
+
 }
\ No newline at end of file
@@ -4,8 +4,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Arrays;
 import java.util.ConcurrentModificationException;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
@@ -505,4 +508,207 @@ class CollisionListResizableHashTableTest {
         assertFalse(hasThrown);
     }
 
+
+    @Test
+    void divisionHash_testIncrementalResize() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, 0.75, true);
+        for (int i = 0; i < 12; i++)
+            table.add(i);
+        assertNull(table.getOldTable());
+        // Il tredicesimo elemento fa raddoppiare la tabella, ma gli elementi
+        // restano nella vecchia
+        table.add(12);
+        assertEquals(32, table.getTable().length);
+        assertEquals(16, table.getOldTable().length);
+        assertEquals(13, table.size());
+        // Le ricerche trovano gli elementi in entrambe le tabelle
+        for (int i = 0; i < 13; i++)
+            assertTrue(table.contains(i));
+        assertFalse(table.contains(13));
+        // Ogni operazione sposta al più quattro bucket: dopo le ricerche
+        // precedenti lo spostamento è concluso
+        assertNull(table.getOldTable());
+        for (int i = 0; i < 13; i++)
+            assertTrue(table.contains(i));
+    }
+
+    @Test
+    void multiplicationHash_testIncrementalResizeRemoveAndIterate() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash, 0.75, true);
+        for (int i = 0; i < 13; i++)
+            table.add(i);
+        assertFalse(table.getOldTable() == null);
+        // Gli elementi dei bucket non ancora spostati vengono rimossi dalla
+        // vecchia tabella
+        assertTrue(table.remove(12));
+        assertFalse(table.remove(12));
+        assertTrue(table.remove(0));
+        assertEquals(11, table.size());
+        // L'iteratore restituisce una sola volta gli elementi di entrambe le
+        // tabelle
+        assertFalse(table.getOldTable() == null);
+        Set<Integer> seen = new HashSet<Integer>();
+        for (Integer i : table)
+            assertTrue(seen.add(i));
+        assertEquals(11, seen.size());
+        for (int i = 1; i < 12; i++)
+            assertTrue(seen.contains(i));
+    }
+
+    @Test
+    void multiplicationHash_testIncrementalResizeAgainstHashSet() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash, 0.75, true);
+        Set<Integer> expected = new HashSet<Integer>();
+        Random random = new Random(42);
+        for (int k = 0; k < 20000; k++) {
+            Integer x = random.nextInt(5000);
+            switch (random.nextInt(3)) {
+            case 0:
+                assertEquals(expected.add(x), table.add(x));
+                break;
+            case 1:
+                assertEquals(expected.remove(x), table.remove(x));
+                break;
+            default:
+                assertEquals(expected.contains(x), table.contains(x));
+            }
+            assertEquals(expected.size(), table.size());
+        }
+        Set<Integer> seen = new HashSet<Integer>();
+        for (Integer i : table)
+            assertTrue(seen.add(i));
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void divisionHash_testIncrementalResizeSmallLoadFactor() {
+        // Con un fattore di caricamento basso il resize successivo arriva
+        // prima che lo spostamento sia concluso: viene prima concluso
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, 0.1, true);
+        for (int i = 0; i < 1000; i++)
+            table.add(i);
+        assertEquals(1000, table.size());
+        for (int i = 0; i < 1000; i++)
+            assertTrue(table.contains(i));
+        int count = 0;
+        for (Iterator<Integer> it = table.iterator(); it.hasNext(); it.next())
+            count++;
+        assertEquals(1000, count);
+        table.clear();
+        assertNull(table.getOldTable());
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    void multiplicationHash_testBloomFilterAgainstHashSet() {
+        for (boolean incremental : new boolean[] { false, true }) {
+            CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                    multiplicationHash, 0.75, incremental, true);
+            Set<Integer> expected = new HashSet<Integer>();
+            Random random = new Random(7);
+            for (int k = 0; k < 20000; k++) {
+                Integer x = random.nextInt(5000);
+                switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.add(x), table.add(x));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(x), table.remove(x));
+                    break;
+                default:
+                    assertEquals(expected.contains(x), table.contains(x));
+                }
+                assertEquals(expected.size(), table.size());
+            }
+            for (int x = 0; x < 5000; x++)
+                assertEquals(expected.contains(x), table.contains(x));
+            table.clear();
+            assertFalse(table.contains(0));
+        }
+    }
+
+    @Test
+    void divisionHash_testBloomFilterMetrics() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, 0.75, false, true);
+        for (int i = 0; i < 1000; i++)
+            table.add(i);
+        for (int i = 0; i < 1000; i++)
+            assertTrue(table.contains(i));
+        // Ogni add ha cercato un elemento assente, mentre le ricerche con
+        // successo non vengono contate
+        assertEquals(1000, table.getBloomFilterNegatives()
+                + table.getBloomFilterFalsePositives());
+        for (int i = 1000; i < 11000; i++)
+            assertFalse(table.contains(i));
+        assertEquals(11000, table.getBloomFilterNegatives()
+                + table.getBloomFilterFalsePositives());
+        assertTrue(table.getBloomFilterFalsePositiveRate() < 0.1);
+        // Dopo molte cancellazioni il filtro viene ricostruito dalle
+        // operazioni successive e i codici degli elementi cancellati non
+        // producono falsi positivi
+        for (int i = 0; i < 900; i++)
+            table.remove(i);
+        while (table.isFilterRebuildInProgress())
+            assertTrue(table.contains(950));
+        long falsePositives = table.getBloomFilterFalsePositives();
+        int found = 0;
+        for (int i = 0; i < 900; i++)
+            if (table.contains(i))
+                found++;
+        assertEquals(0, found);
+        assertTrue(table.getBloomFilterFalsePositives() - falsePositives < 300);
+    }
+
+    @Test
+    void divisionHash_testBloomFilterRebuiltIncrementally() {
+        for (boolean incremental : new boolean[] { false, true }) {
+            CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                    divisionHash, 0.75, incremental, true);
+            for (int i = 0; i < 1000; i++)
+                table.add(i);
+            // Completa un eventuale resize incrementale
+            for (int i = 0; i < 1000; i++)
+                table.contains(i);
+            // 2048 bucket e soglia 1536: la ricostruzione parte alla
+            // cancellazione numero 769, che non visita la tabella
+            for (int i = 0; i < 768; i++)
+                table.remove(i);
+            assertFalse(table.isFilterRebuildInProgress());
+            table.remove(768);
+            assertTrue(table.isFilterRebuildInProgress());
+            // Ogni operazione visita al più 4 bucket: ne servono 512
+            table.add(5000);
+            for (int i = 0; i < 510; i++)
+                table.contains(1);
+            assertTrue(table.isFilterRebuildInProgress());
+            table.contains(1);
+            assertFalse(table.isFilterRebuildInProgress());
+            // Gli elementi presenti, compreso quello aggiunto durante la
+            // ricostruzione, sono nel nuovo filtro
+            for (int i = 769; i < 1000; i++)
+                assertTrue(table.contains(i));
+            assertTrue(table.contains(5000));
+            long falsePositives = table.getBloomFilterFalsePositives();
+            for (int i = 0; i < 769; i++)
+                assertFalse(table.contains(i));
+            assertTrue(table.getBloomFilterFalsePositives() - falsePositives < 100);
+        }
+    }
+
+    @Test
+    void divisionHash_testWithoutBloomFilterMetrics() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.add(1);
+        assertFalse(table.contains(2));
+        assertEquals(0, table.getBloomFilterNegatives());
+        assertEquals(0, table.getBloomFilterFalsePositives());
+        assertEquals(0.0, table.getBloomFilterFalsePositiveRate());
+    }
+
 }
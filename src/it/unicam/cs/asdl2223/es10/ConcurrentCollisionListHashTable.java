@@ -0,0 +1,515 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Realizza un insieme condivisibile tra più thread tramite una tabella hash
+ * con indirizzamento primario (la funzione di hash primaria deve essere
+ * passata come parametro nel costruttore e deve implementare l'interface
+ * PrimaryHashFunction) e liste di collisione, come
+ * CollisionListResizableHashTable.
+ *
+ * Le scritture sono protette da un numero fisso di lock, ognuno dei quali
+ * custodisce un intervallo contiguo di bucket della tabella corrente: thread
+ * che modificano bucket di intervalli diversi non si ostacolano. Le letture
+ * non usano lock: i nodi delle liste di collisione sono immutabili, un
+ * inserimento aggiunge un nodo in testa alla lista e una cancellazione ricopia
+ * la parte di lista che precede il nodo cancellato, per cui chi legge vede
+ * sempre una lista coerente. Il numero di elementi è mantenuto in un
+ * {@code LongAdder}, che non diventa un punto di contesa tra i thread.
+ *
+ * Quando il fattore di bilanciamento effettivo eccede quello di default
+ * (0.75) viene creata una tabella di capacità doppia e gli elementi vengono
+ * spostati un bucket alla volta. Lo spostamento è cooperativo: ogni thread che
+ * vuole modificare la tabella durante il resize prenota gruppi di bucket
+ * ancora da spostare e li sposta, per cui il lavoro viene diviso tra tutti i
+ * thread attivi. Un bucket già spostato viene marcato nella vecchia tabella,
+ * così le letture concorrenti proseguono nella nuova.
+ *
+ * La tabella non accetta elementi duplicati (individuati tramite il metodo
+ * equals() che si assume sia opportunamente ridefinito nella classe E) e non
+ * accetta elementi null. L'iteratore lavora su una copia degli elementi
+ * presenti al momento della sua creazione e non lancia mai
+ * ConcurrentModificationException; il suo metodo remove() cancella dalla
+ * tabella l'ultimo elemento restituito.
+ *
+ * @author collettiva
+ *
+ * @param <E>
+ *                il tipo degli elementi dell'insieme
+ */
+public class ConcurrentCollisionListHashTable<E> implements Set<E> {
+
+    /*
+     * La capacità iniziale. E' una potenza di due e quindi la capacità sarà
+     * sempre una potenza di due, in quanto ogni resize raddoppia la tabella.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Fattore di bilanciamento di default. Tipico valore.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*
+     * Numero di lock di default.
+     */
+    private static final int DEFAULT_STRIPES = 64;
+
+    /*
+     * Numero di bucket che un thread prenota alla volta durante il resize.
+     */
+    private static final int TRANSFER_CHUNK = 16;
+
+    /*
+     * Nodo che marca nella vecchia tabella un bucket già spostato.
+     */
+    private static final Node<Object> FORWARD = new Node<Object>(null, null);
+
+    /*
+     * Tabella corrente. Viene sostituita con compare-and-set, in modo che la
+     * fine di un resize non annulli una clear() concorrente.
+     */
+    private final AtomicReference<Table<E>> table;
+
+    /*
+     * Lock che proteggono le scritture. Il lock k protegge il k-esimo
+     * intervallo di bucket della tabella su cui si sta scrivendo.
+     */
+    private final ReentrantLock[] locks;
+
+    /*
+     * Numero di elementi presenti nella tabella.
+     */
+    private final LongAdder size;
+
+    /*
+     * Funzione di hash primaria usata da questa hash table.
+     */
+    private final PrimaryHashFunction phf;
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default, fattore di
+     * caricamento di default e numero di lock di default.
+     *
+     * @param phf
+     *                la funzione di hash primaria
+     * @throws NullPointerException
+     *                                  se la funzione di hash è nulla
+     */
+    public ConcurrentCollisionListHashTable(PrimaryHashFunction phf) {
+        this(phf, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default, fattore di
+     * caricamento di default e un numero dato di lock.
+     *
+     * @param phf
+     *                    la funzione di hash primaria
+     * @param stripes
+     *                    il numero di lock tra cui dividere i bucket
+     * @throws NullPointerException
+     *                                      se la funzione di hash è nulla
+     * @throws IllegalArgumentException
+     *                                      se il numero di lock non è
+     *                                      positivo
+     */
+    public ConcurrentCollisionListHashTable(PrimaryHashFunction phf,
+            int stripes) {
+        if (phf == null)
+            throw new NullPointerException("Funzione di hash nulla");
+        if (stripes < 1)
+            throw new IllegalArgumentException(
+                    "Numero di lock non valido: " + stripes);
+        this.phf = phf;
+        this.locks = new ReentrantLock[stripes];
+        for (int k = 0; k < stripes; k++)
+            this.locks[k] = new ReentrantLock();
+        this.size = new LongAdder();
+        this.table = new AtomicReference<Table<E>>(
+                new Table<E>(INITIAL_CAPACITY));
+    }
+
+    @Override
+    public int size() {
+        long n = this.size.sum();
+        return n > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size.sum() == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null)
+            throw new NullPointerException("L'elemento dato è nullo");
+        int hash = o.hashCode();
+        Table<E> t = this.table.get();
+        while (true) {
+            Node<E> node = t.buckets.get(this.phf.hash(hash, t.length()));
+            if (node == FORWARD) {
+                // Il bucket è già stato spostato: si cerca nella nuova tabella
+                t = t.next.get();
+                continue;
+            }
+            for (; node != null; node = node.next)
+                if (o.equals(node.item))
+                    return true;
+            return false;
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(this.snapshot());
+    }
+
+    /*
+     * Come l'iteratore, restituisce gli elementi di una copia della tabella:
+     * gli inserimenti e le cancellazioni concorrenti possono esserci o no.
+     */
+    @Override
+    public Object[] toArray() {
+        return this.snapshot().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        if (a == null)
+            throw new NullPointerException("Array nullo");
+        return this.snapshot().toArray(a);
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null)
+            throw new NullPointerException("L'elemento dato è nullo");
+        int hash = e.hashCode();
+        while (true) {
+            Table<E> t = this.table.get();
+            int bucket = this.phf.hash(hash, t.length());
+            ReentrantLock lock = this.lockFor(bucket, t.length());
+            lock.lock();
+            try {
+                Node<E> head = t.buckets.get(bucket);
+                // Se la tabella è stata sostituita o il bucket spostato si
+                // riprova sulla nuova tabella
+                if (this.table.get() == t && head != FORWARD) {
+                    for (Node<E> node = head; node != null; node = node.next)
+                        if (e.equals(node.item))
+                            return false;
+                    t.buckets.set(bucket, new Node<E>(e, head));
+                    this.size.increment();
+                    break;
+                }
+            } finally {
+                lock.unlock();
+            }
+            this.helpResize(t);
+        }
+        Table<E> t = this.table.get();
+        if (this.size.sum() > t.threshold())
+            this.resize(t);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null)
+            throw new NullPointerException("L'elemento dato è nullo");
+        int hash = o.hashCode();
+        while (true) {
+            Table<E> t = this.table.get();
+            int bucket = this.phf.hash(hash, t.length());
+            ReentrantLock lock = this.lockFor(bucket, t.length());
+            lock.lock();
+            try {
+                Node<E> head = t.buckets.get(bucket);
+                if (this.table.get() == t && head != FORWARD) {
+                    Node<E> node = head;
+                    while (node != null && !o.equals(node.item))
+                        node = node.next;
+                    if (node == null)
+                        return false;
+                    // Ricopia i nodi che precedono quello cancellato, in modo
+                    // che chi sta leggendo la lista la veda sempre intera
+                    Node<E> result = node.next;
+                    for (Node<E> p = head; p != node; p = p.next)
+                        result = new Node<E>(p.item, result);
+                    t.buckets.set(bucket, result);
+                    this.size.decrement();
+                    return true;
+                }
+            } finally {
+                lock.unlock();
+            }
+            this.helpResize(t);
+        }
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!this.contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean modified = false;
+        for (E e : c)
+            if (this.add(e))
+                modified = true;
+        return modified;
+    }
+
+    /*
+     * Scorre la tabella con l'iteratore e cancella gli elementi che non sono
+     * nella collezione. Non è atomica: gli elementi inseriti durante la
+     * scansione possono restare.
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione nulla");
+        boolean modified = false;
+        for (Iterator<E> it = this.iterator(); it.hasNext();)
+            if (!c.contains(it.next())) {
+                it.remove();
+                modified = true;
+            }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione nulla");
+        // Non si usa c.contains(null), che molte collezioni rifiutano: gli
+        // elementi vengono copiati e controllati prima di togliere qualcosa
+        Object[] items = c.toArray();
+        for (Object o : items)
+            if (o == null)
+                throw new NullPointerException("Elemento nullo nella collezione");
+        boolean modified = false;
+        for (Object o : items)
+            if (this.remove(o))
+                modified = true;
+        return modified;
+    }
+
+    /*
+     * Sostituisce la tabella con una vuota tenendo tutti i lock, in modo che
+     * nessuna scrittura sia in corso. Le scritture che avevano letto la
+     * vecchia tabella se ne accorgono dopo aver preso il lock e riprovano.
+     */
+    @Override
+    public void clear() {
+        for (ReentrantLock lock : this.locks)
+            lock.lock();
+        try {
+            // Un eventuale resize in corso sulla vecchia tabella viene
+            // abbandonato: chi lo aspetta vede cambiare la tabella corrente
+            this.table.set(new Table<E>(INITIAL_CAPACITY));
+            this.size.reset();
+        } finally {
+            for (ReentrantLock lock : this.locks)
+                lock.unlock();
+        }
+    }
+
+    /**
+     * Restituisce il numero di bucket della tabella corrente.
+     *
+     * @return il numero di bucket della tabella corrente
+     */
+    public int getCapacity() {
+        return this.table.get().length();
+    }
+
+    /*
+     * Lock che protegge un bucket in una tabella di capacità data.
+     */
+    private ReentrantLock lockFor(int bucket, int capacity) {
+        return this.locks[(int) ((long) bucket * this.locks.length
+                / capacity)];
+    }
+
+    /*
+     * Avvia il raddoppio della tabella t, se nessun altro thread lo ha già
+     * avviato, e collabora allo spostamento degli elementi.
+     */
+    private void resize(Table<E> t) {
+        if (t.next.get() == null)
+            t.next.compareAndSet(null, new Table<E>(2 * t.length()));
+        this.helpResize(t);
+    }
+
+    /*
+     * Se la tabella t è in fase di resize sposta gruppi di bucket finché ne
+     * restano da prenotare, poi aspetta che tutti gli spostamenti prenotati
+     * da altri thread siano conclusi.
+     */
+    @SuppressWarnings("unchecked")
+    private void helpResize(Table<E> t) {
+        Table<E> next = t.next.get();
+        if (next == null)
+            return;
+        int n = t.length();
+        int start;
+        while ((start = t.transferIndex.getAndAdd(TRANSFER_CHUNK)) < n) {
+            int end = Math.min(start + TRANSFER_CHUNK, n);
+            for (int i = start; i < end; i++) {
+                ReentrantLock lock = this.lockFor(i, n);
+                lock.lock();
+                try {
+                    for (Node<E> node = t.buckets.get(i); node != null; node = node.next)
+                        next.push(node.item,
+                                this.phf.hash(node.item.hashCode(), 2 * n));
+                    t.buckets.set(i, (Node<E>) (Node<?>) FORWARD);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            if (t.remaining.addAndGet(start - end) == 0)
+                this.table.compareAndSet(t, next);
+        }
+        // Aspetta che gli altri thread finiscano i gruppi prenotati
+        while (this.table.get() == t)
+            Thread.yield();
+    }
+
+    /*
+     * Copia degli elementi presenti, presa dopo aver completato un eventuale
+     * resize in corso.
+     */
+    private List<E> snapshot() {
+        retry: while (true) {
+            Table<E> t = this.table.get();
+            if (t.next.get() != null) {
+                this.helpResize(t);
+                continue;
+            }
+            List<E> result = new ArrayList<E>();
+            for (int i = 0; i < t.length(); i++) {
+                Node<E> node = t.buckets.get(i);
+                if (node == FORWARD) {
+                    // È iniziato un resize durante la copia: si ricomincia
+                    this.helpResize(t);
+                    continue retry;
+                }
+                for (; node != null; node = node.next)
+                    result.add(node.item);
+            }
+            return result;
+        }
+    }
+
+    /*
+     * Iteratore sulla copia degli elementi: remove() cancella l'ultimo
+     * elemento restituito dalla tabella, non dalla copia.
+     */
+    private class Itr implements Iterator<E> {
+        private final Iterator<E> items;
+
+        private E lastReturned;
+
+        private Itr(List<E> items) {
+            this.items = items.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.items.hasNext();
+        }
+
+        @Override
+        public E next() {
+            this.lastReturned = this.items.next();
+            return this.lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (this.lastReturned == null)
+                throw new IllegalStateException(
+                        "Nessun elemento da cancellare");
+            ConcurrentCollisionListHashTable.this.remove(this.lastReturned);
+            this.lastReturned = null;
+        }
+    }
+
+    /*
+     * Classe per i nodi immutabili delle liste di collisione.
+     */
+    private static final class Node<E> {
+        private final E item;
+
+        private final Node<E> next;
+
+        private Node(E item, Node<E> next) {
+            this.item = item;
+            this.next = next;
+        }
+    }
+
+    /*
+     * Array di bucket con lo stato dell'eventuale resize verso una tabella di
+     * capacità doppia.
+     */
+    private static final class Table<E> {
+
+        private final AtomicReferenceArray<Node<E>> buckets;
+
+        // Tabella di destinazione del resize, null se non è iniziato
+        private final AtomicReference<Table<E>> next;
+
+        // Primo bucket non ancora prenotato per lo spostamento
+        private final AtomicInteger transferIndex;
+
+        // Numero di bucket non ancora spostati
+        private final AtomicInteger remaining;
+
+        private Table(int capacity) {
+            this.buckets = new AtomicReferenceArray<Node<E>>(capacity);
+            this.next = new AtomicReference<Table<E>>();
+            this.transferIndex = new AtomicInteger();
+            this.remaining = new AtomicInteger(capacity);
+        }
+
+        private int length() {
+            return this.buckets.length();
+        }
+
+        private int threshold() {
+            return (int) (this.length() * LOAD_FACTOR);
+        }
+
+        /*
+         * Aggiunge in testa a un bucket un elemento spostato dal resize.
+         * Più thread possono spostare elementi nello stesso bucket, per cui
+         * l'inserimento usa compare-and-set.
+         */
+        private void push(E item, int bucket) {
+            Node<E> head;
+            do {
+                head = this.buckets.get(bucket);
+            } while (!this.buckets.compareAndSet(bucket, head,
+                    new Node<E>(item, head)));
+        }
+    }
+
+}
@@ -0,0 +1,271 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe ConcurrentCollisionListHashTable
+ * 
+ * @author collettiva
+ *
+ */
+class ConcurrentCollisionListHashTableTest extends AbstractSetContractTest {
+
+    private static final int THREADS = 4;
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Override
+    <E> Set<E> createSet(PrimaryHashFunction phf) {
+        return new ConcurrentCollisionListHashTable<E>(phf);
+    }
+
+    @Test
+    void testConstructor() {
+        assertThrows(NullPointerException.class,
+                () -> new ConcurrentCollisionListHashTable<Integer>(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConcurrentCollisionListHashTable<Integer>(
+                        divisionHash, 0));
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash, 1);
+        assertTrue(table.isEmpty());
+        assertEquals(16, table.getCapacity());
+    }
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        assertTrue(table.add(42));
+        assertFalse(table.add(42));
+        assertTrue(table.contains(42));
+        assertFalse(table.contains(43));
+        assertEquals(1, table.size());
+        assertTrue(table.remove(42));
+        assertFalse(table.remove(42));
+        assertFalse(table.contains(42));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    void multiplicationHash_testNull() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash);
+        assertThrows(NullPointerException.class, () -> table.add(null));
+        assertThrows(NullPointerException.class, () -> table.contains(null));
+        assertThrows(NullPointerException.class, () -> table.remove(null));
+    }
+
+    @Test
+    void divisionHash_testRemoveInsideChain() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        // Con capacità 16 e hash per divisione gli elementi finiscono tutti
+        // nel bucket 1
+        List<Integer> values = Arrays.asList(1, 17, 33, 49);
+        table.addAll(values);
+        assertTrue(table.remove(33));
+        assertTrue(table.remove(1));
+        assertTrue(table.contains(17));
+        assertTrue(table.contains(49));
+        assertFalse(table.contains(33));
+        assertFalse(table.contains(1));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void multiplicationHash_testResize() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash);
+        for (int i = 0; i < 13; i++)
+            table.add(i);
+        assertEquals(32, table.getCapacity());
+        for (int i = 0; i < 1000; i++)
+            table.add(i);
+        assertEquals(1000, table.size());
+        assertEquals(2048, table.getCapacity());
+        for (int i = 0; i < 1000; i++)
+            assertTrue(table.contains(i));
+        assertFalse(table.contains(1000));
+    }
+
+    @Test
+    void multiplicationHash_testIteratorAndClear() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash);
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int i = 0; i < 100; i++) {
+            table.add(i * 7);
+            expected.add(i * 7);
+        }
+        Set<Integer> seen = new HashSet<Integer>();
+        Iterator<Integer> it = table.iterator();
+        // L'iteratore lavora su una copia: le modifiche non lo influenzano
+        table.add(-1);
+        while (it.hasNext())
+            assertTrue(seen.add(it.next()));
+        assertEquals(expected, seen);
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertFalse(table.contains(0));
+        assertFalse(table.iterator().hasNext());
+        assertEquals(16, table.getCapacity());
+    }
+
+    @Test
+    void multiplicationHash_testIteratorRemove() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash);
+        table.add(1);
+        table.add(2);
+        Iterator<Integer> it = table.iterator();
+        assertThrows(IllegalStateException.class, () -> it.remove());
+        Integer first = it.next();
+        it.remove();
+        assertThrows(IllegalStateException.class, () -> it.remove());
+        assertEquals(1, table.size());
+        assertFalse(table.contains(first));
+        assertTrue(table.removeIf(x -> true));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    void multiplicationHash_testConcurrentDeduplication()
+            throws InterruptedException {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash, 4);
+        AtomicInteger added = new AtomicInteger();
+        int n = 20000;
+        // Ogni thread inserisce tutti gli elementi, in ordine diverso: ogni
+        // elemento deve essere aggiunto da un solo thread
+        Thread[] threads = new Thread[THREADS];
+        for (int k = 0; k < THREADS; k++) {
+            int offset = k * n / THREADS;
+            threads[k] = new Thread(() -> {
+                for (int i = 0; i < n; i++)
+                    if (table.add((i + offset) % n))
+                        added.incrementAndGet();
+            });
+        }
+        for (Thread t : threads)
+            t.start();
+        for (Thread t : threads)
+            t.join();
+        assertEquals(n, added.get());
+        assertEquals(n, table.size());
+        for (int i = 0; i < n; i++)
+            assertTrue(table.contains(i));
+        int count = 0;
+        for (Integer i : table) {
+            assertTrue(i >= 0 && i < n);
+            count++;
+        }
+        assertEquals(n, count);
+    }
+
+    @Test
+    void divisionHash_testConcurrentAddAndRemove()
+            throws InterruptedException {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        int n = 10000;
+        // Ogni thread lavora su elementi propri: aggiunge tutti i suoi
+        // elementi e poi rimuove quelli dispari, mentre la tabella cresce
+        Thread[] threads = new Thread[THREADS];
+        for (int k = 0; k < THREADS; k++) {
+            int base = k * n;
+            threads[k] = new Thread(() -> {
+                for (int i = 0; i < n; i++)
+                    table.add(base + i);
+                for (int i = 1; i < n; i += 2)
+                    table.remove(base + i);
+            });
+        }
+        for (Thread t : threads)
+            t.start();
+        for (Thread t : threads)
+            t.join();
+        assertEquals(THREADS * n / 2, table.size());
+        for (int i = 0; i < THREADS * n; i++)
+            assertEquals(i % 2 == 0, table.contains(i));
+    }
+
+    @Test
+    void multiplicationHash_testReadersDuringResize()
+            throws InterruptedException {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash);
+        int n = 1000;
+        for (int i = 0; i < n; i++)
+            table.add(i);
+        AtomicInteger missing = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            for (int i = n; i < 50 * n; i++)
+                table.add(i);
+        });
+        Thread reader = new Thread(() -> {
+            // Gli elementi inseriti prima dell'avvio non devono mai sparire,
+            // neanche durante i resize
+            while (writer.isAlive())
+                for (int i = 0; i < n; i++)
+                    if (!table.contains(i))
+                        missing.incrementAndGet();
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        assertEquals(0, missing.get());
+        assertEquals(50 * n, table.size());
+    }
+
+    @Test
+    void multiplicationHash_testBulkDuringResize()
+            throws InterruptedException {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash);
+        int n = 1000;
+        for (int i = 0; i < n; i++)
+            table.add(i);
+        Thread writer = new Thread(() -> {
+            for (int i = n; i < 50 * n; i++)
+                table.add(i);
+        });
+        writer.start();
+        // Le copie contengono sempre gli elementi inseriti prima dell'avvio,
+        // una sola volta
+        while (writer.isAlive()) {
+            Object[] copy = table.toArray();
+            Set<Object> distinct = new HashSet<Object>(Arrays.asList(copy));
+            assertEquals(copy.length, distinct.size());
+            for (int i = 0; i < n; i++)
+                assertTrue(distinct.contains(i));
+        }
+        writer.join();
+        // retainAll non perde gli elementi da tenere durante i resize
+        Thread other = new Thread(() -> {
+            for (int i = 50 * n; i < 100 * n; i++)
+                table.add(i);
+        });
+        other.start();
+        Set<Integer> even = new HashSet<Integer>();
+        for (int i = 0; i < 50 * n; i += 2)
+            even.add(i);
+        assertTrue(table.retainAll(even));
+        other.join();
+        for (int i = 0; i < 50 * n; i++)
+            assertEquals(i % 2 == 0, table.contains(i));
+    }
+
+}
@@ -0,0 +1,36 @@
+package it.unicam.cs.asdl2223.es10;
+
+/**
+ * Implementa una funzione di hash primaria con il metodo della moltiplicazione
+ * in aritmetica intera (hashing di Fibonacci): la chiave viene moltiplicata
+ * per 2^32 diviso la sezione aurea, modulo 2^32, e la posizione è data dai
+ * bit più significativi del prodotto. Rispetto a
+ * MultiplicationPrimaryHashFunction non usa l'aritmetica in virgola mobile.
+ *
+ * Se la dimensione della tabella è una potenza di due, come nelle tabelle di
+ * questo pacchetto, i bit più significativi si ottengono con uno scorrimento.
+ * Per le altre dimensioni il prodotto, letto come intero senza segno, viene
+ * riportato nell'intervallo [0, m) moltiplicandolo per m e prendendo i 32 bit
+ * più significativi del risultato.
+ *
+ * @author collettiva
+ *
+ */
+public class FibonacciPrimaryHashFunction implements PrimaryHashFunction {
+
+    /*
+     * 2^32 / phi, arrotondato al dispari più vicino.
+     */
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    @Override
+    public int hash(int key, int m) {
+        int h = key * GOLDEN_RATIO;
+        if ((m & (m - 1)) == 0)
+            // m = 2^k: i k bit più significativi. Con m = 1 lo scorrimento di
+            // 32 posizioni non avrebbe effetto in Java
+            return m == 1 ? 0 : h >>> (Integer.numberOfLeadingZeros(m) + 1);
+        return (int) (((h & 0xFFFFFFFFL) * m) >>> 32);
+    }
+
+}
@@ -0,0 +1,42 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe FibonacciPrimaryHashFunction. I test
+ * comuni a tutte le funzioni di hash primarie sono in
+ * PrimaryHashFunctionContractTest.
+ * 
+ * @author collettiva
+ *
+ */
+class FibonacciPrimaryHashFunctionTest
+        extends PrimaryHashFunctionContractTest {
+
+    private PrimaryHashFunction phf = this.createHashFunction();
+
+    @Override
+    PrimaryHashFunction createHashFunction() {
+        return new FibonacciPrimaryHashFunction();
+    }
+
+    @Test
+    void testPowerOfTwoUsesHighBits() {
+        // 0x9E3779B9 ha come quattro bit più significativi 1001
+        assertEquals(9, phf.hash(1, 16));
+        assertEquals(0x9E, phf.hash(1, 256));
+        assertEquals(0, phf.hash(1, 1));
+        assertEquals(0, phf.hash(0, 1024));
+    }
+
+    @Test
+    void testNonPowerOfTwoAgreesWithHighBits() {
+        // Entrambe le riduzioni usano i bit più significativi del prodotto:
+        // per m vicino a 2^k le posizioni sono vicine
+        for (int key = -1000; key < 1000; key++)
+            assertTrue(Math.abs(phf.hash(key, 1000) - phf.hash(key, 1024)) <= 24);
+    }
+
+}
@@ -0,0 +1,180 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Confronta le funzioni di hash primarie del pacchetto usandole in una
+ * CollisionListResizableHashTable. Per ogni insieme di chiavi (interi casuali,
+ * interi consecutivi e interi a passo costante STRIDE) e per un numero
+ * crescente di elementi, una tabella per ogni funzione esegue gli stessi
+ * inserimenti e le stesse ricerche con successo. Oltre al tempo medio in
+ * nanosecondi delle due operazioni viene misurata la qualità della
+ * distribuzione delle chiavi nei bucket dopo gli inserimenti: la lunghezza
+ * massima di una lista di collisione e la statistica chi quadrato dei numeri
+ * di elementi nei bucket rispetto alla distribuzione uniforme. Per una
+ * funzione che si comporta come una funzione casuale il chi quadrato è vicino
+ * alla capacità della tabella meno uno. I risultati sono scritti su un file
+ * .csv (Comma Separated Values).
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ *
+ * @author collettiva
+ *
+ */
+public class HashFunctionEvaluationFramework {
+
+    private static final String[] KEY_SETS = { "Random", "Sequential",
+            "Strided" };
+
+    private static final String[] FUNCTIONS = { "Division", "Multiplication",
+            "Fibonacci", "Tabulation", "Murmur" };
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "hashfunevalfram.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "hashfunevalfram.csv");
+            System.exit(1);
+        }
+        o.print("Keys,Elements,Function,AddTns,ContainsTns,Capacity,MaxChain,ChiSquare\n");
+        Random randomGenerator = new Random();
+        PrimaryHashFunction[] functions = { new DivisionPrimaryHashFunction(),
+                new MultiplicationPrimaryHashFunction(),
+                new FibonacciPrimaryHashFunction(),
+                new TabulationPrimaryHashFunction(),
+                new MurmurPrimaryHashFunction() };
+        for (String keySet : KEY_SETS) {
+            for (int n = HashFunctionEvaluationFrameworkParameters.MIN_ELEMENTS; n <= HashFunctionEvaluationFrameworkParameters.MAX_ELEMENTS; n += HashFunctionEvaluationFrameworkParameters.INCREMENTO_ELEMENTI) {
+                long[][] times = new long[functions.length][2];
+                int[] capacities = new int[functions.length];
+                int[] maxChains = new int[functions.length];
+                double[] chiSquares = new double[functions.length];
+                for (int s = 0; s < HashFunctionEvaluationFrameworkParameters.NUMBER_OF_SAMPLES; s++) {
+                    Integer[] keys = generate(keySet, n, randomGenerator);
+                    for (int f = 0; f < functions.length; f++) {
+                        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<Integer>(
+                                functions[f]);
+                        measure(table, keys, times[f]);
+                        // Qualità della distribuzione
+                        Object[] buckets = table.getTable();
+                        capacities[f] = buckets.length;
+                        maxChains[f] = Math.max(maxChains[f],
+                                maxChain(buckets));
+                        chiSquares[f] += chiSquare(buckets, n);
+                    }
+                }
+                System.out.println("Misurate funzioni con chiavi " + keySet
+                        + " e " + n + " elementi");
+                long operations = (long) n
+                        * HashFunctionEvaluationFrameworkParameters.NUMBER_OF_SAMPLES;
+                for (int f = 0; f < functions.length; f++)
+                    o.print(keySet + "," + n + "," + FUNCTIONS[f] + ","
+                            + times[f][0] / operations + ","
+                            + times[f][1] / operations + "," + capacities[f]
+                            + "," + maxChains[f] + ","
+                            + chiSquares[f]
+                                    / HashFunctionEvaluationFrameworkParameters.NUMBER_OF_SAMPLES
+                            + "\n");
+            }
+        }
+        o.close();
+    }
+
+    /*
+     * Genera n chiavi distinte dell'insieme dato.
+     */
+    private static Integer[] generate(String keySet, int n, Random random) {
+        Integer[] keys = new Integer[n];
+        if (keySet.equals("Random")) {
+            Set<Integer> generated = new HashSet<Integer>();
+            for (int i = 0; i < n; i++) {
+                Integer x;
+                do {
+                    x = random.nextInt();
+                } while (!generated.add(x));
+                keys[i] = x;
+            }
+        } else {
+            int stride = keySet.equals("Strided")
+                    ? HashFunctionEvaluationFrameworkParameters.STRIDE
+                    : 1;
+            for (int i = 0; i < n; i++)
+                keys[i] = i * stride;
+        }
+        // Ordine di inserimento casuale
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+        return keys;
+    }
+
+    /*
+     * Inserisce le chiavi nella tabella vuota e poi le cerca, sommando i
+     * tempi impiegati in totals.
+     */
+    private static void measure(CollisionListResizableHashTable<Integer> table,
+            Integer[] keys, long[] totals) {
+        long startTimeNano = System.nanoTime();
+        for (Integer x : keys)
+            table.add(x);
+        totals[0] += System.nanoTime() - startTimeNano;
+        int found = 0;
+        startTimeNano = System.nanoTime();
+        for (Integer x : keys)
+            if (table.contains(x))
+                found++;
+        totals[1] += System.nanoTime() - startTimeNano;
+        // Controllo che la tabella si sia comportata come un insieme
+        if (found != keys.length || table.size() != keys.length)
+            throw new IllegalStateException("Risultati errati dalla tabella");
+    }
+
+    /*
+     * Numero di elementi nella lista di collisione di un bucket.
+     */
+    private static int chainLength(Object bucket) {
+        int length = 0;
+        for (CollisionListResizableHashTable.Node<?> node = (CollisionListResizableHashTable.Node<?>) bucket; node != null; node = node.next)
+            length++;
+        return length;
+    }
+
+    private static int maxChain(Object[] buckets) {
+        int max = 0;
+        for (Object bucket : buckets)
+            max = Math.max(max, chainLength(bucket));
+        return max;
+    }
+
+    /*
+     * Statistica chi quadrato delle lunghezze delle liste rispetto alla
+     * lunghezza attesa n / m di una distribuzione uniforme.
+     */
+    private static double chiSquare(Object[] buckets, int n) {
+        double expected = (double) n / buckets.length;
+        double chi = 0;
+        for (Object bucket : buckets) {
+            double d = chainLength(bucket) - expected;
+            chi += d * d / expected;
+        }
+        return chi;
+    }
+
+}
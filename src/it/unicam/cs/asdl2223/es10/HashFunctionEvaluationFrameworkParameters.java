@@ -0,0 +1,39 @@
+package it.unicam.cs.asdl2223.es10;
+
+/**
+ * Parametri generali del framework di valutazione delle funzioni di hash
+ * primarie.
+ *
+ * @author collettiva
+ *
+ */
+public interface HashFunctionEvaluationFrameworkParameters {
+    /**
+     * Numero minimo di elementi da inserire
+     */
+    public static int MIN_ELEMENTS = 10000;
+
+    /**
+     * Passo di incremento del numero di elementi da MIN_ELEMENTS a
+     * MAX_ELEMENTS
+     */
+    public static int INCREMENTO_ELEMENTI = 40000;
+
+    /**
+     * Numero massimo di elementi da inserire
+     */
+    public static int MAX_ELEMENTS = 170000;
+
+    /**
+     * Distanza tra due chiavi consecutive nell'insieme di chiavi a passo
+     * costante
+     */
+    public static int STRIDE = 64;
+
+    /**
+     * Numero di ripetizioni delle misure per ogni funzione, insieme di chiavi
+     * e numero di elementi
+     */
+    public static int NUMBER_OF_SAMPLES = 5;
+
+}
@@ -0,0 +1,141 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Confronta la tabella hash con liste di collisione, nelle versioni con resize
+ * in un'unica chiamata, con resize incrementale e con filtro di Bloom, e
+ * quella a indirizzamento aperto con politica Robin Hood. Per ogni fattore di
+ * caricamento e per un numero crescente di elementi interi casuali, tutte le
+ * tabelle, create con lo stesso fattore di caricamento e la funzione di hash
+ * con il metodo della moltiplicazione, eseguono gli stessi inserimenti, ricerche con
+ * successo, ricerche senza successo e cancellazioni. Il tempo medio in
+ * nanosecondi di ogni operazione è scritto su un file .csv (Comma Separated
+ * Values).
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ *
+ * @author collettiva
+ *
+ */
+public class HashTableEvaluationFramework {
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "hashevalfram.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "hashevalfram.csv");
+            System.exit(1);
+        }
+        o.print("LoadFactor,Elements,Table,AddTns,HitTns,MissTns,RemoveTns\n");
+        Random randomGenerator = new Random();
+        PrimaryHashFunction phf = new MultiplicationPrimaryHashFunction();
+        for (double loadFactor : HashTableEvaluationFrameworkParameters.LOAD_FACTORS) {
+            for (int n = HashTableEvaluationFrameworkParameters.MIN_ELEMENTS; n <= HashTableEvaluationFrameworkParameters.MAX_ELEMENTS; n += HashTableEvaluationFrameworkParameters.INCREMENTO_ELEMENTI) {
+                long[] chained = new long[4];
+                long[] incremental = new long[4];
+                long[] bloom = new long[4];
+                long[] robinHood = new long[4];
+                for (int s = 0; s < HashTableEvaluationFrameworkParameters.NUMBER_OF_SAMPLES; s++) {
+                    // Genera n elementi distinti e n elementi assenti
+                    Integer[] present = new Integer[n];
+                    Integer[] absent = new Integer[n];
+                    generate(present, absent, randomGenerator);
+                    measure(new CollisionListResizableHashTable<Integer>(phf,
+                            loadFactor), present, absent, chained);
+                    measure(new CollisionListResizableHashTable<Integer>(phf,
+                            loadFactor, true), present, absent, incremental);
+                    measure(new CollisionListResizableHashTable<Integer>(phf,
+                            loadFactor, false, true), present, absent, bloom);
+                    measure(new OpenAddressingResizableHashTable<Integer>(phf,
+                            loadFactor), present, absent, robinHood);
+                }
+                System.out.println("Misurate tabelle con fattore "
+                        + loadFactor + " e " + n + " elementi");
+                print(o, loadFactor, n, "Chained", chained);
+                print(o, loadFactor, n, "ChainedIncremental", incremental);
+                print(o, loadFactor, n, "ChainedBloom", bloom);
+                print(o, loadFactor, n, "RobinHood", robinHood);
+            }
+        }
+        o.close();
+    }
+
+    /*
+     * Riempie i due array con elementi casuali tutti distinti tra loro.
+     */
+    private static void generate(Integer[] present, Integer[] absent,
+            Random random) {
+        Set<Integer> generated = new HashSet<Integer>();
+        for (int i = 0; i < present.length; i++) {
+            Integer x;
+            do {
+                x = random.nextInt();
+            } while (!generated.add(x));
+            present[i] = x;
+        }
+        for (int i = 0; i < absent.length; i++) {
+            Integer x;
+            do {
+                x = random.nextInt();
+            } while (!generated.add(x));
+            absent[i] = x;
+        }
+    }
+
+    /*
+     * Esegue le quattro operazioni su una tabella vuota e somma i tempi
+     * impiegati in totals.
+     */
+    private static void measure(Set<Integer> table, Integer[] present,
+            Integer[] absent, long[] totals) {
+        long startTimeNano = System.nanoTime();
+        for (Integer x : present)
+            table.add(x);
+        totals[0] += System.nanoTime() - startTimeNano;
+        int found = 0;
+        startTimeNano = System.nanoTime();
+        for (Integer x : present)
+            if (table.contains(x))
+                found++;
+        totals[1] += System.nanoTime() - startTimeNano;
+        startTimeNano = System.nanoTime();
+        for (Integer x : absent)
+            if (table.contains(x))
+                found--;
+        totals[2] += System.nanoTime() - startTimeNano;
+        startTimeNano = System.nanoTime();
+        for (Integer x : present)
+            table.remove(x);
+        totals[3] += System.nanoTime() - startTimeNano;
+        // Controllo che la tabella si sia comportata come un insieme
+        if (found != present.length || !table.isEmpty())
+            throw new IllegalStateException(
+                    "Risultati errati dalla tabella " + table.getClass());
+    }
+
+    private static void print(PrintStream o, double loadFactor, int n,
+            String name, long[] totals) {
+        long operations = (long) n
+                * HashTableEvaluationFrameworkParameters.NUMBER_OF_SAMPLES;
+        o.print(loadFactor + "," + n + "," + name + ","
+                + totals[0] / operations + "," + totals[1] / operations + ","
+                + totals[2] / operations + "," + totals[3] / operations
+                + "\n");
+    }
+
+}
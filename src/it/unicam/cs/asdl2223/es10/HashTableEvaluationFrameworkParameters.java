@@ -0,0 +1,37 @@
+package it.unicam.cs.asdl2223.es10;
+
+/**
+ * Parametri generali del framework di valutazione delle tabelle hash.
+ *
+ * @author collettiva
+ *
+ */
+public interface HashTableEvaluationFrameworkParameters {
+    /**
+     * Numero minimo di elementi da inserire
+     */
+    public static int MIN_ELEMENTS = 10000;
+
+    /**
+     * Passo di incremento del numero di elementi da MIN_ELEMENTS a
+     * MAX_ELEMENTS
+     */
+    public static int INCREMENTO_ELEMENTI = 40000;
+
+    /**
+     * Numero massimo di elementi da inserire
+     */
+    public static int MAX_ELEMENTS = 250000;
+
+    /**
+     * Fattori di caricamento con cui vengono create le tabelle
+     */
+    public static double[] LOAD_FACTORS = { 0.5, 0.75, 0.9 };
+
+    /**
+     * Numero di ripetizioni delle misure per ogni numero di elementi e
+     * fattore di caricamento
+     */
+    public static int NUMBER_OF_SAMPLES = 5;
+
+}
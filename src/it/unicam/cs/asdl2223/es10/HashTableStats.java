@@ -0,0 +1,204 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.Arrays;
+
+/**
+ * Fotografia delle statistiche di una CollisionListResizableHashTable in un
+ * certo istante. I valori strutturali (capacità, numero di elementi,
+ * istogramma delle lunghezze delle liste di collisione) sono calcolati sulla
+ * tabella al momento della creazione della fotografia; i contatori delle
+ * operazioni (scansioni, resize, storia del fattore di caricamento) sono
+ * quelli accumulati da quando la raccolta delle statistiche è stata attivata
+ * sulla tabella e valgono zero se non lo è mai stata.
+ *
+ * Gli oggetti di questa classe sono immutabili.
+ *
+ * @author collettiva
+ *
+ */
+public class HashTableStats {
+
+    private final int capacity;
+
+    private final int size;
+
+    private final int[] chainLengthHistogram;
+
+    private final long containsCount;
+
+    private final long containsProbes;
+
+    private final int maxContainsProbes;
+
+    private final long addCount;
+
+    private final long addProbes;
+
+    private final int maxAddProbes;
+
+    private final int resizeCount;
+
+    private final long totalResizeNanos;
+
+    private final long maxResizeNanos;
+
+    private final double[] loadFactorHistory;
+
+    /*
+     * Costruisce una fotografia con i valori dati. Gli array non vengono
+     * copiati: chi li passa non deve più modificarli.
+     */
+    HashTableStats(int capacity, int size, int[] chainLengthHistogram,
+            long containsCount, long containsProbes, int maxContainsProbes,
+            long addCount, long addProbes, int maxAddProbes, int resizeCount,
+            long totalResizeNanos, long maxResizeNanos,
+            double[] loadFactorHistory) {
+        this.capacity = capacity;
+        this.size = size;
+        this.chainLengthHistogram = chainLengthHistogram;
+        this.containsCount = containsCount;
+        this.containsProbes = containsProbes;
+        this.maxContainsProbes = maxContainsProbes;
+        this.addCount = addCount;
+        this.addProbes = addProbes;
+        this.maxAddProbes = maxAddProbes;
+        this.resizeCount = resizeCount;
+        this.totalResizeNanos = totalResizeNanos;
+        this.maxResizeNanos = maxResizeNanos;
+        this.loadFactorHistory = loadFactorHistory;
+    }
+
+    /**
+     * @return il numero di bucket della tabella
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return il numero di elementi della tabella
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return il fattore di bilanciamento effettivo, cioè il numero di
+     *         elementi diviso il numero di bucket
+     */
+    public double getLoadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    /**
+     * Restituisce l'istogramma delle lunghezze delle liste di collisione:
+     * l'elemento in posizione i è il numero di bucket con esattamente i
+     * elementi. La lunghezza dell'array è la lunghezza massima più uno.
+     *
+     * @return una copia dell'istogramma delle lunghezze delle liste
+     */
+    public int[] getChainLengthHistogram() {
+        return Arrays.copyOf(this.chainLengthHistogram,
+                this.chainLengthHistogram.length);
+    }
+
+    /**
+     * @return la lunghezza massima di una lista di collisione
+     */
+    public int getMaxChainLength() {
+        return this.chainLengthHistogram.length - 1;
+    }
+
+    /**
+     * @return il numero di chiamate di contains registrate
+     */
+    public long getContainsCount() {
+        return this.containsCount;
+    }
+
+    /**
+     * @return il numero medio di elementi confrontati da una chiamata di
+     *         contains, 0 se non ce ne sono state
+     */
+    public double getAverageContainsProbes() {
+        return this.containsCount == 0 ? 0
+                : (double) this.containsProbes / this.containsCount;
+    }
+
+    /**
+     * @return il numero massimo di elementi confrontati da una chiamata di
+     *         contains
+     */
+    public int getMaxContainsProbes() {
+        return this.maxContainsProbes;
+    }
+
+    /**
+     * @return il numero di chiamate di add registrate
+     */
+    public long getAddCount() {
+        return this.addCount;
+    }
+
+    /**
+     * @return il numero medio di elementi confrontati da una chiamata di add
+     *         per controllare i duplicati, 0 se non ce ne sono state
+     */
+    public double getAverageAddProbes() {
+        return this.addCount == 0 ? 0
+                : (double) this.addProbes / this.addCount;
+    }
+
+    /**
+     * @return il numero massimo di elementi confrontati da una chiamata di add
+     */
+    public int getMaxAddProbes() {
+        return this.maxAddProbes;
+    }
+
+    /**
+     * @return il numero di resize eseguiti
+     */
+    public int getResizeCount() {
+        return this.resizeCount;
+    }
+
+    /**
+     * @return la durata totale dei resize in nanosecondi
+     */
+    public long getTotalResizeNanos() {
+        return this.totalResizeNanos;
+    }
+
+    /**
+     * @return la durata del resize più lungo in nanosecondi
+     */
+    public long getMaxResizeNanos() {
+        return this.maxResizeNanos;
+    }
+
+    /**
+     * Restituisce i valori del fattore di bilanciamento effettivo campionati
+     * a intervalli regolari di operazioni di modifica, dal più vecchio al più
+     * recente. Vengono conservati solo i campioni più recenti.
+     *
+     * @return una copia della storia del fattore di bilanciamento
+     */
+    public double[] getLoadFactorHistory() {
+        return Arrays.copyOf(this.loadFactorHistory,
+                this.loadFactorHistory.length);
+    }
+
+    @Override
+    public String toString() {
+        return "HashTableStats [capacity=" + this.capacity + ", size="
+                + this.size + ", maxChainLength=" + this.getMaxChainLength()
+                + ", averageContainsProbes="
+                + this.getAverageContainsProbes() + ", maxContainsProbes="
+                + this.maxContainsProbes + ", averageAddProbes="
+                + this.getAverageAddProbes() + ", maxAddProbes="
+                + this.maxAddProbes + ", resizeCount=" + this.resizeCount
+                + ", totalResizeNanos=" + this.totalResizeNanos + "]";
+    }
+
+}
@@ -0,0 +1,86 @@
+package it.unicam.cs.asdl2223.es10;
+
+/**
+ * Interfaccia di gestione JMX con cui HashTableStatsMonitor espone le
+ * statistiche di una CollisionListResizableHashTable. Ogni lettura di un
+ * attributo prende una nuova fotografia delle statistiche della tabella.
+ *
+ * @author collettiva
+ *
+ */
+public interface HashTableStatsMXBean {
+
+    /**
+     * @return il numero di bucket della tabella
+     */
+    public int getCapacity();
+
+    /**
+     * @return il numero di elementi della tabella
+     */
+    public int getSize();
+
+    /**
+     * @return il fattore di bilanciamento effettivo della tabella
+     */
+    public double getLoadFactor();
+
+    /**
+     * @return l'istogramma delle lunghezze delle liste di collisione
+     */
+    public int[] getChainLengthHistogram();
+
+    /**
+     * @return il numero medio di elementi confrontati da contains
+     */
+    public double getAverageContainsProbes();
+
+    /**
+     * @return il numero massimo di elementi confrontati da contains
+     */
+    public int getMaxContainsProbes();
+
+    /**
+     * @return il numero medio di elementi confrontati da add
+     */
+    public double getAverageAddProbes();
+
+    /**
+     * @return il numero massimo di elementi confrontati da add
+     */
+    public int getMaxAddProbes();
+
+    /**
+     * @return il numero di resize eseguiti
+     */
+    public int getResizeCount();
+
+    /**
+     * @return la durata totale dei resize in nanosecondi
+     */
+    public long getTotalResizeNanos();
+
+    /**
+     * @return la durata del resize più lungo in nanosecondi
+     */
+    public long getMaxResizeNanos();
+
+    /**
+     * @return i campioni più recenti del fattore di bilanciamento effettivo
+     */
+    public double[] getLoadFactorHistory();
+
+    /**
+     * @return true se la raccolta delle statistiche sulle operazioni è attiva
+     */
+    public boolean isStatsEnabled();
+
+    /**
+     * Attiva o disattiva la raccolta delle statistiche sulle operazioni.
+     *
+     * @param enabled
+     *                    true per attivare la raccolta
+     */
+    public void setStatsEnabled(boolean enabled);
+
+}
@@ -0,0 +1,137 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Espone tramite JMX le statistiche di una CollisionListResizableHashTable.
+ * Il monitor va registrato nel server MBean della piattaforma con il metodo
+ * register e da quel momento le statistiche si possono leggere con uno
+ * strumento come JConsole. La tabella non è thread-safe: le letture JMX
+ * avvengono in un altro thread e possono vedere valori non aggiornati, il che
+ * è accettabile per un monitoraggio. Solo l'istogramma delle lunghezze delle
+ * liste scorre l'intera tabella; gli altri attributi costano poco.
+ *
+ * @author collettiva
+ *
+ */
+public class HashTableStatsMonitor implements HashTableStatsMXBean {
+
+    private final CollisionListResizableHashTable<?> table;
+
+    /**
+     * Crea un monitor per una tabella.
+     *
+     * @param table
+     *                  la tabella da monitorare
+     * @throws NullPointerException
+     *                                  se la tabella è nulla
+     */
+    public HashTableStatsMonitor(CollisionListResizableHashTable<?> table) {
+        if (table == null)
+            throw new NullPointerException("Tabella nulla");
+        this.table = table;
+    }
+
+    /**
+     * Registra un monitor per una tabella nel server MBean della piattaforma,
+     * attivando la raccolta delle statistiche sulle operazioni.
+     *
+     * @param table
+     *                  la tabella da monitorare
+     * @param name
+     *                  il nome con cui identificare la tabella
+     * @return il nome JMX con cui il monitor è stato registrato
+     * @throws NullPointerException
+     *                                  se la tabella o il nome sono nulli
+     * @throws JMException
+     *                                  se il nome non è valido o è già
+     *                                  registrato
+     */
+    public static ObjectName register(CollisionListResizableHashTable<?> table,
+            String name) throws JMException {
+        if (name == null)
+            throw new NullPointerException("Nome nullo");
+        HashTableStatsMonitor monitor = new HashTableStatsMonitor(table);
+        ObjectName objectName = new ObjectName(
+                "it.unicam.cs.asdl2223.es10:type=HashTableStats,name="
+                        + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(monitor,
+                objectName);
+        table.setStatsEnabled(true);
+        return objectName;
+    }
+
+    @Override
+    public int getCapacity() {
+        return this.table.getStats(false).getCapacity();
+    }
+
+    @Override
+    public int getSize() {
+        return this.table.getStats(false).getSize();
+    }
+
+    @Override
+    public double getLoadFactor() {
+        return this.table.getStats(false).getLoadFactor();
+    }
+
+    @Override
+    public int[] getChainLengthHistogram() {
+        return this.table.getStats(true).getChainLengthHistogram();
+    }
+
+    @Override
+    public double getAverageContainsProbes() {
+        return this.table.getStats(false).getAverageContainsProbes();
+    }
+
+    @Override
+    public int getMaxContainsProbes() {
+        return this.table.getStats(false).getMaxContainsProbes();
+    }
+
+    @Override
+    public double getAverageAddProbes() {
+        return this.table.getStats(false).getAverageAddProbes();
+    }
+
+    @Override
+    public int getMaxAddProbes() {
+        return this.table.getStats(false).getMaxAddProbes();
+    }
+
+    @Override
+    public int getResizeCount() {
+        return this.table.getStats(false).getResizeCount();
+    }
+
+    @Override
+    public long getTotalResizeNanos() {
+        return this.table.getStats(false).getTotalResizeNanos();
+    }
+
+    @Override
+    public long getMaxResizeNanos() {
+        return this.table.getStats(false).getMaxResizeNanos();
+    }
+
+    @Override
+    public double[] getLoadFactorHistory() {
+        return this.table.getStats(false).getLoadFactorHistory();
+    }
+
+    @Override
+    public boolean isStatsEnabled() {
+        return this.table.isStatsEnabled();
+    }
+
+    @Override
+    public void setStatsEnabled(boolean enabled) {
+        this.table.setStatsEnabled(enabled);
+    }
+
+}
@@ -0,0 +1,68 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe HashTableStatsMonitor
+ * 
+ * @author collettiva
+ *
+ */
+class HashTableStatsMonitorTest {
+
+    @Test
+    void testConstructor() {
+        assertThrows(NullPointerException.class,
+                () -> new HashTableStatsMonitor(null));
+    }
+
+    @Test
+    void testMonitor() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                new MultiplicationPrimaryHashFunction());
+        HashTableStatsMonitor monitor = new HashTableStatsMonitor(table);
+        assertFalse(monitor.isStatsEnabled());
+        monitor.setStatsEnabled(true);
+        assertTrue(table.isStatsEnabled());
+        for (int i = 0; i < 13; i++)
+            table.add(i);
+        assertEquals(32, monitor.getCapacity());
+        assertEquals(13, monitor.getSize());
+        assertEquals(1, monitor.getResizeCount());
+        int[] histogram = monitor.getChainLengthHistogram();
+        int elements = 0;
+        for (int length = 0; length < histogram.length; length++)
+            elements += length * histogram[length];
+        assertEquals(13, elements);
+    }
+
+    @Test
+    void testRegister() throws JMException {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                new DivisionPrimaryHashFunction());
+        ObjectName name = HashTableStatsMonitor.register(table, "test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertTrue(table.isStatsEnabled());
+            for (int i = 0; i < 100; i++)
+                table.add(i);
+            assertEquals(100, server.getAttribute(name, "Size"));
+            assertEquals(256, server.getAttribute(name, "Capacity"));
+            assertEquals(4, server.getAttribute(name, "ResizeCount"));
+            // Lo stesso nome non può essere registrato due volte
+            assertThrows(JMException.class,
+                    () -> HashTableStatsMonitor.register(table, "test"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe HashTableStats
+ * 
+ * @author collettiva
+ *
+ */
+class HashTableStatsTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    @Test
+    void testDisabledByDefault() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertFalse(table.isStatsEnabled());
+        for (int i = 0; i < 100; i++)
+            table.add(i);
+        table.contains(1);
+        HashTableStats stats = table.getStats();
+        // I valori strutturali ci sono, i contatori no
+        assertEquals(256, stats.getCapacity());
+        assertEquals(100, stats.getSize());
+        assertEquals(100.0 / 256, stats.getLoadFactor());
+        assertEquals(0, stats.getAddCount());
+        assertEquals(0, stats.getContainsCount());
+        assertEquals(0, stats.getResizeCount());
+        assertEquals(0.0, stats.getAverageContainsProbes());
+        assertEquals(0, stats.getLoadFactorHistory().length);
+    }
+
+    @Test
+    void testChainLengthHistogram() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        // Con capacità 16 e hash per divisione: tre elementi nel bucket 1,
+        // uno nel bucket 2
+        table.add(1);
+        table.add(17);
+        table.add(33);
+        table.add(2);
+        HashTableStats stats = table.getStats();
+        assertArrayEquals(new int[] { 14, 1, 0, 1 },
+                stats.getChainLengthHistogram());
+        assertEquals(3, stats.getMaxChainLength());
+        // La fotografia è una copia
+        stats.getChainLengthHistogram()[0] = 0;
+        assertEquals(14, stats.getChainLengthHistogram()[0]);
+    }
+
+    @Test
+    void testProbes() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.setStatsEnabled(true);
+        table.add(1); // bucket vuoto: nessun confronto
+        table.add(17); // un confronto
+        table.add(33); // due confronti
+        assertTrue(table.contains(33)); // tre confronti
+        assertFalse(table.contains(49)); // tre confronti
+        assertFalse(table.contains(2)); // bucket vuoto
+        HashTableStats stats = table.getStats();
+        assertEquals(3, stats.getAddCount());
+        assertEquals(1.0, stats.getAverageAddProbes());
+        assertEquals(2, stats.getMaxAddProbes());
+        assertEquals(3, stats.getContainsCount());
+        assertEquals(2.0, stats.getAverageContainsProbes());
+        assertEquals(3, stats.getMaxContainsProbes());
+        // Riattivare la raccolta azzera i contatori
+        table.setStatsEnabled(true);
+        assertEquals(0, table.getStats().getAddCount());
+        table.setStatsEnabled(false);
+        table.contains(1);
+        assertEquals(0, table.getStats().getContainsCount());
+    }
+
+    @Test
+    void testResizesAndLoadFactorHistory() {
+        for (boolean incremental : new boolean[] { false, true }) {
+            CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                    divisionHash, 0.75, incremental);
+            table.setStatsEnabled(true);
+            for (int i = 0; i < 10000; i++)
+                table.add(i);
+            HashTableStats stats = table.getStats();
+            // Da 16 a 16384 bucket
+            assertEquals(10, stats.getResizeCount());
+            assertTrue(stats.getTotalResizeNanos() >= stats
+                    .getMaxResizeNanos());
+            assertTrue(stats.getMaxResizeNanos() > 0);
+            double[] history = stats.getLoadFactorHistory();
+            assertEquals(9, history.length);
+            for (double loadFactor : history)
+                assertTrue(loadFactor > 0.3 && loadFactor <= 0.75);
+            // Il primo campione è preso dopo 1024 inserimenti in 2048 bucket
+            assertEquals(0.5, history[0]);
+        }
+    }
+
+    @Test
+    void testHistoryKeepsMostRecentSamples() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.setStatsEnabled(true);
+        for (int i = 0; i < 200 * 1024; i++)
+            table.add(i);
+        double[] history = table.getStats().getLoadFactorHistory();
+        assertEquals(128, history.length);
+        assertEquals(200.0 * 1024 / (1 << 19), history[127]);
+    }
+
+    @Test
+    void testToggleFromAnotherThread() throws InterruptedException {
+        // Il monitor JMX attiva e disattiva le statistiche da un altro
+        // thread mentre la tabella viene usata
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        Thread toggler = new Thread(() -> {
+            for (int i = 0; i < 20000; i++)
+                table.setStatsEnabled(i % 2 == 0);
+        });
+        toggler.start();
+        int i = 0;
+        while (toggler.isAlive()) {
+            table.add(i);
+            table.contains(i / 2);
+            table.remove(i / 3);
+            i++;
+        }
+        toggler.join();
+        assertEquals(0, table.getStats(false).getChainLengthHistogram().length);
+    }
+
+}
@@ -0,0 +1,266 @@
+package it.unicam.cs.asdl2223.es10;
+
+/**
+ * Realizza un insieme di valori di tipo {@code int} tramite una tabella hash
+ * a indirizzamento aperto con scansione lineare, senza creare oggetti
+ * {@code Integer}. La funzione di hash primaria può essere passata come
+ * parametro nel costruttore; di default si usa il metodo della
+ * moltiplicazione.
+ *
+ * Gli elementi sono memorizzati direttamente in un array di {@code int}, in
+ * cui il valore 0 indica una posizione vuota. La presenza del valore 0
+ * nell'insieme è ricordata a parte da un flag. Le operazioni add, contains e
+ * remove non allocano memoria, a parte il raddoppio della tabella.
+ *
+ * La politica di ridimensionamento è la stessa di
+ * CollisionListResizableHashTable: la tabella ha una dimensione iniziale di
+ * default (16) e un fattore di caricamento di default (0.75). Quando il
+ * fattore di bilanciamento effettivo eccede quello di default la tabella viene
+ * raddoppiata e viene fatto un riposizionamento di tutti gli elementi. La
+ * cancellazione non lascia segnaposti: gli elementi successivi dello stesso
+ * gruppo che possono avvicinarsi alla propria posizione di casa vengono
+ * spostati indietro.
+ *
+ * @author collettiva
+ *
+ */
+public class IntHashSet {
+
+    /*
+     * La capacità iniziale. E' una potenza di due e quindi la capacità sarà
+     * sempre una potenza di due, in quanto ogni resize raddoppia la tabella.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Fattore di bilanciamento di default. Tipico valore.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*
+     * Valore che indica una posizione vuota della tabella.
+     */
+    private static final int EMPTY = 0;
+
+    /*
+     * Numero di elementi presenti, compreso l'eventuale valore EMPTY.
+     */
+    private int size;
+
+    /*
+     * Tabella degli elementi, EMPTY nelle posizioni vuote.
+     */
+    private int[] table;
+
+    /*
+     * true se il valore EMPTY appartiene all'insieme.
+     */
+    private boolean containsEmpty;
+
+    /*
+     * Funzione di hash primaria usata da questa hash table.
+     */
+    private final PrimaryHashFunction phf;
+
+    /**
+     * Costruisce un insieme vuoto che usa la funzione di hash con il metodo
+     * della moltiplicazione.
+     */
+    public IntHashSet() {
+        this(new MultiplicationPrimaryHashFunction());
+    }
+
+    /**
+     * Costruisce un insieme vuoto che usa la funzione di hash primaria data.
+     *
+     * @param phf
+     *                la funzione di hash primaria
+     * @throws NullPointerException
+     *                                  se la funzione di hash è nulla
+     */
+    public IntHashSet(PrimaryHashFunction phf) {
+        if (phf == null)
+            throw new NullPointerException("Funzione di hash nulla");
+        this.phf = phf;
+        this.table = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.containsEmpty = false;
+    }
+
+    /* Numero di posizioni della tabella corrente */
+    private int getCurrentCapacity() {
+        return this.table.length;
+    }
+
+    /*
+     * Valore corrente soglia oltre la quale si deve fare la resize,
+     * getCurrentCapacity * LOAD_FACTOR
+     */
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+    }
+
+    /*
+     * Posizione di casa di un valore in una tabella di capacità m.
+     */
+    private int home(int x, int m) {
+        return this.phf.hash(x, m);
+    }
+
+    /**
+     * Restituisce il numero di elementi dell'insieme.
+     *
+     * @return il numero di elementi dell'insieme
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Determina se l'insieme è vuoto.
+     *
+     * @return true se l'insieme non contiene elementi, false altrimenti
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Determina se l'insieme contiene un valore dato.
+     *
+     * @param x
+     *              il valore da cercare
+     * @return true se il valore appartiene all'insieme, false altrimenti
+     */
+    public boolean contains(int x) {
+        if (x == EMPTY)
+            return this.containsEmpty;
+        int mask = this.getCurrentCapacity() - 1;
+        int i = this.home(x, this.getCurrentCapacity());
+        while (this.table[i] != EMPTY) {
+            if (this.table[i] == x)
+                return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Aggiunge un valore all'insieme.
+     *
+     * @param x
+     *              il valore da aggiungere
+     * @return true se il valore è stato aggiunto, false se era già presente
+     */
+    public boolean add(int x) {
+        if (x == EMPTY) {
+            if (this.containsEmpty)
+                return false;
+            this.containsEmpty = true;
+        } else {
+            int mask = this.getCurrentCapacity() - 1;
+            int i = this.home(x, this.getCurrentCapacity());
+            while (this.table[i] != EMPTY) {
+                if (this.table[i] == x)
+                    return false;
+                i = (i + 1) & mask;
+            }
+            this.table[i] = x;
+        }
+        this.size++;
+        if (this.size > this.getCurrentThreshold())
+            this.resize();
+        return true;
+    }
+
+    /**
+     * Toglie un valore dall'insieme.
+     *
+     * @param x
+     *              il valore da togliere
+     * @return true se il valore è stato tolto, false se non era presente
+     */
+    public boolean remove(int x) {
+        if (x == EMPTY) {
+            if (!this.containsEmpty)
+                return false;
+            this.containsEmpty = false;
+            this.size--;
+            return true;
+        }
+        int mask = this.getCurrentCapacity() - 1;
+        int i = this.home(x, this.getCurrentCapacity());
+        while (this.table[i] != x) {
+            if (this.table[i] == EMPTY)
+                return false;
+            i = (i + 1) & mask;
+        }
+        // Sposta indietro gli elementi successivi del gruppo la cui posizione
+        // di casa non si trova tra la posizione liberata e la loro
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (this.table[j] == EMPTY)
+                break;
+            int k = this.home(this.table[j], this.getCurrentCapacity());
+            if (((j - k) & mask) >= ((j - i) & mask)) {
+                this.table[i] = this.table[j];
+                i = j;
+            }
+        }
+        this.table[i] = EMPTY;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Toglie tutti gli elementi dall'insieme.
+     */
+    public void clear() {
+        this.table = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.containsEmpty = false;
+    }
+
+    /**
+     * Restituisce un array con tutti gli elementi dell'insieme, in un ordine
+     * qualsiasi.
+     *
+     * @return un nuovo array con gli elementi dell'insieme
+     */
+    public int[] toArray() {
+        int[] result = new int[this.size];
+        int k = 0;
+        if (this.containsEmpty)
+            result[k++] = EMPTY;
+        for (int x : this.table)
+            if (x != EMPTY)
+                result[k++] = x;
+        return result;
+    }
+
+    /*
+     * Raddoppia la tabella corrente e riposiziona tutti gli elementi.
+     */
+    private void resize() {
+        int[] oldTable = this.table;
+        int newCapacity = 2 * oldTable.length;
+        int mask = newCapacity - 1;
+        this.table = new int[newCapacity];
+        for (int x : oldTable)
+            if (x != EMPTY) {
+                int i = this.home(x, newCapacity);
+                while (this.table[i] != EMPTY)
+                    i = (i + 1) & mask;
+                this.table[i] = x;
+            }
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getCapacity() {
+        return this.table.length;
+    }
+
+}
@@ -0,0 +1,113 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe LongHashSet
+ *
+ * @author collettiva
+ *
+ */
+class LongHashSetTest {
+
+    @Test
+    void testConstructor() {
+        assertThrows(NullPointerException.class, () -> new LongHashSet(null));
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void testAddContainsRemove() {
+        LongHashSet set = new LongHashSet(new DivisionPrimaryHashFunction());
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(43));
+        assertTrue(set.add(-7));
+        assertEquals(2, set.size());
+        assertTrue(set.remove(42));
+        assertFalse(set.remove(42));
+        assertFalse(set.contains(42));
+        assertTrue(set.contains(-7));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void testZero() {
+        // Lo zero è il valore delle posizioni vuote, ma è un elemento valido
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+        assertEquals(1, set.toArray().length);
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void divisionHash_testCollisionsAndRemovals() {
+        // Multipli di 16 con la divisione: stessa posizione di casa
+        LongHashSet set = new LongHashSet(new DivisionPrimaryHashFunction());
+        for (int i = 1; i <= 6; i++)
+            assertTrue(set.add(16 * i));
+        assertTrue(set.add(17));
+        assertTrue(set.remove(32));
+        assertTrue(set.remove(16));
+        for (int i = 3; i <= 6; i++)
+            assertTrue(set.contains(16 * i));
+        assertTrue(set.contains(17));
+        assertFalse(set.contains(16));
+        assertFalse(set.contains(32));
+        assertEquals(5, set.size());
+    }
+
+    @Test
+    void testShouldResize() {
+        LongHashSet set = new LongHashSet();
+        for (int i = 1; i <= 12; i++)
+            set.add(i);
+        assertEquals(16, set.getCapacity());
+        set.add(13);
+        assertEquals(32, set.getCapacity());
+        set.clear();
+        assertEquals(16, set.getCapacity());
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void testAgainstHashSet() {
+        Random random = new Random(5);
+        LongHashSet set = new LongHashSet();
+        HashSet<Long> expected = new HashSet<Long>();
+        for (int k = 0; k < 20000; k++) {
+            long x = (random.nextInt(3000) - 1000) * 0x100000001L;
+            switch (random.nextInt(3)) {
+            case 0:
+                assertEquals(expected.add(x), set.add(x));
+                break;
+            case 1:
+                assertEquals(expected.remove(x), set.remove(x));
+                break;
+            default:
+                assertEquals(expected.contains(x), set.contains(x));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        HashSet<Long> elements = new HashSet<Long>();
+        for (long x : set.toArray())
+            assertTrue(elements.add(x));
+        assertEquals(expected, elements);
+    }
+
+}
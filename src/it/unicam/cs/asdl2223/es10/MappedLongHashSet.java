@@ -0,0 +1,540 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Realizza un insieme persistente di valori di tipo {@code long} tramite una
+ * tabella hash con liste di collisione, come CollisionListResizableHashTable,
+ * memorizzata in un file mappato in memoria ({@code MappedByteBuffer}) invece
+ * che in oggetti sullo heap. Gli elementi non occupano memoria dello heap e
+ * non vengono esaminati dal garbage collector; riaprendo il file l'insieme è
+ * subito disponibile senza doverlo ricostruire.
+ *
+ * Il file contiene un'intestazione, l'array dei bucket e l'array dei nodi.
+ * Ogni bucket è l'indice più uno del primo nodo della sua lista di collisione
+ * (0 se la lista è vuota) e ogni nodo contiene un valore e l'indice più uno
+ * del nodo successivo. Il bucket di un valore è dato dalla funzione di hash
+ * primaria applicata ai 64 bit del valore ripiegati in un int, come fa
+ * {@code Long.hashCode}. Il file ricorda un'impronta della funzione di hash,
+ * calcolata dalla sua classe e dai valori che restituisce su un insieme fisso
+ * di chiavi e dimensioni, e non può essere riaperto con una funzione la cui
+ * impronta è diversa: ad esempio una TabulationPrimaryHashFunction deve essere
+ * creata con lo stesso seme, e una creata senza seme non permette di riaprire
+ * il file.
+ *
+ * La tabella ha una dimensione iniziale di default (16) e un fattore di
+ * caricamento di default (0.75). Quando il fattore di bilanciamento effettivo
+ * eccede quello di default la tabella viene raddoppiata. Un nodo cancellato non
+ * viene riusato: quando i nodi sono esauriti la tabella viene ricompattata, con
+ * la stessa capacità se gli elementi sono al più metà della soglia e con
+ * capacità doppia altrimenti, in modo che dopo ogni ricompattamento restino
+ * liberi almeno metà dei nodi della soglia e il costo del ricompattamento sia
+ * ripartito su altrettanti inserimenti. Raddoppio, ricompattamento e clear
+ * scrivono la nuova tabella in un file temporaneo che poi sostituisce quello
+ * originale con uno spostamento atomico, per cui il file contiene sempre una
+ * tabella completa. Tutta la tabella deve stare in un unico mapping, per cui il
+ * file non può superare i 2GB.
+ *
+ * Le scritture di un inserimento avvengono nell'ordine nodo, contatore dei
+ * nodi, bucket e numero di elementi, e una cancellazione scollega il nodo con
+ * un'unica scrittura: in ogni istante le liste di collisione sono coerenti.
+ * L'intestazione ricorda se il file è stato chiuso correttamente; se non lo è
+ * stato, all'apertura le liste vengono controllate, tagliando i collegamenti
+ * non validi, e il numero di elementi viene ricalcolato. Le scritture sono
+ * nella memoria del sistema operativo, che le porta sul disco anche se il
+ * processo termina in modo anomalo; per resistere a un arresto del sistema
+ * bisogna chiamare sync.
+ *
+ * L'insieme non è thread-safe e il file non deve essere aperto da due oggetti
+ * contemporaneamente.
+ *
+ * @author collettiva
+ *
+ */
+public class MappedLongHashSet implements Closeable {
+
+    /*
+     * La capacità iniziale. E' una potenza di due e quindi la capacità sarà
+     * sempre una potenza di due, in quanto ogni resize raddoppia la tabella.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Fattore di bilanciamento di default. Tipico valore.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*
+     * Valore iniziale del file, per riconoscere il formato.
+     */
+    private static final long MAGIC = 0x4153444C32323233L;
+
+    private static final int VERSION = 2;
+
+    /*
+     * Posizioni dei campi dell'intestazione.
+     */
+    private static final int MAGIC_OFFSET = 0;
+
+    private static final int VERSION_OFFSET = 8;
+
+    private static final int CAPACITY_OFFSET = 12;
+
+    private static final int NODE_CAPACITY_OFFSET = 16;
+
+    private static final int NODE_COUNT_OFFSET = 20;
+
+    private static final int SIZE_OFFSET = 24;
+
+    private static final int CLEAN_OFFSET = 28;
+
+    private static final int PHF_OFFSET = 32;
+
+    private static final int HEADER_SIZE = 64;
+
+    /*
+     * Un nodo è un long per il valore e un int per il successivo.
+     */
+    private static final int NODE_SIZE = 12;
+
+    /*
+     * Dimensioni della tabella e numero di chiavi su cui viene calcolata
+     * l'impronta della funzione di hash.
+     */
+    private static final int[] FINGERPRINT_SIZES = { 16, 1000, 1 << 20 };
+
+    private static final int FINGERPRINT_KEYS = 64;
+
+    /*
+     * File della tabella.
+     */
+    private final Path file;
+
+    /*
+     * Funzione di hash primaria usata da questa hash table.
+     */
+    private final PrimaryHashFunction phf;
+
+    /*
+     * Impronta della funzione di hash, memorizzata nell'intestazione.
+     */
+    private final long phfFingerprint;
+
+    /*
+     * Il file mappato in memoria, null dopo la chiusura.
+     */
+    private MappedByteBuffer buffer;
+
+    /*
+     * Valori dell'intestazione, tenuti anche in memoria.
+     */
+    private int capacity;
+
+    private int nodeCapacity;
+
+    private int nodeCount;
+
+    private int size;
+
+    /*
+     * Numero di riscritture della tabella, solo per i test.
+     */
+    private int rewriteCount;
+
+    /**
+     * Apre l'insieme memorizzato in un file, creandolo vuoto se il file non
+     * esiste. Se il file non era stato chiuso correttamente le liste di
+     * collisione vengono controllate e riparate.
+     *
+     * @param file
+     *                 il file dell'insieme
+     * @param phf
+     *                 la funzione di hash primaria
+     * @throws NullPointerException
+     *                                      se il file o la funzione di hash
+     *                                      sono nulli
+     * @throws IllegalArgumentException
+     *                                      se il file è stato creato con una
+     *                                      funzione di hash che calcola valori
+     *                                      diversi
+     * @throws IOException
+     *                                      se il file non può essere letto o
+     *                                      scritto o non è nel formato atteso
+     */
+    public MappedLongHashSet(Path file, PrimaryHashFunction phf)
+            throws IOException {
+        if (file == null)
+            throw new NullPointerException("File nullo");
+        if (phf == null)
+            throw new NullPointerException("Funzione di hash nulla");
+        this.file = file;
+        this.phf = phf;
+        this.phfFingerprint = fingerprint(phf);
+        // Un file temporaneo rimasto da un resize interrotto non è mai
+        // diventato la tabella
+        Files.deleteIfExists(this.temporaryFile());
+        if (!Files.exists(file) || Files.size(file) == 0)
+            this.create(file, INITIAL_CAPACITY);
+        this.map();
+        if (this.buffer.getLong(MAGIC_OFFSET) != MAGIC
+                || this.buffer.getInt(VERSION_OFFSET) != VERSION)
+            throw new IOException("Formato del file non valido: " + file);
+        if (this.buffer.getLong(PHF_OFFSET) != this.phfFingerprint)
+            throw new IllegalArgumentException(
+                    "Il file usa una funzione di hash diversa: " + file);
+        if (this.buffer.getInt(CLEAN_OFFSET) == 0)
+            this.recover();
+        // Il file resta non chiuso correttamente finché non viene chiamato
+        // close
+        this.buffer.putInt(CLEAN_OFFSET, 0);
+    }
+
+    /**
+     * @return il numero di elementi dell'insieme
+     */
+    public int size() {
+        this.checkOpen();
+        return this.size;
+    }
+
+    /**
+     * @return true se l'insieme è vuoto
+     */
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Controlla se un valore appartiene all'insieme.
+     *
+     * @param x
+     *              il valore da cercare
+     * @return true se il valore appartiene all'insieme
+     */
+    public boolean contains(long x) {
+        this.checkOpen();
+        return this.find(x, this.bucketOf(x)) != 0;
+    }
+
+    /**
+     * Aggiunge un valore all'insieme.
+     *
+     * @param x
+     *              il valore da aggiungere
+     * @return true se il valore è stato aggiunto, false se era già presente
+     * @throws UncheckedIOException
+     *                                  se il raddoppio della tabella non può
+     *                                  scrivere il file
+     */
+    public boolean add(long x) {
+        this.checkOpen();
+        if (this.find(x, this.bucketOf(x)) != 0)
+            return false;
+        // Nodi esauriti per le cancellazioni: si ricompatta la tabella,
+        // raddoppiandola se dopo il ricompattamento resterebbero liberi meno
+        // di metà dei nodi
+        if (this.nodeCount == this.nodeCapacity)
+            this.rewrite(this.size > this.getCurrentThreshold() / 2
+                    ? 2 * this.capacity
+                    : this.capacity, true);
+        int bucket = this.bucketOf(x);
+        int node = this.nodeCount;
+        // Prima il nodo, poi il contatore dei nodi, il bucket e il numero di
+        // elementi: un'interruzione lascia al più un nodo non collegato
+        this.buffer.putLong(this.nodeOffset(node), x);
+        this.buffer.putInt(this.nodeOffset(node) + 8,
+                this.buffer.getInt(this.bucketOffset(bucket)));
+        this.nodeCount++;
+        this.buffer.putInt(NODE_COUNT_OFFSET, this.nodeCount);
+        this.buffer.putInt(this.bucketOffset(bucket), node + 1);
+        this.size++;
+        this.buffer.putInt(SIZE_OFFSET, this.size);
+        if (this.size > this.getCurrentThreshold())
+            this.rewrite(2 * this.capacity, true);
+        return true;
+    }
+
+    /**
+     * Toglie un valore dall'insieme.
+     *
+     * @param x
+     *              il valore da togliere
+     * @return true se il valore è stato tolto, false se non era presente
+     */
+    public boolean remove(long x) {
+        this.checkOpen();
+        int bucket = this.bucketOf(x);
+        // Posizione del collegamento al nodo corrente: il bucket o il campo
+        // successivo del nodo precedente
+        int link = this.bucketOffset(bucket);
+        int node = this.buffer.getInt(link);
+        while (node != 0) {
+            int offset = this.nodeOffset(node - 1);
+            if (this.buffer.getLong(offset) == x) {
+                // Un'unica scrittura scollega il nodo
+                this.buffer.putInt(link, this.buffer.getInt(offset + 8));
+                this.size--;
+                this.buffer.putInt(SIZE_OFFSET, this.size);
+                return true;
+            }
+            link = offset + 8;
+            node = this.buffer.getInt(link);
+        }
+        return false;
+    }
+
+    /**
+     * Toglie tutti gli elementi, riportando la tabella alla capacità
+     * iniziale.
+     *
+     * @throws UncheckedIOException
+     *                                  se il file non può essere scritto
+     */
+    public void clear() {
+        this.checkOpen();
+        this.rewrite(INITIAL_CAPACITY, false);
+    }
+
+    /**
+     * Porta sul disco tutte le modifiche fatte finora.
+     */
+    public void sync() {
+        this.checkOpen();
+        this.buffer.force();
+    }
+
+    /**
+     * Porta sul disco tutte le modifiche, marca il file come chiuso
+     * correttamente e lo chiude. Le chiamate successive non hanno effetto.
+     */
+    @Override
+    public void close() {
+        if (this.buffer == null)
+            return;
+        this.buffer.putInt(CLEAN_OFFSET, 1);
+        this.buffer.force();
+        this.buffer = null;
+    }
+
+    /*
+     * Soglia oltre la quale si deve fare la resize.
+     */
+    private int getCurrentThreshold() {
+        return (int) (this.capacity * LOAD_FACTOR);
+    }
+
+    private void checkOpen() {
+        if (this.buffer == null)
+            throw new IllegalStateException("Insieme chiuso");
+    }
+
+    private int bucketOf(long x) {
+        return this.phf.hash(Long.hashCode(x), this.capacity);
+    }
+
+    private int bucketOffset(int bucket) {
+        return HEADER_SIZE + 4 * bucket;
+    }
+
+    private int nodeOffset(int node) {
+        return HEADER_SIZE + 4 * this.capacity + NODE_SIZE * node;
+    }
+
+    /*
+     * Restituisce l'indice più uno del nodo con il valore dato nella lista di
+     * un bucket, 0 se non c'è.
+     */
+    private int find(long x, int bucket) {
+        int node = this.buffer.getInt(this.bucketOffset(bucket));
+        while (node != 0) {
+            int offset = this.nodeOffset(node - 1);
+            if (this.buffer.getLong(offset) == x)
+                return node;
+            node = this.buffer.getInt(offset + 8);
+        }
+        return 0;
+    }
+
+    /*
+     * Impronta di una funzione di hash: combina il nome della classe con i
+     * valori della funzione su chiavi fisse, che coprono tutti i byte e il
+     * segno, per alcune dimensioni della tabella, potenze di due e non.
+     * Funzioni della stessa classe con parametri diversi hanno, a meno di
+     * collisioni molto improbabili, impronte diverse.
+     */
+    private static long fingerprint(PrimaryHashFunction phf) {
+        long result = phf.getClass().getName().hashCode();
+        for (int m : FINGERPRINT_SIZES)
+            for (int i = 0; i < FINGERPRINT_KEYS; i++) {
+                int key = (i - FINGERPRINT_KEYS / 2) * 0x9E3779B9;
+                result = 1099511628211L * result + phf.hash(key, m);
+            }
+        return result;
+    }
+
+    private Path temporaryFile() {
+        return this.file.resolveSibling(this.file.getFileName() + ".tmp");
+    }
+
+    /*
+     * Crea un file con una tabella vuota di capacità data e lo lascia
+     * mappato in buffer. Il file è marcato come chiuso correttamente.
+     */
+    private void create(Path path, int capacity) throws IOException {
+        int nodeCapacity = (int) (capacity * LOAD_FACTOR) + 1;
+        long length = HEADER_SIZE + 4L * capacity
+                + (long) NODE_SIZE * nodeCapacity;
+        if (length > Integer.MAX_VALUE)
+            throw new IOException("Tabella troppo grande per un file mappato");
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    length);
+        }
+        this.capacity = capacity;
+        this.nodeCapacity = nodeCapacity;
+        this.nodeCount = 0;
+        this.buffer.putLong(MAGIC_OFFSET, MAGIC);
+        this.buffer.putInt(VERSION_OFFSET, VERSION);
+        this.buffer.putInt(CAPACITY_OFFSET, capacity);
+        this.buffer.putInt(NODE_CAPACITY_OFFSET, nodeCapacity);
+        this.buffer.putInt(NODE_COUNT_OFFSET, 0);
+        this.buffer.putInt(SIZE_OFFSET, 0);
+        this.buffer.putInt(CLEAN_OFFSET, 1);
+        this.buffer.putLong(PHF_OFFSET, this.phfFingerprint);
+    }
+
+    /*
+     * Mappa il file della tabella e ne legge l'intestazione.
+     */
+    private void map() throws IOException {
+        try (FileChannel channel = FileChannel.open(this.file,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = channel.size();
+            if (length < HEADER_SIZE || length > Integer.MAX_VALUE)
+                throw new IOException(
+                        "Formato del file non valido: " + this.file);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    length);
+        }
+        this.capacity = this.buffer.getInt(CAPACITY_OFFSET);
+        this.nodeCapacity = this.buffer.getInt(NODE_CAPACITY_OFFSET);
+        this.nodeCount = this.buffer.getInt(NODE_COUNT_OFFSET);
+        this.size = this.buffer.getInt(SIZE_OFFSET);
+        if (this.capacity <= 0 || this.nodeCapacity <= 0
+                || this.nodeCount < 0 || this.nodeCount > this.nodeCapacity
+                || HEADER_SIZE + 4L * this.capacity
+                        + (long) NODE_SIZE * this.nodeCapacity > this.buffer
+                                .capacity())
+            throw new IOException("Formato del file non valido: " + this.file);
+    }
+
+    /*
+     * Controlla le liste di collisione di un file non chiuso correttamente:
+     * un collegamento a un nodo non allocato, o che riporta in un nodo già
+     * visitato, viene tagliato. Il numero di elementi viene ricalcolato.
+     */
+    private void recover() {
+        boolean[] visited = new boolean[this.nodeCount];
+        int count = 0;
+        for (int bucket = 0; bucket < this.capacity; bucket++) {
+            int link = this.bucketOffset(bucket);
+            int node = this.buffer.getInt(link);
+            while (node != 0) {
+                if (node < 0 || node > this.nodeCount || visited[node - 1]) {
+                    this.buffer.putInt(link, 0);
+                    break;
+                }
+                visited[node - 1] = true;
+                count++;
+                link = this.nodeOffset(node - 1) + 8;
+                node = this.buffer.getInt(link);
+            }
+        }
+        this.size = count;
+        this.buffer.putInt(SIZE_OFFSET, count);
+    }
+
+    /*
+     * Scrive una nuova tabella di capacità data, con gli elementi attuali se
+     * copy è true o vuota altrimenti, in un file temporaneo che poi
+     * sostituisce il file della tabella. Se la scrittura fallisce la tabella
+     * resta quella di prima.
+     */
+    private void rewrite(int newCapacity, boolean copy) {
+        MappedByteBuffer old = this.buffer;
+        int oldCapacity = this.capacity;
+        int oldNodeCapacity = this.nodeCapacity;
+        int oldNodeCount = this.nodeCount;
+        int oldSize = this.size;
+        Path tmp = this.temporaryFile();
+        this.rewriteCount++;
+        try {
+            this.create(tmp, newCapacity);
+            this.buffer.putInt(CLEAN_OFFSET, 0);
+            this.size = 0;
+            // Copia gli elementi scorrendo le liste della vecchia tabella
+            if (copy)
+                for (int bucket = 0; bucket < oldCapacity; bucket++) {
+                    int node = old.getInt(HEADER_SIZE + 4 * bucket);
+                    while (node != 0) {
+                        int offset = HEADER_SIZE + 4 * oldCapacity
+                                + NODE_SIZE * (node - 1);
+                        this.append(old.getLong(offset));
+                        node = old.getInt(offset + 8);
+                    }
+                }
+            this.buffer.putInt(NODE_COUNT_OFFSET, this.nodeCount);
+            this.buffer.putInt(SIZE_OFFSET, this.size);
+            this.buffer.force();
+            Files.move(tmp, this.file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            this.buffer = old;
+            this.capacity = oldCapacity;
+            this.nodeCapacity = oldNodeCapacity;
+            this.nodeCount = oldNodeCount;
+            this.size = oldSize;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * Inserisce in testa alla sua lista un valore sicuramente assente,
+     * durante la costruzione di una nuova tabella.
+     */
+    private void append(long x) {
+        int bucket = this.bucketOf(x);
+        int offset = this.nodeOffset(this.nodeCount);
+        this.buffer.putLong(offset, x);
+        this.buffer.putInt(offset + 8,
+                this.buffer.getInt(this.bucketOffset(bucket)));
+        this.buffer.putInt(this.bucketOffset(bucket), ++this.nodeCount);
+        this.size++;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getCapacity() {
+        return this.capacity;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getRewriteCount() {
+        return this.rewriteCount;
+    }
+
+}
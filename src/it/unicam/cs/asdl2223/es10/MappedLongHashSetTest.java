@@ -0,0 +1,236 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe MappedLongHashSet
+ * 
+ * @author collettiva
+ *
+ */
+class MappedLongHashSetTest {
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    private Path newFile() throws IOException {
+        Path dir = Files.createTempDirectory("mappedset");
+        dir.toFile().deleteOnExit();
+        Path file = dir.resolve("set.bin");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    @Test
+    void testConstructor() throws IOException {
+        Path file = newFile();
+        assertThrows(NullPointerException.class,
+                () -> new MappedLongHashSet(null, multiplicationHash));
+        assertThrows(NullPointerException.class,
+                () -> new MappedLongHashSet(file, null));
+        try (MappedLongHashSet set = new MappedLongHashSet(file,
+                multiplicationHash)) {
+            assertTrue(set.isEmpty());
+            assertEquals(16, set.getCapacity());
+        }
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    void testAddContainsRemove() throws IOException {
+        try (MappedLongHashSet set = new MappedLongHashSet(newFile(),
+                multiplicationHash)) {
+            assertTrue(set.add(0));
+            assertTrue(set.add(Long.MAX_VALUE));
+            assertTrue(set.add(-42));
+            assertFalse(set.add(-42));
+            assertEquals(3, set.size());
+            assertTrue(set.contains(0));
+            assertTrue(set.contains(Long.MAX_VALUE));
+            assertFalse(set.contains(42));
+            assertTrue(set.remove(-42));
+            assertFalse(set.remove(-42));
+            assertFalse(set.contains(-42));
+            assertEquals(2, set.size());
+        }
+    }
+
+    @Test
+    void testAgainstHashSet() throws IOException {
+        try (MappedLongHashSet set = new MappedLongHashSet(newFile(),
+                new DivisionPrimaryHashFunction())) {
+            Set<Long> expected = new HashSet<Long>();
+            Random random = new Random(3);
+            for (int k = 0; k < 50000; k++) {
+                long x = random.nextInt(3000) * 1000003L;
+                if (random.nextBoolean())
+                    assertEquals(expected.add(x), set.add(x));
+                else
+                    assertEquals(expected.remove(x), set.remove(x));
+                assertEquals(expected.size(), set.size());
+            }
+            for (int i = 0; i < 3000; i++)
+                assertEquals(expected.contains(i * 1000003L),
+                        set.contains(i * 1000003L));
+        }
+    }
+
+    @Test
+    void testResizeAndCompaction() throws IOException {
+        try (MappedLongHashSet set = new MappedLongHashSet(newFile(),
+                multiplicationHash)) {
+            for (long i = 0; i < 12; i++)
+                set.add(i);
+            assertEquals(16, set.getCapacity());
+            set.add(12);
+            assertEquals(32, set.getCapacity());
+            // Inserimenti e cancellazioni alternati consumano nodi: con 13
+            // elementi su una soglia di 24 il primo ricompattamento raddoppia
+            // la tabella, i successivi mantengono la capacità
+            for (long i = 100; i < 10000; i++) {
+                set.add(i);
+                set.remove(i);
+            }
+            assertEquals(64, set.getCapacity());
+            assertEquals(13, set.size());
+            for (long i = 0; i < 13; i++)
+                assertTrue(set.contains(i));
+            set.clear();
+            assertTrue(set.isEmpty());
+            assertEquals(16, set.getCapacity());
+            assertFalse(set.contains(0));
+        }
+    }
+
+    @Test
+    void testChurnNearThreshold() throws IOException {
+        try (MappedLongHashSet set = new MappedLongHashSet(newFile(),
+                multiplicationHash)) {
+            // 12 elementi sono esattamente la soglia della capacità 16
+            for (long i = 0; i < 12; i++)
+                set.add(i);
+            assertEquals(16, set.getCapacity());
+            int rewrites = set.getRewriteCount();
+            for (long i = 100; i < 1100; i++) {
+                set.add(i);
+                set.remove(i);
+            }
+            // Dopo ogni ricompattamento restano liberi almeno 13 nodi: non
+            // si riscrive la tabella a ogni inserimento
+            assertTrue(set.getRewriteCount() - rewrites <= 1000 / 13 + 1);
+            assertEquals(12, set.size());
+            for (long i = 0; i < 12; i++)
+                assertTrue(set.contains(i));
+        }
+    }
+
+    @Test
+    void testReopen() throws IOException {
+        Path file = newFile();
+        try (MappedLongHashSet set = new MappedLongHashSet(file,
+                multiplicationHash)) {
+            for (long i = 0; i < 10000; i++)
+                set.add(i * i);
+            set.remove(4);
+        }
+        try (MappedLongHashSet set = new MappedLongHashSet(file,
+                multiplicationHash)) {
+            assertEquals(9999, set.size());
+            assertEquals(16384, set.getCapacity());
+            for (long i = 0; i < 10000; i++)
+                assertEquals(i != 2, set.contains(i * i));
+        }
+        // Con una funzione di hash diversa il file non si può aprire
+        assertThrows(IllegalArgumentException.class,
+                () -> new MappedLongHashSet(file,
+                        new DivisionPrimaryHashFunction()));
+    }
+
+    @Test
+    void testReopenWithDifferentSeed() throws IOException {
+        Path file = newFile();
+        try (MappedLongHashSet set = new MappedLongHashSet(file,
+                new TabulationPrimaryHashFunction(1))) {
+            for (long i = 0; i < 1000; i++)
+                set.add(i);
+        }
+        // La stessa classe con un altro seme, o senza seme, calcola altri
+        // bucket: il file non si può aprire
+        assertThrows(IllegalArgumentException.class,
+                () -> new MappedLongHashSet(file,
+                        new TabulationPrimaryHashFunction(2)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MappedLongHashSet(file,
+                        new TabulationPrimaryHashFunction()));
+        try (MappedLongHashSet set = new MappedLongHashSet(file,
+                new TabulationPrimaryHashFunction(1))) {
+            assertEquals(1000, set.size());
+            for (long i = 0; i < 1000; i++)
+                assertTrue(set.contains(i));
+            assertFalse(set.add(500));
+        }
+    }
+
+    @Test
+    void testRecoveryAfterCrash() throws IOException {
+        Path file = newFile();
+        // L'insieme non viene chiuso, come se il processo fosse terminato
+        MappedLongHashSet crashed = new MappedLongHashSet(file,
+                multiplicationHash);
+        for (long i = 0; i < 1000; i++)
+            crashed.add(i);
+        crashed.remove(7);
+        crashed.sync();
+        // Numero di elementi nell'intestazione non aggiornato e un
+        // collegamento a un nodo mai allocato, come dopo una scrittura
+        // interrotta
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(),
+                "rw")) {
+            raf.seek(24);
+            raf.writeInt(5);
+            // Il primo bucket vuoto punta a un nodo inesistente
+            long bucket = 64;
+            raf.seek(bucket);
+            while (raf.readInt() != 0)
+                bucket += 4;
+            raf.seek(bucket);
+            raf.writeInt(1000000);
+        }
+        try (MappedLongHashSet set = new MappedLongHashSet(file,
+                multiplicationHash)) {
+            assertEquals(999, set.size());
+            for (long i = 0; i < 1000; i++)
+                assertEquals(i != 7, set.contains(i));
+            assertTrue(set.add(7));
+        }
+    }
+
+    @Test
+    void testInvalidFile() throws IOException {
+        Path file = newFile();
+        Files.write(file, new byte[100]);
+        assertThrows(IOException.class,
+                () -> new MappedLongHashSet(file, multiplicationHash));
+    }
+
+    @Test
+    void testClosed() throws IOException {
+        MappedLongHashSet set = new MappedLongHashSet(newFile(),
+                multiplicationHash);
+        set.add(1);
+        set.close();
+        set.close();
+        assertThrows(IllegalStateException.class, () -> set.contains(1));
+        assertThrows(IllegalStateException.class, () -> set.add(2));
+    }
+
+}
@@ -11,13 +11,17 @@ package it.unicam.cs.asdl2223.es10;
  */
 public class MultiplicationPrimaryHashFunction implements PrimaryHashFunction {
 
+    /*
+     * Costante di Knuth (sqrt(5) - 1) / 2, calcolata una sola volta.
+     */
+    private static final double PHI = (Math.sqrt(5) - 1) / 2;
+
     /* (non-Javadoc)
      * @see it.unicam.cs.asdl1920.solhash.PrimaryHashFunction#hash(int, int)
      */
     @Override
     public int hash(int key, int m) {
-        double phi = (Math.sqrt(5) - 1) / 2;
-        double v = key * phi;
+        double v = key * PHI;
         double v1 = m * (v - Math.floor(v));
         return Math.abs((int) v1);
     }
@@ -0,0 +1,32 @@
+package it.unicam.cs.asdl2223.es10;
+
+/**
+ * Implementa una funzione di hash primaria che mescola i bit della chiave con
+ * la funzione di finalizzazione di MurmurHash3 (fmix32): due moltiplicazioni
+ * e tre scorrimenti con or esclusivo, dopo i quali ogni bit della chiave
+ * influenza tutti i bit del risultato.
+ *
+ * Se la dimensione della tabella è una potenza di due la posizione è data dai
+ * bit meno significativi del valore mescolato, altrimenti il valore, letto
+ * come intero senza segno, viene riportato nell'intervallo [0, m)
+ * moltiplicandolo per m e prendendo i 32 bit più significativi del risultato.
+ *
+ * @author collettiva
+ *
+ */
+public class MurmurPrimaryHashFunction implements PrimaryHashFunction {
+
+    @Override
+    public int hash(int key, int m) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        if ((m & (m - 1)) == 0)
+            return h & (m - 1);
+        return (int) (((h & 0xFFFFFFFFL) * m) >>> 32);
+    }
+
+}
@@ -0,0 +1,38 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe MurmurPrimaryHashFunction. I test comuni a
+ * tutte le funzioni di hash primarie sono in PrimaryHashFunctionContractTest.
+ * 
+ * @author collettiva
+ *
+ */
+class MurmurPrimaryHashFunctionTest
+        extends PrimaryHashFunctionContractTest {
+
+    private PrimaryHashFunction phf = this.createHashFunction();
+
+    @Override
+    PrimaryHashFunction createHashFunction() {
+        return new MurmurPrimaryHashFunction();
+    }
+
+    @Test
+    void testAvalanche() {
+        // fmix32 lascia lo zero invariato e cambia circa metà dei bit del
+        // risultato quando cambia un bit della chiave
+        assertEquals(0, phf.hash(0, 1 << 30));
+        int changed = 0;
+        for (int key = 0; key < 1000; key++)
+            for (int bit = 0; bit < 30; bit++)
+                changed += Integer.bitCount(phf.hash(key, 1 << 30)
+                        ^ phf.hash(key ^ (1 << bit), 1 << 30));
+        double average = changed / (1000.0 * 30);
+        assertTrue(average > 13 && average < 17);
+    }
+
+}
@@ -0,0 +1,465 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Realizza un insieme tramite una tabella hash a indirizzamento aperto con
+ * scansione lineare e politica Robin Hood. La funzione di hash primaria deve
+ * essere passata come parametro nel costruttore e deve implementare
+ * l'interface PrimaryHashFunction: essa determina la posizione "di casa" di
+ * ogni elemento, da cui parte la scansione.
+ *
+ * Con la politica Robin Hood, durante un inserimento, l'elemento da inserire
+ * prende il posto di un elemento che si trova più vicino alla propria
+ * posizione di casa, che continua la scansione al suo posto. In questo modo le
+ * distanze dalla posizione di casa restano uniformi e una ricerca senza
+ * successo si può fermare appena incontra un elemento più vicino a casa di
+ * quanto lo sarebbe l'elemento cercato. La cancellazione non lascia segnaposti:
+ * gli elementi successivi dello stesso gruppo vengono spostati indietro di una
+ * posizione.
+ *
+ * Accanto all'array degli elementi la tabella mantiene due array paralleli di
+ * interi: il codice hash di ogni elemento, che evita di chiamare equals() su
+ * elementi con codice diverso e di ricalcolare hashCode() nel resize, e la
+ * distanza di ogni elemento dalla propria posizione di casa più uno, che vale
+ * zero nelle posizioni vuote. Non vengono creati oggetti per gli elementi
+ * inseriti e l'inserimento esamina la tabella una sola volta.
+ *
+ * Come CollisionListResizableHashTable, la tabella non accetta elementi
+ * duplicati (individuati tramite il metodo equals() che si assume sia
+ * opportunamente ridefinito nella classe E) e non accetta elementi null. La
+ * tabella ha una dimensione iniziale di default (16), sempre una potenza di
+ * due, e un fattore di caricamento di default (0.75), che può essere cambiato
+ * con un costruttore apposito purché sia minore di 1. Quando il fattore di
+ * bilanciamento effettivo eccede quello stabilito la tabella viene raddoppiata
+ * e viene fatto un riposizionamento di tutti gli elementi.
+ *
+ * @author collettiva
+ *
+ * @param <E>
+ *                il tipo degli elementi dell'insieme
+ */
+public class OpenAddressingResizableHashTable<E> implements Set<E> {
+
+    /*
+     * La capacità iniziale. E' una potenza di due e quindi la capacità sarà
+     * sempre una potenza di due, in quanto ogni resize raddoppia la tabella.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Fattore di bilanciamento di default.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*
+     * Numero di elementi presenti nella tabella.
+     */
+    private int size;
+
+    /*
+     * Elementi della tabella, null nelle posizioni vuote.
+     */
+    private Object[] table;
+
+    /*
+     * Codice hash dell'elemento in ogni posizione.
+     */
+    private int[] hashes;
+
+    /*
+     * Distanza dell'elemento in ogni posizione dalla sua posizione di casa,
+     * più uno. Vale 0 nelle posizioni vuote.
+     */
+    private int[] distances;
+
+    /*
+     * Funzione di hash primaria usata da questa hash table.
+     */
+    private final PrimaryHashFunction phf;
+
+    /*
+     * Fattore di caricamento oltre il quale la tabella viene raddoppiata.
+     */
+    private final double loadFactor;
+
+    /*
+     * Contatore del numero di modifiche. Serve per rendere l'iterator
+     * fail-fast.
+     */
+    private int modCount;
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default e fattore di
+     * caricamento di default.
+     *
+     * @param phf
+     *                la funzione di hash primaria
+     * @throws NullPointerException
+     *                                  se la funzione di hash è nulla
+     */
+    public OpenAddressingResizableHashTable(PrimaryHashFunction phf) {
+        this(phf, LOAD_FACTOR);
+    }
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default e fattore di
+     * caricamento dato.
+     *
+     * @param phf
+     *                       la funzione di hash primaria
+     * @param loadFactor
+     *                       il fattore di caricamento oltre il quale la
+     *                       tabella viene raddoppiata
+     * @throws NullPointerException
+     *                                      se la funzione di hash è nulla
+     * @throws IllegalArgumentException
+     *                                      se il fattore di caricamento non è
+     *                                      compreso tra 0 e 1, esclusi
+     */
+    public OpenAddressingResizableHashTable(PrimaryHashFunction phf,
+            double loadFactor) {
+        if (phf == null)
+            throw new NullPointerException("Funzione di hash nulla");
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException(
+                    "Fattore di caricamento non valido: " + loadFactor);
+        this.phf = phf;
+        this.loadFactor = loadFactor;
+        this.allocate(INITIAL_CAPACITY);
+        this.modCount = 0;
+    }
+
+    /* Numero di posizioni della tabella corrente */
+    private int getCurrentCapacity() {
+        return this.table.length;
+    }
+
+    /*
+     * Valore corrente soglia oltre la quale si deve fare la resize. Resta
+     * sempre almeno una posizione vuota, che termina ogni scansione.
+     */
+    private int getCurrentThreshold() {
+        return Math.min((int) (getCurrentCapacity() * this.loadFactor),
+                getCurrentCapacity() - 1);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null)
+            throw new NullPointerException("L'elemento dato è nullo");
+        return this.find(o) >= 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return this.copyInto(new Object[this.size]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T[] toArray(T[] a) {
+        if (a == null)
+            throw new NullPointerException("Array nullo");
+        if (a.length < this.size)
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(),
+                    this.size);
+        else if (a.length > this.size)
+            a[this.size] = null;
+        return this.copyInto(a);
+    }
+
+    /*
+     * Copia gli elementi, nell'ordine delle posizioni, all'inizio di un array
+     * lungo almeno size.
+     */
+    private <T> T[] copyInto(T[] a) {
+        int j = 0;
+        for (Object item : this.table)
+            if (item != null)
+                Array.set(a, j++, item);
+        return a;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null)
+            throw new NullPointerException("L'elemento dato è nullo");
+        int hash = e.hashCode();
+        int mask = this.getCurrentCapacity() - 1;
+        int i = this.phf.hash(hash, this.getCurrentCapacity());
+        int distance = 1;
+        // Un'unica scansione: finché non si incontra una posizione vuota o un
+        // elemento più vicino a casa, l'elemento potrebbe essere già presente
+        while (this.distances[i] >= distance) {
+            if (this.hashes[i] == hash && e.equals(this.table[i]))
+                return false;
+            i = (i + 1) & mask;
+            distance++;
+        }
+        this.place(e, hash, i, distance);
+        this.size++;
+        this.modCount++;
+        if (this.size > this.getCurrentThreshold())
+            this.resize();
+        return true;
+    }
+
+    /*
+     * Colloca un elemento nella posizione i, a distanza data dalla propria
+     * posizione di casa, spostando in avanti gli elementi che incontra secondo
+     * la politica Robin Hood. L'elemento non deve essere già presente.
+     */
+    private void place(Object item, int hash, int i, int distance) {
+        int mask = this.getCurrentCapacity() - 1;
+        while (this.distances[i] != 0) {
+            if (this.distances[i] < distance) {
+                // L'elemento corrente è più vicino a casa: gli prende il
+                // posto e continua la scansione con lui
+                Object displacedItem = this.table[i];
+                int displacedHash = this.hashes[i];
+                int displacedDistance = this.distances[i];
+                this.table[i] = item;
+                this.hashes[i] = hash;
+                this.distances[i] = distance;
+                item = displacedItem;
+                hash = displacedHash;
+                distance = displacedDistance;
+            }
+            i = (i + 1) & mask;
+            distance++;
+        }
+        this.table[i] = item;
+        this.hashes[i] = hash;
+        this.distances[i] = distance;
+    }
+
+    /*
+     * Restituisce la posizione dell'elemento uguale a o, -1 se non c'è.
+     */
+    private int find(Object o) {
+        int hash = o.hashCode();
+        int mask = this.getCurrentCapacity() - 1;
+        int i = this.phf.hash(hash, this.getCurrentCapacity());
+        int distance = 1;
+        // Una posizione vuota o un elemento più vicino a casa indicano che
+        // l'elemento non c'è
+        while (this.distances[i] >= distance) {
+            if (this.hashes[i] == hash && o.equals(this.table[i]))
+                return i;
+            i = (i + 1) & mask;
+            distance++;
+        }
+        return -1;
+    }
+
+    /*
+     * Raddoppia la tabella corrente e riposiziona tutti gli elementi usando i
+     * codici hash memorizzati.
+     */
+    private void resize() {
+        Object[] oldTable = this.table;
+        int[] oldHashes = this.hashes;
+        this.allocate(2 * oldTable.length);
+        for (int i = 0; i < oldTable.length; i++)
+            if (oldTable[i] != null) {
+                int home = this.phf.hash(oldHashes[i],
+                        this.getCurrentCapacity());
+                this.place(oldTable[i], oldHashes[i], home, 1);
+            }
+    }
+
+    private void allocate(int capacity) {
+        this.table = new Object[capacity];
+        this.hashes = new int[capacity];
+        this.distances = new int[capacity];
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null)
+            throw new NullPointerException("L'elemento dato è nullo");
+        int i = this.find(o);
+        if (i < 0)
+            return false;
+        // Cancellazione con spostamento all'indietro: gli elementi successivi
+        // che non sono nella loro posizione di casa avanzano di una posizione
+        int mask = this.getCurrentCapacity() - 1;
+        int next = (i + 1) & mask;
+        while (this.distances[next] > 1) {
+            this.table[i] = this.table[next];
+            this.hashes[i] = this.hashes[next];
+            this.distances[i] = this.distances[next] - 1;
+            i = next;
+            next = (next + 1) & mask;
+        }
+        this.table[i] = null;
+        this.hashes[i] = 0;
+        this.distances[i] = 0;
+        this.size--;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!this.contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean modified = false;
+        for (E e : c)
+            if (this.add(e))
+                modified = true;
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione nulla");
+        // Prima si decide quali elementi tenere, così un'eccezione di
+        // c.contains lascia la tabella invariata
+        boolean[] keep = new boolean[this.table.length];
+        int kept = 0;
+        for (int i = 0; i < this.table.length; i++)
+            if (this.table[i] != null && c.contains(this.table[i])) {
+                keep[i] = true;
+                kept++;
+            }
+        if (kept == this.size)
+            return false;
+        // La tabella viene ricostruita con la stessa capacità: gli elementi
+        // tenuti vengono ricollocati usando i codici hash memorizzati
+        Object[] oldTable = this.table;
+        int[] oldHashes = this.hashes;
+        this.allocate(oldTable.length);
+        for (int i = 0; i < oldTable.length; i++)
+            if (keep[i])
+                this.place(oldTable[i], oldHashes[i],
+                        this.phf.hash(oldHashes[i], this.getCurrentCapacity()),
+                        1);
+        this.size = kept;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione nulla");
+        // Non si usa c.contains(null), che molte collezioni rifiutano: gli
+        // elementi vengono copiati e controllati prima di togliere qualcosa
+        Object[] items = c.toArray();
+        for (Object o : items)
+            if (o == null)
+                throw new NullPointerException("Elemento nullo nella collezione");
+        boolean modified = false;
+        for (Object o : items)
+            if (this.remove(o))
+                modified = true;
+        return modified;
+    }
+
+    @Override
+    public void clear() {
+        this.allocate(INITIAL_CAPACITY);
+        this.size = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Restituisce la massima distanza di un elemento dalla propria posizione
+     * di casa, cioè il numero massimo di posizioni esaminate in più da una
+     * ricerca con successo.
+     *
+     * @return la massima distanza di un elemento dalla propria posizione di
+     *         casa, 0 se la tabella è vuota
+     */
+    public int getMaxProbeDistance() {
+        int max = 0;
+        for (int d : this.distances)
+            if (d - 1 > max)
+                max = d - 1;
+        return max;
+    }
+
+    /*
+     * Iteratore fail-fast che scorre direttamente le posizioni della tabella.
+     */
+    private class Itr implements Iterator<E> {
+
+        private int next;
+
+        private final int numeroModificheAtteso;
+
+        private Itr() {
+            this.numeroModificheAtteso = modCount;
+            this.next = this.advance(0);
+        }
+
+        private int advance(int i) {
+            while (i < table.length && table[i] == null)
+                i++;
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next < table.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E next() {
+            if (this.numeroModificheAtteso != modCount)
+                throw new ConcurrentModificationException(
+                        "Tabella modificata durante l'iterazione");
+            if (!this.hasNext())
+                throw new NoSuchElementException("Non c'è un elemento successivo");
+            E item = (E) table[this.next];
+            this.next = this.advance(this.next + 1);
+            return item;
+        }
+
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected Object[] getTable() {
+        return this.table;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected PrimaryHashFunction getPhf() {
+        return this.phf;
+    }
+
+}
@@ -0,0 +1,138 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe OpenAddressingResizableHashTable
+ * 
+ * @author collettiva
+ *
+ */
+class OpenAddressingResizableHashTableTest extends AbstractSetContractTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    @Override
+    <E> Set<E> createSet(PrimaryHashFunction phf) {
+        return new OpenAddressingResizableHashTable<E>(phf);
+    }
+
+    @Test
+    void testLoadFactor() {
+        assertThrows(NullPointerException.class,
+                () -> new OpenAddressingResizableHashTable<Integer>(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OpenAddressingResizableHashTable<Integer>(
+                        divisionHash, 1.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OpenAddressingResizableHashTable<Integer>(
+                        divisionHash, 0));
+        // Con il fattore di default la soglia di 16 posizioni è 12
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 12; i++)
+            table.add(i);
+        assertEquals(16, table.getTable().length);
+        table.add(12);
+        assertEquals(32, table.getTable().length);
+        table = new OpenAddressingResizableHashTable<>(divisionHash, 0.9);
+        for (int i = 0; i < 14; i++)
+            table.add(i);
+        assertEquals(16, table.getTable().length);
+        table.add(14);
+        assertEquals(32, table.getTable().length);
+    }
+
+    @Test
+    void testIteratorShouldFailFast() {
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        for (int i = 1; i < 12; i++)
+            table.add(i);
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> it.next());
+        Iterator<Integer> afterRetain = table.iterator();
+        afterRetain.next();
+        table.retainAll(Set.of(1, 2));
+        assertThrows(ConcurrentModificationException.class,
+                () -> afterRetain.next());
+    }
+
+    @Test
+    void testDisplacement() {
+        // Con la divisione e 16 posizioni 16, 32 e 48 hanno casa 0, 2 ha
+        // casa 2
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        table.add(2);
+        table.add(16);
+        table.add(32);
+        assertEquals(2, table.getTable()[2]);
+        // 48 arriva in posizione 2 a distanza 2 da casa e prende il posto di
+        // 2, che è a casa e viene spostato avanti
+        table.add(48);
+        Object[] slots = table.getTable();
+        assertEquals(16, slots[0]);
+        assertEquals(32, slots[1]);
+        assertEquals(48, slots[2]);
+        assertEquals(2, slots[3]);
+        assertEquals(2, table.getMaxProbeDistance());
+        for (int x : new int[] { 2, 16, 32, 48 })
+            assertTrue(table.contains(x));
+        // La ricerca di 64, con casa 0, si ferma su 2, più vicino a casa
+        assertFalse(table.contains(64));
+    }
+
+    @Test
+    void testBackwardShiftDelete() {
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        table.add(2);
+        table.add(16);
+        table.add(32);
+        table.add(48);
+        // Gli elementi successivi del gruppo arretrano di una posizione, 2
+        // torna a casa, e non restano segnaposti
+        assertTrue(table.remove(16));
+        Object[] slots = table.getTable();
+        assertEquals(32, slots[0]);
+        assertEquals(48, slots[1]);
+        assertEquals(2, slots[2]);
+        assertNull(slots[3]);
+        assertEquals(1, table.getMaxProbeDistance());
+        assertTrue(table.remove(32));
+        assertEquals(48, table.getTable()[0]);
+        assertEquals(0, table.getMaxProbeDistance());
+        assertTrue(table.contains(2));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testCollisionsAndRemovals() {
+        // Chiavi multiple di 16 con la divisione: stessa posizione di casa
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        assertEquals(0, table.getMaxProbeDistance());
+        for (int i = 0; i < 6; i++)
+            assertTrue(table.add(16 * i));
+        assertTrue(table.add(1));
+        assertEquals(5, table.getMaxProbeDistance());
+        assertTrue(table.remove(0));
+        assertTrue(table.remove(32));
+        assertFalse(table.contains(0));
+        for (int i = 1; i < 6; i++)
+            assertEquals(i != 2, table.contains(16 * i));
+        assertTrue(table.contains(1));
+        assertEquals(3, table.getMaxProbeDistance());
+        assertEquals(5, table.size());
+    }
+
+}
@@ -0,0 +1,60 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test comuni alle funzioni di hash primarie (FibonacciPrimaryHashFunction,
+ * MurmurPrimaryHashFunction, TabulationPrimaryHashFunction). Ogni
+ * sottoclasse indica la funzione da verificare e aggiunge i test specifici.
+ * 
+ * @author collettiva
+ *
+ */
+abstract class PrimaryHashFunctionContractTest {
+
+    /**
+     * Crea la funzione di hash da verificare.
+     * 
+     * @return la funzione di hash creata
+     */
+    abstract PrimaryHashFunction createHashFunction();
+
+    @Test
+    void testRange() {
+        PrimaryHashFunction phf = this.createHashFunction();
+        int[] sizes = { 1, 2, 7, 16, 100, 1024, 1000003, 1 << 30 };
+        int[] keys = { 0, 1, -1, 42, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                123456789 };
+        for (int m : sizes)
+            for (int key : keys) {
+                int h = phf.hash(key, m);
+                assertTrue(h >= 0 && h < m);
+            }
+    }
+
+    @Test
+    void testSequentialKeysDistribution() {
+        // Chiavi consecutive e a passo 64 si distribuiscono in modo uniforme:
+        // nessuna lista di collisione è molto più lunga della media
+        PrimaryHashFunction phf = this.createHashFunction();
+        for (int stride : new int[] { 1, 64 }) {
+            CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                    phf);
+            for (int i = 0; i < 10000; i++)
+                table.add(i * stride);
+            int max = 0;
+            for (Object bucket : table.getTable()) {
+                int length = 0;
+                for (CollisionListResizableHashTable.Node<?> n = (CollisionListResizableHashTable.Node<?>) bucket; n != null; n = n.next)
+                    length++;
+                max = Math.max(max, length);
+            }
+            assertTrue(max <= 10);
+            for (int i = 0; i < 10000; i++)
+                assertTrue(table.contains(i * stride));
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.Random;
+
+/**
+ * Implementa una funzione di hash primaria con il metodo della tabulazione
+ * semplice: la chiave viene divisa nei suoi quattro byte, ognuno dei quali
+ * seleziona un intero casuale in una propria tabella di 256 elementi, e il
+ * valore hash è l'or esclusivo dei quattro interi selezionati. Le tabelle
+ * vengono riempite alla creazione dell'oggetto; la famiglia di funzioni così
+ * ottenuta è 3-indipendente.
+ *
+ * Se la dimensione della tabella è una potenza di due la posizione è data dai
+ * bit meno significativi del valore hash, altrimenti il valore, letto come
+ * intero senza segno, viene riportato nell'intervallo [0, m)
+ * moltiplicandolo per m e prendendo i 32 bit più significativi del risultato.
+ *
+ * @author collettiva
+ *
+ */
+public class TabulationPrimaryHashFunction implements PrimaryHashFunction {
+
+    /*
+     * Le quattro tabelle, una per byte della chiave, memorizzate una dopo
+     * l'altra.
+     */
+    private final int[] tables;
+
+    /**
+     * Costruisce una funzione di hash con tabelle casuali.
+     */
+    public TabulationPrimaryHashFunction() {
+        this(new Random());
+    }
+
+    /**
+     * Costruisce una funzione di hash con tabelle generate a partire da un
+     * seme dato. Due funzioni con lo stesso seme sono uguali.
+     *
+     * @param seed
+     *                 il seme del generatore dei numeri casuali
+     */
+    public TabulationPrimaryHashFunction(long seed) {
+        this(new Random(seed));
+    }
+
+    private TabulationPrimaryHashFunction(Random random) {
+        this.tables = new int[4 * 256];
+        for (int i = 0; i < this.tables.length; i++)
+            this.tables[i] = random.nextInt();
+    }
+
+    @Override
+    public int hash(int key, int m) {
+        int h = this.tables[key & 0xFF]
+                ^ this.tables[256 + ((key >>> 8) & 0xFF)]
+                ^ this.tables[512 + ((key >>> 16) & 0xFF)]
+                ^ this.tables[768 + (key >>> 24)];
+        if ((m & (m - 1)) == 0)
+            return h & (m - 1);
+        return (int) (((h & 0xFFFFFFFFL) * m) >>> 32);
+    }
+
+}
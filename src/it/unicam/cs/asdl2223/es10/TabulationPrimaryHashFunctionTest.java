@@ -0,0 +1,38 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe TabulationPrimaryHashFunction. I test
+ * comuni a tutte le funzioni di hash primarie sono in
+ * PrimaryHashFunctionContractTest.
+ * 
+ * @author collettiva
+ *
+ */
+class TabulationPrimaryHashFunctionTest
+        extends PrimaryHashFunctionContractTest {
+
+    private PrimaryHashFunction phf = this.createHashFunction();
+
+    @Override
+    PrimaryHashFunction createHashFunction() {
+        return new TabulationPrimaryHashFunction(42);
+    }
+
+    @Test
+    void testSeed() {
+        PrimaryHashFunction same = new TabulationPrimaryHashFunction(42);
+        PrimaryHashFunction other = new TabulationPrimaryHashFunction(43);
+        boolean differ = false;
+        for (int key = 0; key < 100; key++) {
+            assertEquals(phf.hash(key, 1 << 20), same.hash(key, 1 << 20));
+            if (phf.hash(key, 1 << 20) != other.hash(key, 1 << 20))
+                differ = true;
+        }
+        assertTrue(differ);
+    }
+
+}
@@ -3,7 +3,10 @@
  */
 package it.unicam.cs.asdl2223.es12;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
@@ -31,8 +34,14 @@ import java.util.Set;
  * questo set. I test di presenza si basano sui metodi equals ridefiniti per
  * nodi e archi nelle classi GraphNode<L> e GraphEdge<L>.
  * 
- * Questa classe non supporta le operazioni di rimozione di nodi e archi e le
- * operazioni indicizzate di ricerca di nodi e archi.
+ * Oltre alle liste di adiacenza viene mantenuto un indice che associa ad ogni
+ * etichetta un indice denso nell'intervallo
+ * <code>[0, this.nodeCount() - 1]</code> e una lista dei nodi in ordine di
+ * indice, per cui la ricerca di un nodo tramite etichetta e le operazioni
+ * indicizzate sui nodi costano O(1). Quando un nodo viene rimosso il suo
+ * indice viene assegnato all'ultimo nodo.
+ * 
+ * Questa classe non supporta l'operazione di rimozione degli archi.
  * 
  * @author Template: Luca Tesei, Implementazione: collettiva
  *
@@ -48,12 +57,24 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
      */
     private final Map<GraphNode<L>, Set<GraphEdge<L>>> adjacentLists;
 
+    /*
+     * Associa ad ogni etichetta l'indice del relativo nodo nella lista nodes.
+     */
+    private final Map<L, Integer> labelIndexes;
+
+    /*
+     * I nodi del grafo in ordine di indice.
+     */
+    private final List<GraphNode<L>> nodes;
+
     /**
      * Crea un grafo vuoto.
      */
     public MapAdjacentListDirectedGraph() {
         // Inizializza la mappa con la mappa vuota
         this.adjacentLists = new HashMap<GraphNode<L>, Set<GraphEdge<L>>>();
+        this.labelIndexes = new HashMap<L, Integer>();
+        this.nodes = new ArrayList<GraphNode<L>>();
     }
 
     @Override
@@ -75,6 +96,8 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
     @Override
     public void clear() {
         this.adjacentLists.clear();
+        this.labelIndexes.clear();
+        this.nodes.clear();
     }
 
     @Override
@@ -85,7 +108,8 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
 
     @Override
     public Set<GraphNode<L>> getNodes() {
-        return this.adjacentLists.keySet();
+        // Vista non modificabile, per non disallineare l'indice dei nodi
+        return Collections.unmodifiableSet(this.adjacentLists.keySet());
     }
 
     @Override
@@ -93,11 +117,13 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
         // Controlla se il nodo dato è nullo
         if (node == null) throw new NullPointerException("Il nodo dato è nullo");
         // Controlla se il nodo è già presente nel grafo
-        if (!adjacentLists.containsKey(node)) {
-            // Aggiunge il nodo al grafo
-            this.adjacentLists.put(node, new HashSet<GraphEdge<L>>());
-        }
-        return false;
+        if (adjacentLists.containsKey(node))
+            return false;
+        // Aggiunge il nodo al grafo assegnandogli il primo indice libero
+        this.adjacentLists.put(node, new HashSet<GraphEdge<L>>());
+        this.labelIndexes.put(node.getLabel(), this.nodes.size());
+        this.nodes.add(node);
+        return true;
     }
 
     @Override
@@ -105,8 +131,19 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
         if (node == null)
             throw new NullPointerException(
                     "Tentativo di rimuovere un nodo null");
-        throw new UnsupportedOperationException(
-                "Rimozione dei nodi non supportata");
+        if (this.adjacentLists.remove(node) == null)
+            return false;
+        // Elimina gli archi entranti nel nodo rimosso
+        for (Set<GraphEdge<L>> edges : this.adjacentLists.values())
+            edges.removeIf(e -> e.getNode2().equals(node));
+        // L'ultimo nodo prende l'indice del nodo rimosso
+        int index = this.labelIndexes.remove(node.getLabel());
+        GraphNode<L> last = this.nodes.remove(this.nodes.size() - 1);
+        if (index < this.nodes.size()) {
+            this.nodes.set(index, last);
+            this.labelIndexes.put(last.getLabel(), index);
+        }
+        return true;
     }
 
     @Override
@@ -125,13 +162,11 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
         if (label == null) {
             throw new NullPointerException("L'etichetta data è null");
         }
-        // Cerca il nodo con l'etichetta specificata nelle liste di adiacenza
-        for (GraphNode<L> node : this.adjacentLists.keySet()) {
-            if (node.getLabel().equals(label)) {
-                return node;
-            }
-        }
-        return null;
+        // Cerca il nodo con l'etichetta specificata nell'indice
+        Integer index = this.labelIndexes.get(label);
+        if (index == null)
+            return null;
+        return this.nodes.get(index);
     }
 
     @Override
@@ -139,14 +174,19 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
         if (label == null)
             throw new NullPointerException(
                     "Tentativo di ricercare un nodo con etichetta null");
-        throw new UnsupportedOperationException(
-                "Ricerca dei nodi con indice non supportata");
+        Integer index = this.labelIndexes.get(label);
+        if (index == null)
+            throw new IllegalArgumentException(
+                    "Ricerca dell'indice di un nodo non esistente");
+        return index;
     }
 
     @Override
     public GraphNode<L> getNodeAtIndex(int i) {
-        throw new UnsupportedOperationException(
-                "Ricerca dei nodi con indice non supportata");
+        if (i < 0 || i >= this.nodes.size())
+            throw new IndexOutOfBoundsException(
+                    "Indice di nodo non valido: " + i);
+        return this.nodes.get(i);
     }
 
     @Override
@@ -461,4 +461,72 @@ class MapAdjacentListDirectedGraphTest {
         assertTrue(g.getDegreeOf(nw)==1);
     }
 
+    @Test
+    final void testGetNodeIndexOf() {
+        Graph<String> g = new MapAdjacentListDirectedGraph<String>();
+        assertThrows(NullPointerException.class, () -> g.getNodeIndexOf(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getNodeIndexOf("s"));
+        g.addNode(new GraphNode<String>("s"));
+        g.addNode(new GraphNode<String>("u"));
+        g.addNode(new GraphNode<String>("x"));
+        // Gli indici sono assegnati in ordine di inserimento
+        assertEquals(0, g.getNodeIndexOf("s"));
+        assertEquals(1, g.getNodeIndexOf("u"));
+        assertEquals(2, g.getNodeIndexOf("x"));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getNodeIndexOf("y"));
+        g.clear();
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getNodeIndexOf("s"));
+    }
+
+    @Test
+    final void testGetNodeAtIndex() {
+        Graph<String> g = new MapAdjacentListDirectedGraph<String>();
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.getNodeAtIndex(0));
+        GraphNode<String> ns = new GraphNode<String>("s");
+        g.addNode(ns);
+        GraphNode<String> nu = new GraphNode<String>("u");
+        g.addNode(nu);
+        assertTrue(g.getNodeAtIndex(0) == ns);
+        assertTrue(g.getNodeAtIndex(1) == nu);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.getNodeAtIndex(2));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.getNodeAtIndex(-1));
+    }
+
+    @Test
+    final void testRemoveNode() {
+        Graph<String> g = new MapAdjacentListDirectedGraph<String>();
+        assertThrows(NullPointerException.class, () -> g.removeNode(null));
+        GraphNode<String> ns = new GraphNode<String>("s");
+        g.addNode(ns);
+        GraphNode<String> nu = new GraphNode<String>("u");
+        g.addNode(nu);
+        GraphNode<String> nx = new GraphNode<String>("x");
+        g.addNode(nx);
+        g.addEdge(new GraphEdge<String>(ns, nu, true, 10.1));
+        g.addEdge(new GraphEdge<String>(nu, nx, true, 2.05));
+        g.addEdge(new GraphEdge<String>(nx, ns, true, 7.03));
+        assertFalse(g.removeNode(new GraphNode<String>("y")));
+        assertTrue(g.removeNode(new GraphNode<String>("s")));
+        assertEquals(2, g.nodeCount());
+        assertEquals(1, g.edgeCount());
+        assertFalse(g.containsNode(ns));
+        assertNull(g.getNodeOf("s"));
+        assertTrue(g.getEdgesOf(nx).isEmpty());
+        // L'ultimo nodo prende l'indice del nodo rimosso
+        assertEquals(0, g.getNodeIndexOf("x"));
+        assertEquals(1, g.getNodeIndexOf("u"));
+        assertTrue(g.getNodeAtIndex(0) == nx);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.getNodeAtIndex(2));
+        assertTrue(g.removeNode(nx));
+        assertEquals(0, g.getNodeIndexOf("u"));
+        assertEquals(0, g.edgeCount());
+    }
+
 }
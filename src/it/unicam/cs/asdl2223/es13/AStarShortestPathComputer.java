@@ -0,0 +1,215 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Calcolatore di cammini minimi che implementa l'algoritmo A* per le
+ * interrogazioni punto a punto. A* è una variante dell'algoritmo di Dijkstra
+ * in cui la priorità di un nodo scoperto è la sua distanza provvisoria dalla
+ * sorgente più la stima, data da un'euristica ({@code ShortestPathHeuristic}),
+ * della sua distanza dalla destinazione. In questo modo la ricerca si dirige
+ * verso la destinazione e termina non appena questa viene estratta dalla
+ * coda. Con l'euristica nulla A* coincide con l'algoritmo di Dijkstra con
+ * arresto anticipato; migliore è la stima, meno nodi vengono resi definitivi.
+ *
+ * L'euristica deve essere consistente, altrimenti il cammino restituito
+ * potrebbe non essere minimo. Le informazioni della ricerca punto a punto
+ * sono memorizzate in tabelle hash interne, per cui i campi dei nodi del grafo
+ * non vengono modificati. Il calcolo con sorgente singola è invece delegato a
+ * un {@code DijkstraShortestPathComputer<L>} sullo stesso grafo.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class AStarShortestPathComputer<L>
+        implements PointToPointShortestPathComputer<L> {
+
+    // il grafo su cui opera questo oggetto
+    private final Graph<L> graph;
+
+    // l'euristica che stima la distanza dalla destinazione
+    private final ShortestPathHeuristic<L> heuristic;
+
+    // calcolatore usato per il calcolo dei cammini con sorgente singola
+    private final DijkstraShortestPathComputer<L> singleSource;
+
+    // numero di nodi resi definitivi nell'ultimo calcolo
+    private int settledNodeCount;
+
+    /**
+     * Crea un calcolatore A* per un grafo orientato e pesato privo di pesi
+     * negativi.
+     *
+     * @param graph
+     *                      il grafo su cui opera il calcolatore
+     * @param heuristic
+     *                      l'euristica consistente da usare per stimare la
+     *                      distanza dalla destinazione
+     * @throws NullPointerException
+     *                                      se il grafo o l'euristica passati
+     *                                      sono nulli
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è pesato o
+     *                                      contiene almeno un peso negativo
+     */
+    public AStarShortestPathComputer(Graph<L> graph,
+            ShortestPathHeuristic<L> heuristic) {
+        if (heuristic == null)
+            throw new NullPointerException("L'euristica data è nulla");
+        // Il costruttore controlla il grafo
+        this.singleSource = new DijkstraShortestPathComputer<L>(graph);
+        this.graph = graph;
+        this.heuristic = heuristic;
+        this.settledNodeCount = 0;
+    }
+
+    /**
+     * Crea un calcolatore A* con l'euristica nulla.
+     *
+     * @param graph
+     *                  il grafo su cui opera il calcolatore
+     * @throws NullPointerException
+     *                                      se il grafo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è pesato o
+     *                                      contiene almeno un peso negativo
+     */
+    public AStarShortestPathComputer(Graph<L> graph) {
+        this(graph, ShortestPathHeuristic.zero());
+    }
+
+    /**
+     * Restituisce l'euristica usata da questo calcolatore.
+     *
+     * @return l'euristica usata da questo calcolatore
+     */
+    public ShortestPathHeuristic<L> getHeuristic() {
+        return this.heuristic;
+    }
+
+    @Override
+    public List<GraphEdge<L>> getShortestPath(GraphNode<L> sourceNode,
+            GraphNode<L> targetNode) {
+        GraphNode<L> source = this.nodeOf(sourceNode);
+        GraphNode<L> target = this.nodeOf(targetNode);
+        this.settledNodeCount = 0;
+        if (source.equals(target))
+            return new ArrayList<GraphEdge<L>>();
+        // distanze provvisorie dalla sorgente dei nodi scoperti
+        Map<GraphNode<L>, Double> distances = new HashMap<GraphNode<L>, Double>();
+        // arco con cui si raggiunge ogni nodo scoperto nel cammino migliore
+        Map<GraphNode<L>, GraphEdge<L>> previousEdges = new HashMap<GraphNode<L>, GraphEdge<L>>();
+        // nodi resi definitivi
+        Set<GraphNode<L>> settled = new HashSet<GraphNode<L>>();
+        NodeMinPriorityQueue<L> queue = new BinaryHeapNodeMinPriorityQueue<L>();
+        distances.put(source, 0.0);
+        queue.insert(source, this.heuristic.estimate(source, target));
+        while (!queue.isEmpty()) {
+            GraphNode<L> u = queue.extractMinimum();
+            settled.add(u);
+            this.settledNodeCount++;
+            // Con un'euristica consistente la distanza della destinazione è
+            // definitiva appena viene estratta
+            if (u.equals(target))
+                return this.buildPath(previousEdges, source, target);
+            double du = distances.get(u);
+            for (GraphEdge<L> edge : this.graph.getEdgesOf(u)) {
+                GraphNode<L> v = edge.getNode2();
+                if (settled.contains(v))
+                    continue;
+                double newDistance = du + edge.getWeight();
+                Double dv = distances.get(v);
+                if (dv != null && newDistance >= dv)
+                    continue;
+                distances.put(v, newDistance);
+                previousEdges.put(v, edge);
+                double priority = newDistance
+                        + this.heuristic.estimate(v, target);
+                if (dv == null)
+                    queue.insert(v, priority);
+                else if (priority < queue.getPriority(v))
+                    // il confronto evita problemi di arrotondamento quando la
+                    // stima è molto più grande della distanza
+                    queue.decreasePriority(v, priority);
+            }
+        }
+        // la destinazione non è raggiungibile
+        return null;
+    }
+
+    @Override
+    public int getSettledNodeCount() {
+        return this.settledNodeCount;
+    }
+
+    @Override
+    public void computeShortestPathsFrom(GraphNode<L> sourceNode) {
+        this.singleSource.computeShortestPathsFrom(sourceNode);
+        this.settledNodeCount = this.singleSource.getSettledNodeCount();
+    }
+
+    @Override
+    public boolean isComputed() {
+        return this.singleSource.isComputed();
+    }
+
+    @Override
+    public GraphNode<L> getLastSource() {
+        return this.singleSource.getLastSource();
+    }
+
+    @Override
+    public Graph<L> getGraph() {
+        return this.graph;
+    }
+
+    @Override
+    public List<GraphEdge<L>> getShortestPathTo(GraphNode<L> targetNode) {
+        return this.singleSource.getShortestPathTo(targetNode);
+    }
+
+    /*
+     * Restituisce il nodo del grafo uguale a quello passato, controllandone la
+     * validità.
+     */
+    private GraphNode<L> nodeOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Il nodo dato è nullo");
+        GraphNode<L> result = this.graph.getNodeOf(node.getLabel());
+        if (result == null)
+            throw new IllegalArgumentException(
+                    "Il nodo dato non esiste nel grafo");
+        return result;
+    }
+
+    /*
+     * Ricostruisce il cammino dalla sorgente alla destinazione risalendo gli
+     * archi con cui sono stati raggiunti i nodi.
+     */
+    private List<GraphEdge<L>> buildPath(
+            Map<GraphNode<L>, GraphEdge<L>> previousEdges, GraphNode<L> source,
+            GraphNode<L> target) {
+        List<GraphEdge<L>> path = new ArrayList<GraphEdge<L>>();
+        GraphNode<L> current = target;
+        while (!current.equals(source)) {
+            GraphEdge<L> edge = previousEdges.get(current);
+            path.add(edge);
+            current = edge.getNode1();
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+}
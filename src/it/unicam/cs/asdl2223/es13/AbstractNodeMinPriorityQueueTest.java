@@ -0,0 +1,101 @@
+package it.unicam.cs.asdl2223.es13;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test comuni a tutte le implementazioni di NodeMinPriorityQueue. Ogni
+ * sottoclasse indica l'implementazione da verificare e aggiunge i test
+ * specifici.
+ *
+ * @author collettiva
+ *
+ */
+abstract class AbstractNodeMinPriorityQueueTest {
+
+    /**
+     * Crea una coda vuota dell'implementazione da verificare.
+     *
+     * @return una nuova coda vuota
+     */
+    abstract <L> NodeMinPriorityQueue<L> newQueue();
+
+    @Test
+    final void testInsertAndExtractMinimum() {
+        NodeMinPriorityQueue<String> q = this.<String>newQueue();
+        assertTrue(q.isEmpty());
+        assertThrows(NoSuchElementException.class, () -> q.extractMinimum());
+        assertThrows(NoSuchElementException.class, () -> q.minimum());
+        assertThrows(NullPointerException.class, () -> q.insert(null, 1));
+        q.insert(new GraphNode<String>("a"), 5);
+        q.insert(new GraphNode<String>("b"), 2);
+        q.insert(new GraphNode<String>("c"), 7);
+        assertThrows(IllegalArgumentException.class,
+                () -> q.insert(new GraphNode<String>("a"), 1));
+        assertEquals(3, q.size());
+        assertTrue(q.contains(new GraphNode<String>("c")));
+        assertEquals(new GraphNode<String>("b"), q.minimum());
+        assertEquals(new GraphNode<String>("b"), q.extractMinimum());
+        assertFalse(q.contains(new GraphNode<String>("b")));
+        assertEquals(new GraphNode<String>("a"), q.extractMinimum());
+        assertEquals(new GraphNode<String>("c"), q.extractMinimum());
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    final void testDecreasePriority() {
+        NodeMinPriorityQueue<String> q = this.<String>newQueue();
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        GraphNode<String> c = new GraphNode<String>("c");
+        q.insert(a, 5);
+        q.insert(b, 2);
+        q.insert(c, 7);
+        assertThrows(NoSuchElementException.class,
+                () -> q.decreasePriority(new GraphNode<String>("d"), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> q.decreasePriority(a, 5));
+        q.decreasePriority(c, 1);
+        assertEquals(1, q.getPriority(c));
+        assertEquals(c, q.extractMinimum());
+        q.decreasePriority(a, 0.5);
+        assertEquals(a, q.extractMinimum());
+        assertEquals(b, q.extractMinimum());
+        q.insert(a, 3);
+        q.clear();
+        assertTrue(q.isEmpty());
+        assertFalse(q.contains(a));
+    }
+
+    @Test
+    final void testRandomSequence() {
+        NodeMinPriorityQueue<Integer> q = this.<Integer>newQueue();
+        Random random = new Random(42);
+        List<Double> expected = new ArrayList<Double>();
+        double[] priorities = new double[500];
+        for (int i = 0; i < 500; i++) {
+            priorities[i] = random.nextDouble() * 1000;
+            q.insert(new GraphNode<Integer>(i), priorities[i]);
+        }
+        for (int i = 0; i < 500; i += 3) {
+            priorities[i] = priorities[i] / 2;
+            q.decreasePriority(new GraphNode<Integer>(i), priorities[i]);
+        }
+        for (double p : priorities)
+            expected.add(p);
+        Collections.sort(expected);
+        for (double p : expected) {
+            GraphNode<Integer> n = q.extractMinimum();
+            assertEquals(p, priorities[n.getLabel()]);
+        }
+        assertTrue(q.isEmpty());
+    }
+
+}
@@ -0,0 +1,551 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Calcolatore di cammini minimi da più sorgenti e fra tutte le coppie di nodi
+ * di un grafo orientato con pesi non negativi.
+ *
+ * I cammini minimi da una sorgente sono restituiti come
+ * {@code ShortestPathTable<L>} e memorizzati in una cache LRU (<i>least
+ * recently used</i>) di capacità limitata, per cui le interrogazioni ripetute
+ * dalle stesse sorgenti non ripetono il calcolo. Quando servono le tabelle di
+ * più sorgenti, quelle mancanti vengono calcolate in parallelo con l'algoritmo
+ * di Dijkstra su un {@code ForkJoinPool}, ognuna con la propria
+ * {@code ShortestPathWorkspace}. Per il calcolo fra tutte le coppie è
+ * disponibile anche l'algoritmo di Floyd-Warshall su una matrice di primitivi
+ * elaborata a blocchi, più conveniente per i grafi densi.
+ *
+ * I calcoli vengono eseguiti su una copia {@code CsrDirectedGraph<L>} del
+ * grafo. Prima di ogni interrogazione il contatore delle modifiche del grafo
+ * ({@code Graph.getModificationCount()}) viene confrontato con quello al
+ * momento della copia: se il grafo è cambiato la copia viene rifatta e la
+ * cache svuotata. Se il grafo non tiene traccia delle modifiche la cache può
+ * essere svuotata solo esplicitamente con {@link #clearCache()}. Le modifiche
+ * ai pesi fatte direttamente sugli archi non sono rilevate.
+ *
+ * I metodi pubblici sono sincronizzati, per cui un calcolatore può essere
+ * condiviso tra più thread.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class AllPairsShortestPathComputer<L> {
+
+    /**
+     * Capacità di default della cache delle tabelle.
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 16;
+
+    /*
+     * Lato dei blocchi della matrice nell'algoritmo di Floyd-Warshall: un
+     * blocco di distanze (64 * 64 * 8 byte = 32 KiB) entra nella cache L1/L2
+     * del processore.
+     */
+    private static final int BLOCK_SIZE = 64;
+
+    // il grafo su cui opera questo oggetto
+    private final Graph<L> graph;
+
+    // pool di thread su cui eseguire i calcoli in parallelo
+    private final ForkJoinPool pool;
+
+    // cache LRU delle tabelle, ordinata per accesso
+    private final Map<GraphNode<L>, ShortestPathTable<L>> cache;
+
+    // true se il grafo supporta il contatore delle modifiche
+    private final boolean tracksModifications;
+
+    // copia CSR del grafo e contatore delle modifiche al momento della copia
+    private CsrDirectedGraph<L> snapshot;
+
+    private long snapshotModificationCount;
+
+    // calcolatore di Dijkstra sulla copia del grafo
+    private DijkstraShortestPathComputer<L> dijkstra;
+
+    // numero di richieste di tabelle servite dalla cache
+    private long cacheHitCount;
+
+    // numero di tabelle calcolate
+    private long cacheMissCount;
+
+    /**
+     * Crea un calcolatore con la cache di capacità di default che usa il pool
+     * comune.
+     *
+     * @param graph
+     *                  il grafo su cui opera il calcolatore
+     * @throws NullPointerException
+     *                                      se il grafo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     *                                      o non è pesato o contiene almeno un
+     *                                      peso negativo
+     */
+    public AllPairsShortestPathComputer(Graph<L> graph) {
+        this(graph, DEFAULT_CACHE_CAPACITY, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un calcolatore con una cache di una certa capacità che usa un
+     * certo pool di thread.
+     *
+     * @param graph
+     *                          il grafo su cui opera il calcolatore
+     * @param cacheCapacity
+     *                          il numero massimo di tabelle memorizzate nella
+     *                          cache
+     * @param pool
+     *                          il pool su cui eseguire i calcoli in parallelo
+     * @throws NullPointerException
+     *                                      se il grafo o il pool passati sono
+     *                                      nulli
+     * @throws IllegalArgumentException
+     *                                      se la capacità è negativa
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     *                                      o non è pesato o contiene almeno un
+     *                                      peso negativo
+     */
+    public AllPairsShortestPathComputer(Graph<L> graph, int cacheCapacity,
+            ForkJoinPool pool) {
+        if (graph == null)
+            throw new NullPointerException("Il grafo dato è nullo");
+        if (pool == null)
+            throw new NullPointerException("Il pool dato è nullo");
+        if (cacheCapacity < 0)
+            throw new IllegalArgumentException(
+                    "La capacità della cache non può essere negativa");
+        this.graph = graph;
+        this.pool = pool;
+        this.cache = new LinkedHashMap<GraphNode<L>, ShortestPathTable<L>>(16,
+                0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<GraphNode<L>, ShortestPathTable<L>> eldest) {
+                return this.size() > cacheCapacity;
+            }
+        };
+        this.tracksModifications = graph.supportsModificationCount();
+        // Costruisce subito la copia per controllare il grafo
+        this.refreshSnapshot();
+    }
+
+    /**
+     * Restituisce il grafo su cui opera questo calcolatore.
+     *
+     * @return il grafo su cui opera questo calcolatore
+     */
+    public Graph<L> getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * Restituisce la tabella dei cammini minimi da una sorgente, calcolandola
+     * solo se non è presente nella cache o se il grafo è stato modificato.
+     *
+     * @param sourceNode
+     *                       il nodo sorgente
+     * @return la tabella dei cammini minimi dalla sorgente
+     * @throws NullPointerException
+     *                                      se il nodo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste nel
+     *                                      grafo
+     * @throws IllegalStateException
+     *                                      se il grafo modificato contiene
+     *                                      archi non pesati o con peso negativo
+     */
+    public synchronized ShortestPathTable<L> getTable(GraphNode<L> sourceNode) {
+        List<GraphNode<L>> sources = new ArrayList<GraphNode<L>>();
+        sources.add(sourceNode);
+        return this.getTables(sources).get(sourceNode);
+    }
+
+    /**
+     * Restituisce le tabelle dei cammini minimi da più sorgenti. Le tabelle
+     * non presenti nella cache vengono calcolate in parallelo e inserite nella
+     * cache; se sono più della sua capacità solo le ultime rimangono nella
+     * cache, ma tutte sono restituite.
+     *
+     * @param sourceNodes
+     *                        i nodi sorgente
+     * @return una mappa che associa ad ogni sorgente la relativa tabella
+     * @throws NullPointerException
+     *                                      se la collezione passata è nulla o
+     *                                      contiene un nodo nullo
+     * @throws IllegalArgumentException
+     *                                      se uno dei nodi passati non esiste
+     *                                      nel grafo
+     * @throws IllegalStateException
+     *                                      se il grafo modificato contiene
+     *                                      archi non pesati o con peso negativo
+     */
+    public synchronized Map<GraphNode<L>, ShortestPathTable<L>> getTables(
+            Collection<GraphNode<L>> sourceNodes) {
+        if (sourceNodes == null)
+            throw new NullPointerException("La collezione di sorgenti è nulla");
+        this.checkSnapshot();
+        Map<GraphNode<L>, ShortestPathTable<L>> result = new LinkedHashMap<GraphNode<L>, ShortestPathTable<L>>();
+        List<GraphNode<L>> missing = new ArrayList<GraphNode<L>>();
+        for (GraphNode<L> source : sourceNodes) {
+            if (source == null)
+                throw new NullPointerException("Nodo sorgente nullo");
+            GraphNode<L> node = this.snapshot.getNodeOf(source.getLabel());
+            if (node == null)
+                throw new IllegalArgumentException(
+                        "Il nodo sorgente non esiste nel grafo");
+            ShortestPathTable<L> table = this.cache.get(node);
+            if (table != null) {
+                this.cacheHitCount++;
+                result.put(node, table);
+            } else if (!result.containsKey(node)) {
+                // segnaposto per mantenere l'ordine della collezione
+                result.put(node, null);
+                missing.add(node);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<ShortestPathTable<L>> tables = this.computeTables(missing);
+            for (int i = 0; i < missing.size(); i++) {
+                result.put(missing.get(i), tables.get(i));
+                this.cache.put(missing.get(i), tables.get(i));
+            }
+            this.cacheMissCount += missing.size();
+        }
+        return result;
+    }
+
+    /**
+     * Calcola i cammini minimi fra tutte le coppie di nodi scegliendo
+     * l'algoritmo in base alla densità del grafo: Floyd-Warshall, che costa
+     * O(n^3), se il numero di archi è almeno n^2 / log2(n), altrimenti
+     * l'algoritmo di Dijkstra in parallelo da ogni nodo, che costa
+     * O(n m log n). Le tabelle restituite non vengono inserite nella cache.
+     *
+     * @return una mappa che associa ad ogni nodo del grafo la tabella dei
+     *         cammini minimi da quel nodo
+     * @throws IllegalStateException
+     *                                   se il grafo modificato contiene archi
+     *                                   non pesati o con peso negativo
+     */
+    public synchronized Map<GraphNode<L>, ShortestPathTable<L>> computeAllPairs() {
+        this.checkSnapshot();
+        int n = this.snapshot.nodeCount();
+        double log = Math.max(1.0, Math.log(n) / Math.log(2));
+        if (this.snapshot.edgeCount() >= n * (double) n / log)
+            return this.computeAllPairsFloydWarshall();
+        return this.computeAllPairsDijkstra();
+    }
+
+    /**
+     * Calcola i cammini minimi fra tutte le coppie di nodi eseguendo in
+     * parallelo l'algoritmo di Dijkstra da ogni nodo. Le tabelle restituite
+     * non vengono inserite nella cache.
+     *
+     * @return una mappa che associa ad ogni nodo del grafo la tabella dei
+     *         cammini minimi da quel nodo
+     * @throws IllegalStateException
+     *                                   se il grafo modificato contiene archi
+     *                                   non pesati o con peso negativo
+     */
+    public synchronized Map<GraphNode<L>, ShortestPathTable<L>> computeAllPairsDijkstra() {
+        this.checkSnapshot();
+        List<GraphNode<L>> sources = new ArrayList<GraphNode<L>>(
+                this.snapshot.getNodes());
+        List<ShortestPathTable<L>> tables = this.computeTables(sources);
+        Map<GraphNode<L>, ShortestPathTable<L>> result = new LinkedHashMap<GraphNode<L>, ShortestPathTable<L>>();
+        for (int i = 0; i < sources.size(); i++)
+            result.put(sources.get(i), tables.get(i));
+        return result;
+    }
+
+    /**
+     * Calcola i cammini minimi fra tutte le coppie di nodi con l'algoritmo di
+     * Floyd-Warshall. La matrice delle distanze (e quella dei predecessori)
+     * è memorizzata in un unico array di primitivi ed elaborata a blocchi
+     * quadrati: per ogni blocco diagonale viene prima aggiornato il blocco
+     * stesso, poi in parallelo i blocchi della sua riga e della sua colonna e
+     * infine in parallelo tutti gli altri blocchi. Lo spazio occupato è
+     * O(n^2). Le tabelle restituite non vengono inserite nella cache.
+     *
+     * @return una mappa che associa ad ogni nodo del grafo la tabella dei
+     *         cammini minimi da quel nodo
+     * @throws IllegalStateException
+     *                                   se il grafo modificato contiene archi
+     *                                   non pesati o con peso negativo
+     */
+    public synchronized Map<GraphNode<L>, ShortestPathTable<L>> computeAllPairsFloydWarshall() {
+        this.checkSnapshot();
+        CsrDirectedGraph<L> g = this.snapshot;
+        int n = g.nodeCount();
+        double[] d = new double[n * n];
+        int[] p = new int[n * n];
+        Arrays.fill(d, Double.POSITIVE_INFINITY);
+        Arrays.fill(p, -1);
+        for (int u = 0; u < n; u++) {
+            d[u * n + u] = 0;
+            for (int e = g.getEdgeStart(u); e < g.getEdgeEnd(u); e++) {
+                int v = g.getEdgeTarget(e);
+                if (u != v) {
+                    d[u * n + v] = g.getEdgeWeight(e);
+                    p[u * n + v] = u;
+                }
+            }
+        }
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        for (int kb = 0; kb < blocks; kb++) {
+            // Fase 1: blocco diagonale
+            updateBlock(d, p, n, kb, kb, kb);
+            // Fase 2: blocchi della riga e della colonna del blocco diagonale
+            int[] pairs = new int[2 * (blocks - 1)];
+            int count = 0;
+            for (int b = 0; b < blocks; b++)
+                if (b != kb) {
+                    pairs[count++] = kb * blocks + b;
+                    pairs[count++] = b * blocks + kb;
+                }
+            this.pool.invoke(new BlockTask(d, p, n, blocks, kb, pairs, 0, count));
+            // Fase 3: tutti gli altri blocchi
+            pairs = new int[(blocks - 1) * (blocks - 1)];
+            count = 0;
+            for (int ib = 0; ib < blocks; ib++)
+                for (int jb = 0; jb < blocks; jb++)
+                    if (ib != kb && jb != kb)
+                        pairs[count++] = ib * blocks + jb;
+            this.pool.invoke(new BlockTask(d, p, n, blocks, kb, pairs, 0, count));
+        }
+        Map<GraphNode<L>, ShortestPathTable<L>> result = new LinkedHashMap<GraphNode<L>, ShortestPathTable<L>>();
+        for (int i = 0; i < n; i++)
+            result.put(g.getNodeAtIndex(i), new ShortestPathTable<L>(g, i,
+                    Arrays.copyOfRange(d, i * n, (i + 1) * n),
+                    Arrays.copyOfRange(p, i * n, (i + 1) * n), null));
+        return result;
+    }
+
+    /**
+     * Svuota la cache delle tabelle e rifà la copia del grafo.
+     *
+     * @throws IllegalStateException
+     *                                   se il grafo contiene archi non pesati
+     *                                   o con peso negativo
+     */
+    public synchronized void clearCache() {
+        this.refreshSnapshot();
+    }
+
+    /**
+     * Restituisce il numero di tabelle attualmente memorizzate nella cache.
+     *
+     * @return il numero di tabelle nella cache
+     */
+    public synchronized int getCacheSize() {
+        return this.cache.size();
+    }
+
+    /**
+     * Restituisce il numero di richieste di tabelle servite dalla cache.
+     *
+     * @return il numero di richieste servite dalla cache
+     */
+    public synchronized long getCacheHitCount() {
+        return this.cacheHitCount;
+    }
+
+    /**
+     * Restituisce il numero di tabelle che è stato necessario calcolare
+     * perché non presenti nella cache.
+     *
+     * @return il numero di tabelle calcolate
+     */
+    public synchronized long getCacheMissCount() {
+        return this.cacheMissCount;
+    }
+
+    /*
+     * Rifà la copia del grafo se il contatore delle modifiche è cambiato.
+     */
+    private void checkSnapshot() {
+        if (this.tracksModifications && this.graph
+                .getModificationCount() != this.snapshotModificationCount)
+            this.refreshSnapshot();
+    }
+
+    private void refreshSnapshot() {
+        this.cache.clear();
+        if (this.tracksModifications)
+            this.snapshotModificationCount = this.graph.getModificationCount();
+        CsrDirectedGraph<L> g = this.graph instanceof CsrDirectedGraph
+                ? (CsrDirectedGraph<L>) this.graph
+                : new CsrDirectedGraph<L>(this.graph);
+        try {
+            // Il costruttore controlla pesi e orientamento
+            this.dijkstra = new DijkstraShortestPathComputer<L>(g);
+        } catch (IllegalArgumentException e) {
+            if (this.snapshot == null)
+                throw e;
+            // Il grafo era valido, è diventato non valido dopo una modifica
+            this.snapshot = null;
+            throw new IllegalStateException(e.getMessage());
+        }
+        this.snapshot = g;
+    }
+
+    /*
+     * Calcola in parallelo le tabelle delle sorgenti date, nello stesso
+     * ordine.
+     */
+    private List<ShortestPathTable<L>> computeTables(List<GraphNode<L>> sources) {
+        Object[] tables = new Object[sources.size()];
+        if (sources.size() == 1)
+            tables[0] = this.computeTable(sources.get(0),
+                    new ShortestPathWorkspace(this.snapshot));
+        else
+            this.pool.invoke(new SourcesTask(sources, tables, 0, sources.size()));
+        List<ShortestPathTable<L>> result = new ArrayList<ShortestPathTable<L>>();
+        for (Object table : tables) {
+            @SuppressWarnings("unchecked")
+            ShortestPathTable<L> t = (ShortestPathTable<L>) table;
+            result.add(t);
+        }
+        return result;
+    }
+
+    private ShortestPathTable<L> computeTable(GraphNode<L> source,
+            ShortestPathWorkspace workspace) {
+        this.dijkstra.computeShortestPathsFrom(source, workspace);
+        return new ShortestPathTable<L>(this.snapshot, workspace);
+    }
+
+    /*
+     * Aggiorna il blocco (ib, jb) della matrice usando come nodi intermedi
+     * quelli del blocco kb.
+     */
+    private static void updateBlock(double[] d, int[] p, int n, int ib, int jb,
+            int kb) {
+        int kEnd = Math.min(n, (kb + 1) * BLOCK_SIZE);
+        int iEnd = Math.min(n, (ib + 1) * BLOCK_SIZE);
+        int jStart = jb * BLOCK_SIZE;
+        int jEnd = Math.min(n, jStart + BLOCK_SIZE);
+        for (int k = kb * BLOCK_SIZE; k < kEnd; k++) {
+            int rowK = k * n;
+            for (int i = ib * BLOCK_SIZE; i < iEnd; i++) {
+                int rowI = i * n;
+                double dik = d[rowI + k];
+                if (dik == Double.POSITIVE_INFINITY)
+                    continue;
+                for (int j = jStart; j < jEnd; j++) {
+                    double candidate = dik + d[rowK + j];
+                    if (candidate < d[rowI + j]) {
+                        d[rowI + j] = candidate;
+                        p[rowI + j] = p[rowK + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Task che aggiorna in parallelo un insieme di blocchi indipendenti,
+     * ognuno codificato come ib * blocks + jb.
+     */
+    @SuppressWarnings("serial")
+    private static class BlockTask extends RecursiveAction {
+        private final double[] d;
+
+        private final int[] p;
+
+        private final int n;
+
+        private final int blocks;
+
+        private final int kb;
+
+        private final int[] pairs;
+
+        private final int from;
+
+        private final int to;
+
+        private BlockTask(double[] d, int[] p, int n, int blocks, int kb,
+                int[] pairs, int from, int to) {
+            this.d = d;
+            this.p = p;
+            this.n = n;
+            this.blocks = blocks;
+            this.kb = kb;
+            this.pairs = pairs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= 1) {
+                for (int k = this.from; k < this.to; k++)
+                    updateBlock(this.d, this.p, this.n,
+                            this.pairs[k] / this.blocks,
+                            this.pairs[k] % this.blocks, this.kb);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new BlockTask(this.d, this.p, this.n, this.blocks,
+                    this.kb, this.pairs, this.from, middle),
+                    new BlockTask(this.d, this.p, this.n, this.blocks, this.kb,
+                            this.pairs, middle, this.to));
+        }
+    }
+
+    /*
+     * Task che calcola in parallelo le tabelle di un intervallo di sorgenti.
+     * Ogni foglia usa una propria area di lavoro.
+     */
+    @SuppressWarnings("serial")
+    private class SourcesTask extends RecursiveAction {
+        private final List<GraphNode<L>> sources;
+
+        private final Object[] tables;
+
+        private final int from;
+
+        private final int to;
+
+        private SourcesTask(List<GraphNode<L>> sources, Object[] tables,
+                int from, int to) {
+            this.sources = sources;
+            this.tables = tables;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            // Una foglia elabora al più 4 sorgenti riusando l'area di lavoro
+            if (this.to - this.from <= 4) {
+                ShortestPathWorkspace workspace = new ShortestPathWorkspace(
+                        snapshot);
+                for (int i = this.from; i < this.to; i++)
+                    this.tables[i] = computeTable(this.sources.get(i),
+                            workspace);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new SourcesTask(this.sources, this.tables, this.from,
+                    middle),
+                    new SourcesTask(this.sources, this.tables, middle, this.to));
+        }
+    }
+
+}
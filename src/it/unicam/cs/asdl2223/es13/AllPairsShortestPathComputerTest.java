@@ -0,0 +1,173 @@
+package it.unicam.cs.asdl2223.es13;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class AllPairsShortestPathComputerTest {
+
+    @Test
+    final void testConstructor() {
+        assertThrows(NullPointerException.class,
+                () -> new AllPairsShortestPathComputer<String>(null));
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        assertThrows(NullPointerException.class,
+                () -> new AllPairsShortestPathComputer<String>(g, 4, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AllPairsShortestPathComputer<String>(g, -1,
+                        ForkJoinPool.commonPool()));
+        g.addEdge(new GraphEdge<String>(g.getNodeOf("s"), g.getNodeOf("w"),
+                true, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AllPairsShortestPathComputer<String>(g));
+    }
+
+    @Test
+    final void testGetTable() {
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        AllPairsShortestPathComputer<String> c = new AllPairsShortestPathComputer<String>(
+                g);
+        GraphNode<String> ns = new GraphNode<String>("s");
+        assertThrows(NullPointerException.class, () -> c.getTable(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> c.getTable(new GraphNode<String>("a")));
+        ShortestPathTable<String> table = c.getTable(ns);
+        assertEquals(ns, table.getSource());
+        assertEquals(0.0, table.getDistance(ns));
+        assertEquals(8.0, table.getDistance(new GraphNode<String>("t")));
+        assertEquals(9.0, table.getDistance(new GraphNode<String>("x")));
+        assertEquals(Double.POSITIVE_INFINITY,
+                table.getDistance(new GraphNode<String>("w")));
+        assertEquals(new GraphNode<String>("t"),
+                table.getPrevious(new GraphNode<String>("x")));
+        assertNull(table.getPrevious(ns));
+        GraphNode<String> nt = new GraphNode<String>("t");
+        GraphNode<String> ny = new GraphNode<String>("y");
+        GraphNode<String> nx = new GraphNode<String>("x");
+        List<GraphEdge<String>> pathTest = new ArrayList<GraphEdge<String>>();
+        assertEquals(pathTest, table.getShortestPathTo(ns));
+        pathTest.add(new GraphEdge<String>(ns, ny, true, 5));
+        pathTest.add(new GraphEdge<String>(ny, nt, true, 3));
+        pathTest.add(new GraphEdge<String>(nt, nx, true, 1));
+        assertEquals(pathTest, table.getShortestPathTo(nx));
+        assertNull(table.getShortestPathTo(new GraphNode<String>("w")));
+        assertThrows(IllegalArgumentException.class,
+                () -> table.getDistance(new GraphNode<String>("a")));
+    }
+
+    @Test
+    final void testCache() {
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        AllPairsShortestPathComputer<String> c = new AllPairsShortestPathComputer<String>(
+                g, 2, ForkJoinPool.commonPool());
+        GraphNode<String> ns = new GraphNode<String>("s");
+        GraphNode<String> nt = new GraphNode<String>("t");
+        GraphNode<String> nx = new GraphNode<String>("x");
+        ShortestPathTable<String> ts = c.getTable(ns);
+        assertTrue(c.getTable(ns) == ts);
+        assertEquals(1, c.getCacheHitCount());
+        assertEquals(1, c.getCacheMissCount());
+        c.getTable(nt);
+        // s è la più recente, quindi viene eliminata t
+        assertTrue(c.getTable(ns) == ts);
+        c.getTable(nx);
+        assertEquals(2, c.getCacheSize());
+        assertTrue(c.getTable(ns) == ts);
+        long misses = c.getCacheMissCount();
+        c.getTable(nt);
+        assertEquals(misses + 1, c.getCacheMissCount());
+        // Una modifica del grafo invalida la cache
+        g.addEdge(new GraphEdge<String>(g.getNodeOf("s"), g.getNodeOf("x"),
+                true, 1.0));
+        ShortestPathTable<String> updated = c.getTable(ns);
+        assertFalse(updated == ts);
+        assertEquals(1.0, updated.getDistance(nx));
+        assertEquals(9.0, ts.getDistance(nx));
+        assertEquals(1, c.getCacheSize());
+        c.clearCache();
+        assertEquals(0, c.getCacheSize());
+        // Un arco con peso negativo rende il grafo non valido
+        g.addEdge(new GraphEdge<String>(g.getNodeOf("w"), g.getNodeOf("x"),
+                true, -1.0));
+        assertThrows(IllegalStateException.class, () -> c.getTable(ns));
+    }
+
+    @Test
+    final void testGetTables() {
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        AllPairsShortestPathComputer<String> c = new AllPairsShortestPathComputer<String>(
+                g, 1, ForkJoinPool.commonPool());
+        assertThrows(NullPointerException.class, () -> c.getTables(null));
+        List<GraphNode<String>> sources = new ArrayList<GraphNode<String>>();
+        for (String l : new String[] { "z", "s", "w", "x", "s" })
+            sources.add(new GraphNode<String>(l));
+        Map<GraphNode<String>, ShortestPathTable<String>> tables = c
+                .getTables(sources);
+        assertEquals(4, tables.size());
+        assertEquals(1, c.getCacheSize());
+        assertEquals(7.0, tables.get(new GraphNode<String>("z"))
+                .getDistance(new GraphNode<String>("s")));
+        assertEquals(1.0, tables.get(new GraphNode<String>("w"))
+                .getDistance(new GraphNode<String>("s")));
+        sources.add(null);
+        assertThrows(NullPointerException.class, () -> c.getTables(sources));
+    }
+
+    /*
+     * Dijkstra da ogni nodo e Floyd-Warshall a blocchi devono dare le stesse
+     * distanze su un grafo più grande di un blocco.
+     */
+    @Test
+    final void testAllPairs() {
+        Random random = new Random(3);
+        Graph<Integer> g = new MapAdjacentListDirectedGraph<Integer>();
+        int n = 150;
+        for (int i = 0; i < n; i++)
+            g.addNode(new GraphNode<Integer>(i));
+        for (int k = 0; k < 6 * n; k++)
+            g.addEdge(new GraphEdge<Integer>(g.getNodeOf(random.nextInt(n)),
+                    g.getNodeOf(random.nextInt(n)), true,
+                    random.nextInt(100) / 10.0));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            AllPairsShortestPathComputer<Integer> c = new AllPairsShortestPathComputer<Integer>(
+                    g, 4, pool);
+            Map<GraphNode<Integer>, ShortestPathTable<Integer>> dijkstra = c
+                    .computeAllPairsDijkstra();
+            Map<GraphNode<Integer>, ShortestPathTable<Integer>> floyd = c
+                    .computeAllPairsFloydWarshall();
+            Map<GraphNode<Integer>, ShortestPathTable<Integer>> chosen = c
+                    .computeAllPairs();
+            assertEquals(n, dijkstra.size());
+            assertEquals(n, floyd.size());
+            assertEquals(n, chosen.size());
+            for (GraphNode<Integer> s : g.getNodes())
+                for (GraphNode<Integer> t : g.getNodes()) {
+                    double expected = dijkstra.get(s).getDistance(t);
+                    assertEquals(expected, floyd.get(s).getDistance(t), 1e-9);
+                    assertEquals(expected, chosen.get(s).getDistance(t), 1e-9);
+                    List<GraphEdge<Integer>> path = floyd.get(s)
+                            .getShortestPathTo(t);
+                    if (expected == Double.POSITIVE_INFINITY) {
+                        assertNull(path);
+                        continue;
+                    }
+                    double weight = 0;
+                    for (GraphEdge<Integer> e : path)
+                        weight += e.getWeight();
+                    assertEquals(expected, weight, 1e-9);
+                }
+            // I calcoli fra tutte le coppie non riempiono la cache
+            assertEquals(0, c.getCacheSize());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
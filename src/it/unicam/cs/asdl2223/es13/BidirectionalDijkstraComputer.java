@@ -0,0 +1,212 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Calcolatore di cammini minimi che implementa l'algoritmo di Dijkstra
+ * bidirezionale per le interrogazioni punto a punto. Vengono eseguite in modo
+ * alternato due ricerche: una in avanti dalla sorgente, sugli archi uscenti, e
+ * una all'indietro dalla destinazione, sugli archi entranti. Ad ogni passo
+ * avanza la ricerca il cui prossimo nodo ha distanza minore. Ogni volta che un
+ * arco collega un nodo raggiunto in avanti con un nodo raggiunto all'indietro
+ * si aggiorna il peso del miglior cammino trovato; la ricerca termina quando
+ * la somma delle distanze minime nelle due code non è inferiore a tale peso.
+ * Su grafi in cui il numero di nodi a distanza d cresce con d le due ricerche
+ * rendono definitivi molti meno nodi di una ricerca singola.
+ *
+ * La ricerca all'indietro usa {@code getIngoingEdgesOf}, per cui è opportuno
+ * usare un grafo che la realizzi in tempo proporzionale al grado entrante, ad
+ * esempio un {@code MapAdjacentListDirectedGraph<L>} con l'indice degli archi
+ * entranti oppure un {@code CsrDirectedGraph<L>}. Le informazioni della
+ * ricerca punto a punto sono memorizzate in tabelle hash interne e i campi
+ * dei nodi non vengono modificati. Il calcolo con sorgente singola è delegato
+ * a un {@code DijkstraShortestPathComputer<L>} sullo stesso grafo.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class BidirectionalDijkstraComputer<L>
+        implements PointToPointShortestPathComputer<L> {
+
+    // il grafo su cui opera questo oggetto
+    private final Graph<L> graph;
+
+    // calcolatore usato per il calcolo dei cammini con sorgente singola
+    private final DijkstraShortestPathComputer<L> singleSource;
+
+    // numero di nodi resi definitivi nell'ultimo calcolo
+    private int settledNodeCount;
+
+    /**
+     * Crea un calcolatore bidirezionale per un grafo orientato e pesato privo
+     * di pesi negativi.
+     *
+     * @param graph
+     *                  il grafo su cui opera il calcolatore
+     * @throws NullPointerException
+     *                                      se il grafo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è pesato o
+     *                                      contiene almeno un peso negativo
+     */
+    public BidirectionalDijkstraComputer(Graph<L> graph) {
+        // Il costruttore controlla il grafo
+        this.singleSource = new DijkstraShortestPathComputer<L>(graph);
+        this.graph = graph;
+        this.settledNodeCount = 0;
+    }
+
+    @Override
+    public List<GraphEdge<L>> getShortestPath(GraphNode<L> sourceNode,
+            GraphNode<L> targetNode) {
+        GraphNode<L> source = this.nodeOf(sourceNode);
+        GraphNode<L> target = this.nodeOf(targetNode);
+        this.settledNodeCount = 0;
+        if (source.equals(target))
+            return new ArrayList<GraphEdge<L>>();
+        Search<L> forward = new Search<L>(source);
+        Search<L> backward = new Search<L>(target);
+        // peso del miglior cammino trovato e nodo in cui si incontrano le
+        // due ricerche
+        double best = Double.POSITIVE_INFINITY;
+        GraphNode<L> meeting = null;
+        while (!forward.queue.isEmpty() && !backward.queue.isEmpty()) {
+            double minForward = forward.queue.getPriority(forward.queue.minimum());
+            double minBackward = backward.queue.getPriority(backward.queue.minimum());
+            // Nessun cammino non ancora esaminato può essere più corto
+            if (minForward + minBackward >= best)
+                break;
+            boolean isForward = minForward <= minBackward;
+            Search<L> current = isForward ? forward : backward;
+            Search<L> other = isForward ? backward : forward;
+            GraphNode<L> u = current.queue.extractMinimum();
+            current.settled.add(u);
+            this.settledNodeCount++;
+            double du = current.distances.get(u);
+            Set<GraphEdge<L>> edges = isForward ? this.graph.getEdgesOf(u)
+                    : this.graph.getIngoingEdgesOf(u);
+            for (GraphEdge<L> edge : edges) {
+                GraphNode<L> v = isForward ? edge.getNode2() : edge.getNode1();
+                double newDistance = du + edge.getWeight();
+                // Controlla se l'arco chiude un cammino migliore
+                Double otherDistance = other.distances.get(v);
+                if (otherDistance != null
+                        && newDistance + otherDistance < best) {
+                    best = newDistance + otherDistance;
+                    meeting = v;
+                }
+                if (!current.settled.contains(v))
+                    current.relax(v, edge, newDistance);
+            }
+        }
+        if (meeting == null)
+            // la destinazione non è raggiungibile
+            return null;
+        // Unisce il cammino dalla sorgente al nodo di incontro con quello dal
+        // nodo di incontro alla destinazione
+        List<GraphEdge<L>> path = new ArrayList<GraphEdge<L>>();
+        GraphNode<L> node = meeting;
+        while (!node.equals(source)) {
+            GraphEdge<L> edge = forward.previousEdges.get(node);
+            path.add(edge);
+            node = edge.getNode1();
+        }
+        Collections.reverse(path);
+        node = meeting;
+        while (!node.equals(target)) {
+            GraphEdge<L> edge = backward.previousEdges.get(node);
+            path.add(edge);
+            node = edge.getNode2();
+        }
+        return path;
+    }
+
+    @Override
+    public int getSettledNodeCount() {
+        return this.settledNodeCount;
+    }
+
+    @Override
+    public void computeShortestPathsFrom(GraphNode<L> sourceNode) {
+        this.singleSource.computeShortestPathsFrom(sourceNode);
+        this.settledNodeCount = this.singleSource.getSettledNodeCount();
+    }
+
+    @Override
+    public boolean isComputed() {
+        return this.singleSource.isComputed();
+    }
+
+    @Override
+    public GraphNode<L> getLastSource() {
+        return this.singleSource.getLastSource();
+    }
+
+    @Override
+    public Graph<L> getGraph() {
+        return this.graph;
+    }
+
+    @Override
+    public List<GraphEdge<L>> getShortestPathTo(GraphNode<L> targetNode) {
+        return this.singleSource.getShortestPathTo(targetNode);
+    }
+
+    /*
+     * Restituisce il nodo del grafo uguale a quello passato, controllandone la
+     * validità.
+     */
+    private GraphNode<L> nodeOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Il nodo dato è nullo");
+        GraphNode<L> result = this.graph.getNodeOf(node.getLabel());
+        if (result == null)
+            throw new IllegalArgumentException(
+                    "Il nodo dato non esiste nel grafo");
+        return result;
+    }
+
+    /*
+     * Stato di una delle due ricerche. Per la ricerca all'indietro le distanze
+     * sono verso la destinazione e l'arco memorizzato per un nodo è quello
+     * uscente dal nodo nel cammino verso la destinazione.
+     */
+    private static class Search<L> {
+        private final Map<GraphNode<L>, Double> distances = new HashMap<GraphNode<L>, Double>();
+
+        private final Map<GraphNode<L>, GraphEdge<L>> previousEdges = new HashMap<GraphNode<L>, GraphEdge<L>>();
+
+        private final Set<GraphNode<L>> settled = new HashSet<GraphNode<L>>();
+
+        private final NodeMinPriorityQueue<L> queue = new BinaryHeapNodeMinPriorityQueue<L>();
+
+        private Search(GraphNode<L> start) {
+            this.distances.put(start, 0.0);
+            this.queue.insert(start, 0);
+        }
+
+        private void relax(GraphNode<L> v, GraphEdge<L> edge,
+                double newDistance) {
+            Double dv = this.distances.get(v);
+            if (dv != null && newDistance >= dv)
+                return;
+            this.distances.put(v, newDistance);
+            this.previousEdges.put(v, edge);
+            if (dv == null)
+                this.queue.insert(v, newDistance);
+            else
+                this.queue.decreasePriority(v, newDistance);
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+package it.unicam.cs.asdl2223.es13;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BidirectionalDijkstraComputerTest {
+
+    private double weightOf(List<GraphEdge<String>> path) {
+        double result = 0;
+        for (GraphEdge<String> e : path)
+            result += e.getWeight();
+        return result;
+    }
+
+    @Test
+    final void testConstructor() {
+        assertThrows(NullPointerException.class,
+                () -> new BidirectionalDijkstraComputer<String>(null));
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        g.addEdge(new GraphEdge<String>(g.getNodeOf("s"), g.getNodeOf("w"),
+                true, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BidirectionalDijkstraComputer<String>(g));
+    }
+
+    @Test
+    final void testGetShortestPath() {
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        BidirectionalDijkstraComputer<String> c = new BidirectionalDijkstraComputer<String>(g);
+        GraphNode<String> ns = new GraphNode<String>("s");
+        GraphNode<String> nt = new GraphNode<String>("t");
+        GraphNode<String> ny = new GraphNode<String>("y");
+        GraphNode<String> nx = new GraphNode<String>("x");
+        GraphNode<String> nz = new GraphNode<String>("z");
+        List<GraphEdge<String>> expected = new ArrayList<GraphEdge<String>>();
+        expected.add(new GraphEdge<String>(ns, ny, true, 5));
+        expected.add(new GraphEdge<String>(ny, nt, true, 3));
+        expected.add(new GraphEdge<String>(nt, nx, true, 1));
+        List<GraphEdge<String>> path = c.getShortestPath(ns, nx);
+        assertEquals(expected, path);
+        assertEquals(9.0, this.weightOf(path), 1e-9);
+        assertTrue(c.getSettledNodeCount() > 0);
+        path = c.getShortestPath(nz, nt);
+        assertEquals(15.0, this.weightOf(path), 1e-9);
+        assertEquals(3, path.size());
+        assertTrue(c.getShortestPath(ns, ns).isEmpty());
+        assertEquals(0, c.getSettledNodeCount());
+        // w non è raggiungibile
+        assertNull(c.getShortestPath(ns, new GraphNode<String>("w")));
+        // il calcolo punto a punto non modifica lo stato del calcolatore
+        assertFalse(c.isComputed());
+    }
+
+    @Test
+    final void testGetShortestPathExceptions() {
+        BidirectionalDijkstraComputer<String> c = new BidirectionalDijkstraComputer<String>(ShortestPathTestGraphs.createGraph());
+        GraphNode<String> ns = new GraphNode<String>("s");
+        assertThrows(NullPointerException.class,
+                () -> c.getShortestPath(null, ns));
+        assertThrows(NullPointerException.class,
+                () -> c.getShortestPath(ns, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> c.getShortestPath(ns, new GraphNode<String>("a")));
+        assertThrows(IllegalArgumentException.class,
+                () -> c.getShortestPath(new GraphNode<String>("a"), ns));
+    }
+
+    @Test
+    final void testSingleSource() {
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        BidirectionalDijkstraComputer<String> c = new BidirectionalDijkstraComputer<String>(g);
+        assertThrows(IllegalStateException.class, () -> c.getLastSource());
+        GraphNode<String> ns = new GraphNode<String>("s");
+        c.computeShortestPathsFrom(ns);
+        assertTrue(c.isComputed());
+        assertEquals(ns, c.getLastSource());
+        assertTrue(c.getGraph() == g);
+        // tutti i nodi tranne w sono raggiungibili da s
+        assertEquals(5, c.getSettledNodeCount());
+        assertEquals(c.getShortestPath(ns, new GraphNode<String>("z")),
+                c.getShortestPathTo(new GraphNode<String>("z")));
+    }
+
+    @Test
+    final void testSettledNodeCount() {
+        // Su una catena lunga le due ricerche si incontrano a metà
+        Graph<Integer> g = new MapAdjacentListDirectedGraph<Integer>(true);
+        int n = 101;
+        for (int i = 0; i < n; i++)
+            g.addNode(new GraphNode<Integer>(i));
+        for (int i = 0; i < n - 1; i++)
+            g.addEdge(new GraphEdge<Integer>(g.getNodeOf(i),
+                    g.getNodeOf(i + 1), true, 1.0));
+        BidirectionalDijkstraComputer<Integer> c = new BidirectionalDijkstraComputer<Integer>(
+                g);
+        List<GraphEdge<Integer>> path = c.getShortestPath(g.getNodeOf(40),
+                g.getNodeOf(60));
+        assertEquals(20, path.size());
+        assertTrue(c.getSettledNodeCount() <= 22);
+        DijkstraShortestPathComputer<Integer> d = new DijkstraShortestPathComputer<Integer>(
+                g);
+        d.computeShortestPathsFrom(g.getNodeOf(40));
+        // Dijkstra rende definitivi tutti i nodi da 40 a 100
+        assertEquals(61, d.getSettledNodeCount());
+    }
+
+    /*
+     * Confronta i pesi dei cammini calcolati con le distanze calcolate
+     * dall'algoritmo di Dijkstra su un grafo casuale.
+     */
+    @Test
+    final void testAgreesWithDijkstra() {
+        Random random = new Random(17);
+        Graph<Integer> g = new MapAdjacentListDirectedGraph<Integer>(true);
+        int n = 60;
+        for (int i = 0; i < n; i++)
+            g.addNode(new GraphNode<Integer>(i));
+        for (int k = 0; k < 4 * n; k++)
+            g.addEdge(new GraphEdge<Integer>(
+                    g.getNodeOf(random.nextInt(n)),
+                    g.getNodeOf(random.nextInt(n)), true,
+                    random.nextInt(100) / 10.0));
+        DijkstraShortestPathComputer<Integer> d = new DijkstraShortestPathComputer<Integer>(
+                g);
+        BidirectionalDijkstraComputer<Integer> c = new BidirectionalDijkstraComputer<Integer>(g);
+        for (int s = 0; s < n; s += 7) {
+            d.computeShortestPathsFrom(g.getNodeOf(s));
+            for (int t = 0; t < n; t++) {
+                GraphNode<Integer> target = g.getNodeOf(t);
+                List<GraphEdge<Integer>> path = c
+                        .getShortestPath(g.getNodeOf(s), target);
+                double expected = target.getFloatingPointDistance();
+                if (expected == Double.POSITIVE_INFINITY) {
+                    assertNull(path);
+                    continue;
+                }
+                double weight = 0;
+                GraphNode<Integer> current = g.getNodeOf(s);
+                for (GraphEdge<Integer> e : path) {
+                    // Il cammino deve essere connesso
+                    assertEquals(current, e.getNode1());
+                    assertTrue(g.containsEdge(e));
+                    weight += e.getWeight();
+                    current = e.getNode2();
+                }
+                assertEquals(target, current);
+                assertEquals(expected, weight, 1e-9);
+                assertTrue(c.getSettledNodeCount() <= d.getSettledNodeCount());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Coda con min priorità di nodi realizzata con uno heap binario indicizzato.
+ * Lo heap è rappresentato con due array paralleli (nodi e priorità) che usano
+ * tutte le posizioni a partire da 0. Ad ogni nodo presente nella coda è
+ * associato un <i>handle</i>, cioè la sua posizione corrente nello heap,
+ * memorizzato in una tabella hash. In questo modo il test di presenza e il
+ * recupero della posizione di un nodo costano O(1) e l'operazione di
+ * decremento della priorità costa O(log n), come l'inserimento e l'estrazione
+ * del minimo.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                il tipo delle etichette dei nodi
+ */
+public class BinaryHeapNodeMinPriorityQueue<L> implements NodeMinPriorityQueue<L> {
+
+    /*
+     * Capacità iniziale degli array dello heap, viene raddoppiata quando
+     * necessario.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Nodi dello heap, in posizione i c'è il nodo con priorità priorities[i]
+    private Object[] nodes;
+
+    // Priorità dei nodi dello heap
+    private double[] priorities;
+
+    // Numero di nodi attualmente presenti nello heap
+    private int size;
+
+    // Associa ad ogni nodo presente la sua posizione corrente nello heap
+    private final Map<GraphNode<L>, Integer> handles;
+
+    /**
+     * Crea una coda vuota.
+     */
+    public BinaryHeapNodeMinPriorityQueue() {
+        this.nodes = new Object[INITIAL_CAPACITY];
+        this.priorities = new double[INITIAL_CAPACITY];
+        this.size = 0;
+        this.handles = new HashMap<GraphNode<L>, Integer>();
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean contains(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Tentativo di cercare un nodo nullo");
+        return this.handles.containsKey(node);
+    }
+
+    @Override
+    public void insert(GraphNode<L> node, double priority) {
+        if (node == null)
+            throw new NullPointerException("Tentativo di inserire un nodo nullo");
+        if (this.handles.containsKey(node))
+            throw new IllegalArgumentException("Il nodo è già presente nella coda");
+        // Raddoppia gli array se sono pieni
+        if (this.size == this.nodes.length) {
+            this.nodes = Arrays.copyOf(this.nodes, this.size * 2);
+            this.priorities = Arrays.copyOf(this.priorities, this.size * 2);
+        }
+        // Inserisce il nodo come ultima foglia e lo fa risalire
+        this.nodes[this.size] = node;
+        this.priorities[this.size] = priority;
+        this.handles.put(node, this.size);
+        this.size++;
+        this.siftUp(this.size - 1);
+    }
+
+    @Override
+    public GraphNode<L> minimum() {
+        if (this.size == 0)
+            throw new NoSuchElementException("Coda vuota");
+        return this.nodeAt(0);
+    }
+
+    @Override
+    public GraphNode<L> extractMinimum() {
+        if (this.size == 0)
+            throw new NoSuchElementException("Coda vuota");
+        GraphNode<L> minimum = this.nodeAt(0);
+        this.handles.remove(minimum);
+        this.size--;
+        if (this.size > 0) {
+            // Sposta l'ultima foglia nella radice e la fa scendere
+            this.nodes[0] = this.nodes[this.size];
+            this.priorities[0] = this.priorities[this.size];
+            this.handles.put(this.nodeAt(0), 0);
+            this.siftDown(0);
+        }
+        // Elimina il riferimento per non trattenere il nodo in memoria
+        this.nodes[this.size] = null;
+        return minimum;
+    }
+
+    @Override
+    public double getPriority(GraphNode<L> node) {
+        return this.priorities[this.handleOf(node)];
+    }
+
+    @Override
+    public void decreasePriority(GraphNode<L> node, double newPriority) {
+        int i = this.handleOf(node);
+        if (!(newPriority < this.priorities[i]))
+            throw new IllegalArgumentException(
+                    "La nuova priorità non è minore di quella attuale");
+        this.priorities[i] = newPriority;
+        this.siftUp(i);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.nodes, 0, this.size, null);
+        this.size = 0;
+        this.handles.clear();
+    }
+
+    /*
+     * Restituisce la posizione nello heap di un nodo presente nella coda.
+     */
+    private int handleOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo");
+        Integer handle = this.handles.get(node);
+        if (handle == null)
+            throw new NoSuchElementException("Il nodo non è presente nella coda");
+        return handle;
+    }
+
+    @SuppressWarnings("unchecked")
+    private GraphNode<L> nodeAt(int i) {
+        return (GraphNode<L>) this.nodes[i];
+    }
+
+    /*
+     * Fa risalire il nodo in posizione i finché la sua priorità è minore di
+     * quella del padre.
+     */
+    private void siftUp(int i) {
+        Object node = this.nodes[i];
+        double priority = this.priorities[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (this.priorities[parent] <= priority)
+                break;
+            // Sposta il padre in basso aggiornando il suo handle
+            this.moveTo(parent, i);
+            i = parent;
+        }
+        this.place(node, priority, i);
+    }
+
+    /*
+     * Fa scendere il nodo in posizione i finché la sua priorità è maggiore di
+     * quella del figlio minore.
+     */
+    private void siftDown(int i) {
+        Object node = this.nodes[i];
+        double priority = this.priorities[i];
+        int half = this.size / 2;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < this.size && this.priorities[right] < this.priorities[child])
+                child = right;
+            if (priority <= this.priorities[child])
+                break;
+            // Sposta il figlio minore in alto aggiornando il suo handle
+            this.moveTo(child, i);
+            i = child;
+        }
+        this.place(node, priority, i);
+    }
+
+    private void moveTo(int from, int to) {
+        this.nodes[to] = this.nodes[from];
+        this.priorities[to] = this.priorities[from];
+        this.handles.put(this.nodeAt(to), to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void place(Object node, double priority, int i) {
+        this.nodes[i] = node;
+        this.priorities[i] = priority;
+        this.handles.put((GraphNode<L>) node, i);
+    }
+
+}
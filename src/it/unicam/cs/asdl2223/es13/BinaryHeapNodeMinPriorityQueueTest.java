@@ -0,0 +1,11 @@
+package it.unicam.cs.asdl2223.es13;
+
+class BinaryHeapNodeMinPriorityQueueTest
+        extends AbstractNodeMinPriorityQueueTest {
+
+    @Override
+    <L> NodeMinPriorityQueue<L> newQueue() {
+        return new BinaryHeapNodeMinPriorityQueue<L>();
+    }
+
+}
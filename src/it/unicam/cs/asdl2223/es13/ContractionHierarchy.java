@@ -0,0 +1,724 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Gerarchia di contrazione (<i>contraction hierarchy</i>) di un grafo
+ * orientato con pesi non negativi, da usare per interrogazioni punto a punto
+ * molto veloci su grafi statici, come le reti stradali, tramite
+ * {@code ContractionHierarchyComputer<L>}.
+ *
+ * La costruzione contrae i nodi uno alla volta in ordine di importanza
+ * crescente: contrarre un nodo v significa toglierlo dal grafo e aggiungere,
+ * per ogni coppia di archi u -> v e v -> w, un arco scorciatoia u -> w con
+ * peso pari alla somma dei due, a meno che una ricerca locale (ricerca del
+ * testimone) non trovi un cammino da u a w che non passa per v e non è più
+ * lungo. L'importanza di un nodo è stimata come il doppio della differenza
+ * tra il numero di scorciatoie che la sua contrazione aggiungerebbe e il
+ * numero di archi che toglierebbe, più il numero di vicini già contratti, in
+ * modo da contrarre per primi i nodi poco importanti e distribuire le
+ * contrazioni sul grafo. Il rango di un nodo è la sua posizione nell'ordine
+ * di contrazione.
+ *
+ * Al termine ogni arco, originale o scorciatoia, collega un nodo di rango
+ * minore a uno di rango maggiore o viceversa: per ogni coppia di nodi esiste
+ * un cammino minimo che prima sale di rango e poi scende, per cui basta una
+ * ricerca bidirezionale che segue solo gli archi verso nodi di rango
+ * maggiore. Le scorciatoie ricordano i due archi che sostituiscono, in modo
+ * da poter ricostruire il cammino nel grafo originale.
+ *
+ * La costruzione procede a turni: ad ogni turno viene scelto un insieme
+ * indipendente di nodi, cioè non adiacenti tra loro, di importanza minima
+ * rispetto ai vicini; le ricerche dei testimoni di questi nodi vengono eseguite
+ * in parallelo sul {@code ForkJoinPool} passato al costruttore, accettando un
+ * testimone lungo quanto la scorciatoia solo se non passa per altri nodi del
+ * turno, e le scorciatoie trovate vengono poi aggiunte sequenzialmente. Anche
+ * il ricalcolo dell'importanza dei vicini dei nodi contratti avviene in
+ * parallelo.
+ *
+ * La gerarchia è immutabile e può essere condivisa da più calcolatori. Il
+ * grafo non deve essere modificato dopo la costruzione, altrimenti i cammini
+ * restituiti potrebbero non essere più validi.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class ContractionHierarchy<L> {
+
+    /*
+     * Numero massimo di nodi resi definitivi da una ricerca del testimone:
+     * se il testimone non viene trovato entro il limite si aggiunge la
+     * scorciatoia, che al più è superflua.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 128;
+
+    /*
+     * Numero di nodi al di sotto del quale un turno viene elaborato
+     * sequenzialmente, perché il costo della suddivisione in sotto-task
+     * supererebbe il guadagno.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 32;
+
+    // il grafo da cui è stata costruita la gerarchia
+    private final Graph<L> graph;
+
+    // copia CSR del grafo, i cui indici sono usati dalla gerarchia
+    private final CsrDirectedGraph<L> csr;
+
+    // rango di ogni nodo nell'ordine di contrazione
+    private final int[] ranks;
+
+    /*
+     * Archi della gerarchia. Per un arco originale arcFirst vale -1 e
+     * arcSecond è l'indice dell'arco nel grafo CSR; per una scorciatoia
+     * arcFirst e arcSecond sono i due archi sostituiti.
+     */
+    private final int[] arcSources;
+
+    private final int[] arcTargets;
+
+    private final double[] arcWeights;
+
+    private final int[] arcFirst;
+
+    private final int[] arcSecond;
+
+    // numero di scorciatoie tra gli archi
+    private final int shortcutCount;
+
+    /*
+     * Archi uscenti da ogni nodo verso nodi di rango maggiore, in formato
+     * CSR: gli archi del nodo v sono upwardArcs[upwardStart[v]] ...
+     * upwardArcs[upwardStart[v + 1] - 1].
+     */
+    private final int[] upwardStart;
+
+    private final int[] upwardArcs;
+
+    // archi entranti in ogni nodo da nodi di rango maggiore, in formato CSR
+    private final int[] downwardStart;
+
+    private final int[] downwardArcs;
+
+    // tempo impiegato dalla costruzione in nanosecondi
+    private final long buildTimeNanos;
+
+    /**
+     * Costruisce la gerarchia di un grafo usando il pool comune di thread.
+     *
+     * @param graph
+     *                  il grafo di cui costruire la gerarchia
+     * @throws NullPointerException
+     *                                      se il grafo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     *                                      o non è pesato o contiene almeno un
+     *                                      peso negativo
+     */
+    public ContractionHierarchy(Graph<L> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Costruisce la gerarchia di un grafo eseguendo le ricerche dei
+     * testimoni sul pool di thread dato.
+     *
+     * @param graph
+     *                  il grafo di cui costruire la gerarchia
+     * @param pool
+     *                  il pool di thread su cui eseguire la costruzione
+     * @throws NullPointerException
+     *                                      se il grafo o il pool passati sono
+     *                                      nulli
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     *                                      o non è pesato o contiene almeno un
+     *                                      peso negativo
+     */
+    public ContractionHierarchy(Graph<L> graph, ForkJoinPool pool) {
+        if (graph == null)
+            throw new NullPointerException("Il grafo dato è nullo");
+        if (pool == null)
+            throw new NullPointerException("Il pool dato è nullo");
+        long start = System.nanoTime();
+        this.graph = graph;
+        this.csr = graph instanceof CsrDirectedGraph
+                ? (CsrDirectedGraph<L>) graph
+                : new CsrDirectedGraph<L>(graph);
+        for (int e = 0; e < this.csr.edgeCount(); e++)
+            if (!(this.csr.getEdgeWeight(e) >= 0))
+                throw new IllegalArgumentException(
+                        "Trovato arco non pesato o con peso negativo");
+        Builder builder = new Builder(pool);
+        builder.contractAll();
+        int n = this.csr.nodeCount();
+        int arcCount = builder.arcCount;
+        this.ranks = builder.ranks;
+        this.arcSources = Arrays.copyOf(builder.arcSources, arcCount);
+        this.arcTargets = Arrays.copyOf(builder.arcTargets, arcCount);
+        this.arcWeights = Arrays.copyOf(builder.arcWeights, arcCount);
+        this.arcFirst = Arrays.copyOf(builder.arcFirst, arcCount);
+        this.arcSecond = Arrays.copyOf(builder.arcSecond, arcCount);
+        this.shortcutCount = builder.shortcutCount;
+        // Al momento della contrazione i vicini rimasti di un nodo hanno
+        // tutti rango maggiore
+        this.upwardStart = new int[n + 1];
+        this.downwardStart = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            this.upwardStart[v + 1] = this.upwardStart[v] + builder.out[v].size;
+            this.downwardStart[v + 1] = this.downwardStart[v]
+                    + builder.in[v].size;
+        }
+        this.upwardArcs = new int[this.upwardStart[n]];
+        this.downwardArcs = new int[this.downwardStart[n]];
+        for (int v = 0; v < n; v++) {
+            System.arraycopy(builder.out[v].items, 0, this.upwardArcs,
+                    this.upwardStart[v], builder.out[v].size);
+            System.arraycopy(builder.in[v].items, 0, this.downwardArcs,
+                    this.downwardStart[v], builder.in[v].size);
+        }
+        this.buildTimeNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Restituisce il grafo da cui è stata costruita questa gerarchia.
+     *
+     * @return il grafo da cui è stata costruita questa gerarchia
+     */
+    public Graph<L> getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * Restituisce il rango di un nodo, cioè la sua posizione nell'ordine di
+     * contrazione.
+     *
+     * @param node
+     *                 il nodo di cui restituire il rango
+     * @return il rango del nodo, compreso tra 0 e il numero di nodi meno 1
+     * @throws NullPointerException
+     *                                      se il nodo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste nel
+     *                                      grafo
+     */
+    public int getRank(GraphNode<L> node) {
+        return this.ranks[this.indexOf(node)];
+    }
+
+    /**
+     * Restituisce il numero di scorciatoie aggiunte dalla costruzione.
+     *
+     * @return il numero di scorciatoie della gerarchia
+     */
+    public int getShortcutCount() {
+        return this.shortcutCount;
+    }
+
+    /**
+     * Restituisce le scorciatoie aggiunte dalla costruzione come archi
+     * orientati tra nodi del grafo. Gli archi vengono creati ad ogni
+     * chiamata.
+     *
+     * @return la lista delle scorciatoie della gerarchia
+     */
+    public List<GraphEdge<L>> getShortcuts() {
+        List<GraphEdge<L>> result = new ArrayList<GraphEdge<L>>();
+        for (int a = 0; a < this.arcSources.length; a++)
+            if (this.arcFirst[a] >= 0)
+                result.add(new GraphEdge<L>(
+                        this.csr.getNodeAtIndex(this.arcSources[a]),
+                        this.csr.getNodeAtIndex(this.arcTargets[a]), true,
+                        this.arcWeights[a]));
+        return result;
+    }
+
+    /**
+     * Restituisce il tempo impiegato dalla costruzione di questa gerarchia.
+     *
+     * @return il tempo di costruzione in nanosecondi
+     */
+    public long getBuildTime() {
+        return this.buildTimeNanos;
+    }
+
+    /**
+     * Restituisce una stima della memoria occupata dagli array della
+     * gerarchia, esclusa la copia CSR del grafo.
+     *
+     * @return la memoria occupata dalla gerarchia in byte
+     */
+    public long getMemoryEstimate() {
+        long ints = (long) this.ranks.length + 4L * this.arcSources.length
+                + this.upwardStart.length + this.upwardArcs.length
+                + this.downwardStart.length + this.downwardArcs.length;
+        return 4 * ints + 8L * this.arcWeights.length;
+    }
+
+    /*
+     * Metodi usati da ContractionHierarchyComputer per la ricerca.
+     */
+
+    int nodeCount() {
+        return this.ranks.length;
+    }
+
+    int indexOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Il nodo dato è nullo");
+        return this.csr.getNodeIndexOf(node.getLabel());
+    }
+
+    int getUpwardStart(int v) {
+        return this.upwardStart[v];
+    }
+
+    int getUpwardEnd(int v) {
+        return this.upwardStart[v + 1];
+    }
+
+    int getUpwardArc(int k) {
+        return this.upwardArcs[k];
+    }
+
+    int getDownwardStart(int v) {
+        return this.downwardStart[v];
+    }
+
+    int getDownwardEnd(int v) {
+        return this.downwardStart[v + 1];
+    }
+
+    int getDownwardArc(int k) {
+        return this.downwardArcs[k];
+    }
+
+    int getArcSource(int a) {
+        return this.arcSources[a];
+    }
+
+    int getArcTarget(int a) {
+        return this.arcTargets[a];
+    }
+
+    double getArcWeight(int a) {
+        return this.arcWeights[a];
+    }
+
+    /*
+     * Aggiunge in fondo al cammino gli archi originali rappresentati da un
+     * arco della gerarchia, sostituendo ricorsivamente ogni scorciatoia con i
+     * due archi che la compongono. Si usa una pila esplicita perché le
+     * scorciatoie possono essere annidate molto in profondità.
+     */
+    void unpack(int arc, List<GraphEdge<L>> path) {
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = arc;
+        while (size > 0) {
+            int a = stack[--size];
+            if (this.arcFirst[a] < 0) {
+                path.add(this.csr.getEdgeAt(this.arcSources[a],
+                        this.arcSecond[a]));
+                continue;
+            }
+            if (size + 2 > stack.length)
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            // Il primo arco va elaborato per primo, quindi va in cima
+            stack[size++] = this.arcSecond[a];
+            stack[size++] = this.arcFirst[a];
+        }
+    }
+
+    /*
+     * Stato modificabile della costruzione, scartato al termine.
+     */
+    private class Builder {
+        private final ForkJoinPool pool;
+
+        private final int n;
+
+        private int[] arcSources = new int[16];
+
+        private int[] arcTargets = new int[16];
+
+        private double[] arcWeights = new double[16];
+
+        private int[] arcFirst = new int[16];
+
+        private int[] arcSecond = new int[16];
+
+        private int arcCount = 0;
+
+        private int shortcutCount = 0;
+
+        // archi uscenti ed entranti di ogni nodo tra i nodi non contratti;
+        // per un nodo contratto sono quelli che aveva alla contrazione
+        private final IntList[] out;
+
+        private final IntList[] in;
+
+        private final int[] ranks;
+
+        private final int[] priorities;
+
+        // numero di vicini già contratti di ogni nodo
+        private final int[] contractedNeighbours;
+
+        private final boolean[] contracted;
+
+        // nodi del turno corrente
+        private final boolean[] contracting;
+
+        // vicini dei nodi del turno corrente già inseriti nella lista
+        private final boolean[] touched;
+
+        // un'area di lavoro per ogni thread
+        private final ThreadLocal<ShortestPathWorkspace> workspaces;
+
+        private Builder(ForkJoinPool pool) {
+            CsrDirectedGraph<L> g = ContractionHierarchy.this.csr;
+            this.pool = pool;
+            this.n = g.nodeCount();
+            this.out = new IntList[this.n];
+            this.in = new IntList[this.n];
+            for (int v = 0; v < this.n; v++) {
+                this.out[v] = new IntList();
+                this.in[v] = new IntList();
+            }
+            this.ranks = new int[this.n];
+            this.priorities = new int[this.n];
+            this.contractedNeighbours = new int[this.n];
+            this.contracted = new boolean[this.n];
+            this.contracting = new boolean[this.n];
+            this.touched = new boolean[this.n];
+            final int capacity = this.n;
+            this.workspaces = ThreadLocal
+                    .withInitial(() -> new ShortestPathWorkspace(capacity));
+            for (int v = 0; v < this.n; v++)
+                for (int e = g.getEdgeStart(v); e < g.getEdgeEnd(v); e++) {
+                    int t = g.getEdgeTarget(e);
+                    // I cappi non fanno mai parte di un cammino minimo
+                    if (t == v)
+                        continue;
+                    int a = this.addArc(v, t, g.getEdgeWeight(e), -1, e);
+                    this.out[v].add(a);
+                    this.in[t].add(a);
+                }
+        }
+
+        private void contractAll() {
+            IntList remaining = new IntList();
+            for (int v = 0; v < this.n; v++)
+                remaining.add(v);
+            this.updatePriorities(remaining);
+            int rank = 0;
+            IntList round = new IntList();
+            IntList neighbours = new IntList();
+            while (remaining.size > 0) {
+                round.clear();
+                for (int i = 0; i < remaining.size; i++)
+                    if (this.isLocalMinimum(remaining.items[i]))
+                        round.add(remaining.items[i]);
+                for (int i = 0; i < round.size; i++)
+                    this.contracting[round.items[i]] = true;
+                int[][] shortcuts = new int[round.size][];
+                this.run(round, (i, v) -> shortcuts[i] = this.findShortcuts(v));
+                neighbours.clear();
+                for (int i = 0; i < round.size; i++) {
+                    int v = round.items[i];
+                    this.ranks[v] = rank++;
+                    this.contract(v, shortcuts[i], neighbours);
+                }
+                for (int i = 0; i < round.size; i++)
+                    this.contracting[round.items[i]] = false;
+                for (int i = 0; i < neighbours.size; i++)
+                    this.touched[neighbours.items[i]] = false;
+                this.updatePriorities(neighbours);
+                // Toglie i nodi contratti dai rimanenti
+                int size = 0;
+                for (int i = 0; i < remaining.size; i++)
+                    if (!this.contracted[remaining.items[i]])
+                        remaining.items[size++] = remaining.items[i];
+                remaining.size = size;
+            }
+        }
+
+        /*
+         * Toglie un nodo dalle liste dei vicini, aggiunge le scorciatoie
+         * trovate e inserisce in neighbours i vicini non ancora inseriti.
+         */
+        private void contract(int v, int[] shortcuts, IntList neighbours) {
+            this.contracted[v] = true;
+            for (int k = 0; k < this.out[v].size; k++) {
+                int w = this.arcTargets[this.out[v].items[k]];
+                this.in[w].remove(this.out[v].items[k]);
+                this.touch(w, neighbours);
+            }
+            for (int k = 0; k < this.in[v].size; k++) {
+                int u = this.arcSources[this.in[v].items[k]];
+                this.out[u].remove(this.in[v].items[k]);
+                this.touch(u, neighbours);
+            }
+            for (int k = 0; k < shortcuts.length; k += 2)
+                this.addShortcut(shortcuts[k], shortcuts[k + 1]);
+        }
+
+        private void touch(int w, IntList neighbours) {
+            this.contractedNeighbours[w]++;
+            if (!this.touched[w]) {
+                this.touched[w] = true;
+                neighbours.add(w);
+            }
+        }
+
+        /*
+         * Aggiunge la scorciatoia formata dagli archi first e second, a meno
+         * che non esista già un arco non più lungo tra gli stessi nodi. Un
+         * arco più lungo viene sostituito.
+         */
+        private void addShortcut(int first, int second) {
+            int u = this.arcSources[first];
+            int w = this.arcTargets[second];
+            double weight = this.arcWeights[first] + this.arcWeights[second];
+            IntList uOut = this.out[u];
+            for (int k = 0; k < uOut.size; k++) {
+                int a = uOut.items[k];
+                if (this.arcTargets[a] != w)
+                    continue;
+                if (this.arcWeights[a] <= weight)
+                    return;
+                int s = this.addArc(u, w, weight, first, second);
+                this.shortcutCount++;
+                uOut.items[k] = s;
+                this.in[w].replace(a, s);
+                return;
+            }
+            int s = this.addArc(u, w, weight, first, second);
+            this.shortcutCount++;
+            uOut.add(s);
+            this.in[w].add(s);
+        }
+
+        private int addArc(int source, int target, double weight, int first,
+                int second) {
+            if (this.arcCount == this.arcSources.length) {
+                int capacity = this.arcCount * 2;
+                this.arcSources = Arrays.copyOf(this.arcSources, capacity);
+                this.arcTargets = Arrays.copyOf(this.arcTargets, capacity);
+                this.arcWeights = Arrays.copyOf(this.arcWeights, capacity);
+                this.arcFirst = Arrays.copyOf(this.arcFirst, capacity);
+                this.arcSecond = Arrays.copyOf(this.arcSecond, capacity);
+            }
+            this.arcSources[this.arcCount] = source;
+            this.arcTargets[this.arcCount] = target;
+            this.arcWeights[this.arcCount] = weight;
+            this.arcFirst[this.arcCount] = first;
+            this.arcSecond[this.arcCount] = second;
+            return this.arcCount++;
+        }
+
+        /*
+         * Un nodo viene contratto nel turno corrente se ha importanza minore
+         * di tutti i vicini non contratti; a parità vince l'indice minore.
+         * Così i nodi del turno non sono mai adiacenti.
+         */
+        private boolean isLocalMinimum(int v) {
+            for (int k = 0; k < this.out[v].size; k++)
+                if (this.precedes(this.arcTargets[this.out[v].items[k]], v))
+                    return false;
+            for (int k = 0; k < this.in[v].size; k++)
+                if (this.precedes(this.arcSources[this.in[v].items[k]], v))
+                    return false;
+            return true;
+        }
+
+        private boolean precedes(int a, int b) {
+            return this.priorities[a] < this.priorities[b]
+                    || (this.priorities[a] == this.priorities[b] && a < b);
+        }
+
+        private void updatePriorities(IntList nodes) {
+            this.run(nodes, (i, v) -> {
+                int added = this.findShortcuts(v).length / 2;
+                this.priorities[v] = 2 * (added - this.out[v].size
+                        - this.in[v].size) + this.contractedNeighbours[v];
+            });
+        }
+
+        /*
+         * Restituisce le coppie di archi (u -> v, v -> w) per cui serve una
+         * scorciatoia se v viene contratto. Le ricerche dei testimoni partono
+         * da ogni u e non attraversano v; il grafo viene solo letto, per cui
+         * più ricerche possono essere eseguite in parallelo.
+         */
+        private int[] findShortcuts(int v) {
+            ShortestPathWorkspace workspace = this.workspaces.get();
+            IntList result = new IntList();
+            IntList vOut = this.out[v];
+            for (int i = 0; i < this.in[v].size; i++) {
+                int first = this.in[v].items[i];
+                int u = this.arcSources[first];
+                double maxDistance = Double.NEGATIVE_INFINITY;
+                for (int k = 0; k < vOut.size; k++)
+                    if (this.arcTargets[vOut.items[k]] != u)
+                        maxDistance = Math.max(maxDistance,
+                                this.arcWeights[vOut.items[k]]);
+                if (maxDistance == Double.NEGATIVE_INFINITY)
+                    continue;
+                maxDistance += this.arcWeights[first];
+                workspace.start(u, this.n);
+                // la ricerca si ferma quando tutti i w sono definitivi
+                int pending = vOut.size;
+                while (pending > 0 && !workspace.isHeapEmpty()
+                        && workspace.minimumDistance() <= maxDistance
+                        && workspace.getSettledNodeCount() < WITNESS_SETTLE_LIMIT) {
+                    int x = workspace.extractMinimum();
+                    double dx = workspace.getDistance(x);
+                    for (int k = 0; k < vOut.size; k++)
+                        if (this.arcTargets[vOut.items[k]] == x)
+                            pending--;
+                    for (int k = 0; k < this.out[x].size; k++) {
+                        int a = this.out[x].items[k];
+                        int y = this.arcTargets[a];
+                        if (y != v)
+                            workspace.relax(x, y, a, dx + this.arcWeights[a]);
+                    }
+                }
+                for (int k = 0; k < vOut.size; k++) {
+                    int second = vOut.items[k];
+                    int w = this.arcTargets[second];
+                    if (w == u)
+                        continue;
+                    double via = this.arcWeights[first]
+                            + this.arcWeights[second];
+                    // Anche una distanza provvisoria è la lunghezza di un
+                    // cammino che non passa per v
+                    if (!(workspace.isReached(w)
+                            && (workspace.getDistance(w) < via
+                                    || (workspace.getDistance(w) == via
+                                            && this.avoidsRound(w, workspace))))) {
+                        result.add(first);
+                        result.add(second);
+                    }
+                }
+            }
+            return Arrays.copyOf(result.items, result.size);
+        }
+
+        /*
+         * Controlla che il cammino trovato dalla ricerca del testimone verso w
+         * non passi per nodi del turno corrente. Un testimone di lunghezza
+         * pari a quella della scorciatoia deve evitarli: altrimenti due nodi
+         * del turno potrebbero fare ciascuno da testimone all'altro e
+         * verrebbero tolti entrambi senza scorciatoie. Un testimone più corto
+         * invece mostra che il cammino attraverso v non è minimo.
+         */
+        private boolean avoidsRound(int w, ShortestPathWorkspace workspace) {
+            for (int x = workspace.getPreviousNode(w); x >= 0; x = workspace
+                    .getPreviousNode(x))
+                if (this.contracting[x])
+                    return false;
+            return true;
+        }
+
+        /*
+         * Esegue un'operazione su tutti i nodi di una lista, in parallelo se
+         * sono abbastanza.
+         */
+        private void run(IntList nodes, NodeTask task) {
+            if (nodes.size <= SEQUENTIAL_THRESHOLD)
+                for (int i = 0; i < nodes.size; i++)
+                    task.apply(i, nodes.items[i]);
+            else
+                this.pool.invoke(new RangeTask(nodes.items, 0, nodes.size, task));
+        }
+    }
+
+    /*
+     * Operazione da eseguire su un nodo, dato insieme alla sua posizione
+     * nella lista.
+     */
+    @FunctionalInterface
+    private interface NodeTask {
+        void apply(int position, int node);
+    }
+
+    /*
+     * Task che divide a metà un intervallo di nodi finché non diventa
+     * abbastanza piccolo da essere elaborato sequenzialmente.
+     */
+    @SuppressWarnings("serial")
+    private static class RangeTask extends RecursiveAction {
+        private final int[] nodes;
+
+        private final int from;
+
+        private final int to;
+
+        private final NodeTask task;
+
+        private RangeTask(int[] nodes, int from, int to, NodeTask task) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = this.from; i < this.to; i++)
+                    this.task.apply(i, this.nodes[i]);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new RangeTask(this.nodes, this.from, middle, this.task),
+                    new RangeTask(this.nodes, middle, this.to, this.task));
+        }
+    }
+
+    /*
+     * Lista di int che cresce raddoppiando. L'ordine degli elementi non
+     * conta, per cui la rimozione sposta l'ultimo elemento al posto di quello
+     * tolto.
+     */
+    private static class IntList {
+        private int[] items = new int[4];
+
+        private int size = 0;
+
+        private void add(int value) {
+            if (this.size == this.items.length)
+                this.items = Arrays.copyOf(this.items, this.size * 2);
+            this.items[this.size++] = value;
+        }
+
+        private void remove(int value) {
+            for (int i = 0; i < this.size; i++)
+                if (this.items[i] == value) {
+                    this.items[i] = this.items[--this.size];
+                    return;
+                }
+        }
+
+        private void replace(int value, int newValue) {
+            for (int i = 0; i < this.size; i++)
+                if (this.items[i] == value) {
+                    this.items[i] = newValue;
+                    return;
+                }
+        }
+
+        private void clear() {
+            this.size = 0;
+        }
+    }
+
+}
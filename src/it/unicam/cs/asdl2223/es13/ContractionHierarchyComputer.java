@@ -0,0 +1,184 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calcolatore di cammini minimi punto a punto che usa una
+ * {@code ContractionHierarchy<L>}. L'interrogazione esegue due ricerche di
+ * Dijkstra alternate: una in avanti dalla sorgente che segue solo gli archi
+ * verso nodi di rango maggiore e una all'indietro dalla destinazione che
+ * segue solo gli archi entranti da nodi di rango maggiore. Il cammino minimo
+ * passa per il nodo in cui la somma delle due distanze è minima; ogni
+ * ricerca si ferma quando la distanza minima nella sua coda non è inferiore
+ * al peso del miglior cammino trovato. Dato che i nodi di rango alto sono
+ * pochi, le ricerche rendono definitivi pochissimi nodi anche su grafi molto
+ * grandi. Il cammino trovato viene poi espanso sostituendo ogni scorciatoia
+ * con gli archi originali che rappresenta, per cui è formato da archi del
+ * grafo e può essere stampato con {@code printPath}.
+ *
+ * Le due ricerche usano due {@code ShortestPathWorkspace} riutilizzate da
+ * un'interrogazione all'altra, per cui un calcolatore non va usato da più
+ * thread contemporaneamente; più calcolatori possono invece condividere la
+ * stessa gerarchia. Il calcolo con sorgente singola è delegato a un
+ * {@code DijkstraShortestPathComputer<L>} sul grafo della gerarchia.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class ContractionHierarchyComputer<L>
+        implements PointToPointShortestPathComputer<L> {
+
+    // la gerarchia usata per le interrogazioni
+    private final ContractionHierarchy<L> hierarchy;
+
+    // calcolatore usato per il calcolo dei cammini con sorgente singola
+    private final DijkstraShortestPathComputer<L> singleSource;
+
+    // aree di lavoro delle due ricerche
+    private final ShortestPathWorkspace forward;
+
+    private final ShortestPathWorkspace backward;
+
+    // numero di nodi resi definitivi nell'ultimo calcolo
+    private int settledNodeCount;
+
+    /**
+     * Crea un calcolatore che usa una gerarchia già costruita.
+     *
+     * @param hierarchy
+     *                      la gerarchia da usare
+     * @throws NullPointerException
+     *                                  se la gerarchia passata è nulla
+     */
+    public ContractionHierarchyComputer(ContractionHierarchy<L> hierarchy) {
+        if (hierarchy == null)
+            throw new NullPointerException("La gerarchia data è nulla");
+        this.hierarchy = hierarchy;
+        this.singleSource = new DijkstraShortestPathComputer<L>(
+                hierarchy.getGraph());
+        this.forward = new ShortestPathWorkspace(hierarchy.nodeCount());
+        this.backward = new ShortestPathWorkspace(hierarchy.nodeCount());
+        this.settledNodeCount = 0;
+    }
+
+    /**
+     * Crea un calcolatore costruendo la gerarchia di un grafo sul pool comune
+     * di thread.
+     *
+     * @param graph
+     *                  il grafo su cui opera il calcolatore
+     * @throws NullPointerException
+     *                                      se il grafo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     *                                      o non è pesato o contiene almeno un
+     *                                      peso negativo
+     */
+    public ContractionHierarchyComputer(Graph<L> graph) {
+        this(new ContractionHierarchy<L>(graph));
+    }
+
+    /**
+     * Restituisce la gerarchia usata da questo calcolatore.
+     *
+     * @return la gerarchia usata da questo calcolatore
+     */
+    public ContractionHierarchy<L> getHierarchy() {
+        return this.hierarchy;
+    }
+
+    @Override
+    public List<GraphEdge<L>> getShortestPath(GraphNode<L> sourceNode,
+            GraphNode<L> targetNode) {
+        ContractionHierarchy<L> h = this.hierarchy;
+        int s = h.indexOf(sourceNode);
+        int t = h.indexOf(targetNode);
+        this.settledNodeCount = 0;
+        if (s == t)
+            return new ArrayList<GraphEdge<L>>();
+        int n = h.nodeCount();
+        this.forward.start(s, n);
+        this.backward.start(t, n);
+        // peso del miglior cammino trovato e nodo di rango massimo del
+        // cammino
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        while (true) {
+            double minForward = this.forward.minimumDistance();
+            double minBackward = this.backward.minimumDistance();
+            boolean forwardDone = minForward >= best;
+            boolean backwardDone = minBackward >= best;
+            if (forwardDone && backwardDone)
+                break;
+            boolean isForward = backwardDone
+                    || (!forwardDone && minForward <= minBackward);
+            ShortestPathWorkspace current = isForward ? this.forward
+                    : this.backward;
+            ShortestPathWorkspace other = isForward ? this.backward
+                    : this.forward;
+            int u = current.extractMinimum();
+            this.settledNodeCount++;
+            double du = current.getDistance(u);
+            if (other.isReached(u) && du + other.getDistance(u) < best) {
+                best = du + other.getDistance(u);
+                meeting = u;
+            }
+            int from = isForward ? h.getUpwardStart(u) : h.getDownwardStart(u);
+            int to = isForward ? h.getUpwardEnd(u) : h.getDownwardEnd(u);
+            for (int k = from; k < to; k++) {
+                int a = isForward ? h.getUpwardArc(k) : h.getDownwardArc(k);
+                int v = isForward ? h.getArcTarget(a) : h.getArcSource(a);
+                current.relax(u, v, a, du + h.getArcWeight(a));
+            }
+        }
+        if (meeting < 0)
+            // la destinazione non è raggiungibile
+            return null;
+        // Archi della gerarchia dalla sorgente al nodo di incontro, in ordine
+        // inverso, poi dal nodo di incontro alla destinazione
+        List<Integer> arcs = new ArrayList<Integer>();
+        for (int v = meeting; v != s; v = this.forward.getPreviousNode(v))
+            arcs.add(this.forward.getPreviousEdge(v));
+        List<GraphEdge<L>> path = new ArrayList<GraphEdge<L>>();
+        for (int i = arcs.size() - 1; i >= 0; i--)
+            h.unpack(arcs.get(i), path);
+        for (int v = meeting; v != t; v = this.backward.getPreviousNode(v))
+            h.unpack(this.backward.getPreviousEdge(v), path);
+        return path;
+    }
+
+    @Override
+    public int getSettledNodeCount() {
+        return this.settledNodeCount;
+    }
+
+    @Override
+    public void computeShortestPathsFrom(GraphNode<L> sourceNode) {
+        this.singleSource.computeShortestPathsFrom(sourceNode);
+        this.settledNodeCount = this.singleSource.getSettledNodeCount();
+    }
+
+    @Override
+    public boolean isComputed() {
+        return this.singleSource.isComputed();
+    }
+
+    @Override
+    public GraphNode<L> getLastSource() {
+        return this.singleSource.getLastSource();
+    }
+
+    @Override
+    public Graph<L> getGraph() {
+        return this.hierarchy.getGraph();
+    }
+
+    @Override
+    public List<GraphEdge<L>> getShortestPathTo(GraphNode<L> targetNode) {
+        return this.singleSource.getShortestPathTo(targetNode);
+    }
+
+}
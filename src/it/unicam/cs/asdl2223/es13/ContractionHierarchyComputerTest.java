@@ -0,0 +1,175 @@
+package it.unicam.cs.asdl2223.es13;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class ContractionHierarchyComputerTest {
+
+    private <L> double weightOf(List<GraphEdge<L>> path) {
+        double result = 0;
+        for (GraphEdge<L> e : path)
+            result += e.getWeight();
+        return result;
+    }
+
+    /*
+     * Controlla che il cammino sia formato da archi del grafo consecutivi e
+     * che abbia il peso calcolato dall'algoritmo di Dijkstra.
+     */
+    private <L> void checkAgainstDijkstra(Graph<L> g,
+            ContractionHierarchyComputer<L> c) {
+        DijkstraShortestPathComputer<L> d = new DijkstraShortestPathComputer<L>(
+                g);
+        for (GraphNode<L> source : g.getNodes()) {
+            d.computeShortestPathsFrom(source);
+            for (GraphNode<L> target : g.getNodes()) {
+                List<GraphEdge<L>> path = c.getShortestPath(source, target);
+                double expected = target.getFloatingPointDistance();
+                if (expected == Double.POSITIVE_INFINITY) {
+                    assertNull(path);
+                    continue;
+                }
+                GraphNode<L> current = source;
+                for (GraphEdge<L> e : path) {
+                    assertEquals(current, e.getNode1());
+                    assertTrue(g.containsEdge(e));
+                    current = e.getNode2();
+                }
+                assertEquals(target, current);
+                assertEquals(expected, this.weightOf(path), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    final void testConstructor() {
+        assertThrows(NullPointerException.class,
+                () -> new ContractionHierarchyComputer<String>(
+                        (Graph<String>) null));
+        assertThrows(NullPointerException.class,
+                () -> new ContractionHierarchyComputer<String>(
+                        (ContractionHierarchy<String>) null));
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        assertThrows(NullPointerException.class,
+                () -> new ContractionHierarchy<String>(g, null));
+        ContractionHierarchy<String> h = new ContractionHierarchy<String>(g);
+        ContractionHierarchyComputer<String> c = new ContractionHierarchyComputer<String>(
+                h);
+        assertTrue(c.getHierarchy() == h);
+        assertTrue(c.getGraph() == g);
+        g.addEdge(new GraphEdge<String>(g.getNodeOf("s"), g.getNodeOf("w"),
+                true, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ContractionHierarchy<String>(g));
+    }
+
+    @Test
+    final void testGetShortestPath() {
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        ContractionHierarchyComputer<String> c = new ContractionHierarchyComputer<String>(
+                g);
+        GraphNode<String> ns = new GraphNode<String>("s");
+        GraphNode<String> nx = new GraphNode<String>("x");
+        List<GraphEdge<String>> path = c.getShortestPath(ns, nx);
+        assertEquals(9.0, this.weightOf(path), 1e-9);
+        assertEquals("[ Nodo[ s ] -- 5.0 --> Nodo[ y ] -- 3.0 --> Nodo[ t ]"
+                + " -- 1.0 --> Nodo[ x ] ]", c.printPath(path));
+        assertTrue(c.getShortestPath(ns, ns).isEmpty());
+        assertEquals(0, c.getSettledNodeCount());
+        assertNull(c.getShortestPath(ns, new GraphNode<String>("w")));
+        assertThrows(NullPointerException.class,
+                () -> c.getShortestPath(null, ns));
+        assertThrows(IllegalArgumentException.class,
+                () -> c.getShortestPath(ns, new GraphNode<String>("a")));
+        this.checkAgainstDijkstra(g, c);
+        // il calcolo punto a punto non modifica lo stato del calcolatore
+        assertFalse(c.isComputed());
+        c.computeShortestPathsFrom(ns);
+        assertEquals(ns, c.getLastSource());
+        assertEquals(path, c.getShortestPathTo(nx));
+    }
+
+    @Test
+    final void testHierarchy() {
+        Graph<Integer> g = ShortestPathTestGraphs.createGrid(8, 1);
+        ContractionHierarchy<Integer> h = new ContractionHierarchy<Integer>(g);
+        assertThrows(NullPointerException.class, () -> h.getRank(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> h.getRank(new GraphNode<Integer>(100)));
+        // I ranghi sono una permutazione dei nodi
+        Set<Integer> ranks = new HashSet<Integer>();
+        for (GraphNode<Integer> v : g.getNodes())
+            ranks.add(h.getRank(v));
+        assertEquals(64, ranks.size());
+        assertTrue(ranks.contains(0));
+        assertTrue(ranks.contains(63));
+        List<GraphEdge<Integer>> shortcuts = h.getShortcuts();
+        assertEquals(h.getShortcutCount(), shortcuts.size());
+        assertTrue(h.getShortcutCount() > 0);
+        assertTrue(h.getMemoryEstimate() > 0);
+        assertTrue(h.getBuildTime() > 0);
+        // Una scorciatoia non è più corta della distanza tra i suoi nodi
+        DijkstraShortestPathComputer<Integer> d = new DijkstraShortestPathComputer<Integer>(
+                g);
+        for (GraphEdge<Integer> e : shortcuts) {
+            d.computeShortestPathsFrom(e.getNode1());
+            assertTrue(g.getNodeOf(e.getNode2().getLabel())
+                    .getFloatingPointDistance() <= e.getWeight());
+        }
+    }
+
+    @Test
+    final void testAgreesWithDijkstra() {
+        this.checkAgainstDijkstra(ShortestPathTestGraphs.createGrid(9, 2),
+                new ContractionHierarchyComputer<Integer>(ShortestPathTestGraphs.createGrid(9, 2)));
+        // Grafo casuale sparso con nodi non raggiungibili
+        Random random = new Random(11);
+        Graph<Integer> g = new MapAdjacentListDirectedGraph<Integer>();
+        int n = 70;
+        for (int i = 0; i < n; i++)
+            g.addNode(new GraphNode<Integer>(i));
+        for (int k = 0; k < 3 * n; k++)
+            g.addEdge(new GraphEdge<Integer>(g.getNodeOf(random.nextInt(n)),
+                    g.getNodeOf(random.nextInt(n)), true,
+                    random.nextInt(20) / 2.0));
+        this.checkAgainstDijkstra(g, new ContractionHierarchyComputer<Integer>(g));
+    }
+
+    /*
+     * La costruzione parallela dà cammini corretti e su una griglia grande
+     * le interrogazioni rendono definitivi pochi nodi.
+     */
+    @Test
+    final void testParallelBuild() {
+        Graph<Integer> g = ShortestPathTestGraphs.createGrid(40, 3);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ContractionHierarchyComputer<Integer> c = new ContractionHierarchyComputer<Integer>(
+                    new ContractionHierarchy<Integer>(g, pool));
+            BidirectionalDijkstraComputer<Integer> b = new BidirectionalDijkstraComputer<Integer>(
+                    g);
+            Random random = new Random(7);
+            long chSettled = 0;
+            long bidirectionalSettled = 0;
+            for (int q = 0; q < 50; q++) {
+                GraphNode<Integer> s = g.getNodeOf(random.nextInt(1600));
+                GraphNode<Integer> t = g.getNodeOf(random.nextInt(1600));
+                assertEquals(this.weightOf(b.getShortestPath(s, t)),
+                        this.weightOf(c.getShortestPath(s, t)), 1e-9);
+                chSettled += c.getSettledNodeCount();
+                bidirectionalSettled += b.getSettledNodeCount();
+            }
+            assertTrue(chSettled * 2 < bidirectionalSettled);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
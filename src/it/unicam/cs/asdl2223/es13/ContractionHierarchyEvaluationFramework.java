@@ -0,0 +1,147 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Misura la costruzione delle gerarchie di contrazione e le interrogazioni
+ * su griglie di lato crescente con archi nei due versi e pesi casuali, simili
+ * a reti stradali. Per ogni griglia la gerarchia viene costruita con un
+ * numero crescente di thread; per ogni costruzione vengono riportati il
+ * tempo in nanosecondi, il numero di scorciatoie, la memoria stimata della
+ * gerarchia e l'aumento della memoria occupata nello heap. Sulla gerarchia
+ * costruita con il massimo numero di thread vengono poi eseguite le stesse
+ * interrogazioni casuali con la gerarchia e con l'algoritmo di Dijkstra
+ * bidirezionale, riportando tempo medio e numero medio di nodi resi
+ * definitivi. I dati sono scritti su un file .csv (Comma Separated Values).
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ *
+ * @author collettiva
+ *
+ */
+public class ContractionHierarchyEvaluationFramework {
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "chevalfram.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "chevalfram.csv");
+            System.exit(1);
+        }
+        o.print("Nodes,Edges,Threads,BuildTns,Shortcuts,MemoryBytes,"
+                + "HeapBytes,CHQueryTns,CHSettled,BidirQueryTns,"
+                + "BidirSettled\n");
+        Random randomGenerator = new Random();
+        Runtime runtime = Runtime.getRuntime();
+        for (int side = ContractionHierarchyEvaluationFrameworkParameters.MIN_SIDE; side <= ContractionHierarchyEvaluationFrameworkParameters.MAX_SIDE; side += ContractionHierarchyEvaluationFrameworkParameters.INCREMENTO_LATO) {
+            Graph<Integer> g = createGrid(side, randomGenerator);
+            System.out.println("Generata griglia di lato " + side);
+            ContractionHierarchy<Integer> h = null;
+            for (int threads = 1; threads <= ContractionHierarchyEvaluationFrameworkParameters.MAX_THREADS; threads *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                h = null;
+                System.gc();
+                long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+                h = new ContractionHierarchy<Integer>(g, pool);
+                long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+                pool.shutdown();
+                o.print(g.nodeCount() + "," + g.edgeCount() + "," + threads
+                        + "," + h.getBuildTime() + "," + h.getShortcutCount()
+                        + "," + h.getMemoryEstimate() + ","
+                        + Math.max(0, usedAfter - usedBefore) + ",");
+                if (threads * 2 <= ContractionHierarchyEvaluationFrameworkParameters.MAX_THREADS) {
+                    o.print(",,,\n");
+                    continue;
+                }
+                // Interrogazioni sull'ultima gerarchia costruita
+                ContractionHierarchyComputer<Integer> ch = new ContractionHierarchyComputer<Integer>(
+                        h);
+                BidirectionalDijkstraComputer<Integer> bidir = new BidirectionalDijkstraComputer<Integer>(
+                        g);
+                long chTime = 0;
+                long chSettled = 0;
+                long bidirTime = 0;
+                long bidirSettled = 0;
+                int n = g.nodeCount();
+                for (int q = 0; q < ContractionHierarchyEvaluationFrameworkParameters.NUMBER_OF_QUERIES; q++) {
+                    GraphNode<Integer> s = g
+                            .getNodeOf(randomGenerator.nextInt(n));
+                    GraphNode<Integer> t = g
+                            .getNodeOf(randomGenerator.nextInt(n));
+                    long startTimeNano = System.nanoTime();
+                    List<GraphEdge<Integer>> chPath = ch.getShortestPath(s, t);
+                    chTime += System.nanoTime() - startTimeNano;
+                    chSettled += ch.getSettledNodeCount();
+                    startTimeNano = System.nanoTime();
+                    List<GraphEdge<Integer>> bidirPath = bidir
+                            .getShortestPath(s, t);
+                    bidirTime += System.nanoTime() - startTimeNano;
+                    bidirSettled += bidir.getSettledNodeCount();
+                    // Controllo che i due cammini abbiano lo stesso peso
+                    if (Math.abs(weightOf(chPath) - weightOf(bidirPath)) > 1e-9) {
+                        o.close();
+                        throw new IllegalStateException(
+                                "Cammini di peso diverso da " + s + " a " + t
+                                        + ": " + ch.printPath(chPath) + " e "
+                                        + bidir.printPath(bidirPath));
+                    }
+                }
+                int queries = ContractionHierarchyEvaluationFrameworkParameters.NUMBER_OF_QUERIES;
+                o.print(chTime / queries + "," + chSettled / queries + ","
+                        + bidirTime / queries + "," + bidirSettled / queries
+                        + "\n");
+            }
+        }
+        o.close();
+    }
+
+    /*
+     * Crea una griglia con archi nei due versi di peso casuale.
+     */
+    private static Graph<Integer> createGrid(int side, Random random) {
+        Graph<Integer> g = new MapAdjacentListDirectedGraph<Integer>(true);
+        for (int i = 0; i < side * side; i++)
+            g.addNode(new GraphNode<Integer>(i));
+        for (int r = 0; r < side; r++)
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+                if (c + 1 < side)
+                    addRoad(g, v, v + 1, random);
+                if (r + 1 < side)
+                    addRoad(g, v, v + side, random);
+            }
+        return g;
+    }
+
+    private static void addRoad(Graph<Integer> g, int u, int v,
+            Random random) {
+        double weight = 1 + random.nextInt(
+                ContractionHierarchyEvaluationFrameworkParameters.MAX_GENERATED_WEIGHT);
+        g.addEdge(new GraphEdge<Integer>(g.getNodeOf(u), g.getNodeOf(v), true,
+                weight));
+        g.addEdge(new GraphEdge<Integer>(g.getNodeOf(v), g.getNodeOf(u), true,
+                weight));
+    }
+
+    private static double weightOf(List<GraphEdge<Integer>> path) {
+        double result = 0;
+        for (GraphEdge<Integer> e : path)
+            result += e.getWeight();
+        return result;
+    }
+
+}
@@ -0,0 +1,42 @@
+package it.unicam.cs.asdl2223.es13;
+
+/**
+ * Parametri generali del framework di valutazione delle gerarchie di
+ * contrazione.
+ *
+ * @author collettiva
+ *
+ */
+public interface ContractionHierarchyEvaluationFrameworkParameters {
+    /**
+     * Lato minimo delle griglie da generare
+     */
+    public static int MIN_SIDE = 50;
+
+    /**
+     * Passo di incremento del lato da MIN_SIDE a MAX_SIDE
+     */
+    public static int INCREMENTO_LATO = 50;
+
+    /**
+     * Lato massimo delle griglie da generare
+     */
+    public static int MAX_SIDE = 300;
+
+    /**
+     * Numero di thread usati per la costruzione; per ogni griglia la
+     * costruzione viene ripetuta con 1, 2, 4, ... thread fino a questo valore
+     */
+    public static int MAX_THREADS = 8;
+
+    /**
+     * Numero di interrogazioni casuali eseguite su ogni griglia
+     */
+    public static int NUMBER_OF_QUERIES = 200;
+
+    /**
+     * Peso massimo degli archi generati
+     */
+    public static int MAX_GENERATED_WEIGHT = 100;
+
+}
@@ -0,0 +1,531 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementazione immutabile della classe astratta {@code Graph<L>} che
+ * realizza un grafo orientato con la rappresentazione <i>Compressed Sparse
+ * Row</i> (CSR). Il grafo viene costruito una volta per tutte a partire da un
+ * altro grafo orientato e non può essere modificato: tutte le operazioni di
+ * inserimento e cancellazione lanciano {@code UnsupportedOperationException}.
+ *
+ * Ad ogni nodo viene assegnato un indice denso nell'intervallo
+ * <code>[0, this.nodeCount() - 1]</code>. Gli archi uscenti dal nodo di indice
+ * {@code i} occupano le posizioni da {@code offsets[i]} (incluso) a
+ * {@code offsets[i + 1]} (escluso) degli array paralleli {@code targets} e
+ * {@code weights}, che contengono rispettivamente l'indice del nodo
+ * destinazione e il peso di ogni arco. In questo modo ogni arco occupa solo 12
+ * byte (un int e un double) e la scansione degli archi uscenti di un nodo
+ * accede a posizioni contigue della memoria.
+ *
+ * Gli oggetti {@code GraphNode<L>} sono gli stessi del grafo di partenza,
+ * mentre gli oggetti {@code GraphEdge<L>} vengono creati solo su richiesta dai
+ * metodi che restituiscono insiemi di archi: modificare il peso di un arco
+ * restituito non modifica questo grafo. Gli algoritmi che vogliono evitare la
+ * creazione di oggetti possono usare i metodi che lavorano direttamente sugli
+ * indici degli archi ({@code getEdgeStart}, {@code getEdgeEnd},
+ * {@code getEdgeTarget}, {@code getEdgeWeight}).
+ *
+ * La rappresentazione inversa (archi entranti), necessaria per
+ * {@code getIngoingEdgesOf} e {@code getPredecessorNodesOf}, viene costruita
+ * solo alla prima richiesta, per non raddoppiare la memoria occupata quando non
+ * serve.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                etichette dei nodi del grafo
+ */
+public class CsrDirectedGraph<L> extends Graph<L> {
+
+    // I nodi del grafo, il nodo di indice i è in posizione i
+    private final Object[] nodes;
+
+    // Associa ad ogni etichetta l'indice del relativo nodo
+    private final Map<L, Integer> indexes;
+
+    // Insieme (non modificabile) dei nodi restituito da getNodes()
+    private final Set<GraphNode<L>> nodeSet;
+
+    /*
+     * Gli archi uscenti dal nodo i sono quelli con indice compreso tra
+     * offsets[i] (incluso) e offsets[i + 1] (escluso). La lunghezza è
+     * nodeCount() + 1.
+     */
+    private final int[] offsets;
+
+    // Indice del nodo destinazione di ogni arco
+    private final int[] targets;
+
+    // Peso di ogni arco
+    private final double[] weights;
+
+    /*
+     * Rappresentazione inversa costruita su richiesta: gli archi entranti nel
+     * nodo i sono in posizione da inOffsets[i] a inOffsets[i + 1] (escluso) di
+     * inEdges, che contiene gli indici degli archi nella rappresentazione
+     * diretta, e di inSources, che contiene gli indici dei nodi sorgente.
+     */
+    private volatile int[] inOffsets;
+
+    private int[] inEdges;
+
+    private int[] inSources;
+
+    /**
+     * Costruisce un grafo CSR immutabile che contiene gli stessi nodi e gli
+     * stessi archi di un grafo orientato dato.
+     *
+     * @param graph
+     *                  il grafo da cui copiare nodi e archi
+     * @throws NullPointerException
+     *                                      se il grafo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     */
+    public CsrDirectedGraph(Graph<L> graph) {
+        if (graph == null)
+            throw new NullPointerException("Il grafo dato è nullo");
+        if (!graph.isDirected())
+            throw new IllegalArgumentException("Il grafo dato non è orientato");
+        int n = graph.nodeCount();
+        this.nodes = new Object[n];
+        this.indexes = new HashMap<L, Integer>();
+        // Assegna un indice denso ad ogni nodo
+        int i = 0;
+        for (GraphNode<L> node : graph.getNodes()) {
+            this.nodes[i] = node;
+            this.indexes.put(node.getLabel(), i);
+            i++;
+        }
+        // Conta gli archi uscenti da ogni nodo per calcolare gli offset
+        this.offsets = new int[n + 1];
+        for (i = 0; i < n; i++)
+            this.offsets[i + 1] = this.offsets[i]
+                    + graph.getEdgesOf(this.nodeAt(i)).size();
+        int m = this.offsets[n];
+        this.targets = new int[m];
+        this.weights = new double[m];
+        // Copia gli archi, ordinando quelli di ogni nodo per destinazione
+        long[] buffer = new long[0];
+        for (i = 0; i < n; i++) {
+            Set<GraphEdge<L>> edges = graph.getEdgesOf(this.nodeAt(i));
+            int e = this.offsets[i];
+            for (GraphEdge<L> edge : edges) {
+                this.targets[e] = this.indexes.get(edge.getNode2().getLabel());
+                this.weights[e] = edge.getWeight();
+                e++;
+            }
+            int degree = edges.size();
+            if (degree > 1) {
+                // Ordina per destinazione mantenendo il peso associato
+                if (buffer.length < degree)
+                    buffer = new long[degree];
+                int start = this.offsets[i];
+                for (int k = 0; k < degree; k++)
+                    buffer[k] = ((long) this.targets[start + k] << 32) | k;
+                Arrays.sort(buffer, 0, degree);
+                double[] w = Arrays.copyOfRange(this.weights, start, start + degree);
+                for (int k = 0; k < degree; k++) {
+                    this.targets[start + k] = (int) (buffer[k] >>> 32);
+                    this.weights[start + k] = w[(int) buffer[k]];
+                }
+            }
+        }
+        Set<GraphNode<L>> set = new LinkedHashSet<GraphNode<L>>();
+        for (i = 0; i < n; i++)
+            set.add(this.nodeAt(i));
+        this.nodeSet = Collections.unmodifiableSet(set);
+    }
+
+    @Override
+    public int nodeCount() {
+        return this.nodes.length;
+    }
+
+    @Override
+    public int edgeCount() {
+        return this.targets.length;
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Il grafo CSR è immutabile");
+    }
+
+    @Override
+    public boolean isDirected() {
+        return true;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        return this.nodeSet;
+    }
+
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        throw new UnsupportedOperationException("Il grafo CSR è immutabile");
+    }
+
+    @Override
+    public boolean removeNode(GraphNode<L> node) {
+        throw new UnsupportedOperationException("Il grafo CSR è immutabile");
+    }
+
+    @Override
+    public boolean containsNode(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Tentativo di cercare un nodo null");
+        return this.indexes.containsKey(node.getLabel());
+    }
+
+    @Override
+    public GraphNode<L> getNodeOf(L label) {
+        if (label == null)
+            throw new NullPointerException(
+                    "Tentativo di cercare un nodo con etichetta null");
+        Integer i = this.indexes.get(label);
+        if (i == null)
+            return null;
+        return this.nodeAt(i);
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        if (label == null)
+            throw new NullPointerException(
+                    "Tentativo di ricercare un nodo con etichetta null");
+        Integer i = this.indexes.get(label);
+        if (i == null)
+            throw new IllegalArgumentException(
+                    "Nessun nodo con l'etichetta data nel grafo");
+        return i;
+    }
+
+    @Override
+    public GraphNode<L> getNodeAtIndex(int i) {
+        if (i < 0 || i >= this.nodes.length)
+            throw new IndexOutOfBoundsException("Indice di nodo non valido: " + i);
+        return this.nodeAt(i);
+    }
+
+    /*
+     * Il grafo è immutabile, per cui il contatore delle modifiche vale sempre
+     * 0.
+     */
+    @Override
+    public long getModificationCount() {
+        return 0;
+    }
+
+    @Override
+    public boolean supportsModificationCount() {
+        return true;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        int u = this.indexOfExisting(node);
+        Set<GraphNode<L>> result = new HashSet<GraphNode<L>>();
+        for (int e = this.offsets[u]; e < this.offsets[u + 1]; e++)
+            result.add(this.nodeAt(this.targets[e]));
+        return result;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        int v = this.indexOfExisting(node);
+        int[] in = this.ingoingOffsets();
+        Set<GraphNode<L>> result = new HashSet<GraphNode<L>>();
+        for (int k = in[v]; k < in[v + 1]; k++)
+            result.add(this.nodeAt(this.inSources[k]));
+        return result;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        Set<GraphEdge<L>> result = new HashSet<GraphEdge<L>>();
+        for (int u = 0; u < this.nodes.length; u++)
+            for (int e = this.offsets[u]; e < this.offsets[u + 1]; e++)
+                result.add(this.edgeAt(u, e));
+        return result;
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        throw new UnsupportedOperationException("Il grafo CSR è immutabile");
+    }
+
+    @Override
+    public boolean removeEdge(GraphEdge<L> edge) {
+        throw new UnsupportedOperationException("Il grafo CSR è immutabile");
+    }
+
+    @Override
+    public boolean containsEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("Tentativo di cercare un arco nullo");
+        Integer u = this.indexes.get(edge.getNode1().getLabel());
+        Integer v = this.indexes.get(edge.getNode2().getLabel());
+        if (u == null || v == null)
+            throw new IllegalArgumentException(
+                    "Ricerca di un arco con almeno uno dei due nodi collegati non esistente");
+        if (!edge.isDirected())
+            return false;
+        // Gli archi di ogni nodo sono ordinati per destinazione
+        return Arrays.binarySearch(this.targets, this.offsets[u],
+                this.offsets[u + 1], v) >= 0;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        int u = this.indexOfExisting(node);
+        Set<GraphEdge<L>> result = new HashSet<GraphEdge<L>>();
+        for (int e = this.offsets[u]; e < this.offsets[u + 1]; e++)
+            result.add(this.edgeAt(u, e));
+        return result;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        int v = this.indexOfExisting(node);
+        int[] in = this.ingoingOffsets();
+        Set<GraphEdge<L>> result = new HashSet<GraphEdge<L>>();
+        for (int k = in[v]; k < in[v + 1]; k++)
+            result.add(this.edgeAt(this.inSources[k], this.inEdges[k]));
+        return result;
+    }
+
+    /**
+     * Restituisce l'indice del primo arco uscente dal nodo di indice dato.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return l'indice del primo arco uscente dal nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non corrisponde a
+     *                                       nessun nodo
+     */
+    public int getEdgeStart(int i) {
+        this.checkNodeIndex(i);
+        return this.offsets[i];
+    }
+
+    /**
+     * Restituisce l'indice successivo all'ultimo arco uscente dal nodo di
+     * indice dato. Gli archi uscenti dal nodo sono quindi quelli con indice
+     * compreso tra {@code getEdgeStart(i)} (incluso) e {@code getEdgeEnd(i)}
+     * (escluso).
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return l'indice successivo all'ultimo arco uscente dal nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non corrisponde a
+     *                                       nessun nodo
+     */
+    public int getEdgeEnd(int i) {
+        this.checkNodeIndex(i);
+        return this.offsets[i + 1];
+    }
+
+    /**
+     * Restituisce l'indice del nodo destinazione di un arco.
+     *
+     * @param e
+     *              l'indice dell'arco
+     * @return l'indice del nodo destinazione dell'arco
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non corrisponde a
+     *                                       nessun arco
+     */
+    public int getEdgeTarget(int e) {
+        return this.targets[e];
+    }
+
+    /**
+     * Restituisce il peso di un arco.
+     *
+     * @param e
+     *              l'indice dell'arco
+     * @return il peso dell'arco, {@code Double.NaN} se l'arco non è pesato
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non corrisponde a
+     *                                       nessun arco
+     */
+    public double getEdgeWeight(int e) {
+        return this.weights[e];
+    }
+
+    /**
+     * Restituisce l'indice del primo arco entrante nel nodo di indice dato. La
+     * rappresentazione inversa viene costruita alla prima chiamata.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return la posizione del primo arco entrante nel nodo, da usare con
+     *         {@code getIngoingEdge} e {@code getIngoingEdgeSource}
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non corrisponde a
+     *                                       nessun nodo
+     */
+    public int getIngoingEdgeStart(int i) {
+        this.checkNodeIndex(i);
+        return this.ingoingOffsets()[i];
+    }
+
+    /**
+     * Restituisce la posizione successiva all'ultimo arco entrante nel nodo di
+     * indice dato.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return la posizione successiva all'ultimo arco entrante nel nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non corrisponde a
+     *                                       nessun nodo
+     */
+    public int getIngoingEdgeEnd(int i) {
+        this.checkNodeIndex(i);
+        return this.ingoingOffsets()[i + 1];
+    }
+
+    /**
+     * Restituisce l'indice (nella rappresentazione diretta) dell'arco entrante
+     * in una certa posizione della rappresentazione inversa.
+     *
+     * @param k
+     *              la posizione nella rappresentazione inversa
+     * @return l'indice dell'arco, utilizzabile con {@code getEdgeWeight}
+     */
+    public int getIngoingEdge(int k) {
+        this.ingoingOffsets();
+        return this.inEdges[k];
+    }
+
+    /**
+     * Restituisce l'indice del nodo sorgente dell'arco entrante in una certa
+     * posizione della rappresentazione inversa.
+     *
+     * @param k
+     *              la posizione nella rappresentazione inversa
+     * @return l'indice del nodo sorgente dell'arco
+     */
+    public int getIngoingEdgeSource(int k) {
+        this.ingoingOffsets();
+        return this.inSources[k];
+    }
+
+    /**
+     * Cerca l'indice dell'arco che collega due nodi. Poiché gli archi di ogni
+     * nodo sono ordinati per destinazione la ricerca è binaria e costa
+     * O(log(grado uscente)).
+     *
+     * @param source
+     *                   l'indice del nodo sorgente
+     * @param target
+     *                   l'indice del nodo destinazione
+     * @return l'indice dell'arco da source a target, -1 se non esiste
+     * @throws IndexOutOfBoundsException
+     *                                       se uno dei due indici non è
+     *                                       valido
+     */
+    public int getEdgeIndex(int source, int target) {
+        this.checkNodeIndex(source);
+        this.checkNodeIndex(target);
+        int e = Arrays.binarySearch(this.targets, this.offsets[source],
+                this.offsets[source + 1], target);
+        return e >= 0 ? e : -1;
+    }
+
+    /**
+     * Restituisce l'arco di un certo indice come oggetto {@code GraphEdge<L>}
+     * creato al momento.
+     *
+     * @param source
+     *                   l'indice del nodo sorgente dell'arco
+     * @param e
+     *                   l'indice dell'arco
+     * @return un nuovo oggetto che rappresenta l'arco
+     * @throws IndexOutOfBoundsException
+     *                                       se {@code e} non è l'indice di un
+     *                                       arco uscente da {@code source}
+     */
+    public GraphEdge<L> getEdgeAt(int source, int e) {
+        this.checkNodeIndex(source);
+        if (e < this.offsets[source] || e >= this.offsets[source + 1])
+            throw new IndexOutOfBoundsException(
+                    "L'arco " + e + " non esce dal nodo " + source);
+        return this.edgeAt(source, e);
+    }
+
+    /*
+     * Restituisce gli offset della rappresentazione inversa costruendola se
+     * non esiste ancora. La costruzione è sincronizzata per permettere a più
+     * thread di usare lo stesso grafo in sola lettura.
+     */
+    private int[] ingoingOffsets() {
+        int[] in = this.inOffsets;
+        if (in != null)
+            return in;
+        synchronized (this) {
+            if (this.inOffsets != null)
+                return this.inOffsets;
+            int n = this.nodes.length;
+            int m = this.targets.length;
+            in = new int[n + 1];
+            for (int e = 0; e < m; e++)
+                in[this.targets[e] + 1]++;
+            for (int i = 0; i < n; i++)
+                in[i + 1] += in[i];
+            int[] next = Arrays.copyOf(in, n);
+            this.inEdges = new int[m];
+            this.inSources = new int[m];
+            for (int u = 0; u < n; u++)
+                for (int e = this.offsets[u]; e < this.offsets[u + 1]; e++) {
+                    int k = next[this.targets[e]]++;
+                    this.inEdges[k] = e;
+                    this.inSources[k] = u;
+                }
+            // La scrittura del campo volatile pubblica anche gli altri array
+            this.inOffsets = in;
+            return in;
+        }
+    }
+
+    private GraphEdge<L> edgeAt(int source, int e) {
+        return new GraphEdge<L>(this.nodeAt(source),
+                this.nodeAt(this.targets[e]), true, this.weights[e]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private GraphNode<L> nodeAt(int i) {
+        return (GraphNode<L>) this.nodes[i];
+    }
+
+    private void checkNodeIndex(int i) {
+        if (i < 0 || i >= this.nodes.length)
+            throw new IndexOutOfBoundsException("Indice di nodo non valido: " + i);
+    }
+
+    /*
+     * Restituisce l'indice di un nodo controllando che non sia nullo e che
+     * esista nel grafo.
+     */
+    private int indexOfExisting(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo");
+        Integer i = this.indexes.get(node.getLabel());
+        if (i == null)
+            throw new IllegalArgumentException("Il nodo non esiste nel grafo");
+        return i;
+    }
+
+}
@@ -0,0 +1,150 @@
+package it.unicam.cs.asdl2223.es13;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class CsrDirectedGraphTest {
+
+    @Test
+    final void testCsrDirectedGraph() {
+        assertThrows(NullPointerException.class,
+                () -> new CsrDirectedGraph<String>(null));
+        Graph<String> g = ShortestPathTestGraphs.createDecimalWeightsGraph();
+        CsrDirectedGraph<String> csr = new CsrDirectedGraph<String>(g);
+        assertTrue(csr.isDirected());
+        assertEquals(g.nodeCount(), csr.nodeCount());
+        assertEquals(g.edgeCount(), csr.edgeCount());
+        assertEquals(g.getNodes(), csr.getNodes());
+        assertEquals(g.getEdges(), csr.getEdges());
+        assertTrue(new CsrDirectedGraph<String>(
+                new MapAdjacentListDirectedGraph<String>()).isEmpty());
+    }
+
+    @Test
+    final void testImmutable() {
+        CsrDirectedGraph<String> csr = new CsrDirectedGraph<String>(
+                ShortestPathTestGraphs.createDecimalWeightsGraph());
+        GraphNode<String> ns = new GraphNode<String>("s");
+        GraphNode<String> nz = new GraphNode<String>("z");
+        assertThrows(UnsupportedOperationException.class, () -> csr.addNode(nz));
+        assertThrows(UnsupportedOperationException.class,
+                () -> csr.removeNode(ns));
+        assertThrows(UnsupportedOperationException.class,
+                () -> csr.addEdge(new GraphEdge<String>(ns, ns, true, 1)));
+        assertThrows(UnsupportedOperationException.class,
+                () -> csr.removeEdge(new GraphEdge<String>(ns, ns, true, 1)));
+        assertThrows(UnsupportedOperationException.class, () -> csr.clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> csr.getNodes().add(nz));
+    }
+
+    @Test
+    final void testIndexes() {
+        CsrDirectedGraph<String> csr = new CsrDirectedGraph<String>(
+                ShortestPathTestGraphs.createDecimalWeightsGraph());
+        Set<Integer> indexes = new HashSet<Integer>();
+        for (GraphNode<String> n : csr.getNodes()) {
+            int i = csr.getNodeIndexOf(n.getLabel());
+            assertTrue(i >= 0 && i < csr.nodeCount());
+            assertEquals(n, csr.getNodeAtIndex(i));
+            indexes.add(i);
+        }
+        assertEquals(csr.nodeCount(), indexes.size());
+        assertThrows(NullPointerException.class, () -> csr.getNodeIndexOf(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> csr.getNodeIndexOf("z"));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> csr.getNodeAtIndex(5));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> csr.getNodeAtIndex(-1));
+        assertNull(csr.getNodeOf("z"));
+        assertEquals(new GraphNode<String>("v"), csr.getNodeOf("v"));
+    }
+
+    @Test
+    final void testEdgeArrays() {
+        Graph<String> g = ShortestPathTestGraphs.createDecimalWeightsGraph();
+        CsrDirectedGraph<String> csr = new CsrDirectedGraph<String>(g);
+        int x = csr.getNodeIndexOf("x");
+        Set<GraphEdge<String>> edges = new HashSet<GraphEdge<String>>();
+        int previous = -1;
+        for (int e = csr.getEdgeStart(x); e < csr.getEdgeEnd(x); e++) {
+            // Gli archi di un nodo sono ordinati per destinazione
+            assertTrue(csr.getEdgeTarget(e) > previous);
+            previous = csr.getEdgeTarget(e);
+            GraphEdge<String> edge = csr.getEdgeAt(x, e);
+            assertEquals(csr.getEdgeWeight(e), edge.getWeight());
+            edges.add(edge);
+        }
+        assertEquals(g.getEdgesOf(g.getNodeOf("x")), edges);
+        int v = csr.getNodeIndexOf("v");
+        Set<String> sources = new HashSet<String>();
+        for (int k = csr.getIngoingEdgeStart(v); k < csr.getIngoingEdgeEnd(v); k++) {
+            int source = csr.getIngoingEdgeSource(k);
+            int e = csr.getIngoingEdge(k);
+            assertEquals(v, csr.getEdgeTarget(e));
+            sources.add(csr.getNodeAtIndex(source).getLabel());
+        }
+        assertEquals(new HashSet<String>(java.util.Arrays.asList("u", "x", "y")),
+                sources);
+    }
+
+    @Test
+    final void testAdjacencyQueries() {
+        Graph<String> g = ShortestPathTestGraphs.createDecimalWeightsGraph();
+        CsrDirectedGraph<String> csr = new CsrDirectedGraph<String>(g);
+        for (GraphNode<String> n : g.getNodes()) {
+            assertEquals(g.getEdgesOf(n), csr.getEdgesOf(n));
+            assertEquals(g.getAdjacentNodesOf(n), csr.getAdjacentNodesOf(n));
+            assertEquals(g.getIngoingEdgesOf(n), csr.getIngoingEdgesOf(n));
+            assertEquals(g.getPredecessorNodesOf(n),
+                    csr.getPredecessorNodesOf(n));
+            assertEquals(g.getDegreeOf(n), csr.getDegreeOf(n));
+        }
+        GraphNode<String> ns = new GraphNode<String>("s");
+        GraphNode<String> nu = new GraphNode<String>("u");
+        assertTrue(csr.containsEdge(new GraphEdge<String>(ns, nu, true)));
+        assertFalse(csr.containsEdge(new GraphEdge<String>(nu, ns, true)));
+        assertThrows(IllegalArgumentException.class,
+                () -> csr.containsEdge(new GraphEdge<String>(ns,
+                        new GraphNode<String>("z"), true)));
+        assertThrows(IllegalArgumentException.class,
+                () -> csr.getEdgesOf(new GraphNode<String>("z")));
+        assertThrows(NullPointerException.class, () -> csr.getEdgesOf(null));
+    }
+
+    @Test
+    final void testDijkstraOnCsr() {
+        Graph<String> g = ShortestPathTestGraphs.createDecimalWeightsGraph();
+        CsrDirectedGraph<String> csr = new CsrDirectedGraph<String>(g);
+        DijkstraShortestPathComputer<String> c = new DijkstraShortestPathComputer<String>(
+                csr);
+        c.computeShortestPathsFrom(csr.getNodeOf("s"));
+        assertEquals(5.12, csr.getNodeOf("x").getFloatingPointDistance(), 1e-9);
+        assertEquals(8.16, csr.getNodeOf("u").getFloatingPointDistance(), 1e-9);
+        assertEquals(9.16, csr.getNodeOf("v").getFloatingPointDistance(), 1e-9);
+        assertEquals(7.12, csr.getNodeOf("y").getFloatingPointDistance(), 1e-9);
+    }
+
+    @Test
+    final void testGetEdgeIndex() {
+        CsrDirectedGraph<String> csr = new CsrDirectedGraph<String>(
+                ShortestPathTestGraphs.createDecimalWeightsGraph());
+        int s = csr.getNodeIndexOf("s");
+        int x = csr.getNodeIndexOf("x");
+        int e = csr.getEdgeIndex(s, x);
+        assertTrue(e >= csr.getEdgeStart(s) && e < csr.getEdgeEnd(s));
+        assertEquals(x, csr.getEdgeTarget(e));
+        assertEquals(5.12, csr.getEdgeWeight(e));
+        assertEquals(-1, csr.getEdgeIndex(x, s));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> csr.getEdgeIndex(s, 5));
+        assertTrue(csr.supportsModificationCount());
+        assertEquals(0, csr.getModificationCount());
+    }
+
+}
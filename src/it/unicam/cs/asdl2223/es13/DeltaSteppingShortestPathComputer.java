@@ -0,0 +1,531 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Classe che implementa l'algoritmo <i>delta-stepping</i> di Meyer e Sanders
+ * per il calcolo parallelo dei cammini minimi da una sorgente singola in un
+ * grafo orientato con pesi non negativi.
+ *
+ * I nodi scoperti sono divisi in secchi (bucket) di ampiezza {@code delta}:
+ * il nodo con distanza provvisoria d si trova nel secchio di indice
+ * {@code floor(d / delta)}. I secchi vengono svuotati in ordine crescente di
+ * indice. Gli archi uscenti dai nodi del secchio corrente sono divisi in
+ * leggeri (peso al più {@code delta}), che possono reinserire nodi nello
+ * stesso secchio e vengono quindi rilassati ripetutamente finché il secchio
+ * non resta vuoto, e pesanti, che vengono rilassati una sola volta quando il
+ * secchio è definitivamente svuotato. Tutti i nodi di un secchio vengono
+ * elaborati in parallelo sul {@code ForkJoinPool} passato al costruttore.
+ * Con {@code delta} molto piccolo l'algoritmo si comporta come quello di
+ * Dijkstra, con {@code delta} infinito come quello di Bellman-Ford.
+ *
+ * I calcoli vengono eseguiti su una copia {@code CsrDirectedGraph<L>} del grafo
+ * (a meno che non sia già tale), in modo che i thread lavorino solo su array di
+ * primitivi. La copia viene rifatta solo quando il contatore delle modifiche
+ * del grafo ({@code Graph.getModificationCount()}) è cambiato dall'ultima
+ * copia, o ad ogni calcolo se il grafo non tiene traccia delle modifiche. Come
+ * per {@code AllPairsShortestPathComputer<L>}, le modifiche ai pesi fatte
+ * direttamente sugli archi non sono rilevate. Le distanze provvisorie sono
+ * memorizzate in un {@code AtomicLongArray} e gli aggiornamenti di distanza e
+ * predecessore di un nodo avvengono in mutua esclusione tramite un insieme di
+ * lock a strisce. Alla fine del calcolo distanze, predecessori e colori vengono
+ * scritti nei nodi del grafo come fa {@code DijkstraShortestPathComputer<L>},
+ * per cui i risultati delle due classi sono intercambiabili.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class DeltaSteppingShortestPathComputer<L>
+        implements SingleSourceShortestPathComputer<L> {
+
+    /*
+     * Numero di nodi di una frontiera al di sotto del quale il rilassamento
+     * viene eseguito sequenzialmente, perché il costo della suddivisione in
+     * sotto-task supererebbe il guadagno.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    // il grafo su cui opera questo oggetto
+    private final Graph<L> graph;
+
+    // ampiezza dei secchi
+    private final double delta;
+
+    // pool di thread su cui vengono eseguiti i rilassamenti
+    private final ForkJoinPool pool;
+
+    // ultima sorgente su cui sono stati calcolati i cammini minimi
+    private GraphNode<L> lastSource;
+
+    // copia CSR del grafo usata nell'ultimo calcolo
+    private CsrDirectedGraph<L> csr;
+
+    // copia CSR aggiornata del grafo, null se non ancora fatta
+    private CsrDirectedGraph<L> snapshot;
+
+    // contatore delle modifiche del grafo al momento della copia
+    private long snapshotModificationCount;
+
+    // indica se il grafo tiene traccia delle modifiche
+    private final boolean tracksModifications;
+
+    /*
+     * Per ogni nodo, l'indice (nella copia CSR) dell'arco con cui viene
+     * raggiunto nel cammino minimo dall'ultima sorgente, -1 se il nodo è la
+     * sorgente o non è raggiungibile.
+     */
+    private int[] previousEdges;
+
+    // per ogni nodo, l'indice del predecessore nel cammino minimo, -1 se nessuno
+    private int[] previousNodes;
+
+    /**
+     * Crea un calcolatore delta-stepping che usa il pool comune e un'ampiezza
+     * dei secchi calcolata dal grafo come peso massimo diviso il grado medio
+     * dei nodi, il valore suggerito da Meyer e Sanders.
+     *
+     * @param graph
+     *                  il grafo su cui opera il calcolatore
+     * @throws NullPointerException
+     *                                      se il grafo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è pesato o
+     *                                      contiene almeno un peso negativo
+     */
+    public DeltaSteppingShortestPathComputer(Graph<L> graph) {
+        this(graph, defaultDelta(graph), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un calcolatore delta-stepping con una certa ampiezza dei secchi e
+     * un certo pool di thread.
+     *
+     * @param graph
+     *                  il grafo su cui opera il calcolatore
+     * @param delta
+     *                  l'ampiezza dei secchi, un numero positivo
+     * @param pool
+     *                  il pool su cui eseguire i rilassamenti in parallelo
+     * @throws NullPointerException
+     *                                      se il grafo o il pool passati sono
+     *                                      nulli
+     * @throws IllegalArgumentException
+     *                                      se delta non è un numero positivo
+     *                                      finito
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è pesato o
+     *                                      contiene almeno un peso negativo
+     */
+    public DeltaSteppingShortestPathComputer(Graph<L> graph, double delta,
+            ForkJoinPool pool) {
+        checkGraph(graph);
+        if (pool == null)
+            throw new NullPointerException("Il pool dato è nullo");
+        if (!(delta > 0) || Double.isInfinite(delta))
+            throw new IllegalArgumentException(
+                    "L'ampiezza dei secchi deve essere un numero positivo finito");
+        this.graph = graph;
+        this.delta = delta;
+        this.pool = pool;
+        this.lastSource = null;
+        this.tracksModifications = graph.supportsModificationCount();
+    }
+
+    /**
+     * Restituisce l'ampiezza dei secchi usata da questo calcolatore.
+     *
+     * @return l'ampiezza dei secchi
+     */
+    public double getDelta() {
+        return this.delta;
+    }
+
+    /**
+     * Restituisce il pool di thread usato da questo calcolatore.
+     *
+     * @return il pool di thread usato da questo calcolatore
+     */
+    public ForkJoinPool getPool() {
+        return this.pool;
+    }
+
+    @Override
+    public void computeShortestPathsFrom(GraphNode<L> sourceNode) {
+        if (sourceNode == null)
+            throw new NullPointerException("Il nodo sorgente è nullo");
+        GraphNode<L> source = this.graph.getNodeOf(sourceNode.getLabel());
+        if (source == null)
+            throw new IllegalArgumentException(
+                    "Il nodo sorgente non esiste nel grafo");
+        CsrDirectedGraph<L> g = this.getSnapshot();
+        Run run = new Run(g);
+        run.execute(g.getNodeIndexOf(source.getLabel()));
+        // Copia i risultati nei nodi del grafo
+        int n = g.nodeCount();
+        for (int i = 0; i < n; i++) {
+            GraphNode<L> node = g.getNodeAtIndex(i);
+            double d = Double.longBitsToDouble(run.distances.get(i));
+            node.setFloatingPointDistance(d);
+            node.setIntegerDistance(Integer.MAX_VALUE);
+            node.setColor(d == Double.POSITIVE_INFINITY ? GraphNode.COLOR_WHITE
+                    : GraphNode.COLOR_BLACK);
+            node.setPrevious(run.previousNodes[i] < 0 ? null
+                    : g.getNodeAtIndex(run.previousNodes[i]));
+        }
+        source.setIntegerDistance(0);
+        this.csr = g;
+        this.previousEdges = run.previousEdges;
+        this.previousNodes = run.previousNodes;
+        this.lastSource = source;
+    }
+
+    /*
+     * Restituisce la copia CSR aggiornata del grafo, rifacendola se il grafo
+     * è cambiato dall'ultima copia. I pesi del grafo sono controllati dal
+     * costruttore; vanno ricontrollati solo quando la copia viene rifatta.
+     */
+    CsrDirectedGraph<L> getSnapshot() {
+        if (this.graph instanceof CsrDirectedGraph)
+            return (CsrDirectedGraph<L>) this.graph;
+        if (this.snapshot != null && this.tracksModifications && this.graph
+                .getModificationCount() == this.snapshotModificationCount)
+            return this.snapshot;
+        long count = this.tracksModifications
+                ? this.graph.getModificationCount()
+                : 0;
+        for (GraphEdge<L> edge : this.graph.getEdges())
+            if (edge.getWeight() < 0)
+                throw new IllegalStateException(
+                        "Il grafo contiene archi con pesi negativi");
+        this.snapshot = new CsrDirectedGraph<L>(this.graph);
+        this.snapshotModificationCount = count;
+        return this.snapshot;
+    }
+
+    @Override
+    public boolean isComputed() {
+        return this.lastSource != null;
+    }
+
+    @Override
+    public GraphNode<L> getLastSource() {
+        if (this.lastSource == null)
+            throw new IllegalStateException("Richiesta last source, ma non "
+                    + "sono mai stati calcolati i cammini minimi");
+        return this.lastSource;
+    }
+
+    @Override
+    public Graph<L> getGraph() {
+        return this.graph;
+    }
+
+    @Override
+    public List<GraphEdge<L>> getShortestPathTo(GraphNode<L> targetNode) {
+        if (targetNode == null)
+            throw new NullPointerException("Il nodo target è nullo");
+        if (this.graph.getNodeOf(targetNode.getLabel()) == null)
+            throw new IllegalArgumentException(
+                    "Il nodo target non esiste nel grafo");
+        if (this.lastSource == null)
+            throw new IllegalStateException(
+                    "Il calcolo dei cammini minimi non è stato mai eseguito");
+        List<GraphEdge<L>> path = new ArrayList<GraphEdge<L>>();
+        int v = this.csr.getNodeIndexOf(targetNode.getLabel());
+        int s = this.csr.getNodeIndexOf(this.lastSource.getLabel());
+        if (v != s && this.previousNodes[v] < 0)
+            // il nodo non è raggiungibile
+            return null;
+        // Risale i predecessori fino alla sorgente
+        while (v != s) {
+            int u = this.previousNodes[v];
+            path.add(this.csr.getEdgeAt(u, this.previousEdges[v]));
+            v = u;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /*
+     * Controlla che il grafo sia orientato, pesato e privo di pesi negativi.
+     */
+    private static <L> void checkGraph(Graph<L> graph) {
+        if (graph == null)
+            throw new NullPointerException("Il grafo dato è nullo");
+        if (!graph.isDirected())
+            throw new IllegalArgumentException("Il grafo non è orientato.");
+        for (GraphEdge<L> edge : graph.getEdges())
+            if (!edge.hasWeight() || edge.getWeight() < 0)
+                throw new IllegalArgumentException(
+                        "Trovato arco non pesato o con peso negativo");
+    }
+
+    /*
+     * Calcola l'ampiezza dei secchi di default: peso massimo diviso grado
+     * medio, oppure 1 se il grafo non ha archi di peso positivo.
+     */
+    private static <L> double defaultDelta(Graph<L> graph) {
+        checkGraph(graph);
+        double maxWeight = 0;
+        int edges = 0;
+        for (GraphEdge<L> edge : graph.getEdges()) {
+            maxWeight = Math.max(maxWeight, edge.getWeight());
+            edges++;
+        }
+        if (maxWeight == 0)
+            return 1;
+        double averageDegree = Math.max(1.0, (double) edges / graph.nodeCount());
+        return maxWeight / averageDegree;
+    }
+
+    /*
+     * Stato di un singolo calcolo. Tutti gli array sono indicizzati con gli
+     * indici dei nodi (o degli archi) della copia CSR.
+     */
+    private class Run {
+        private final CsrDirectedGraph<L> g;
+
+        // distanze provvisorie, come bit di double
+        private final AtomicLongArray distances;
+
+        private final int[] previousNodes;
+
+        private final int[] previousEdges;
+
+        // lock a strisce per aggiornare insieme distanza e predecessore
+        private final Object[] locks;
+
+        /*
+         * Nodi la cui distanza è diminuita nella fase corrente di
+         * rilassamento. Ogni nodo vi compare al più una volta grazie al
+         * timbro della fase in phaseMarks.
+         */
+        private final int[] changed;
+
+        private final AtomicInteger changedCount;
+
+        private final AtomicIntegerArray phaseMarks;
+
+        private int phase;
+
+        // secchi non vuoti, per indice crescente
+        private final TreeMap<Long, IntList> buckets;
+
+        private Run(CsrDirectedGraph<L> g) {
+            this.g = g;
+            int n = g.nodeCount();
+            this.distances = new AtomicLongArray(n);
+            long infinity = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+            for (int i = 0; i < n; i++)
+                this.distances.set(i, infinity);
+            this.previousNodes = new int[n];
+            Arrays.fill(this.previousNodes, -1);
+            this.previousEdges = new int[n];
+            Arrays.fill(this.previousEdges, -1);
+            // un numero di lock potenza di 2 proporzionale al parallelismo
+            int stripes = Integer.highestOneBit(
+                    Math.max(1, pool.getParallelism()) * 16 - 1) << 1;
+            this.locks = new Object[stripes];
+            for (int i = 0; i < stripes; i++)
+                this.locks[i] = new Object();
+            this.changed = new int[n];
+            this.changedCount = new AtomicInteger();
+            this.phaseMarks = new AtomicIntegerArray(n);
+            this.phase = 0;
+            this.buckets = new TreeMap<Long, IntList>();
+        }
+
+        private double distanceOf(int v) {
+            return Double.longBitsToDouble(this.distances.get(v));
+        }
+
+        private long bucketOf(double d) {
+            return (long) Math.floor(d / delta);
+        }
+
+        private void execute(int source) {
+            this.distances.set(source, Double.doubleToLongBits(0));
+            this.addToBucket(0, source);
+            IntList removed = new IntList();
+            IntList frontier = new IntList();
+            while (!this.buckets.isEmpty()) {
+                Map.Entry<Long, IntList> first = this.buckets.pollFirstEntry();
+                long index = first.getKey();
+                // Elimina i nodi che nel frattempo sono passati a un secchio
+                // di indice minore (cancellazione pigra)
+                this.filter(first.getValue(), index, frontier);
+                removed.clear();
+                while (frontier.size > 0) {
+                    removed.addAll(frontier);
+                    this.relaxAll(frontier, true);
+                    // I nodi migliorati che restano nel secchio corrente
+                    // formano la nuova frontiera
+                    frontier.clear();
+                    this.distribute(index, frontier);
+                }
+                // Il secchio è definitivamente vuoto: rilassa gli archi
+                // pesanti dei nodi che ne sono usciti
+                this.relaxAll(removed, false);
+                this.distribute(index, null);
+            }
+        }
+
+        /*
+         * Copia in frontier i nodi di bucket che appartengono ancora al
+         * secchio index, senza duplicati.
+         */
+        private void filter(IntList bucket, long index, IntList frontier) {
+            frontier.clear();
+            this.phase++;
+            for (int k = 0; k < bucket.size; k++) {
+                int v = bucket.items[k];
+                if (this.bucketOf(this.distanceOf(v)) == index
+                        && this.phaseMarks.get(v) != this.phase) {
+                    this.phaseMarks.set(v, this.phase);
+                    frontier.add(v);
+                }
+            }
+        }
+
+        /*
+         * Rilassa in parallelo gli archi leggeri o pesanti dei nodi di una
+         * lista, raccogliendo in changed i nodi la cui distanza diminuisce.
+         */
+        private void relaxAll(IntList nodes, boolean light) {
+            this.phase++;
+            this.changedCount.set(0);
+            if (nodes.size <= SEQUENTIAL_THRESHOLD)
+                this.relaxRange(nodes.items, 0, nodes.size, light);
+            else
+                pool.invoke(new RelaxTask(nodes.items, 0, nodes.size, light));
+        }
+
+        private void relaxRange(int[] nodes, int from, int to, boolean light) {
+            for (int k = from; k < to; k++) {
+                int u = nodes[k];
+                double du = this.distanceOf(u);
+                for (int e = this.g.getEdgeStart(u); e < this.g.getEdgeEnd(u); e++) {
+                    double w = this.g.getEdgeWeight(e);
+                    if ((w <= delta) == light)
+                        this.relax(u, e, du + w);
+                }
+            }
+        }
+
+        private void relax(int u, int e, double newDistance) {
+            int v = this.g.getEdgeTarget(e);
+            // Controllo veloce senza lock
+            if (newDistance >= this.distanceOf(v))
+                return;
+            synchronized (this.locks[v & (this.locks.length - 1)]) {
+                if (newDistance >= this.distanceOf(v))
+                    return;
+                this.distances.set(v, Double.doubleToLongBits(newDistance));
+                this.previousNodes[v] = u;
+                this.previousEdges[v] = e;
+            }
+            if (this.phaseMarks.getAndSet(v, this.phase) != this.phase)
+                this.changed[this.changedCount.getAndIncrement()] = v;
+        }
+
+        /*
+         * Inserisce nel secchio giusto i nodi migliorati nell'ultima fase.
+         * Quelli che restano nel secchio corrente vanno in frontier.
+         */
+        private void distribute(long current, IntList frontier) {
+            int count = this.changedCount.get();
+            for (int k = 0; k < count; k++) {
+                int v = this.changed[k];
+                long index = this.bucketOf(this.distanceOf(v));
+                if (index == current && frontier != null)
+                    frontier.add(v);
+                else
+                    this.addToBucket(index, v);
+            }
+        }
+
+        private void addToBucket(long index, int v) {
+            IntList bucket = this.buckets.get(index);
+            if (bucket == null) {
+                bucket = new IntList();
+                this.buckets.put(index, bucket);
+            }
+            bucket.add(v);
+        }
+
+        /*
+         * Task che divide a metà un intervallo di nodi finché non diventa
+         * abbastanza piccolo da essere rilassato sequenzialmente.
+         */
+        @SuppressWarnings("serial")
+        private class RelaxTask extends RecursiveAction {
+            private final int[] nodes;
+
+            private final int from;
+
+            private final int to;
+
+            private final boolean light;
+
+            private RelaxTask(int[] nodes, int from, int to, boolean light) {
+                this.nodes = nodes;
+                this.from = from;
+                this.to = to;
+                this.light = light;
+            }
+
+            @Override
+            protected void compute() {
+                if (this.to - this.from <= SEQUENTIAL_THRESHOLD) {
+                    relaxRange(this.nodes, this.from, this.to, this.light);
+                    return;
+                }
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new RelaxTask(this.nodes, this.from, middle, this.light),
+                        new RelaxTask(this.nodes, middle, this.to, this.light));
+            }
+        }
+    }
+
+    /*
+     * Lista di int che cresce raddoppiando, per non creare un oggetto Integer
+     * per ogni nodo inserito in un secchio.
+     */
+    private static class IntList {
+        private int[] items = new int[8];
+
+        private int size = 0;
+
+        private void add(int value) {
+            if (this.size == this.items.length)
+                this.items = Arrays.copyOf(this.items, this.size * 2);
+            this.items[this.size++] = value;
+        }
+
+        private void addAll(IntList other) {
+            for (int k = 0; k < other.size; k++)
+                this.add(other.items[k]);
+        }
+
+        private void clear() {
+            this.size = 0;
+        }
+    }
+
+}
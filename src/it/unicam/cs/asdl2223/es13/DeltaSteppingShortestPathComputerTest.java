@@ -0,0 +1,169 @@
+package it.unicam.cs.asdl2223.es13;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class DeltaSteppingShortestPathComputerTest {
+
+    @Test
+    final void testConstructor() {
+        assertThrows(NullPointerException.class,
+                () -> new DeltaSteppingShortestPathComputer<String>(null));
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        assertThrows(NullPointerException.class,
+                () -> new DeltaSteppingShortestPathComputer<String>(g, 1.0,
+                        null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DeltaSteppingShortestPathComputer<String>(g, 0.0,
+                        ForkJoinPool.commonPool()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DeltaSteppingShortestPathComputer<String>(g,
+                        Double.NaN, ForkJoinPool.commonPool()));
+        DeltaSteppingShortestPathComputer<String> c = new DeltaSteppingShortestPathComputer<String>(
+                g);
+        assertTrue(c.getDelta() > 0);
+        assertTrue(c.getPool() == ForkJoinPool.commonPool());
+        assertFalse(c.isComputed());
+        assertThrows(IllegalStateException.class, () -> c.getLastSource());
+        g.addEdge(new GraphEdge<String>(g.getNodeOf("s"), g.getNodeOf("w"),
+                true, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DeltaSteppingShortestPathComputer<String>(g));
+    }
+
+    @Test
+    final void testGetShortestPathTo() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Il risultato non deve dipendere dall'ampiezza dei secchi
+            for (double delta : new double[] { 0.5, 2.0, 3.0, 100.0 }) {
+                Graph<String> g = ShortestPathTestGraphs.createGraph();
+                DeltaSteppingShortestPathComputer<String> c = new DeltaSteppingShortestPathComputer<String>(
+                        g, delta, pool);
+                GraphNode<String> ns = new GraphNode<String>("s");
+                c.computeShortestPathsFrom(ns);
+                assertTrue(c.isComputed());
+                assertEquals(ns, c.getLastSource());
+                assertEquals(0.0, g.getNodeOf("s").getFloatingPointDistance());
+                assertEquals(8.0, g.getNodeOf("t").getFloatingPointDistance());
+                assertEquals(5.0, g.getNodeOf("y").getFloatingPointDistance());
+                assertEquals(9.0, g.getNodeOf("x").getFloatingPointDistance());
+                assertEquals(7.0, g.getNodeOf("z").getFloatingPointDistance());
+                assertEquals(Double.POSITIVE_INFINITY,
+                        g.getNodeOf("w").getFloatingPointDistance());
+                assertEquals(new GraphNode<String>("t"),
+                        g.getNodeOf("x").getPrevious());
+                GraphNode<String> nt = new GraphNode<String>("t");
+                GraphNode<String> ny = new GraphNode<String>("y");
+                GraphNode<String> nx = new GraphNode<String>("x");
+                List<GraphEdge<String>> pathTest = new ArrayList<GraphEdge<String>>();
+                assertEquals(pathTest, c.getShortestPathTo(ns));
+                pathTest.add(new GraphEdge<String>(ns, ny, true, 5));
+                pathTest.add(new GraphEdge<String>(ny, nt, true, 3));
+                pathTest.add(new GraphEdge<String>(nt, nx, true, 1));
+                assertEquals(pathTest, c.getShortestPathTo(nx));
+                assertNull(c.getShortestPathTo(new GraphNode<String>("w")));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    final void testGetShortestPathToExceptions() {
+        DeltaSteppingShortestPathComputer<String> c = new DeltaSteppingShortestPathComputer<String>(
+                ShortestPathTestGraphs.createGraph());
+        GraphNode<String> ns = new GraphNode<String>("s");
+        assertThrows(IllegalStateException.class,
+                () -> c.getShortestPathTo(ns));
+        assertThrows(NullPointerException.class,
+                () -> c.computeShortestPathsFrom(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> c.computeShortestPathsFrom(new GraphNode<String>("a")));
+        c.computeShortestPathsFrom(ns);
+        assertThrows(NullPointerException.class,
+                () -> c.getShortestPathTo(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> c.getShortestPathTo(new GraphNode<String>("a")));
+    }
+
+    /*
+     * Confronta le distanze con quelle dell'algoritmo di Dijkstra su un grafo
+     * casuale abbastanza grande da far eseguire i rilassamenti in parallelo.
+     */
+    @Test
+    final void testAgreesWithDijkstra() {
+        Random random = new Random(42);
+        Graph<Integer> g = new MapAdjacentListDirectedGraph<Integer>();
+        int n = 3000;
+        for (int i = 0; i < n; i++)
+            g.addNode(new GraphNode<Integer>(i));
+        for (int k = 0; k < 5 * n; k++)
+            g.addEdge(new GraphEdge<Integer>(g.getNodeOf(random.nextInt(n)),
+                    g.getNodeOf(random.nextInt(n)), true,
+                    random.nextInt(1000) / 10.0));
+        CsrDirectedGraph<Integer> csr = new CsrDirectedGraph<Integer>(g);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (double delta : new double[] { 5.0, 1000.0 }) {
+                DijkstraShortestPathComputer<Integer> d = new DijkstraShortestPathComputer<Integer>(
+                        csr);
+                d.computeShortestPathsFrom(csr.getNodeOf(0));
+                double[] expected = new double[n];
+                for (int i = 0; i < n; i++)
+                    expected[i] = csr.getNodeOf(i).getFloatingPointDistance();
+                DeltaSteppingShortestPathComputer<Integer> c = new DeltaSteppingShortestPathComputer<Integer>(
+                        csr, delta, pool);
+                c.computeShortestPathsFrom(csr.getNodeOf(0));
+                for (int i = 0; i < n; i++) {
+                    GraphNode<Integer> node = csr.getNodeOf(i);
+                    assertEquals(expected[i], node.getFloatingPointDistance(),
+                            1e-9);
+                    List<GraphEdge<Integer>> path = c.getShortestPathTo(node);
+                    if (expected[i] == Double.POSITIVE_INFINITY) {
+                        assertNull(path);
+                        continue;
+                    }
+                    double weight = 0;
+                    for (GraphEdge<Integer> e : path)
+                        weight += e.getWeight();
+                    assertEquals(expected[i], weight, 1e-9);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    final void testSnapshotReuse() {
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        DeltaSteppingShortestPathComputer<String> c = new DeltaSteppingShortestPathComputer<String>(
+                g);
+        c.computeShortestPathsFrom(g.getNodeOf("s"));
+        CsrDirectedGraph<String> snapshot = c.getSnapshot();
+        // Senza modifiche la copia viene riusata
+        c.computeShortestPathsFrom(g.getNodeOf("y"));
+        assertSame(snapshot, c.getSnapshot());
+        assertEquals(4.0, g.getNodeOf("x").getFloatingPointDistance());
+        // Un nuovo arco fa rifare la copia
+        g.addEdge(new GraphEdge<String>(g.getNodeOf("s"), g.getNodeOf("x"),
+                true, 1.0));
+        c.computeShortestPathsFrom(g.getNodeOf("s"));
+        assertNotSame(snapshot, c.getSnapshot());
+        assertEquals(1.0, g.getNodeOf("x").getFloatingPointDistance());
+        assertEquals(1, c.getShortestPathTo(g.getNodeOf("x")).size());
+        // Un arco con peso negativo aggiunto dopo la costruzione
+        g.addEdge(new GraphEdge<String>(g.getNodeOf("x"), g.getNodeOf("w"),
+                true, -1.0));
+        assertThrows(IllegalStateException.class,
+                () -> c.computeShortestPathsFrom(g.getNodeOf("s")));
+    }
+
+}
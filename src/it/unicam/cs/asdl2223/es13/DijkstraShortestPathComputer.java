@@ -4,9 +4,22 @@ import java.util.*;
 
 /**
  * Classe che implementa l'algoritmo di Dijkstra per il calcolo dei cammini
- * minimi da una sorgente singola. L'algoritmo usa una coda con priorità
- * inefficiente (implementata con una List) che per estrarre il minimo impiega
- * O(n).
+ * minimi da una sorgente singola. La coda con priorità usata dall'algoritmo è
+ * una strategia intercambiabile ({@code NodeMinPriorityQueue<L>}) che può
+ * essere passata al costruttore; di default viene usato uno heap binario
+ * indicizzato con decremento della priorità in O(log n). I nodi vengono
+ * inseriti nella coda solo quando vengono scoperti e il peso di ogni arco è
+ * letto direttamente dagli archi uscenti del nodo estratto, per cui un calcolo
+ * costa O((n + m) log n).
+ *
+ * Oltre al calcolo classico, che memorizza distanze e predecessori nei campi
+ * dei nodi, è disponibile un calcolo che memorizza lo stato in un
+ * {@code ShortestPathWorkspace}. Questo calcolo non modifica né i nodi né lo
+ * stato di questo oggetto, per cui più thread, ognuno con la propria area di
+ * lavoro, possono eseguirlo contemporaneamente sullo stesso calcolatore, a
+ * patto che il grafo non venga modificato. Se il grafo è un
+ * {@code CsrDirectedGraph<L>} gli archi vengono letti direttamente dagli array
+ * della rappresentazione e l'interrogazione non crea oggetti.
  *
  * @author Template: Luca Tesei, Implementazione: collettiva
  *
@@ -24,10 +37,28 @@ public class DijkstraShortestPathComputer<L> implements SingleSourceShortestPath
     private boolean isComputed = false;
 
     /*
-     * Contiene i nodi ancora da analizzare, la coda con priorità viene gestita
-     * tramite lista e l'elemento minimo viene cercato e rimosso con costo O(n)
+     * Contiene i nodi scoperti ma non ancora analizzati, con priorità uguale
+     * alla loro distanza provvisoria dalla sorgente
+     */
+    private final NodeMinPriorityQueue<L> queue;
+
+    // numero di nodi estratti dalla coda nell'ultimo calcolo
+    private int settledNodeCount = 0;
+
+    /*
+     * Associa ad ogni nodo raggiunto nell'ultimo calcolo l'arco con cui viene
+     * raggiunto nel cammino minimo dalla sorgente, in modo da ricostruire i
+     * cammini senza cercare gli archi nel grafo
      */
-    private List<GraphNode<L>> queue;
+    private final Map<GraphNode<L>, GraphEdge<L>> previousEdges;
+
+    /*
+     * Contatore delle modifiche del grafo all'ultimo controllo dei pesi
+     * negativi, in modo da ripetere il controllo solo se il grafo è cambiato.
+     * Vale -1 se il grafo non tiene traccia delle modifiche, e in quel caso
+     * il controllo viene ripetuto ad ogni calcolo.
+     */
+    private long checkedModificationCount;
 
     /**
      * Crea un calcolatore di cammini minimi a sorgente singola per un grafo
@@ -53,43 +84,86 @@ public class DijkstraShortestPathComputer<L> implements SingleSourceShortestPath
      *                                      un peso negativo
      */
     public DijkstraShortestPathComputer(Graph<L> graph) {
+        this(graph, new BinaryHeapNodeMinPriorityQueue<L>());
+    }
+
+    /**
+     * Crea un calcolatore di cammini minimi a sorgente singola per un grafo
+     * diretto e pesato privo di pesi negativi che usa una certa coda con
+     * priorità.
+     *
+     * @param graph
+     *                  il grafo su cui opera il calcolatore di cammini minimi
+     * @param queue
+     *                  la coda con min priorità (vuota) da usare durante il
+     *                  calcolo
+     * @throws NullPointerException
+     *                                      se il grafo o la coda passati sono
+     *                                      nulli
+     *
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     *
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è pesato,
+     *                                      cioè esiste almeno un arco il cui
+     *                                      peso è {@code Double.NaN}
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato contiene almeno
+     *                                      un peso negativo
+     */
+    public DijkstraShortestPathComputer(Graph<L> graph, NodeMinPriorityQueue<L> queue) {
         if (graph == null) {
             throw new NullPointerException("Il grafo dato è nullo");
         }
+        if (queue == null) {
+            throw new NullPointerException("La coda con priorità data è nulla");
+        }
         if (!graph.isDirected()) {
             throw new IllegalArgumentException("Il grafo non è orientato.");
         }
         for (GraphEdge<L> edge: graph.getEdges()) {
-            if (edge.getWeight() == Double.NaN || edge.getWeight() < 0) {
+            if (!edge.hasWeight() || edge.getWeight() < 0) {
                 throw new IllegalArgumentException("Trovato arco non pesato o con peso negativo");
             }
         }
         this.grafo = graph;
         this.isComputed = false;
-        this.queue = new ArrayList<GraphNode<L>>();
+        this.queue = queue;
         this.lastSource = null;
+        this.previousEdges = new HashMap<GraphNode<L>, GraphEdge<L>>();
+        // I pesi sono appena stati controllati
+        this.checkedModificationCount = graph.supportsModificationCount()
+                ? graph.getModificationCount()
+                : -1;
     }
 
     @Override
     public void computeShortestPathsFrom(GraphNode<L> sourceNode) {
         // Controlla se il grafo e il nodo sorgente sono validi
         this.checkComputationParameters(sourceNode);
+        // Usa il nodo memorizzato nel grafo, che può essere un oggetto diverso
+        // (ma uguale) da quello passato
+        GraphNode<L> source = this.grafo.getNodeOf(sourceNode.getLabel());
         // Inizializza i nodi del grafo
-        this.intializeSingleSource(sourceNode);
+        this.intializeSingleSource(source);
         // Imposta l'ultima sorgente
-        this.lastSource = sourceNode;
-        // Crea una lista di nodi il cui peso finale nel cammino è stato determinato
-        List<GraphNode<L>> determinedNodes = new ArrayList<GraphNode<L>>();
-        // Inserisce i nodi del grafo nella coda di priorità
-        this.queue = new ArrayList<GraphNode<L>>(this.grafo.getNodes());
+        this.lastSource = source;
+        // Inizialmente nella coda c'è solo la sorgente, gli altri nodi vengono
+        // inseriti quando sono scoperti
+        this.queue.clear();
+        this.queue.insert(source, 0);
+        this.previousEdges.clear();
+        this.settledNodeCount = 0;
         // Finché la coda non è vuota
         while(!this.queue.isEmpty()) {
-            // Estrae il minimo
-            GraphNode<L> extractedNode = this.extractMinNode();
-            // Aggiunge il nodo estratto all'insieme dei nodi determinati
-            determinedNodes.add(extractedNode);
-            for(GraphNode<L> adjacent: this.grafo.getAdjacentNodesOf(extractedNode)) {
-                this.relax(extractedNode, adjacent);
+            // Estrae il minimo, la sua distanza è ora definitiva
+            GraphNode<L> extractedNode = this.queue.extractMinimum();
+            extractedNode.setColor(GraphNode.COLOR_BLACK);
+            this.settledNodeCount++;
+            // Rilassa gli archi uscenti, ognuno contiene già il proprio peso
+            for(GraphEdge<L> edge: this.grafo.getEdgesOf(extractedNode)) {
+                this.relax(extractedNode, edge);
             }
         }
         // Imposta il flag a true
@@ -109,6 +183,131 @@ public class DijkstraShortestPathComputer<L> implements SingleSourceShortestPath
         return this.lastSource;
     }
 
+    /**
+     * Calcola i cammini minimi da una sorgente memorizzando distanze e
+     * predecessori in un'area di lavoro invece che nei nodi del grafo. I
+     * risultati si leggono dall'area di lavoro usando gli indici dei nodi del
+     * grafo oppure con {@link #getShortestPathTo(GraphNode, ShortestPathWorkspace)}.
+     * Il calcolo non modifica lo stato di questo calcolatore, per cui non
+     * influenza i risultati di {@code isComputed()}, {@code getLastSource()} e
+     * {@code getShortestPathTo(GraphNode<L>)}.
+     *
+     * @param sourceNode
+     *                       il nodo sorgente
+     * @param workspace
+     *                       l'area di lavoro in cui memorizzare i risultati,
+     *                       usata da un solo thread alla volta
+     * @throws NullPointerException
+     *                                      se il nodo o l'area di lavoro
+     *                                      passati sono nulli
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste nel
+     *                                      grafo
+     */
+    public void computeShortestPathsFrom(GraphNode<L> sourceNode,
+            ShortestPathWorkspace workspace) {
+        if (sourceNode == null)
+            throw new NullPointerException("Il nodo sorgente è nullo");
+        if (workspace == null)
+            throw new NullPointerException("L'area di lavoro è nulla");
+        int source = this.grafo.getNodeIndexOf(sourceNode.getLabel());
+        workspace.start(source, this.grafo.nodeCount());
+        if (this.grafo instanceof CsrDirectedGraph) {
+            // Percorso veloce: gli archi sono letti dagli array del grafo
+            CsrDirectedGraph<L> csr = (CsrDirectedGraph<L>) this.grafo;
+            while (!workspace.isHeapEmpty()) {
+                int u = workspace.extractMinimum();
+                double du = workspace.getDistance(u);
+                for (int e = csr.getEdgeStart(u); e < csr.getEdgeEnd(u); e++)
+                    workspace.relax(u, csr.getEdgeTarget(e), e,
+                            du + csr.getEdgeWeight(e));
+            }
+        } else {
+            while (!workspace.isHeapEmpty()) {
+                int u = workspace.extractMinimum();
+                double du = workspace.getDistance(u);
+                for (GraphEdge<L> edge : this.grafo
+                        .getEdgesOf(this.grafo.getNodeAtIndex(u))) {
+                    int v = this.grafo
+                            .getNodeIndexOf(edge.getNode2().getLabel());
+                    workspace.relax(u, v, -1, du + edge.getWeight());
+                }
+            }
+        }
+    }
+
+    /**
+     * Restituisce un cammino minimo dalla sorgente dell'ultimo calcolo
+     * eseguito con un'area di lavoro a un nodo dato.
+     *
+     * @param targetNode
+     *                       il nodo verso cui restituire il cammino minimo
+     * @param workspace
+     *                       l'area di lavoro usata per il calcolo
+     * @return la lista di archi corrispondente al cammino minimo; la lista è
+     *         vuota se il nodo passato è la sorgente. Viene restituito
+     *         {@code null} se il nodo passato non è raggiungibile dalla
+     *         sorgente
+     * @throws NullPointerException
+     *                                      se il nodo o l'area di lavoro
+     *                                      passati sono nulli
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste nel
+     *                                      grafo
+     * @throws IllegalStateException
+     *                                      se con l'area di lavoro passata non
+     *                                      è stato eseguito nessun calcolo
+     */
+    public List<GraphEdge<L>> getShortestPathTo(GraphNode<L> targetNode,
+            ShortestPathWorkspace workspace) {
+        if (targetNode == null)
+            throw new NullPointerException("Il nodo target è nullo");
+        if (workspace == null)
+            throw new NullPointerException("L'area di lavoro è nulla");
+        int source = workspace.getSource();
+        int v = this.grafo.getNodeIndexOf(targetNode.getLabel());
+        if (!workspace.isReached(v))
+            return null;
+        List<GraphEdge<L>> path = new ArrayList<GraphEdge<L>>();
+        while (v != source) {
+            int u = workspace.getPreviousNode(v);
+            int e = workspace.getPreviousEdge(v);
+            if (e >= 0)
+                path.add(((CsrDirectedGraph<L>) this.grafo).getEdgeAt(u, e));
+            else
+                path.add(this.edgeBetween(u, v));
+            v = u;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /*
+     * Cerca fra gli archi uscenti dal nodo di indice u quello che entra nel
+     * nodo di indice v.
+     */
+    private GraphEdge<L> edgeBetween(int u, int v) {
+        GraphNode<L> target = this.grafo.getNodeAtIndex(v);
+        for (GraphEdge<L> edge : this.grafo
+                .getEdgesOf(this.grafo.getNodeAtIndex(u)))
+            if (edge.getNode2().equals(target))
+                return edge;
+        return null;
+    }
+
+    /**
+     * Restituisce il numero di nodi la cui distanza è stata resa definitiva
+     * nell'ultimo calcolo, cioè il numero di nodi raggiungibili dall'ultima
+     * sorgente. Permette di confrontare il lavoro svolto con quello degli
+     * algoritmi punto a punto.
+     *
+     * @return il numero di nodi estratti dalla coda nell'ultimo calcolo, 0 se
+     *         non è stato effettuato nessun calcolo
+     */
+    public int getSettledNodeCount() {
+        return this.settledNodeCount;
+    }
+
     @Override
     public Graph<L> getGraph() {
         return this.grafo;
@@ -128,60 +327,53 @@ public class DijkstraShortestPathComputer<L> implements SingleSourceShortestPath
         if(!isComputed) {
             throw new IllegalStateException("Il calcolo dei cammini minimi non è stato mai eseguito");
         }
-        if (this.lastSource.equals(targetNode)) {
-            return new ArrayList<>();
-        }
-        // Crea una lista di archi
+        // Risale gli archi dei predecessori fino alla sorgente, ogni passo
+        // costa O(1)
         List<GraphEdge<L>> shortestPath = new ArrayList<GraphEdge<L>>();
-        // Salva il nodo target
         GraphNode<L> currentNode = targetNode;
-        // Mi prendo il nodo precedente del target
-        GraphNode<L> node1 = this.grafo.getNodeOf(targetNode.getLabel()).getPrevious();
-        GraphNode<L> node2 = this.grafo.getNodeOf(targetNode.getLabel());
-        Set<GraphEdge<L>> edges = this.grafo.getEdges();
-        do {
-            GraphEdge<L> edge = this.findEdgeOf(edges, node1, node2);
+        while (!currentNode.equals(this.lastSource)) {
+            GraphEdge<L> edge = this.previousEdges.get(currentNode);
+            if (edge == null) {
+                // Il nodo non è raggiungibile dalla sorgente
+                return null;
+            }
             shortestPath.add(edge);
-            node2 = node1;
-            node1 = node2.getPrevious();
-        } while (node1 != null && !node1.equals(this.lastSource));
-        GraphEdge<L> last = this.findEdgeOf(edges, this.lastSource, node2);
-        if(last != null) {
-            shortestPath.add(last);
+            currentNode = edge.getNode1();
         }
         Collections.reverse(shortestPath);
         return shortestPath;
     }
 
-    private void relax(GraphNode<L> u, GraphNode<L> v) {
-        double weight = this.getWeightOfEdge(u, v);
-        if (v.getIntegerDistance() > u.getIntegerDistance() + weight) {
-            v.setFloatingPointDistance(u.getIntegerDistance() + weight);
-            v.setIntegerDistance((int)(u.getIntegerDistance() + weight));
-            v.setPrevious(u);
-        }
-    }
-
     /**
-     * Estrae dalla coda di priorità il nodo con chiave (distanza) minima
-     * @return il nodo con chiave (distanza) minima
+     * Rilassa un arco uscente dal nodo u aggiornando, se si trova un cammino
+     * più breve, la distanza e il predecessore del nodo destinazione e la sua
+     * posizione nella coda con priorità.
+     * @param u
+     *              il nodo appena estratto dalla coda
+     * @param edge
+     *              un arco uscente da u
      */
-    private GraphNode<L> extractMinNode() {
-        // Prende come riferimento il primo elemento
-        GraphNode<L> minimum = this.queue.get(0);
-        // Scorre la coda di priorità cercando il minimo
-        for(GraphNode<L> node: this.queue) {
-            if(node.getIntegerDistance() < minimum.getIntegerDistance()) {
-                minimum = node;
+    private void relax(GraphNode<L> u, GraphEdge<L> edge) {
+        GraphNode<L> v = edge.getNode2();
+        // I nodi già estratti hanno distanza definitiva
+        if (v.getColor() == GraphNode.COLOR_BLACK) {
+            return;
+        }
+        double newDistance = u.getFloatingPointDistance() + edge.getWeight();
+        if (newDistance < v.getFloatingPointDistance()) {
+            v.setFloatingPointDistance(newDistance);
+            v.setPrevious(u);
+            this.previousEdges.put(v, edge);
+            if (v.getColor() == GraphNode.COLOR_WHITE) {
+                // Nodo scoperto ora, viene inserito nella coda
+                v.setColor(GraphNode.COLOR_GREY);
+                this.queue.insert(v, newDistance);
+            } else {
+                this.queue.decreasePriority(v, newDistance);
             }
         }
-        // Rimuove il nodo dalla coda
-        this.queue.remove(minimum);
-        // Ritorna il nodo
-        return minimum;
     }
 
-
     /**
      * Inizializza i valori delle distanze di tutti i nodi della grafica a infinito,
      * tranne per il nodo di partenza, che viene impostato a zero.
@@ -206,30 +398,7 @@ public class DijkstraShortestPathComputer<L> implements SingleSourceShortestPath
         // Inizializza distanza del nodo sorgente a zero
         sourceNode.setFloatingPointDistance(0);
         sourceNode.setIntegerDistance(0);
-    }
-
-    /**
-     * Ritorna il peso di un arco
-     * @param u
-     * @param v
-     * @return
-     */
-    private double getWeightOfEdge(GraphNode<L> u, GraphNode<L> v) {
-        for (GraphEdge<L> arco : this.grafo.getEdges()) {
-            if (arco.getNode1().equals(v) && arco.getNode2().equals(u)) {
-                return arco.getWeight();
-            }
-        }
-        return 0;
-    }
-
-    private GraphEdge<L> findEdgeOf(Set<GraphEdge<L>> edges, GraphNode<L> node1, GraphNode<L> node2) {
-        for (GraphEdge<L> edge : edges) {
-            if (edge.getNode1().equals(node1) && edge.getNode2().equals(node2)) {
-                return edge;
-            }
-        }
-        return null;
+        sourceNode.setColor(GraphNode.COLOR_GREY);
     }
 
     /**
@@ -247,12 +416,19 @@ public class DijkstraShortestPathComputer<L> implements SingleSourceShortestPath
         if(this.grafo.getNodeOf(sourceNode.getLabel()) == null) {
             throw new IllegalArgumentException("Il nodo sorgente non esiste nel grafo");
         }
-        // Controlla se il calcolo può essere svolto
+        // Controlla se il calcolo può essere svolto, ma solo se il grafo è
+        // cambiato dall'ultimo controllo
+        long count = this.grafo.supportsModificationCount()
+                ? this.grafo.getModificationCount()
+                : -1;
+        if (count >= 0 && count == this.checkedModificationCount)
+            return;
         for(GraphEdge<L> edge: this.grafo.getEdges()) {
             if(edge.getWeight() < 0) {
                 throw new IllegalStateException("Il grafo contiene archi con pesi negativi");
             }
         }
+        this.checkedModificationCount = count;
     }
 
 }
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
@@ -89,6 +90,31 @@ class DijkstraShortestPathComputerTest {
         System.out.println(c.printPath(c.getShortestPathTo(nzTest)));
     }
 
+    @Test
+    final void testGetShortestPathToWithPairingHeap() {
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        GraphNode<String> ns = g.getNodeOf("s");
+        GraphNode<String> nt = g.getNodeOf("t");
+        GraphNode<String> ny = g.getNodeOf("y");
+        GraphNode<String> nx = g.getNodeOf("x");
+        GraphNode<String> nz = g.getNodeOf("z");
+        DijkstraShortestPathComputer<String> c = new DijkstraShortestPathComputer<String>(
+                g, new PairingHeapNodeMinPriorityQueue<String>());
+        c.computeShortestPathsFrom(ns);
+        assertEquals(0.0, ns.getFloatingPointDistance(), 0.0);
+        assertEquals(8.0, nt.getFloatingPointDistance(), 0.0);
+        assertEquals(5.0, ny.getFloatingPointDistance(), 0.0);
+        assertEquals(9.0, nx.getFloatingPointDistance(), 0.0);
+        assertEquals(7.0, nz.getFloatingPointDistance(), 0.0);
+        // w non è raggiungibile da s
+        assertNull(c.getShortestPathTo(g.getNodeOf("w")));
+        List<GraphEdge<String>> pathTest = new ArrayList<GraphEdge<String>>();
+        pathTest.add(new GraphEdge<String>(ns, ny, true, 5));
+        pathTest.add(new GraphEdge<String>(ny, nt, true, 3));
+        pathTest.add(new GraphEdge<String>(nt, nx, true, 1));
+        assertTrue(c.getShortestPathTo(nx).equals(pathTest));
+    }
+
     @Test
     public void testIsComputed() {
         Graph<String> g = new MapAdjacentListDirectedGraph<String>();
@@ -175,4 +201,66 @@ class DijkstraShortestPathComputerTest {
         assertEquals(nx, c.getLastSource());
     }
 
+    @Test
+    final void testGetShortestPathsTo() {
+        Graph<String> g = new MapAdjacentListDirectedGraph<String>();
+        GraphNode<String> ns = new GraphNode<String>("s");
+        g.addNode(ns);
+        GraphNode<String> nt = new GraphNode<String>("t");
+        g.addNode(nt);
+        g.addEdge(new GraphEdge<String>(ns, nt, true, 10));
+        GraphNode<String> ny = new GraphNode<String>("y");
+        g.addNode(ny);
+        g.addEdge(new GraphEdge<String>(ns, ny, true, 5));
+        g.addEdge(new GraphEdge<String>(ny, nt, true, 3));
+        GraphNode<String> nx = new GraphNode<String>("x");
+        g.addNode(nx);
+        g.addEdge(new GraphEdge<String>(nt, nx, true, 1));
+        // w non è raggiungibile da s
+        GraphNode<String> nw = new GraphNode<String>("w");
+        g.addNode(nw);
+        g.addEdge(new GraphEdge<String>(nw, ns, true, 1));
+        DijkstraShortestPathComputer<String> c = new DijkstraShortestPathComputer<String>(
+                g);
+        List<GraphNode<String>> targets = new ArrayList<GraphNode<String>>();
+        targets.add(nx);
+        targets.add(ns);
+        targets.add(nw);
+        assertThrows(IllegalStateException.class,
+                () -> c.getShortestPathsTo(targets));
+        c.computeShortestPathsFrom(ns);
+        assertThrows(NullPointerException.class,
+                () -> c.getShortestPathsTo(null));
+        assertNull(c.getShortestPathTo(nw));
+        Map<GraphNode<String>, List<GraphEdge<String>>> paths = c
+                .getShortestPathsTo(targets);
+        assertEquals(targets, new ArrayList<GraphNode<String>>(paths.keySet()));
+        List<GraphEdge<String>> pathTest = new ArrayList<GraphEdge<String>>();
+        assertEquals(pathTest, paths.get(ns));
+        pathTest.add(new GraphEdge<String>(ns, ny, true, 5));
+        pathTest.add(new GraphEdge<String>(ny, nt, true, 3));
+        pathTest.add(new GraphEdge<String>(nt, nx, true, 1));
+        assertEquals(pathTest, paths.get(nx));
+        assertNull(paths.get(nw));
+        targets.add(new GraphNode<String>("a"));
+        assertThrows(IllegalArgumentException.class,
+                () -> c.getShortestPathsTo(targets));
+    }
+
+    @Test
+    final void testNegativeWeightAddedAfterConstruction() {
+        Graph<String> g = ShortestPathTestGraphs.createGraph();
+        DijkstraShortestPathComputer<String> c = new DijkstraShortestPathComputer<String>(
+                g);
+        GraphNode<String> ns = g.getNodeOf("s");
+        c.computeShortestPathsFrom(ns);
+        c.computeShortestPathsFrom(ns);
+        assertEquals(ns, c.getLastSource());
+        // Il grafo è cambiato: i pesi vengono controllati di nuovo
+        g.addEdge(new GraphEdge<String>(g.getNodeOf("w"), g.getNodeOf("z"),
+                true, -1.0));
+        assertThrows(IllegalStateException.class,
+                () -> c.computeShortestPathsFrom(ns));
+    }
+
 }
@@ -355,4 +355,39 @@ public abstract class Graph<L> {
                     + this.getIngoingEdgesOf(node).size();
     }
 
+    /**
+     * Restituisce il contatore delle modifiche strutturali di questo grafo. Il
+     * contatore viene incrementato da ogni operazione che inserisce o rimuove
+     * nodi o archi (incluso {@code clear()}), per cui due letture con lo
+     * stesso valore garantiscono che nodi e archi non sono cambiati nel
+     * frattempo. Serve agli algoritmi che memorizzano risultati calcolati sul
+     * grafo per capire quando devono essere ricalcolati. Le modifiche ai pesi
+     * degli archi fatte direttamente sugli oggetti {@code GraphEdge<L>} non
+     * vengono contate. Prima di chiamarlo bisogna controllare con
+     * {@link #supportsModificationCount()} che il grafo tenga il conteggio.
+     * 
+     * @return il numero di modifiche strutturali effettuate su questo grafo
+     * 
+     * @throws UnsupportedOperationException
+     *                                           se questo grafo non tiene
+     *                                           traccia delle modifiche
+     */
+    public long getModificationCount() {
+        throw new UnsupportedOperationException(
+                "Conteggio delle modifiche non supportato");
+    }
+
+    /**
+     * Determina se questo grafo tiene il contatore delle modifiche
+     * strutturali restituito da {@link #getModificationCount()}. Le classi
+     * che ridefiniscono {@code getModificationCount()} devono ridefinire
+     * anche questo metodo.
+     * 
+     * @return true se {@code getModificationCount()} è supportato, false
+     *         altrimenti
+     */
+    public boolean supportsModificationCount() {
+        return false;
+    }
+
 }
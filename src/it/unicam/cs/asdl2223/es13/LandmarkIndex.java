@@ -0,0 +1,399 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Indice di preprocessamento per l'algoritmo ALT (A*, <i>Landmarks</i> e
+ * disuguaglianza triangolare). Vengono scelti k nodi del grafo, detti
+ * <i>landmark</i>, e per ognuno vengono calcolate e memorizzate le distanze
+ * dal landmark verso tutti i nodi (tabella in avanti) e da tutti i nodi verso
+ * il landmark (tabella all'indietro). Per la disuguaglianza triangolare, per
+ * ogni landmark L e ogni coppia di nodi v, t vale
+ * {@code d(v, t) >= d(L, t) - d(L, v)} e {@code d(v, t) >= d(v, L) - d(t, L)}:
+ * il massimo di questi limiti inferiori su tutti i landmark è un'euristica
+ * consistente, per cui l'indice implementa {@code ShortestPathHeuristic<L>} e
+ * può essere passato a un {@code AStarShortestPathComputer<L>}.
+ *
+ * I landmark sono scelti con la strategia del più lontano: ogni nuovo
+ * landmark è il nodo la cui distanza minima dai landmark già scelti è
+ * massima, in modo che i landmark siano ai "bordi" del grafo, dove danno i
+ * limiti inferiori migliori. Le tabelle sono memorizzate in due array di
+ * {@code float} di k * n elementi; per compensare la minore precisione il
+ * limite inferiore viene diminuito dell'errore massimo di arrotondamento, in
+ * modo che resti una stima per difetto.
+ *
+ * Il preprocessamento può essere salvato su file con {@link #save(File)} e
+ * ricaricato con {@link #load(Graph, File)}, purché le etichette dei nodi
+ * siano {@code Serializable}. Il caricamento accetta nel file solo oggetti
+ * delle classi delle etichette del grafo dato, per cui un file qualsiasi non
+ * può far creare oggetti di altre classi. Il grafo non deve essere modificato
+ * dopo la costruzione dell'indice, altrimenti le stime potrebbero non essere
+ * più valide.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class LandmarkIndex<L> implements ShortestPathHeuristic<L> {
+
+    /*
+     * Numero che identifica i file dell'indice e versione del formato.
+     */
+    private static final int FILE_MAGIC = 0x414C5431;
+
+    private static final int FILE_VERSION = 1;
+
+    // copia CSR del grafo, i cui indici sono usati dalle tabelle
+    private final CsrDirectedGraph<L> graph;
+
+    // indici dei landmark
+    private final int[] landmarks;
+
+    // forward[i * n + v] = d(landmark i, v)
+    private final float[] forward;
+
+    // backward[i * n + v] = d(v, landmark i)
+    private final float[] backward;
+
+    /**
+     * Costruisce l'indice scegliendo un certo numero di landmark e calcolando
+     * le relative tabelle delle distanze. Il costo è quello di 2k esecuzioni
+     * dell'algoritmo di Dijkstra.
+     *
+     * @param graph
+     *                          il grafo su cui costruire l'indice
+     * @param landmarkCount
+     *                          il numero di landmark da scegliere; se è
+     *                          maggiore del numero di nodi vengono scelti
+     *                          tutti i nodi
+     * @throws NullPointerException
+     *                                      se il grafo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il numero di landmark non è
+     *                                      positivo
+     * @throws IllegalArgumentException
+     *                                      se il grafo passato non è orientato
+     *                                      o non è pesato o contiene almeno un
+     *                                      peso negativo
+     */
+    public LandmarkIndex(Graph<L> graph, int landmarkCount) {
+        if (graph == null)
+            throw new NullPointerException("Il grafo dato è nullo");
+        if (landmarkCount < 1)
+            throw new IllegalArgumentException(
+                    "Il numero di landmark deve essere positivo");
+        this.graph = snapshotOf(graph);
+        int n = this.graph.nodeCount();
+        int k = Math.min(landmarkCount, n);
+        this.landmarks = new int[k];
+        this.forward = new float[k * n];
+        this.backward = new float[k * n];
+        ShortestPathWorkspace workspace = new ShortestPathWorkspace(this.graph);
+        // distanza minima di ogni nodo dai landmark già scelti
+        double[] nearest = new double[n];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        int next = 0;
+        for (int i = 0; i < k; i++) {
+            this.landmarks[i] = next;
+            this.search(next, false, workspace);
+            for (int v = 0; v < n; v++) {
+                double d = workspace.getDistance(v);
+                this.forward[i * n + v] = (float) d;
+                nearest[v] = Math.min(nearest[v], d);
+            }
+            this.search(next, true, workspace);
+            for (int v = 0; v < n; v++)
+                this.backward[i * n + v] = (float) workspace.getDistance(v);
+            // Il prossimo landmark è il nodo più lontano da quelli scelti; i
+            // nodi non raggiungibili sono i più lontani
+            nearest[next] = -1;
+            for (int v = 0; v < n; v++)
+                if (nearest[v] > nearest[next])
+                    next = v;
+        }
+    }
+
+    /*
+     * Crea un indice con tabelle già calcolate.
+     */
+    private LandmarkIndex(CsrDirectedGraph<L> graph, int[] landmarks,
+            float[] forward, float[] backward) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.forward = forward;
+        this.backward = backward;
+    }
+
+    /**
+     * Restituisce il numero di landmark di questo indice.
+     *
+     * @return il numero di landmark
+     */
+    public int getLandmarkCount() {
+        return this.landmarks.length;
+    }
+
+    /**
+     * Restituisce i landmark scelti, nell'ordine di scelta.
+     *
+     * @return una lista non modificabile dei landmark
+     */
+    public List<GraphNode<L>> getLandmarks() {
+        List<GraphNode<L>> result = new ArrayList<GraphNode<L>>();
+        for (int landmark : this.landmarks)
+            result.add(this.graph.getNodeAtIndex(landmark));
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Restituisce la memoria occupata dalle tabelle delle distanze, in byte.
+     *
+     * @return la memoria occupata dalle tabelle, cioè 8 * k * n byte
+     */
+    public long getTableBytes() {
+        return 4L * (this.forward.length + this.backward.length);
+    }
+
+    /**
+     * Restituisce il limite inferiore della distanza da un nodo a una
+     * destinazione ricavato dai landmark. Il risultato è infinito se dai
+     * landmark si deduce che la destinazione non è raggiungibile dal nodo.
+     *
+     * @throws NullPointerException
+     *                                      se uno dei nodi è nullo
+     * @throws IllegalArgumentException
+     *                                      se uno dei nodi non esiste nel
+     *                                      grafo
+     */
+    @Override
+    public double estimate(GraphNode<L> node, GraphNode<L> target) {
+        if (node == null || target == null)
+            throw new NullPointerException("Nodo nullo");
+        int v = this.graph.getNodeIndexOf(node.getLabel());
+        int t = this.graph.getNodeIndexOf(target.getLabel());
+        if (v == t)
+            return 0;
+        int n = this.graph.nodeCount();
+        double result = 0;
+        for (int i = 0; i < this.landmarks.length; i++) {
+            int row = i * n;
+            // d(v, t) >= d(L, t) - d(L, v)
+            result = Math.max(result,
+                    lowerBound(this.forward[row + t], this.forward[row + v]));
+            // d(v, t) >= d(v, L) - d(t, L)
+            result = Math.max(result,
+                    lowerBound(this.backward[row + v], this.backward[row + t]));
+        }
+        return result;
+    }
+
+    /**
+     * Salva questo indice in un file binario.
+     *
+     * @param file
+     *                 il file in cui salvare l'indice
+     * @throws NullPointerException
+     *                                  se il file passato è nullo
+     * @throws IOException
+     *                                  se si verifica un errore di scrittura
+     *                                  o se le etichette dei nodi non sono
+     *                                  serializzabili
+     */
+    public void save(File file) throws IOException {
+        if (file == null)
+            throw new NullPointerException("Il file dato è nullo");
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            int n = this.graph.nodeCount();
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(n);
+            out.writeInt(this.graph.edgeCount());
+            out.writeInt(this.landmarks.length);
+            // Le etichette permettono di ritrovare i nodi anche se il grafo
+            // ricaricato assegna indici diversi
+            for (int v = 0; v < n; v++) {
+                L label = this.graph.getNodeAtIndex(v).getLabel();
+                if (!(label instanceof Serializable))
+                    throw new IOException(
+                            "Le etichette dei nodi non sono serializzabili");
+                out.writeObject(label);
+            }
+            for (int landmark : this.landmarks)
+                out.writeInt(landmark);
+            for (float d : this.forward)
+                out.writeFloat(d);
+            for (float d : this.backward)
+                out.writeFloat(d);
+        }
+    }
+
+    /**
+     * Carica un indice salvato con {@link #save(File)} per un grafo con gli
+     * stessi nodi e archi di quello su cui è stato costruito.
+     *
+     * @param <L>
+     *                  il tipo delle etichette dei nodi del grafo
+     * @param graph
+     *                  il grafo a cui si riferisce l'indice
+     * @param file
+     *                  il file da cui caricare l'indice
+     * @return l'indice caricato
+     * @throws NullPointerException
+     *                                      se il grafo o il file passati sono
+     *                                      nulli
+     * @throws IllegalArgumentException
+     *                                      se l'indice non corrisponde al
+     *                                      grafo, cioè se il numero di nodi o
+     *                                      di archi è diverso o se un'etichetta
+     *                                      non esiste nel grafo
+     * @throws IOException
+     *                                      se si verifica un errore di lettura,
+     *                                      il file non contiene un indice o
+     *                                      contiene oggetti di classi diverse
+     *                                      da quelle delle etichette del grafo
+     */
+    public static <L> LandmarkIndex<L> load(Graph<L> graph, File file)
+            throws IOException {
+        if (graph == null)
+            throw new NullPointerException("Il grafo dato è nullo");
+        if (file == null)
+            throw new NullPointerException("Il file dato è nullo");
+        CsrDirectedGraph<L> g = snapshotOf(graph);
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            in.setObjectInputFilter(labelFilter(g));
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION)
+                throw new IOException("Il file non contiene un indice ALT");
+            int n = in.readInt();
+            int m = in.readInt();
+            int k = in.readInt();
+            if (n != g.nodeCount() || m != g.edgeCount())
+                throw new IllegalArgumentException(
+                        "L'indice è stato costruito su un grafo diverso");
+            // Associa ad ogni indice del file l'indice nel grafo
+            int[] mapping = new int[n];
+            for (int v = 0; v < n; v++) {
+                Object label = in.readObject();
+                GraphNode<L> node = findNode(g, label);
+                if (node == null)
+                    throw new IllegalArgumentException(
+                            "L'indice contiene un nodo non presente nel grafo: "
+                                    + label);
+                mapping[v] = g.getNodeIndexOf(node.getLabel());
+            }
+            int[] landmarks = new int[k];
+            for (int i = 0; i < k; i++)
+                landmarks[i] = mapping[in.readInt()];
+            float[] forward = new float[k * n];
+            float[] backward = new float[k * n];
+            for (int i = 0; i < k; i++)
+                for (int v = 0; v < n; v++)
+                    forward[i * n + mapping[v]] = in.readFloat();
+            for (int i = 0; i < k; i++)
+                for (int v = 0; v < n; v++)
+                    backward[i * n + mapping[v]] = in.readFloat();
+            return new LandmarkIndex<L>(g, landmarks, forward, backward);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Etichetta di un nodo non valida", e);
+        }
+    }
+
+    /*
+     * Filtro per la lettura delle etichette: ammette solo le classi delle
+     * etichette del grafo e le loro superclassi serializzabili, ad esempio
+     * Integer e Number, e rifiuta tutte le altre.
+     */
+    private static <L> ObjectInputFilter labelFilter(CsrDirectedGraph<L> g) {
+        Set<Class<?>> allowed = new HashSet<Class<?>>();
+        for (int v = 0; v < g.nodeCount(); v++) {
+            Class<?> c = g.getNodeAtIndex(v).getLabel().getClass();
+            while (c != null && Serializable.class.isAssignableFrom(c)) {
+                allowed.add(c);
+                c = c.getSuperclass();
+            }
+        }
+        return info -> {
+            Class<?> c = info.serialClass();
+            if (c == null)
+                // Controllo di profondità o di riferimenti, senza classe
+                return ObjectInputFilter.Status.UNDECIDED;
+            return allowed.contains(c) ? ObjectInputFilter.Status.ALLOWED
+                    : ObjectInputFilter.Status.REJECTED;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <L> GraphNode<L> findNode(CsrDirectedGraph<L> g,
+            Object label) {
+        return g.getNodeOf((L) label);
+    }
+
+    /*
+     * Limite inferiore di a - b, dove a e b sono distanze arrotondate a float:
+     * il valore esatto di ognuna dista al più mezzo ulp dal valore
+     * memorizzato.
+     */
+    private static double lowerBound(float a, float b) {
+        if (b == Float.POSITIVE_INFINITY)
+            // nessuna informazione
+            return 0;
+        if (a == Float.POSITIVE_INFINITY)
+            // a infinito e b finito: la destinazione non è raggiungibile
+            return Double.POSITIVE_INFINITY;
+        return (double) a - (double) b - Math.ulp(a) - Math.ulp(b);
+    }
+
+    private static <L> CsrDirectedGraph<L> snapshotOf(Graph<L> graph) {
+        CsrDirectedGraph<L> g = graph instanceof CsrDirectedGraph
+                ? (CsrDirectedGraph<L>) graph
+                : new CsrDirectedGraph<L>(graph);
+        for (int e = 0; e < g.edgeCount(); e++)
+            if (!(g.getEdgeWeight(e) >= 0))
+                throw new IllegalArgumentException(
+                        "Trovato arco non pesato o con peso negativo");
+        return g;
+    }
+
+    /*
+     * Esegue l'algoritmo di Dijkstra dal landmark sugli archi uscenti oppure,
+     * se reverse è true, sugli archi entranti, calcolando quindi le distanze
+     * dei nodi verso il landmark.
+     */
+    private void search(int landmark, boolean reverse,
+            ShortestPathWorkspace workspace) {
+        CsrDirectedGraph<L> g = this.graph;
+        workspace.start(landmark, g.nodeCount());
+        while (!workspace.isHeapEmpty()) {
+            int u = workspace.extractMinimum();
+            double du = workspace.getDistance(u);
+            if (reverse)
+                for (int k = g.getIngoingEdgeStart(u); k < g.getIngoingEdgeEnd(u); k++) {
+                    int e = g.getIngoingEdge(k);
+                    workspace.relax(u, g.getIngoingEdgeSource(k), e,
+                            du + g.getEdgeWeight(e));
+                }
+            else
+                for (int e = g.getEdgeStart(u); e < g.getEdgeEnd(u); e++)
+                    workspace.relax(u, g.getEdgeTarget(e), e,
+                            du + g.getEdgeWeight(e));
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package it.unicam.cs.asdl2223.es13;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LandmarkIndexTest {
+
+    private double weightOf(List<GraphEdge<Integer>> path) {
+        double result = 0;
+        for (GraphEdge<Integer> e : path)
+            result += e.getWeight();
+        return result;
+    }
+
+    @Test
+    final void testConstructor() {
+        assertThrows(NullPointerException.class,
+                () -> new LandmarkIndex<Integer>(null, 4));
+        Graph<Integer> g = ShortestPathTestGraphs.createGrid(3, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new LandmarkIndex<Integer>(g, 0));
+        LandmarkIndex<Integer> index = new LandmarkIndex<Integer>(g, 20);
+        // Non ci possono essere più landmark che nodi
+        assertEquals(9, index.getLandmarkCount());
+        assertEquals(9, index.getLandmarks().size());
+        assertEquals(8L * 9 * 9, index.getTableBytes());
+        g.addEdge(new GraphEdge<Integer>(g.getNodeOf(0), g.getNodeOf(8), true,
+                -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LandmarkIndex<Integer>(g, 2));
+    }
+
+    @Test
+    final void testLandmarks() {
+        Graph<Integer> g = ShortestPathTestGraphs.createGrid(10, 2);
+        LandmarkIndex<Integer> index = new LandmarkIndex<Integer>(g, 4);
+        List<GraphNode<Integer>> landmarks = index.getLandmarks();
+        assertEquals(4, landmarks.size());
+        // I landmark sono distinti
+        for (int i = 0; i < landmarks.size(); i++)
+            for (int j = i + 1; j < landmarks.size(); j++)
+                assertFalse(landmarks.get(i).equals(landmarks.get(j)));
+        assertThrows(UnsupportedOperationException.class,
+                () -> landmarks.remove(0));
+    }
+
+    /*
+     * La stima non deve mai superare la distanza effettiva.
+     */
+    @Test
+    final void testEstimateIsLowerBound() {
+        Graph<Integer> g = ShortestPathTestGraphs.createGrid(12, 3);
+        // Un nodo isolato da cui non si raggiunge nulla
+        g.addNode(new GraphNode<Integer>(-1));
+        g.addEdge(new GraphEdge<Integer>(g.getNodeOf(0), g.getNodeOf(-1),
+                true, 0.3));
+        LandmarkIndex<Integer> index = new LandmarkIndex<Integer>(g, 6);
+        assertThrows(NullPointerException.class,
+                () -> index.estimate(null, g.getNodeOf(0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.estimate(g.getNodeOf(0),
+                        new GraphNode<Integer>(1000)));
+        DijkstraShortestPathComputer<Integer> d = new DijkstraShortestPathComputer<Integer>(
+                g);
+        for (int s = 0; s < 144; s += 11) {
+            GraphNode<Integer> source = g.getNodeOf(s);
+            d.computeShortestPathsFrom(source);
+            for (GraphNode<Integer> target : g.getNodes()) {
+                double estimate = index.estimate(source, target);
+                assertTrue(estimate >= 0);
+                assertTrue(estimate <= target.getFloatingPointDistance());
+            }
+            assertEquals(0.0, index.estimate(source, source));
+        }
+        // Da -1 non si raggiunge 0
+        assertEquals(Double.POSITIVE_INFINITY,
+                index.estimate(g.getNodeOf(-1), g.getNodeOf(0)));
+    }
+
+    /*
+     * A* con l'euristica dei landmark trova cammini minimi rendendo
+     * definitivi molti meno nodi di A* senza euristica.
+     */
+    @Test
+    final void testAStarQueries() {
+        Graph<Integer> g = ShortestPathTestGraphs.createGrid(30, 4);
+        LandmarkIndex<Integer> index = new LandmarkIndex<Integer>(g, 8);
+        AStarShortestPathComputer<Integer> alt = new AStarShortestPathComputer<Integer>(
+                g, index);
+        AStarShortestPathComputer<Integer> plain = new AStarShortestPathComputer<Integer>(
+                g);
+        Random random = new Random(5);
+        long altSettled = 0;
+        long plainSettled = 0;
+        for (int q = 0; q < 40; q++) {
+            GraphNode<Integer> s = g.getNodeOf(random.nextInt(900));
+            GraphNode<Integer> t = g.getNodeOf(random.nextInt(900));
+            double expected = this.weightOf(plain.getShortestPath(s, t));
+            assertEquals(expected, this.weightOf(alt.getShortestPath(s, t)),
+                    1e-9);
+            altSettled += alt.getSettledNodeCount();
+            plainSettled += plain.getSettledNodeCount();
+        }
+        assertTrue(altSettled * 3 < plainSettled);
+    }
+
+    @Test
+    final void testSaveAndLoad() throws IOException {
+        Graph<Integer> g = ShortestPathTestGraphs.createGrid(8, 6);
+        LandmarkIndex<Integer> index = new LandmarkIndex<Integer>(g, 5);
+        File file = File.createTempFile("landmarks", ".alt");
+        try {
+            assertThrows(NullPointerException.class, () -> index.save(null));
+            index.save(file);
+            assertThrows(NullPointerException.class,
+                    () -> LandmarkIndex.load(null, file));
+            // Lo stesso grafo ricostruito con i nodi in un altro ordine
+            Graph<Integer> copy = new MapAdjacentListDirectedGraph<Integer>();
+            for (int i = 63; i >= 0; i--)
+                copy.addNode(new GraphNode<Integer>(i));
+            for (GraphEdge<Integer> e : g.getEdges())
+                copy.addEdge(new GraphEdge<Integer>(
+                        copy.getNodeOf(e.getNode1().getLabel()),
+                        copy.getNodeOf(e.getNode2().getLabel()), true,
+                        e.getWeight()));
+            LandmarkIndex<Integer> loaded = LandmarkIndex.load(copy, file);
+            assertEquals(index.getLandmarks(), loaded.getLandmarks());
+            for (GraphNode<Integer> v : g.getNodes())
+                for (GraphNode<Integer> t : g.getNodes())
+                    assertEquals(index.estimate(v, t), loaded.estimate(v, t));
+            // Un grafo diverso non corrisponde all'indice
+            Graph<Integer> other = ShortestPathTestGraphs.createGrid(7, 6);
+            assertThrows(IllegalArgumentException.class,
+                    () -> LandmarkIndex.load(other, file));
+            // Un file con un oggetto di una classe diversa da quella delle
+            // etichette non viene deserializzato
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new FileOutputStream(file))) {
+                out.writeInt(0x414C5431);
+                out.writeInt(1);
+                out.writeInt(64);
+                out.writeInt(g.edgeCount());
+                out.writeInt(5);
+                out.writeObject(new ArrayList<Integer>());
+            }
+            assertThrows(InvalidClassException.class,
+                    () -> LandmarkIndex.load(g, file));
+            // Un file che non contiene un indice
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(new byte[] { 1, 2, 3, 4 });
+            }
+            assertThrows(IOException.class, () -> LandmarkIndex.load(g, file));
+        } finally {
+            file.delete();
+        }
+    }
+
+}
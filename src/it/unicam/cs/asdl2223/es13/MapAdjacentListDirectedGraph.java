@@ -3,6 +3,9 @@
  */
 package it.unicam.cs.asdl2223.es13;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
@@ -31,8 +34,23 @@ import java.util.HashSet;
  * questo set. I test di presenza si basano sui metodi equals ridefiniti per
  * nodi e archi nelle classi GraphNode<L> e GraphEdge<L>.
  * 
- * Questa classe non supporta le operazioni di rimozione di nodi e archi e le
- * operazioni indicizzate di ricerca di nodi e archi.
+ * Oltre alle liste di adiacenza viene mantenuto un indice che associa ad ogni
+ * etichetta un indice denso nell'intervallo
+ * <code>[0, this.nodeCount() - 1]</code> e una lista dei nodi in ordine di
+ * indice. In questo modo la ricerca di un nodo a partire dalla sua etichetta e
+ * le operazioni indicizzate costano O(1). Quando un nodo viene rimosso il suo
+ * indice viene assegnato all'ultimo nodo, per cui solo l'indice di
+ * quest'ultimo cambia.
+ * 
+ * Opzionalmente (vedi il costruttore {@link #MapAdjacentListDirectedGraph(boolean)})
+ * può essere mantenuto anche un indice inverso che associa ad ogni nodo
+ * l'insieme dei suoi archi entranti. Con l'indice le operazioni
+ * {@code getIngoingEdgesOf}, {@code getPredecessorNodesOf} e
+ * {@code removeNode} costano O(grado entrante) invece di O(|E|), al prezzo di
+ * una seconda copia della struttura di adiacenza, la cui occupazione stimata è
+ * restituita da {@link #getIngoingIndexMemoryEstimate()}.
+ * 
+ * Questa classe non supporta l'operazione di rimozione degli archi.
  * 
  * @author Luca Tesei
  *
@@ -41,6 +59,16 @@ import java.util.HashSet;
  */
 public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
 
+    /*
+     * Dimensioni stimate (in byte, JVM a 64 bit con riferimenti compressi)
+     * degli oggetti usati dall'indice degli archi entranti.
+     */
+    private static final int HASH_MAP_BYTES = 48;
+
+    private static final int HASH_SET_BYTES = 16;
+
+    private static final int HASH_ENTRY_BYTES = 32;
+
     /*
      * Le liste di adiacenza sono rappresentate con una mappa. Ogni nodo viene
      * associato con l'insieme degli archi uscenti. Nel caso in cui un nodo non
@@ -48,12 +76,98 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
      */
     private final Map<GraphNode<L>, Set<GraphEdge<L>>> adjacentLists;
 
+    /*
+     * Indice delle etichette: associa ad ogni etichetta l'indice del relativo
+     * nodo nella lista nodes.
+     */
+    private final Map<L, Integer> labelIndexes;
+
+    /*
+     * I nodi del grafo in ordine di indice, il nodo di indice i è in posizione
+     * i.
+     */
+    private final List<GraphNode<L>> nodes;
+
+    /*
+     * Indice inverso opzionale: associa ad ogni nodo l'insieme degli archi
+     * entranti. Vale null se l'indice non è mantenuto.
+     */
+    private final Map<GraphNode<L>, Set<GraphEdge<L>>> ingoingLists;
+
+    // numero di modifiche strutturali effettuate sul grafo
+    private long modificationCount;
+
     /**
-     * Crea un grafo vuoto.
+     * Crea un grafo vuoto senza indice degli archi entranti.
      */
     public MapAdjacentListDirectedGraph() {
+        this(false);
+    }
+
+    /**
+     * Crea un grafo vuoto specificando se mantenere l'indice degli archi
+     * entranti.
+     * 
+     * @param ingoingIndex
+     *                         se true viene mantenuto, ad ogni inserimento e
+     *                         rimozione, l'indice degli archi entranti in
+     *                         ogni nodo
+     */
+    public MapAdjacentListDirectedGraph(boolean ingoingIndex) {
         // Inizializza la mappa con la mappa vuota
         this.adjacentLists = new HashMap<GraphNode<L>, Set<GraphEdge<L>>>();
+        this.labelIndexes = new HashMap<L, Integer>();
+        this.nodes = new ArrayList<GraphNode<L>>();
+        if (ingoingIndex)
+            this.ingoingLists = new HashMap<GraphNode<L>, Set<GraphEdge<L>>>();
+        else
+            this.ingoingLists = null;
+    }
+
+    /**
+     * Determina se questo grafo mantiene l'indice degli archi entranti.
+     * 
+     * @return true se l'indice degli archi entranti è mantenuto
+     */
+    public boolean hasIngoingIndex() {
+        return this.ingoingLists != null;
+    }
+
+    /**
+     * Restituisce una stima, in byte, della memoria occupata dall'indice degli
+     * archi entranti. La stima assume una JVM a 64 bit con riferimenti
+     * compressi e considera la mappa dei nodi, un insieme hash per ogni nodo
+     * (con la relativa tabella) e un elemento dell'insieme per ogni arco; gli
+     * oggetti nodo e arco non sono contati perché sono condivisi con le liste
+     * di adiacenza.
+     * 
+     * @return la stima della memoria occupata dall'indice degli archi
+     *         entranti, 0 se l'indice non è mantenuto
+     */
+    public long getIngoingIndexMemoryEstimate() {
+        if (this.ingoingLists == null)
+            return 0;
+        // Oggetto HashMap e relativa tabella
+        long result = HASH_MAP_BYTES
+                + tableBytes(this.ingoingLists.size());
+        for (Set<GraphEdge<L>> edges : this.ingoingLists.values())
+            // Elemento della mappa, insieme hash con la sua tabella ed
+            // elementi dell'insieme
+            result += HASH_ENTRY_BYTES + HASH_SET_BYTES + HASH_MAP_BYTES
+                    + tableBytes(edges.size())
+                    + (long) edges.size() * HASH_ENTRY_BYTES;
+        return result;
+    }
+
+    /*
+     * Stima la dimensione della tabella di una HashMap con un certo numero di
+     * elementi: capacità potenza di 2, almeno 16, con fattore di carico 0.75.
+     */
+    private static long tableBytes(int size) {
+        int capacity = 16;
+        while (capacity * 0.75 < size)
+            capacity *= 2;
+        return 16 + 4L * capacity;
     }
 
     @Override
@@ -74,6 +188,11 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
     @Override
     public void clear() {
         this.adjacentLists.clear();
+        this.labelIndexes.clear();
+        this.nodes.clear();
+        if (this.ingoingLists != null)
+            this.ingoingLists.clear();
+        this.modificationCount++;
     }
 
     @Override
@@ -84,7 +203,8 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
 
     @Override
     public Set<GraphNode<L>> getNodes() {
-        return this.adjacentLists.keySet();
+        // L'insieme non è modificabile per non disallineare l'indice
+        return Collections.unmodifiableSet(this.adjacentLists.keySet());
     }
 
     @Override
@@ -97,6 +217,12 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
             return false;
         // inserisco il nodo associando un insieme vuoto di archi uscenti
         this.adjacentLists.put(node, new HashSet<GraphEdge<L>>());
+        if (this.ingoingLists != null)
+            this.ingoingLists.put(node, new HashSet<GraphEdge<L>>());
+        // il nuovo nodo prende il primo indice libero
+        this.labelIndexes.put(node.getLabel(), this.nodes.size());
+        this.nodes.add(node);
+        this.modificationCount++;
         return true;
     }
 
@@ -105,8 +231,37 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
         if (node == null)
             throw new NullPointerException(
                     "Tentativo di rimuovere un nodo null");
-        throw new UnsupportedOperationException(
-                "Rimozione dei nodi non supportata");
+        Set<GraphEdge<L>> outEdges = this.adjacentLists.remove(node);
+        if (outEdges == null)
+            // il nodo non è presente
+            return false;
+        if (this.ingoingLists != null) {
+            // elimino gli archi entranti usando l'indice inverso
+            for (GraphEdge<L> e : this.ingoingLists.remove(node)) {
+                Set<GraphEdge<L>> edges = this.adjacentLists.get(e.getNode1());
+                // se l'arco è un cappio la sorgente è già stata rimossa
+                if (edges != null)
+                    edges.remove(e);
+            }
+            // elimino gli archi uscenti dagli insiemi dei nodi destinazione
+            for (GraphEdge<L> e : outEdges) {
+                Set<GraphEdge<L>> edges = this.ingoingLists.get(e.getNode2());
+                if (edges != null)
+                    edges.remove(e);
+            }
+        } else
+            // elimino gli archi entranti nel nodo rimosso
+            for (Set<GraphEdge<L>> edges : this.adjacentLists.values())
+                edges.removeIf(e -> e.getNode2().equals(node));
+        // l'ultimo nodo prende l'indice del nodo rimosso
+        int index = this.labelIndexes.remove(node.getLabel());
+        GraphNode<L> last = this.nodes.remove(this.nodes.size() - 1);
+        if (index < this.nodes.size()) {
+            this.nodes.set(index, last);
+            this.labelIndexes.put(last.getLabel(), index);
+        }
+        this.modificationCount++;
+        return true;
     }
 
     @Override
@@ -121,12 +276,11 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
         if (label == null)
             throw new NullPointerException(
                     "Tentativo di cercare un nodo con etichetta null");
-        Set<GraphNode<L>> nodes = this.adjacentLists.keySet();
-        for (GraphNode<L> n : nodes)
-            if (n.getLabel().equals(label))
-                return n;
-        // non esiste nessun nodo con etichetta uguale a label
-        return null;
+        Integer index = this.labelIndexes.get(label);
+        if (index == null)
+            // non esiste nessun nodo con etichetta uguale a label
+            return null;
+        return this.nodes.get(index);
     }
 
     @Override
@@ -134,14 +288,29 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
         if (label == null)
             throw new NullPointerException(
                     "Tentativo di ricercare un nodo con etichetta null");
-        throw new UnsupportedOperationException(
-                "Ricerca dei nodi con indice non supportata");
+        Integer index = this.labelIndexes.get(label);
+        if (index == null)
+            throw new IllegalArgumentException(
+                    "Ricerca dell'indice di un nodo non esistente");
+        return index;
     }
 
     @Override
     public GraphNode<L> getNodeAtIndex(int i) {
-        throw new UnsupportedOperationException(
-                "Ricerca dei nodi con indice non supportata");
+        if (i < 0 || i >= this.nodes.size())
+            throw new IndexOutOfBoundsException(
+                    "Indice di nodo non valido: " + i);
+        return this.nodes.get(i);
+    }
+
+    @Override
+    public long getModificationCount() {
+        return this.modificationCount;
+    }
+
+    @Override
+    public boolean supportsModificationCount() {
+        return true;
     }
 
     @Override
@@ -175,7 +344,9 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
         Set<GraphNode<L>> result = new HashSet<GraphNode<L>>();
         // cerco tutti gli archi che entrano in node e inserisco i nodi sorgente
         // nel risultato
-        Set<GraphEdge<L>> inEdges = this.getIngoingEdgesOf(node);
+        Set<GraphEdge<L>> inEdges = this.ingoingLists != null
+                ? this.ingoingLists.get(node)
+                : this.getIngoingEdgesOf(node);
         for (GraphEdge<L> e : inEdges)
             result.add(e.getNode1());
         return result;
@@ -205,7 +376,12 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
             throw new IllegalArgumentException(
                     "Inserimento di un arco con almeno uno dei due nodi collegati non esistente");
         // Inserisco l'arco nella lista di adiacenza del nodo sorgente
-        return this.adjacentLists.get(edge.getNode1()).add(edge);
+        if (!this.adjacentLists.get(edge.getNode1()).add(edge))
+            return false;
+        if (this.ingoingLists != null)
+            this.ingoingLists.get(edge.getNode2()).add(edge);
+        this.modificationCount++;
+        return true;
     }
 
     @Override
@@ -249,6 +425,9 @@ public class MapAdjacentListDirectedGraph<L> extends Graph<L> {
         if (!this.adjacentLists.containsKey(node))
             throw new IllegalArgumentException(
                     "Richiesta degli archi entranti di un nodo non esistente");
+        if (this.ingoingLists != null)
+            // copia dell'insieme mantenuto dall'indice inverso
+            return new HashSet<GraphEdge<L>>(this.ingoingLists.get(node));
         // creo l'insieme risultato
         Set<GraphEdge<L>> result = new HashSet<GraphEdge<L>>();
         // cerco fra tutti gli archi quelli che entrano in node e li inserisco
@@ -461,4 +461,150 @@ class MapAdjacentListDirectedGraphTest {
         assertTrue(g.getDegreeOf(nw)==1);
     }
 
+    @Test
+    final void testGetNodeIndexOf() {
+        Graph<String> g = new MapAdjacentListDirectedGraph<String>();
+        assertThrows(NullPointerException.class, () -> g.getNodeIndexOf(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getNodeIndexOf("s"));
+        g.addNode(new GraphNode<String>("s"));
+        g.addNode(new GraphNode<String>("u"));
+        g.addNode(new GraphNode<String>("x"));
+        // Gli indici sono assegnati in ordine di inserimento
+        assertEquals(0, g.getNodeIndexOf("s"));
+        assertEquals(1, g.getNodeIndexOf("u"));
+        assertEquals(2, g.getNodeIndexOf("x"));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getNodeIndexOf("y"));
+        g.clear();
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getNodeIndexOf("s"));
+    }
+
+    @Test
+    final void testGetNodeAtIndex() {
+        Graph<String> g = new MapAdjacentListDirectedGraph<String>();
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.getNodeAtIndex(0));
+        GraphNode<String> ns = new GraphNode<String>("s");
+        g.addNode(ns);
+        GraphNode<String> nu = new GraphNode<String>("u");
+        g.addNode(nu);
+        assertTrue(g.getNodeAtIndex(0) == ns);
+        assertTrue(g.getNodeAtIndex(1) == nu);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.getNodeAtIndex(2));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.getNodeAtIndex(-1));
+    }
+
+    @Test
+    final void testRemoveNode() {
+        Graph<String> g = new MapAdjacentListDirectedGraph<String>();
+        assertThrows(NullPointerException.class, () -> g.removeNode(null));
+        GraphNode<String> ns = new GraphNode<String>("s");
+        g.addNode(ns);
+        GraphNode<String> nu = new GraphNode<String>("u");
+        g.addNode(nu);
+        GraphNode<String> nx = new GraphNode<String>("x");
+        g.addNode(nx);
+        g.addEdge(new GraphEdge<String>(ns, nu, true, 10.1));
+        g.addEdge(new GraphEdge<String>(nu, nx, true, 2.05));
+        g.addEdge(new GraphEdge<String>(nx, ns, true, 7.03));
+        assertFalse(g.removeNode(new GraphNode<String>("y")));
+        assertTrue(g.removeNode(new GraphNode<String>("s")));
+        assertEquals(2, g.nodeCount());
+        assertEquals(1, g.edgeCount());
+        assertFalse(g.containsNode(ns));
+        assertNull(g.getNodeOf("s"));
+        assertTrue(g.getEdgesOf(nx).isEmpty());
+        // L'ultimo nodo prende l'indice del nodo rimosso
+        assertEquals(0, g.getNodeIndexOf("x"));
+        assertEquals(1, g.getNodeIndexOf("u"));
+        assertTrue(g.getNodeAtIndex(0) == nx);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.getNodeAtIndex(2));
+        assertTrue(g.removeNode(nx));
+        assertEquals(0, g.getNodeIndexOf("u"));
+        assertEquals(0, g.edgeCount());
+    }
+
+    @Test
+    final void testIngoingIndex() {
+        MapAdjacentListDirectedGraph<String> g = new MapAdjacentListDirectedGraph<String>(
+                true);
+        MapAdjacentListDirectedGraph<String> h = new MapAdjacentListDirectedGraph<String>();
+        assertTrue(g.hasIngoingIndex());
+        assertFalse(h.hasIngoingIndex());
+        assertEquals(0, h.getIngoingIndexMemoryEstimate());
+        long empty = g.getIngoingIndexMemoryEstimate();
+        assertTrue(empty > 0);
+        String[] labels = { "s", "u", "x", "y", "v" };
+        for (String l : labels) {
+            g.addNode(new GraphNode<String>(l));
+            h.addNode(new GraphNode<String>(l));
+        }
+        String[][] edges = { { "s", "u" }, { "s", "x" }, { "u", "x" },
+                { "x", "u" }, { "x", "y" }, { "y", "s" }, { "u", "v" },
+                { "x", "v" }, { "y", "v" }, { "v", "y" }, { "v", "v" } };
+        for (String[] e : edges) {
+            g.addEdge(new GraphEdge<String>(g.getNodeOf(e[0]),
+                    g.getNodeOf(e[1]), true, 1.0));
+            h.addEdge(new GraphEdge<String>(h.getNodeOf(e[0]),
+                    h.getNodeOf(e[1]), true, 1.0));
+        }
+        assertTrue(g.getIngoingIndexMemoryEstimate() > empty);
+        // Con e senza indice i risultati devono coincidere
+        for (String l : labels) {
+            GraphNode<String> n = new GraphNode<String>(l);
+            assertEquals(h.getIngoingEdgesOf(n), g.getIngoingEdgesOf(n));
+            assertEquals(h.getPredecessorNodesOf(n),
+                    g.getPredecessorNodesOf(n));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getIngoingEdgesOf(new GraphNode<String>("z")));
+        GraphNode<String> nv = new GraphNode<String>("v");
+        assertTrue(g.removeNode(nv));
+        assertTrue(h.removeNode(nv));
+        assertEquals(h.edgeCount(), g.edgeCount());
+        assertEquals(h.getEdges(), g.getEdges());
+        for (String l : new String[] { "s", "u", "x", "y" }) {
+            GraphNode<String> n = new GraphNode<String>(l);
+            assertEquals(h.getIngoingEdgesOf(n), g.getIngoingEdgesOf(n));
+        }
+        Set<GraphNode<String>> predecessors = new HashSet<GraphNode<String>>();
+        predecessors.add(new GraphNode<String>("x"));
+        assertEquals(predecessors,
+                g.getPredecessorNodesOf(new GraphNode<String>("y")));
+        g.clear();
+        assertEquals(empty, g.getIngoingIndexMemoryEstimate());
+    }
+
+    @Test
+    final void testGetModificationCount() {
+        Graph<String> g = new MapAdjacentListDirectedGraph<String>();
+        assertTrue(g.supportsModificationCount());
+        long count = g.getModificationCount();
+        GraphNode<String> ns = new GraphNode<String>("s");
+        GraphNode<String> nu = new GraphNode<String>("u");
+        assertTrue(g.addNode(ns));
+        assertTrue(g.getModificationCount() > count);
+        count = g.getModificationCount();
+        // Le operazioni che non modificano il grafo non contano
+        assertFalse(g.addNode(new GraphNode<String>("s")));
+        assertEquals(count, g.getModificationCount());
+        g.addNode(nu);
+        count = g.getModificationCount();
+        g.addEdge(new GraphEdge<String>(ns, nu, true, 1.0));
+        assertTrue(g.getModificationCount() > count);
+        count = g.getModificationCount();
+        assertFalse(g.addEdge(new GraphEdge<String>(ns, nu, true, 1.0)));
+        assertEquals(count, g.getModificationCount());
+        g.removeNode(nu);
+        assertTrue(g.getModificationCount() > count);
+        count = g.getModificationCount();
+        g.clear();
+        assertTrue(g.getModificationCount() > count);
+    }
+
 }
@@ -0,0 +1,121 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Questa interface definisce una coda con min priorità "dinamica" di nodi di un
+ * grafo, cioè una coda in cui la priorità di un nodo già presente può essere
+ * decrementata. A differenza delle code che usano i campi dei nodi (ad esempio
+ * {@code floatingPointDistance}), la priorità di ogni nodo è memorizzata dalla
+ * coda stessa. In questo modo la stessa interface può essere implementata da
+ * strutture dati diverse (heap binario indicizzato, pairing heap, ...) e usata
+ * come strategia intercambiabile dagli algoritmi sui grafi, ad esempio
+ * dall'algoritmo di Dijkstra.
+ *
+ * I nodi sono identificati tramite il metodo {@code equals} della classe
+ * {@code GraphNode<L>}, cioè tramite la loro etichetta. Non sono ammessi nodi
+ * null né nodi duplicati.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                il tipo delle etichette dei nodi
+ */
+public interface NodeMinPriorityQueue<L> {
+
+    /**
+     * Restituisce il numero di nodi attualmente presenti in questa coda.
+     *
+     * @return il numero di nodi attualmente presenti in questa coda
+     */
+    public int size();
+
+    /**
+     * Determina se questa coda è vuota.
+     *
+     * @return true se la coda non contiene nodi, false altrimenti
+     */
+    public boolean isEmpty();
+
+    /**
+     * Determina se un certo nodo è attualmente presente in questa coda.
+     *
+     * @param node
+     *                 il nodo da cercare
+     * @return true se il nodo è presente nella coda, false altrimenti
+     * @throws NullPointerException
+     *                                  se il nodo passato è nullo
+     */
+    public boolean contains(GraphNode<L> node);
+
+    /**
+     * Inserisce un nodo in questa coda con una certa priorità.
+     *
+     * @param node
+     *                     il nodo da inserire
+     * @param priority
+     *                     la priorità da associare al nodo
+     * @throws NullPointerException
+     *                                      se il nodo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo è già presente nella coda
+     */
+    public void insert(GraphNode<L> node, double priority);
+
+    /**
+     * Restituisce il nodo con priorità minima senza estrarlo dalla coda.
+     *
+     * @return il nodo con priorità minima
+     * @throws NoSuchElementException
+     *                                    se la coda è vuota
+     */
+    public GraphNode<L> minimum();
+
+    /**
+     * Estrae dalla coda il nodo con priorità minima.
+     *
+     * @return il nodo con priorità minima
+     * @throws NoSuchElementException
+     *                                    se la coda è vuota
+     */
+    public GraphNode<L> extractMinimum();
+
+    /**
+     * Restituisce la priorità attualmente associata a un nodo presente nella
+     * coda.
+     *
+     * @param node
+     *                 il nodo di cui restituire la priorità
+     * @return la priorità attualmente associata al nodo
+     * @throws NullPointerException
+     *                                    se il nodo passato è nullo
+     * @throws NoSuchElementException
+     *                                    se il nodo non è presente nella coda
+     */
+    public double getPriority(GraphNode<L> node);
+
+    /**
+     * Decrementa la priorità associata a un nodo presente nella coda. Il nodo
+     * può diventare il nuovo minimo.
+     *
+     * @param node
+     *                        il nodo di cui decrementare la priorità
+     * @param newPriority
+     *                        la nuova priorità
+     * @throws NullPointerException
+     *                                      se il nodo passato è nullo
+     * @throws NoSuchElementException
+     *                                      se il nodo non è presente nella coda
+     * @throws IllegalArgumentException
+     *                                      se la nuova priorità non è
+     *                                      strettamente minore di quella
+     *                                      attuale
+     */
+    public void decreasePriority(GraphNode<L> node, double newPriority);
+
+    /**
+     * Svuota questa coda.
+     */
+    public void clear();
+
+}
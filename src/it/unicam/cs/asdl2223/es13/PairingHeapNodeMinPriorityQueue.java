@@ -0,0 +1,208 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Coda con min priorità di nodi realizzata con un pairing heap. Il pairing
+ * heap è un albero generico ordinato a heap in cui ogni elemento ha un
+ * puntatore al primo figlio, al fratello successivo e al nodo precedente
+ * (padre se è il primo figlio, altrimenti fratello precedente).
+ *
+ * Inserimento e decremento della priorità costano O(1) (il decremento taglia
+ * il sottoalbero e lo fonde con la radice), mentre l'estrazione del minimo
+ * costa O(log n) ammortizzato grazie alla fusione a due passate dei figli
+ * della radice. Per questo è una buona alternativa allo heap binario per
+ * grafi in cui le operazioni di decremento sono molto più frequenti delle
+ * estrazioni.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                il tipo delle etichette dei nodi
+ */
+public class PairingHeapNodeMinPriorityQueue<L> implements NodeMinPriorityQueue<L> {
+
+    // Radice del pairing heap, contiene il minimo
+    private Entry<L> root;
+
+    // Associa ad ogni nodo presente il relativo elemento dello heap
+    private final Map<GraphNode<L>, Entry<L>> entries;
+
+    /*
+     * Lista di appoggio riusata durante la fusione a due passate per non
+     * allocarne una nuova ad ogni estrazione.
+     */
+    private final List<Entry<L>> pairs;
+
+    /**
+     * Crea una coda vuota.
+     */
+    public PairingHeapNodeMinPriorityQueue() {
+        this.root = null;
+        this.entries = new HashMap<GraphNode<L>, Entry<L>>();
+        this.pairs = new ArrayList<Entry<L>>();
+    }
+
+    @Override
+    public int size() {
+        return this.entries.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.root == null;
+    }
+
+    @Override
+    public boolean contains(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Tentativo di cercare un nodo nullo");
+        return this.entries.containsKey(node);
+    }
+
+    @Override
+    public void insert(GraphNode<L> node, double priority) {
+        if (node == null)
+            throw new NullPointerException("Tentativo di inserire un nodo nullo");
+        if (this.entries.containsKey(node))
+            throw new IllegalArgumentException("Il nodo è già presente nella coda");
+        Entry<L> entry = new Entry<L>(node, priority);
+        this.entries.put(node, entry);
+        this.root = this.meld(this.root, entry);
+    }
+
+    @Override
+    public GraphNode<L> minimum() {
+        if (this.root == null)
+            throw new NoSuchElementException("Coda vuota");
+        return this.root.node;
+    }
+
+    @Override
+    public GraphNode<L> extractMinimum() {
+        if (this.root == null)
+            throw new NoSuchElementException("Coda vuota");
+        Entry<L> minimum = this.root;
+        this.entries.remove(minimum.node);
+        this.root = this.mergePairs(minimum.child);
+        if (this.root != null)
+            this.root.prev = null;
+        return minimum.node;
+    }
+
+    @Override
+    public double getPriority(GraphNode<L> node) {
+        return this.entryOf(node).priority;
+    }
+
+    @Override
+    public void decreasePriority(GraphNode<L> node, double newPriority) {
+        Entry<L> entry = this.entryOf(node);
+        if (!(newPriority < entry.priority))
+            throw new IllegalArgumentException(
+                    "La nuova priorità non è minore di quella attuale");
+        entry.priority = newPriority;
+        // La radice rimane radice, non c'è niente da ristrutturare
+        if (entry == this.root)
+            return;
+        // Stacca il sottoalbero dell'elemento dalla lista dei fratelli
+        if (entry.prev.child == entry)
+            entry.prev.child = entry.next;
+        else
+            entry.prev.next = entry.next;
+        if (entry.next != null)
+            entry.next.prev = entry.prev;
+        entry.next = null;
+        entry.prev = null;
+        // Fonde il sottoalbero staccato con la radice
+        this.root = this.meld(this.root, entry);
+    }
+
+    @Override
+    public void clear() {
+        this.root = null;
+        this.entries.clear();
+    }
+
+    private Entry<L> entryOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo");
+        Entry<L> entry = this.entries.get(node);
+        if (entry == null)
+            throw new NoSuchElementException("Il nodo non è presente nella coda");
+        return entry;
+    }
+
+    /*
+     * Fonde due alberi ordinati a heap (senza fratelli) rendendo la radice con
+     * priorità maggiore il primo figlio dell'altra.
+     */
+    private Entry<L> meld(Entry<L> a, Entry<L> b) {
+        if (a == null)
+            return b;
+        if (b == null)
+            return a;
+        if (b.priority < a.priority) {
+            Entry<L> t = a;
+            a = b;
+            b = t;
+        }
+        b.prev = a;
+        b.next = a.child;
+        if (a.child != null)
+            a.child.prev = b;
+        a.child = b;
+        return a;
+    }
+
+    /*
+     * Fusione a due passate: prima fonde i figli a coppie da sinistra a destra,
+     * poi fonde i risultati da destra a sinistra.
+     */
+    private Entry<L> mergePairs(Entry<L> first) {
+        this.pairs.clear();
+        Entry<L> current = first;
+        while (current != null) {
+            Entry<L> a = current;
+            Entry<L> b = a.next;
+            current = (b == null) ? null : b.next;
+            a.next = null;
+            a.prev = null;
+            if (b != null) {
+                b.next = null;
+                b.prev = null;
+            }
+            this.pairs.add(this.meld(a, b));
+        }
+        Entry<L> result = null;
+        for (int i = this.pairs.size() - 1; i >= 0; i--)
+            result = this.meld(this.pairs.get(i), result);
+        this.pairs.clear();
+        return result;
+    }
+
+    /*
+     * Elemento del pairing heap.
+     */
+    private static class Entry<L> {
+        private final GraphNode<L> node;
+
+        private double priority;
+
+        private Entry<L> child;
+
+        private Entry<L> next;
+
+        private Entry<L> prev;
+
+        private Entry(GraphNode<L> node, double priority) {
+            this.node = node;
+            this.priority = priority;
+        }
+    }
+
+}
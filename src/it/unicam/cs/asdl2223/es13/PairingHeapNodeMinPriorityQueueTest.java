@@ -0,0 +1,88 @@
+package it.unicam.cs.asdl2223.es13;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PairingHeapNodeMinPriorityQueueTest
+        extends AbstractNodeMinPriorityQueueTest {
+
+    @Override
+    <L> NodeMinPriorityQueue<L> newQueue() {
+        return new PairingHeapNodeMinPriorityQueue<L>();
+    }
+
+    @Test
+    final void testDecreaseSiblings() {
+        // Inseriti dopo la radice, i nodi diventano figli della radice: si
+        // tagliano il primo, uno in mezzo e l'ultimo della lista dei fratelli
+        NodeMinPriorityQueue<Integer> q = this.<Integer>newQueue();
+        q.insert(new GraphNode<Integer>(0), 0);
+        for (int i = 1; i <= 10; i++)
+            q.insert(new GraphNode<Integer>(i), 100 + i);
+        q.decreasePriority(new GraphNode<Integer>(10), 1);
+        q.decreasePriority(new GraphNode<Integer>(5), 2);
+        q.decreasePriority(new GraphNode<Integer>(1), 3);
+        // La radice può diminuire senza ristrutturare
+        q.decreasePriority(new GraphNode<Integer>(0), -1);
+        int[] expected = { 0, 10, 5, 1, 2, 3, 4, 6, 7, 8, 9 };
+        for (int label : expected)
+            assertEquals(label, (int) q.extractMinimum().getLabel());
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    final void testDecreaseBelowRoot() {
+        // Dopo un'estrazione l'albero ha più livelli; un nodo profondo che
+        // scende sotto la radice deve diventare la nuova radice
+        NodeMinPriorityQueue<Integer> q = this.<Integer>newQueue();
+        for (int i = 0; i < 64; i++)
+            q.insert(new GraphNode<Integer>(i), i);
+        assertEquals(0, (int) q.extractMinimum().getLabel());
+        q.decreasePriority(new GraphNode<Integer>(63), 0.5);
+        assertEquals(63, (int) q.minimum().getLabel());
+        assertEquals(63, (int) q.extractMinimum().getLabel());
+        for (int i = 1; i < 63; i++)
+            assertEquals(i, (int) q.extractMinimum().getLabel());
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    final void testManyDecreasesThenExtract() {
+        // Molte diminuzioni tra un'estrazione e l'altra, come in Dijkstra su
+        // un grafo denso, confrontate con una coda di riferimento
+        NodeMinPriorityQueue<Integer> q = this.<Integer>newQueue();
+        PriorityQueue<Double> reference = new PriorityQueue<Double>();
+        Random random = new Random(7);
+        int n = 2000;
+        double[] priorities = new double[n];
+        boolean[] present = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            priorities[i] = 1000 + random.nextInt(100000);
+            q.insert(new GraphNode<Integer>(i), priorities[i]);
+            reference.add(priorities[i]);
+            present[i] = true;
+        }
+        while (!q.isEmpty()) {
+            for (int k = 0; k < 20; k++) {
+                int i = random.nextInt(n);
+                if (!present[i])
+                    continue;
+                double p = priorities[i] - 1 - random.nextInt(1000);
+                reference.remove(priorities[i]);
+                reference.add(p);
+                priorities[i] = p;
+                q.decreasePriority(new GraphNode<Integer>(i), p);
+            }
+            GraphNode<Integer> min = q.extractMinimum();
+            assertEquals(reference.poll(), priorities[min.getLabel()]);
+            present[min.getLabel()] = false;
+            assertEquals(reference.size(), q.size());
+        }
+        assertTrue(reference.isEmpty());
+    }
+
+}
@@ -0,0 +1,59 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.List;
+
+/**
+ * Questa interface estende i calcolatori di cammini minimi con sorgente singola
+ * con un'operazione di calcolo di un cammino minimo tra una sorgente e una
+ * destinazione date. Le implementazioni possono interrompere la ricerca non
+ * appena il cammino verso la destinazione è determinato, senza dover
+ * analizzare tutti i nodi raggiungibili dalla sorgente.
+ * 
+ * Il calcolo punto a punto è indipendente da quello con sorgente singola:
+ * {@code getShortestPath(GraphNode<L>, GraphNode<L>)} non modifica i
+ * risultati restituiti da {@code getShortestPathTo(GraphNode<L>)} e
+ * {@code getLastSource()}.
+ * 
+ * @author collettiva
+ *
+ * @param <L>
+ *                il tipo delle etichette dei nodi del grafo
+ */
+public interface PointToPointShortestPathComputer<L>
+        extends SingleSourceShortestPathComputer<L> {
+
+    /**
+     * Calcola un cammino minimo tra una sorgente e una destinazione date.
+     * 
+     * @param sourceNode
+     *                       il nodo sorgente
+     * @param targetNode
+     *                       il nodo destinazione
+     * @return la lista di archi corrispondente al cammino minimo; la lista è
+     *         vuota se la sorgente e la destinazione coincidono. Viene
+     *         restituito {@code null} se la destinazione non è raggiungibile
+     *         dalla sorgente
+     * @throws NullPointerException
+     *                                      se almeno uno dei nodi passati è
+     *                                      nullo
+     * @throws IllegalArgumentException
+     *                                      se almeno uno dei nodi passati non
+     *                                      esiste nel grafo associato a questo
+     *                                      calcolatore
+     */
+    public List<GraphEdge<L>> getShortestPath(GraphNode<L> sourceNode,
+            GraphNode<L> targetNode);
+
+    /**
+     * Restituisce il numero di nodi la cui distanza è stata resa definitiva
+     * (estratti dalla coda con priorità) nell'ultimo calcolo effettuato da
+     * questo calcolatore, sia esso con sorgente singola o punto a punto. È
+     * una misura del lavoro svolto che permette di confrontare algoritmi
+     * diversi sulle stesse interrogazioni.
+     * 
+     * @return il numero di nodi resi definitivi nell'ultimo calcolo, 0 se non
+     *         è stato effettuato nessun calcolo
+     */
+    public int getSettledNodeCount();
+
+}
@@ -0,0 +1,47 @@
+package it.unicam.cs.asdl2223.es13;
+
+/**
+ * Una funzione euristica per la ricerca di cammini minimi diretta verso una
+ * destinazione, ad esempio con l'algoritmo A*. L'euristica stima, per difetto,
+ * il peso di un cammino minimo da un nodo alla destinazione.
+ * 
+ * Perché la ricerca restituisca cammini minimi l'euristica deve essere
+ * <b>consistente</b>: per ogni arco (u, v) di peso w deve valere
+ * {@code estimate(u, t) <= w + estimate(v, t)} e deve valere
+ * {@code estimate(t, t) == 0}. Un'euristica consistente è anche ammissibile,
+ * cioè non sovrastima mai la distanza effettiva.
+ * 
+ * @author collettiva
+ *
+ * @param <L>
+ *                il tipo delle etichette dei nodi del grafo
+ */
+@FunctionalInterface
+public interface ShortestPathHeuristic<L> {
+
+    /**
+     * Stima per difetto il peso di un cammino minimo da un nodo a una
+     * destinazione.
+     * 
+     * @param node
+     *                   il nodo da cui stimare la distanza
+     * @param target
+     *                   il nodo destinazione
+     * @return una stima non negativa della distanza da node a target
+     */
+    public double estimate(GraphNode<L> node, GraphNode<L> target);
+
+    /**
+     * Restituisce l'euristica nulla, che stima sempre 0. Con questa euristica
+     * l'algoritmo A* si comporta come l'algoritmo di Dijkstra con arresto
+     * anticipato.
+     * 
+     * @param <L>
+     *                il tipo delle etichette dei nodi del grafo
+     * @return l'euristica che restituisce sempre 0
+     */
+    public static <L> ShortestPathHeuristic<L> zero() {
+        return (node, target) -> 0;
+    }
+
+}
@@ -0,0 +1,153 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tabella immutabile dei cammini minimi da una sorgente verso tutti i nodi di
+ * un grafo. Contiene, per ogni nodo, la distanza dalla sorgente e il
+ * predecessore nel cammino minimo, memorizzati in array di primitivi
+ * indicizzati con gli indici dei nodi di un {@code CsrDirectedGraph<L>}.
+ * Le tabelle vengono create da {@code AllPairsShortestPathComputer<L>} e
+ * possono essere lette da più thread contemporaneamente.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class ShortestPathTable<L> {
+
+    // il grafo su cui sono stati calcolati i cammini
+    private final CsrDirectedGraph<L> graph;
+
+    // indice della sorgente
+    private final int source;
+
+    // distanza dalla sorgente di ogni nodo, infinito se non raggiungibile
+    private final double[] distances;
+
+    // indice del predecessore di ogni nodo, -1 per la sorgente e i nodi non
+    // raggiungibili
+    private final int[] previousNodes;
+
+    /*
+     * indice dell'arco con cui si raggiunge ogni nodo oppure null se la
+     * tabella è stata calcolata senza indici degli archi: in tal caso gli archi
+     * vengono cercati nel grafo
+     */
+    private final int[] previousEdges;
+
+    /*
+     * Crea una tabella a partire dai valori dati, senza copiarli.
+     */
+    ShortestPathTable(CsrDirectedGraph<L> graph, int source, double[] distances,
+            int[] previousNodes, int[] previousEdges) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+        this.previousNodes = previousNodes;
+        this.previousEdges = previousEdges;
+    }
+
+    /*
+     * Crea una tabella copiando i risultati di un calcolo eseguito con
+     * un'area di lavoro.
+     */
+    ShortestPathTable(CsrDirectedGraph<L> graph, ShortestPathWorkspace workspace) {
+        int n = graph.nodeCount();
+        this.graph = graph;
+        this.source = workspace.getSource();
+        this.distances = new double[n];
+        this.previousNodes = new int[n];
+        this.previousEdges = new int[n];
+        for (int i = 0; i < n; i++) {
+            this.distances[i] = workspace.getDistance(i);
+            this.previousNodes[i] = workspace.getPreviousNode(i);
+            this.previousEdges[i] = workspace.getPreviousEdge(i);
+        }
+    }
+
+    /**
+     * Restituisce il nodo sorgente di questa tabella.
+     *
+     * @return il nodo sorgente di questa tabella
+     */
+    public GraphNode<L> getSource() {
+        return this.graph.getNodeAtIndex(this.source);
+    }
+
+    /**
+     * Restituisce la distanza di un nodo dalla sorgente.
+     *
+     * @param targetNode
+     *                       il nodo di cui restituire la distanza
+     * @return la distanza del nodo dalla sorgente, infinito se il nodo non è
+     *         raggiungibile
+     * @throws NullPointerException
+     *                                      se il nodo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste nel
+     *                                      grafo
+     */
+    public double getDistance(GraphNode<L> targetNode) {
+        return this.distances[this.indexOf(targetNode)];
+    }
+
+    /**
+     * Restituisce il predecessore di un nodo nel cammino minimo dalla
+     * sorgente.
+     *
+     * @param targetNode
+     *                       il nodo di cui restituire il predecessore
+     * @return il predecessore del nodo, null se il nodo è la sorgente o non è
+     *         raggiungibile
+     * @throws NullPointerException
+     *                                      se il nodo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste nel
+     *                                      grafo
+     */
+    public GraphNode<L> getPrevious(GraphNode<L> targetNode) {
+        int previous = this.previousNodes[this.indexOf(targetNode)];
+        return previous < 0 ? null : this.graph.getNodeAtIndex(previous);
+    }
+
+    /**
+     * Restituisce un cammino minimo dalla sorgente a un nodo dato.
+     *
+     * @param targetNode
+     *                       il nodo verso cui restituire il cammino minimo
+     * @return la lista di archi corrispondente al cammino minimo; la lista è
+     *         vuota se il nodo passato è la sorgente. Viene restituito
+     *         {@code null} se il nodo passato non è raggiungibile
+     * @throws NullPointerException
+     *                                      se il nodo passato è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste nel
+     *                                      grafo
+     */
+    public List<GraphEdge<L>> getShortestPathTo(GraphNode<L> targetNode) {
+        int v = this.indexOf(targetNode);
+        if (this.distances[v] == Double.POSITIVE_INFINITY)
+            return null;
+        List<GraphEdge<L>> path = new ArrayList<GraphEdge<L>>();
+        while (v != this.source) {
+            int u = this.previousNodes[v];
+            int e = this.previousEdges != null ? this.previousEdges[v]
+                    : this.graph.getEdgeIndex(u, v);
+            path.add(this.graph.getEdgeAt(u, e));
+            v = u;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private int indexOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Il nodo dato è nullo");
+        return this.graph.getNodeIndexOf(node.getLabel());
+    }
+
+}
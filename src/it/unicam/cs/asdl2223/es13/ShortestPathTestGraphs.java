@@ -0,0 +1,123 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.Random;
+
+/**
+ * Grafi di esempio usati dai test delle classi che calcolano cammini minimi.
+ * Ogni chiamata crea un grafo nuovo, che il test può modificare liberamente.
+ * I grafi mantengono l'indice degli archi entranti, così possono essere usati
+ * anche dagli algoritmi che visitano il grafo all'indietro.
+ *
+ * @author collettiva
+ *
+ */
+final class ShortestPathTestGraphs {
+
+    private ShortestPathTestGraphs() {
+    }
+
+    /**
+     * Grafo di esempio del libro di testo per l'algoritmo di Dijkstra, con un
+     * nodo aggiuntivo w non raggiungibile.
+     *
+     * @return il grafo con i nodi s, t, y, x, z e w
+     */
+    static Graph<String> createGraph() {
+        Graph<String> g = new MapAdjacentListDirectedGraph<String>(true);
+        GraphNode<String> ns = new GraphNode<String>("s");
+        g.addNode(ns);
+        GraphNode<String> nt = new GraphNode<String>("t");
+        g.addNode(nt);
+        GraphNode<String> ny = new GraphNode<String>("y");
+        g.addNode(ny);
+        GraphNode<String> nx = new GraphNode<String>("x");
+        g.addNode(nx);
+        GraphNode<String> nz = new GraphNode<String>("z");
+        g.addNode(nz);
+        GraphNode<String> nw = new GraphNode<String>("w");
+        g.addNode(nw);
+        g.addEdge(new GraphEdge<String>(ns, nt, true, 10));
+        g.addEdge(new GraphEdge<String>(ns, ny, true, 5));
+        g.addEdge(new GraphEdge<String>(nt, ny, true, 2));
+        g.addEdge(new GraphEdge<String>(ny, nt, true, 3));
+        g.addEdge(new GraphEdge<String>(nt, nx, true, 1));
+        g.addEdge(new GraphEdge<String>(ny, nx, true, 9));
+        g.addEdge(new GraphEdge<String>(nx, nz, true, 4.0));
+        g.addEdge(new GraphEdge<String>(nz, nx, true, 6.0));
+        g.addEdge(new GraphEdge<String>(ny, nz, true, 2.0));
+        g.addEdge(new GraphEdge<String>(nz, ns, true, 7.0));
+        g.addEdge(new GraphEdge<String>(nw, ns, true, 1.0));
+        return g;
+    }
+
+    /**
+     * Grafo con pesi non interi, lo stesso usato nei test dell'algoritmo di
+     * Dijkstra.
+     *
+     * @return il grafo con i nodi s, u, x, y e v
+     */
+    static Graph<String> createDecimalWeightsGraph() {
+        Graph<String> g = new MapAdjacentListDirectedGraph<String>(true);
+        GraphNode<String> ns = new GraphNode<String>("s");
+        g.addNode(ns);
+        GraphNode<String> nu = new GraphNode<String>("u");
+        g.addNode(nu);
+        GraphNode<String> nx = new GraphNode<String>("x");
+        g.addNode(nx);
+        GraphNode<String> ny = new GraphNode<String>("y");
+        g.addNode(ny);
+        GraphNode<String> nv = new GraphNode<String>("v");
+        g.addNode(nv);
+        g.addEdge(new GraphEdge<String>(ns, nu, true, 10.1));
+        g.addEdge(new GraphEdge<String>(ns, nx, true, 5.12));
+        g.addEdge(new GraphEdge<String>(nu, nx, true, 2.05));
+        g.addEdge(new GraphEdge<String>(nx, nu, true, 3.04));
+        g.addEdge(new GraphEdge<String>(nx, ny, true, 2.0));
+        g.addEdge(new GraphEdge<String>(ny, ns, true, 7.03));
+        g.addEdge(new GraphEdge<String>(nu, nv, true, 1.0));
+        g.addEdge(new GraphEdge<String>(nx, nv, true, 9.05));
+        g.addEdge(new GraphEdge<String>(ny, nv, true, 6.0));
+        g.addEdge(new GraphEdge<String>(nv, ny, true, 4.07));
+        return g;
+    }
+
+    /**
+     * Griglia quadrata con archi nei due versi e pesi casuali interi tra 1 e
+     * 10, simile a una rete stradale. Il nodo nella riga r e colonna c ha
+     * etichetta r * side + c.
+     *
+     * @param side
+     *                 il numero di nodi di ogni lato della griglia
+     * @param seed
+     *                 il seme per la generazione dei pesi; a seme uguale
+     *                 corrisponde una griglia uguale
+     * @return la griglia con side * side nodi
+     */
+    static Graph<Integer> createGrid(int side, long seed) {
+        Random random = new Random(seed);
+        Graph<Integer> g = new MapAdjacentListDirectedGraph<Integer>(true);
+        for (int i = 0; i < side * side; i++)
+            g.addNode(new GraphNode<Integer>(i));
+        for (int r = 0; r < side; r++)
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+                if (c + 1 < side)
+                    addRoad(g, v, v + 1, 1 + random.nextInt(10));
+                if (r + 1 < side)
+                    addRoad(g, v, v + side, 1 + random.nextInt(10));
+            }
+        return g;
+    }
+
+    /*
+     * Aggiunge tra i nodi u e v due archi, uno per verso, con lo stesso peso.
+     */
+    private static void addRoad(Graph<Integer> g, int u, int v,
+            double weight) {
+        g.addEdge(new GraphEdge<Integer>(g.getNodeOf(u), g.getNodeOf(v), true,
+                weight));
+        g.addEdge(new GraphEdge<Integer>(g.getNodeOf(v), g.getNodeOf(u), true,
+                weight));
+    }
+
+}
@@ -0,0 +1,346 @@
+package it.unicam.cs.asdl2223.es13;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Area di lavoro riusabile per il calcolo dei cammini minimi. Invece di
+ * memorizzare lo stato della ricerca nei campi dei nodi del grafo
+ * ({@code floatingPointDistance}, {@code previous}, {@code color}), gli
+ * algoritmi che accettano un'area di lavoro lo memorizzano in array di
+ * primitivi indicizzati con gli indici dei nodi del grafo
+ * (vedi {@code Graph.getNodeIndexOf}). In questo modo più thread, ognuno con
+ * la propria area di lavoro, possono interrogare contemporaneamente lo stesso
+ * grafo, purché questo non venga modificato.
+ *
+ * Gli array non vengono reinizializzati ad ogni interrogazione: ogni
+ * interrogazione ha un numero di <i>epoca</i> e ogni nodo ha il timbro
+ * dell'ultima epoca in cui è stato raggiunto. Un nodo con un timbro diverso
+ * dall'epoca corrente è considerato non raggiunto, per cui l'inizio di una
+ * nuova interrogazione costa O(1) invece di O(n) e, una volta che gli array
+ * hanno raggiunto la dimensione del grafo, le interrogazioni non creano nuovi
+ * oggetti.
+ *
+ * L'area di lavoro contiene anche uno heap binario indicizzato di indici di
+ * nodi, ordinato per distanza, usato come coda con priorità. Un'area di lavoro
+ * non è thread-safe: ogni thread deve usarne una propria.
+ *
+ * @author collettiva
+ */
+public class ShortestPathWorkspace {
+
+    // distanza provvisoria o definitiva di ogni nodo raggiunto
+    private double[] distances;
+
+    // indice del predecessore di ogni nodo raggiunto, -1 per la sorgente
+    private int[] previousNodes;
+
+    /*
+     * indice dell'arco con cui si raggiunge ogni nodo, -1 se non disponibile
+     * (la rappresentazione del grafo non indicizza gli archi) o per la
+     * sorgente
+     */
+    private int[] previousEdges;
+
+    // epoca in cui ogni nodo è stato raggiunto l'ultima volta
+    private int[] stamps;
+
+    /*
+     * posizione di ogni nodo raggiunto nello heap, -1 se il nodo è già stato
+     * estratto e la sua distanza è quindi definitiva
+     */
+    private int[] positions;
+
+    // heap binario di indici di nodi ordinato per distanza
+    private int[] heap;
+
+    private int heapSize;
+
+    // epoca corrente, i timbri diversi da questo valore non sono validi
+    private int epoch;
+
+    // sorgente dell'interrogazione corrente, -1 se non ne è iniziata nessuna
+    private int source;
+
+    // numero di nodi estratti dallo heap nell'interrogazione corrente
+    private int settledNodeCount;
+
+    /**
+     * Crea un'area di lavoro per grafi con al più un certo numero di nodi. La
+     * capacità viene comunque aumentata automaticamente se necessario.
+     *
+     * @param capacity
+     *                     il numero di nodi previsto
+     * @throws IllegalArgumentException
+     *                                      se la capacità è negativa
+     */
+    public ShortestPathWorkspace(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException(
+                    "La capacità non può essere negativa");
+        this.distances = new double[capacity];
+        this.previousNodes = new int[capacity];
+        this.previousEdges = new int[capacity];
+        this.stamps = new int[capacity];
+        this.positions = new int[capacity];
+        this.heap = new int[capacity];
+        this.heapSize = 0;
+        this.epoch = 0;
+        this.source = -1;
+        this.settledNodeCount = 0;
+    }
+
+    /**
+     * Crea un'area di lavoro della dimensione di un certo grafo.
+     *
+     * @param graph
+     *                  il grafo su cui verranno eseguite le interrogazioni
+     * @throws NullPointerException
+     *                                  se il grafo passato è nullo
+     */
+    public ShortestPathWorkspace(Graph<?> graph) {
+        this(graph.nodeCount());
+    }
+
+    /**
+     * Restituisce il numero di nodi che questa area di lavoro può gestire
+     * senza ingrandire i suoi array.
+     *
+     * @return la capacità di questa area di lavoro
+     */
+    public int getCapacity() {
+        return this.stamps.length;
+    }
+
+    /**
+     * Restituisce l'indice della sorgente dell'ultima interrogazione.
+     *
+     * @return l'indice della sorgente dell'ultima interrogazione
+     * @throws IllegalStateException
+     *                                   se nessuna interrogazione è stata
+     *                                   eseguita con questa area di lavoro
+     */
+    public int getSource() {
+        if (this.source < 0)
+            throw new IllegalStateException(
+                    "Nessuna interrogazione eseguita con questa area di lavoro");
+        return this.source;
+    }
+
+    /**
+     * Restituisce il numero di nodi la cui distanza è stata resa definitiva
+     * nell'ultima interrogazione.
+     *
+     * @return il numero di nodi resi definitivi nell'ultima interrogazione
+     */
+    public int getSettledNodeCount() {
+        return this.settledNodeCount;
+    }
+
+    /**
+     * Determina se un nodo è stato raggiunto nell'ultima interrogazione.
+     *
+     * @param node
+     *                 l'indice del nodo
+     * @return true se il nodo è stato raggiunto dalla sorgente
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice è negativo
+     */
+    public boolean isReached(int node) {
+        return node < this.stamps.length && this.stamps[node] == this.epoch
+                && this.source >= 0;
+    }
+
+    /**
+     * Determina se la distanza di un nodo è definitiva nell'ultima
+     * interrogazione.
+     *
+     * @param node
+     *                 l'indice del nodo
+     * @return true se il nodo è stato raggiunto e la sua distanza è
+     *         definitiva
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice è negativo
+     */
+    public boolean isSettled(int node) {
+        return this.isReached(node) && this.positions[node] < 0;
+    }
+
+    /**
+     * Restituisce la distanza dalla sorgente di un nodo nell'ultima
+     * interrogazione.
+     *
+     * @param node
+     *                 l'indice del nodo
+     * @return la distanza del nodo dalla sorgente, infinito se non è stato
+     *         raggiunto
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice è negativo
+     */
+    public double getDistance(int node) {
+        return this.isReached(node) ? this.distances[node]
+                : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Restituisce l'indice del predecessore di un nodo nel cammino minimo
+     * dalla sorgente dell'ultima interrogazione.
+     *
+     * @param node
+     *                 l'indice del nodo
+     * @return l'indice del predecessore, -1 se il nodo è la sorgente o non è
+     *         stato raggiunto
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice è negativo
+     */
+    public int getPreviousNode(int node) {
+        return this.isReached(node) ? this.previousNodes[node] : -1;
+    }
+
+    /**
+     * Restituisce l'indice dell'arco con cui un nodo viene raggiunto nel
+     * cammino minimo dalla sorgente dell'ultima interrogazione. L'indice è
+     * disponibile solo per i grafi che indicizzano gli archi, come
+     * {@code CsrDirectedGraph<L>}.
+     *
+     * @param node
+     *                 l'indice del nodo
+     * @return l'indice dell'arco, -1 se il nodo è la sorgente, non è stato
+     *         raggiunto o il grafo non indicizza gli archi
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice è negativo
+     */
+    public int getPreviousEdge(int node) {
+        return this.isReached(node) ? this.previousEdges[node] : -1;
+    }
+
+    /*
+     * Inizia una nuova interrogazione da una sorgente su un grafo con un certo
+     * numero di nodi: passa alla nuova epoca e inserisce la sorgente nello
+     * heap con distanza 0.
+     */
+    void start(int source, int nodeCount) {
+        if (nodeCount > this.stamps.length)
+            this.grow(nodeCount);
+        if (this.epoch == Integer.MAX_VALUE) {
+            // I timbri ripartono da capo, quelli vecchi vanno cancellati
+            Arrays.fill(this.stamps, 0);
+            this.epoch = 0;
+        }
+        this.epoch++;
+        this.heapSize = 0;
+        this.settledNodeCount = 0;
+        this.source = source;
+        this.reach(source, -1, -1, 0);
+    }
+
+    /*
+     * Rilassa un arco verso il nodo v: se v non è stato ancora raggiunto o
+     * la nuova distanza è minore di quella attuale aggiorna distanza e
+     * predecessori. Restituisce true se la distanza di v è cambiata.
+     */
+    boolean relax(int u, int v, int edge, double newDistance) {
+        if (this.stamps[v] != this.epoch) {
+            this.reach(v, u, edge, newDistance);
+            return true;
+        }
+        int position = this.positions[v];
+        if (position < 0 || newDistance >= this.distances[v])
+            return false;
+        this.distances[v] = newDistance;
+        this.previousNodes[v] = u;
+        this.previousEdges[v] = edge;
+        this.siftUp(position);
+        return true;
+    }
+
+    boolean isHeapEmpty() {
+        return this.heapSize == 0;
+    }
+
+    /*
+     * Restituisce la distanza del prossimo nodo che verrebbe estratto dallo
+     * heap, infinito se lo heap è vuoto.
+     */
+    double minimumDistance() {
+        return this.heapSize == 0 ? Double.POSITIVE_INFINITY
+                : this.distances[this.heap[0]];
+    }
+
+    /*
+     * Estrae dallo heap il nodo con distanza minima, che diventa definitiva.
+     */
+    int extractMinimum() {
+        if (this.heapSize == 0)
+            throw new NoSuchElementException("Heap vuoto");
+        int minimum = this.heap[0];
+        this.heapSize--;
+        if (this.heapSize > 0) {
+            this.heap[0] = this.heap[this.heapSize];
+            this.positions[this.heap[0]] = 0;
+            this.siftDown(0);
+        }
+        this.positions[minimum] = -1;
+        this.settledNodeCount++;
+        return minimum;
+    }
+
+    private void reach(int v, int u, int edge, double distance) {
+        this.stamps[v] = this.epoch;
+        this.distances[v] = distance;
+        this.previousNodes[v] = u;
+        this.previousEdges[v] = edge;
+        this.heap[this.heapSize] = v;
+        this.positions[v] = this.heapSize;
+        this.heapSize++;
+        this.siftUp(this.heapSize - 1);
+    }
+
+    private void grow(int capacity) {
+        this.distances = Arrays.copyOf(this.distances, capacity);
+        this.previousNodes = Arrays.copyOf(this.previousNodes, capacity);
+        this.previousEdges = Arrays.copyOf(this.previousEdges, capacity);
+        // I nuovi timbri valgono 0, che non è mai un'epoca valida
+        this.stamps = Arrays.copyOf(this.stamps, capacity);
+        this.positions = Arrays.copyOf(this.positions, capacity);
+        this.heap = Arrays.copyOf(this.heap, capacity);
+    }
+
+    private void siftUp(int i) {
+        int node = this.heap[i];
+        double distance = this.distances[node];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            int p = this.heap[parent];
+            if (this.distances[p] <= distance)
+                break;
+            this.heap[i] = p;
+            this.positions[p] = i;
+            i = parent;
+        }
+        this.heap[i] = node;
+        this.positions[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = this.heap[i];
+        double distance = this.distances[node];
+        int half = this.heapSize / 2;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < this.heapSize && this.distances[this.heap[right]]
+                    < this.distances[this.heap[child]])
+                child = right;
+            int c = this.heap[child];
+            if (distance <= this.distances[c])
+                break;
+            this.heap[i] = c;
+            this.positions[c] = i;
+            i = child;
+        }
+        this.heap[i] = node;
+        this.positions[node] = i;
+    }
+
+}
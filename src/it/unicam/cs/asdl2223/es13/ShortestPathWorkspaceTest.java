@@ -0,0 +1,151 @@
+package it.unicam.cs.asdl2223.es13;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class ShortestPathWorkspaceTest {
+
+    @Test
+    final void testShortestPathWorkspace() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShortestPathWorkspace(-1));
+        ShortestPathWorkspace w = new ShortestPathWorkspace(3);
+        assertEquals(3, w.getCapacity());
+        assertThrows(IllegalStateException.class, () -> w.getSource());
+        // Prima di ogni interrogazione nessun nodo è raggiunto
+        assertFalse(w.isReached(0));
+        assertEquals(Double.POSITIVE_INFINITY, w.getDistance(0));
+        assertEquals(-1, w.getPreviousNode(0));
+        assertEquals(0, w.getSettledNodeCount());
+    }
+
+    @Test
+    final void testComputeWithWorkspace() {
+        for (boolean csr : new boolean[] { false, true }) {
+            Graph<String> g = ShortestPathTestGraphs.createGraph();
+            if (csr)
+                g = new CsrDirectedGraph<String>(g);
+            DijkstraShortestPathComputer<String> c = new DijkstraShortestPathComputer<String>(
+                    g);
+            // La capacità cresce automaticamente
+            ShortestPathWorkspace w = new ShortestPathWorkspace(1);
+            GraphNode<String> ns = new GraphNode<String>("s");
+            c.computeShortestPathsFrom(ns, w);
+            assertTrue(w.getCapacity() >= g.nodeCount());
+            assertEquals(g.getNodeIndexOf("s"), w.getSource());
+            assertEquals(0.0, w.getDistance(g.getNodeIndexOf("s")));
+            assertEquals(8.0, w.getDistance(g.getNodeIndexOf("t")));
+            assertEquals(5.0, w.getDistance(g.getNodeIndexOf("y")));
+            assertEquals(9.0, w.getDistance(g.getNodeIndexOf("x")));
+            assertEquals(7.0, w.getDistance(g.getNodeIndexOf("z")));
+            assertFalse(w.isReached(g.getNodeIndexOf("w")));
+            assertTrue(w.isSettled(g.getNodeIndexOf("x")));
+            assertEquals(5, w.getSettledNodeCount());
+            assertEquals(g.getNodeIndexOf("t"),
+                    w.getPreviousNode(g.getNodeIndexOf("x")));
+            // I nodi del grafo e lo stato del calcolatore non cambiano
+            assertFalse(c.isComputed());
+            assertNull(g.getNodeOf("x").getPrevious());
+            GraphNode<String> nt = new GraphNode<String>("t");
+            GraphNode<String> ny = new GraphNode<String>("y");
+            GraphNode<String> nx = new GraphNode<String>("x");
+            List<GraphEdge<String>> pathTest = new ArrayList<GraphEdge<String>>();
+            assertEquals(pathTest, c.getShortestPathTo(ns, w));
+            pathTest.add(new GraphEdge<String>(ns, ny, true, 5));
+            pathTest.add(new GraphEdge<String>(ny, nt, true, 3));
+            pathTest.add(new GraphEdge<String>(nt, nx, true, 1));
+            assertEquals(pathTest, c.getShortestPathTo(nx, w));
+            assertNull(c.getShortestPathTo(new GraphNode<String>("w"), w));
+            // Una nuova interrogazione non vede i valori della precedente
+            c.computeShortestPathsFrom(new GraphNode<String>("x"), w);
+            assertEquals(g.getNodeIndexOf("x"), w.getSource());
+            assertEquals(0.0, w.getDistance(g.getNodeIndexOf("x")));
+            assertEquals(4.0, w.getDistance(g.getNodeIndexOf("z")));
+            assertEquals(11.0, w.getDistance(g.getNodeIndexOf("s")));
+            assertFalse(w.isReached(g.getNodeIndexOf("w")));
+            c.computeShortestPathsFrom(new GraphNode<String>("w"), w);
+            assertEquals(6, w.getSettledNodeCount());
+        }
+    }
+
+    @Test
+    final void testComputeWithWorkspaceExceptions() {
+        DijkstraShortestPathComputer<String> c = new DijkstraShortestPathComputer<String>(
+                ShortestPathTestGraphs.createGraph());
+        ShortestPathWorkspace w = new ShortestPathWorkspace(6);
+        GraphNode<String> ns = new GraphNode<String>("s");
+        assertThrows(NullPointerException.class,
+                () -> c.computeShortestPathsFrom(null, w));
+        assertThrows(NullPointerException.class,
+                () -> c.computeShortestPathsFrom(ns, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> c.computeShortestPathsFrom(new GraphNode<String>("a"), w));
+        assertThrows(IllegalStateException.class,
+                () -> c.getShortestPathTo(ns, w));
+        c.computeShortestPathsFrom(ns, w);
+        assertThrows(NullPointerException.class,
+                () -> c.getShortestPathTo(null, w));
+        assertThrows(IllegalArgumentException.class,
+                () -> c.getShortestPathTo(new GraphNode<String>("a"), w));
+    }
+
+    /*
+     * Più thread interrogano contemporaneamente lo stesso grafo, ognuno con la
+     * propria area di lavoro, e ottengono le stesse distanze del calcolo
+     * sequenziale.
+     */
+    @Test
+    final void testConcurrentQueries() throws Exception {
+        Random random = new Random(7);
+        Graph<Integer> g = new MapAdjacentListDirectedGraph<Integer>();
+        int n = 500;
+        for (int i = 0; i < n; i++)
+            g.addNode(new GraphNode<Integer>(i));
+        for (int k = 0; k < 4 * n; k++)
+            g.addEdge(new GraphEdge<Integer>(g.getNodeOf(random.nextInt(n)),
+                    g.getNodeOf(random.nextInt(n)), true,
+                    random.nextInt(100) / 10.0));
+        CsrDirectedGraph<Integer> csr = new CsrDirectedGraph<Integer>(g);
+        int sources = 16;
+        double[][] expected = new double[sources][n];
+        DijkstraShortestPathComputer<Integer> sequential = new DijkstraShortestPathComputer<Integer>(
+                csr);
+        for (int s = 0; s < sources; s++) {
+            sequential.computeShortestPathsFrom(csr.getNodeAtIndex(s));
+            for (int i = 0; i < n; i++)
+                expected[s][i] = csr.getNodeAtIndex(i)
+                        .getFloatingPointDistance();
+        }
+        DijkstraShortestPathComputer<Integer> c = new DijkstraShortestPathComputer<Integer>(
+                csr);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 4; t++)
+                results.add(executor.submit(() -> {
+                    ShortestPathWorkspace w = new ShortestPathWorkspace(csr);
+                    boolean ok = true;
+                    for (int round = 0; round < 5; round++)
+                        for (int s = 0; s < sources; s++) {
+                            c.computeShortestPathsFrom(csr.getNodeAtIndex(s), w);
+                            for (int i = 0; i < n; i++)
+                                ok &= expected[s][i] == w.getDistance(i);
+                        }
+                    return ok;
+                }));
+            for (Future<Boolean> result : results)
+                assertTrue(result.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
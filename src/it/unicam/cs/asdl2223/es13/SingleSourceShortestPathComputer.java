@@ -1,6 +1,9 @@
 package it.unicam.cs.asdl2223.es13;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Questa interface definisce oggetti che sono calcolatori di cammini minimi con
@@ -94,6 +97,42 @@ public interface SingleSourceShortestPathComputer<L> {
      */
     public List<GraphEdge<L>> getShortestPathTo(GraphNode<L> targetNode);
 
+    /**
+     * Restituisce i cammini minimi dal nodo sorgente dell'ultimo calcolo a
+     * tutti i nodi di una collezione, sfruttando un solo calcolo dei cammini
+     * minimi. Ogni cammino è quello che restituirebbe
+     * {@code getShortestPathTo(GraphNode<L>)} sullo stesso nodo.
+     * 
+     * @param targetNodes
+     *                        i nodi verso cui restituire i cammini minimi
+     * @return una mappa che associa ad ogni nodo della collezione il relativo
+     *         cammino minimo (lista vuota per la sorgente, {@code null} per i
+     *         nodi non raggiungibili), con le chiavi nell'ordine di iterazione
+     *         della collezione
+     * 
+     * @throws NullPointerException
+     *                                      se la collezione passata è nulla o
+     *                                      contiene un nodo nullo
+     * 
+     * @throws IllegalArgumentException
+     *                                      se uno dei nodi passati non esiste
+     * 
+     * @throws IllegalStateException
+     *                                      se non è stato eseguito nemmeno una
+     *                                      volta il calcolo dei cammini minimi
+     *                                      a partire da un nodo sorgente
+     */
+    default public Map<GraphNode<L>, List<GraphEdge<L>>> getShortestPathsTo(
+            Collection<GraphNode<L>> targetNodes) {
+        if (targetNodes == null)
+            throw new NullPointerException(
+                    "Richiesta di cammini minimi verso una collezione nulla");
+        Map<GraphNode<L>, List<GraphEdge<L>>> result = new LinkedHashMap<GraphNode<L>, List<GraphEdge<L>>>();
+        for (GraphNode<L> target : targetNodes)
+            result.put(target, this.getShortestPathTo(target));
+        return result;
+    }
+
     /**
      * Genera una stringa di descrizione di un path riportando i nodi
      * attraversati e i pesi degli archi. Nel caso di cammino vuoto genera solo
@@ -0,0 +1,501 @@
+package it.unicam.cs.asdl2223.mp2;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of the Java SE Double-ended Queue (Deque) interface
+ * (<code>java.util.Deque</code>) based on a circular array (ring buffer). This
+ * deque does not have capacity restrictions: when the array is full it is
+ * replaced by one of double length, so every insertion costs amortised
+ * constant time. Duplicated elements are permitted while <code>null</code>
+ * elements are not permitted. Being <code>Deque</code> a sub-interface of
+ * <code>Queue</code>, this class can be used also as an implementation of a
+ * <code>Queue</code> and of a <code>Stack</code>.
+ *
+ * Unlike <code>ASDL2223Deque</code>, no node object is created for an
+ * element: the elements are stored directly in the array, whose length is
+ * always a power of two so that positions wrap around with a bit mask. All
+ * the operations of the interface are supported. The iterators are fail-fast
+ * as the ones of <code>ASDL2223Deque</code> and do not support
+ * <code>remove()</code>.
+ *
+ * @author collettiva
+ *
+ */
+public class ArrayCircularDeque<E> implements Deque<E> {
+
+    /*
+     * Default length of the array, a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Maximum length of the array, the greatest power of two that an array
+     * can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /*
+     * The elements of this deque, from position head onwards, wrapping around
+     * at the end of the array. The free positions contain null.
+     */
+    private Object[] elements;
+
+    /*
+     * Position of the first element
+     */
+    private int head;
+
+    /*
+     * Current number of elements in this deque
+     */
+    private int size;
+
+    /*
+     * Number of changes made
+     * Useful for Iterator to check concurrent modifications
+     */
+    private int changesCounter;
+
+    /**
+     * Constructs an empty deque.
+     */
+    public ArrayCircularDeque() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty deque able to hold a given number of elements
+     * before growing.
+     *
+     * @param initialCapacity
+     *                            the number of elements that can be inserted
+     *                            before growing
+     * @throws IllegalArgumentException
+     *                                      if the initial capacity is
+     *                                      negative
+     */
+    public ArrayCircularDeque(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException(
+                    "Negative initial capacity: " + initialCapacity);
+        int capacity = 1;
+        while (capacity < initialCapacity && capacity < MAX_CAPACITY)
+            capacity <<= 1;
+        this.elements = new Object[capacity];
+        this.head = 0;
+        this.size = 0;
+        this.changesCounter = 0;
+    }
+
+    /*
+     * Position in the array of the i-th element of this deque
+     */
+    private int position(int i) {
+        return (this.head + i) & (this.elements.length - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int i) {
+        return (E) this.elements[this.position(i)];
+    }
+
+    /*
+     * Doubles the array if it is full, copying the elements at the start of
+     * the new array.
+     */
+    private void ensureCapacity() {
+        if (this.size < this.elements.length)
+            return;
+        if (this.elements.length == MAX_CAPACITY)
+            throw new IllegalStateException("Deque full");
+        Object[] newElements = new Object[this.elements.length << 1];
+        int firstPart = this.elements.length - this.head;
+        System.arraycopy(this.elements, this.head, newElements, 0, firstPart);
+        System.arraycopy(this.elements, 0, newElements, firstPart, this.head);
+        this.elements = newElements;
+        this.head = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return this.copyTo(new Object[this.size]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T[] toArray(T[] a) {
+        if (a == null)
+            throw new NullPointerException("Array nullo");
+        // As specified by Collection, a new array of the same type is created
+        // if the given one is too small, otherwise the element after the last
+        // is set to null
+        if (a.length < this.size)
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(),
+                    this.size);
+        else if (a.length > this.size)
+            a[this.size] = null;
+        return this.copyTo(a);
+    }
+
+    /*
+     * Copies the elements, in order, at the start of the given array, which
+     * must be long enough.
+     */
+    private <T> T[] copyTo(T[] a) {
+        int firstPart = Math.min(this.size, this.elements.length - this.head);
+        System.arraycopy(this.elements, this.head, a, 0, firstPart);
+        System.arraycopy(this.elements, 0, a, firstPart, this.size - firstPart);
+        return a;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!this.contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione nulla");
+        // Copy the elements first: nothing is added if one of them is null,
+        // and the deque can be added to itself. contains(null) is not used
+        // because many collections reject null queries
+        Object[] items = c.toArray();
+        for (Object item : items)
+            if (item == null)
+                throw new NullPointerException("Elemento nullo nella collezione");
+        boolean changed = false;
+        for (Object item : items)
+            changed = changed | this.add((E) item);
+        return changed;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione nulla");
+        return this.removeMatching(c, true);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione nulla");
+        return this.removeMatching(c, false);
+    }
+
+    /*
+     * Removes the elements that are contained (if contained is true) or not
+     * contained (otherwise) in the given collection, compacting the remaining
+     * ones in a single pass.
+     */
+    private boolean removeMatching(Collection<?> c, boolean contained) {
+        int kept = 0;
+        for (int i = 0; i < this.size; i++) {
+            E item = this.elementAt(i);
+            if (c.contains(item) != contained)
+                this.elements[this.position(kept++)] = item;
+        }
+        if (kept == this.size)
+            return false;
+        for (int i = kept; i < this.size; i++)
+            this.elements[this.position(i)] = null;
+        this.size = kept;
+        this.changesCounter++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.size; i++)
+            this.elements[this.position(i)] = null;
+        this.head = 0;
+        this.size = 0;
+        this.changesCounter++;
+    }
+
+    @Override
+    public void addFirst(E e) {
+        // Check if the given element is null
+        if (e == null)
+            throw new NullPointerException("L'elemento è nullo");
+        this.ensureCapacity();
+        this.head = (this.head - 1) & (this.elements.length - 1);
+        this.elements[this.head] = e;
+        this.size++;
+        this.changesCounter++;
+    }
+
+    @Override
+    public void addLast(E e) {
+        // Check if the given element is null
+        if (e == null)
+            throw new NullPointerException("L'elemento è nullo");
+        this.ensureCapacity();
+        this.elements[this.position(this.size)] = e;
+        this.size++;
+        this.changesCounter++;
+    }
+
+    @Override
+    public boolean offerFirst(E e) {
+        // The deque has no capacity restrictions
+        this.addFirst(e);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+        // The deque has no capacity restrictions
+        this.addLast(e);
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        if (this.isEmpty())
+            throw new NoSuchElementException("Empty deque");
+        return this.pollFirst();
+    }
+
+    @Override
+    public E removeLast() {
+        if (this.isEmpty())
+            throw new NoSuchElementException("Empty deque");
+        return this.pollLast();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E pollFirst() {
+        if (this.isEmpty())
+            return null;
+        E item = (E) this.elements[this.head];
+        // Free the position so that the element can be garbage collected
+        this.elements[this.head] = null;
+        this.head = (this.head + 1) & (this.elements.length - 1);
+        this.size--;
+        this.changesCounter++;
+        return item;
+    }
+
+    @Override
+    public E pollLast() {
+        if (this.isEmpty())
+            return null;
+        int last = this.position(this.size - 1);
+        @SuppressWarnings("unchecked")
+        E item = (E) this.elements[last];
+        this.elements[last] = null;
+        this.size--;
+        this.changesCounter++;
+        return item;
+    }
+
+    @Override
+    public E getFirst() {
+        if (this.isEmpty())
+            throw new NoSuchElementException("Empty deque");
+        return this.elementAt(0);
+    }
+
+    @Override
+    public E getLast() {
+        if (this.isEmpty())
+            throw new NoSuchElementException("Empty deque");
+        return this.elementAt(this.size - 1);
+    }
+
+    @Override
+    public E peekFirst() {
+        if (this.isEmpty())
+            return null;
+        return this.elementAt(0);
+    }
+
+    @Override
+    public E peekLast() {
+        if (this.isEmpty())
+            return null;
+        return this.elementAt(this.size - 1);
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento nullo");
+        for (int i = 0; i < this.size; i++)
+            if (o.equals(this.elementAt(i))) {
+                this.removeAt(i);
+                return true;
+            }
+        return false;
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento nullo");
+        for (int i = this.size - 1; i >= 0; i--)
+            if (o.equals(this.elementAt(i))) {
+                this.removeAt(i);
+                return true;
+            }
+        return false;
+    }
+
+    /*
+     * Removes the i-th element, shifting by one position the elements on the
+     * shorter side of it.
+     */
+    private void removeAt(int i) {
+        if (i < this.size / 2) {
+            // Shift the elements before it towards the end
+            for (int j = i; j > 0; j--)
+                this.elements[this.position(j)] = this.elements[this
+                        .position(j - 1)];
+            this.elements[this.head] = null;
+            this.head = (this.head + 1) & (this.elements.length - 1);
+        } else {
+            // Shift the elements after it towards the start
+            for (int j = i; j < this.size - 1; j++)
+                this.elements[this.position(j)] = this.elements[this
+                        .position(j + 1)];
+            this.elements[this.position(this.size - 1)] = null;
+        }
+        this.size--;
+        this.changesCounter++;
+    }
+
+    @Override
+    public boolean add(E e) {
+        this.addLast(e);
+        return true;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        this.addLast(e);
+        return true;
+    }
+
+    @Override
+    public E remove() {
+        return this.removeFirst();
+    }
+
+    @Override
+    public E poll() {
+        return this.pollFirst();
+    }
+
+    @Override
+    public E element() {
+        return this.getFirst();
+    }
+
+    @Override
+    public E peek() {
+        return this.peekFirst();
+    }
+
+    @Override
+    public void push(E e) {
+        this.addFirst(e);
+    }
+
+    @Override
+    public E pop() {
+        return this.removeFirst();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return this.removeFirstOccurrence(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        // Check if the given object is null
+        if (o == null)
+            throw new NullPointerException();
+        for (int i = 0; i < this.size; i++)
+            if (o.equals(this.elementAt(i)))
+                return true;
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(false);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new Itr(true);
+    }
+
+    /*
+     * Class for implementing an iterator, in either direction, for this
+     * deque. The iterator is fail-fast: it detects if during the iteration a
+     * modification to the original deque was done and, if so, it launches a
+     * <code>ConcurrentModificationException</code> as soon as a call to the
+     * method <code>next()</code> is done.
+     */
+    private class Itr implements Iterator<E> {
+        private final boolean descending;       // Iteration from the last
+        private int returned;                   // Number of elements returned
+        private int expectedChangesNumber;      // Expected number of changes to the deque
+
+        Itr(boolean descending) {
+            this.descending = descending;
+            this.returned = 0;
+            this.expectedChangesNumber = ArrayCircularDeque.this.changesCounter;
+        }
+
+        public boolean hasNext() {
+            return this.returned < ArrayCircularDeque.this.size;
+        }
+
+        public E next() {
+            // Check for concurrent modifications
+            if (this.expectedChangesNumber != ArrayCircularDeque.this.changesCounter)
+                throw new ConcurrentModificationException("Deque modificata durante l'iterazione");
+            if (!this.hasNext())
+                throw new NoSuchElementException("Non c'è un elemento successivo");
+            int i = this.descending
+                    ? ArrayCircularDeque.this.size - 1 - this.returned
+                    : this.returned;
+            this.returned++;
+            return ArrayCircularDeque.this.elementAt(i);
+        }
+    }
+
+    /*
+     * This method is only for JUnit testing purposes.
+     */
+    protected int getCapacity() {
+        return this.elements.length;
+    }
+
+}
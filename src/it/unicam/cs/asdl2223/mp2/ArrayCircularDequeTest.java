@@ -0,0 +1,232 @@
+package it.unicam.cs.asdl2223.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ArrayCircularDequeTest {
+
+    @Test
+    final void testArrayCircularDeque() {
+        ArrayCircularDeque<String> dq = new ArrayCircularDeque<String>();
+        assertTrue(dq.isEmpty());
+        assertEquals(0, dq.size());
+        assertEquals(16, dq.getCapacity());
+        assertEquals(32, new ArrayCircularDeque<String>(17).getCapacity());
+        assertEquals(1, new ArrayCircularDeque<String>(0).getCapacity());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ArrayCircularDeque<String>(-1));
+    }
+
+    @Test
+    final void testNulls() {
+        ArrayCircularDeque<String> dq = new ArrayCircularDeque<String>();
+        assertThrows(NullPointerException.class, () -> dq.addFirst(null));
+        assertThrows(NullPointerException.class, () -> dq.addLast(null));
+        assertThrows(NullPointerException.class, () -> dq.push(null));
+        assertThrows(NullPointerException.class, () -> dq.offer(null));
+        assertThrows(NullPointerException.class, () -> dq.contains(null));
+        assertThrows(NullPointerException.class, () -> dq.remove(null));
+        assertThrows(NullPointerException.class,
+                () -> dq.addAll(Arrays.asList("Pippo", null)));
+    }
+
+    @Test
+    final void testAddAllNullHostileCollections() {
+        // Collections that throw on contains(null) are added normally
+        ArrayCircularDeque<String> dq = new ArrayCircularDeque<String>();
+        assertTrue(dq.addAll(List.of("a")));
+        ArrayCircularDeque<String> other = new ArrayCircularDeque<String>();
+        other.addLast("b");
+        assertTrue(dq.addAll(other));
+        assertTrue(dq.addAll(dq));
+        assertArrayEquals(new Object[] { "a", "b", "a", "b" }, dq.toArray());
+        assertFalse(dq.addAll(List.of()));
+        assertThrows(NullPointerException.class, () -> dq.addAll(null));
+        // Nothing is added if an element is null
+        assertThrows(NullPointerException.class,
+                () -> dq.addAll(Arrays.asList("c", null)));
+        assertEquals(4, dq.size());
+    }
+
+    @Test
+    final void testEmpty() {
+        ArrayCircularDeque<String> dq = new ArrayCircularDeque<String>();
+        assertThrows(NoSuchElementException.class, () -> dq.removeFirst());
+        assertThrows(NoSuchElementException.class, () -> dq.removeLast());
+        assertThrows(NoSuchElementException.class, () -> dq.getFirst());
+        assertThrows(NoSuchElementException.class, () -> dq.getLast());
+        assertThrows(NoSuchElementException.class, () -> dq.pop());
+        assertThrows(NoSuchElementException.class, () -> dq.element());
+        assertNull(dq.pollFirst());
+        assertNull(dq.pollLast());
+        assertNull(dq.peekFirst());
+        assertNull(dq.peekLast());
+        assertNull(dq.poll());
+        assertNull(dq.peek());
+    }
+
+    @Test
+    final void testBothEnds() {
+        ArrayCircularDeque<String> dq = new ArrayCircularDeque<String>();
+        dq.addFirst("Pippo");
+        dq.addFirst("Pluto");
+        dq.addLast("Paperino");
+        assertEquals("Pluto", dq.getFirst());
+        assertEquals("Paperino", dq.getLast());
+        assertArrayEquals(new Object[] { "Pluto", "Pippo", "Paperino" },
+                dq.toArray());
+        assertEquals("Pluto", dq.pop());
+        assertEquals("Paperino", dq.removeLast());
+        assertEquals("Pippo", dq.poll());
+        assertTrue(dq.isEmpty());
+    }
+
+    @Test
+    final void testWrapAroundAndGrowth() {
+        ArrayCircularDeque<Integer> dq = new ArrayCircularDeque<Integer>(4);
+        // The elements wrap around the end of the array before growing
+        dq.addLast(2);
+        dq.addLast(3);
+        dq.addFirst(1);
+        dq.addFirst(0);
+        assertEquals(4, dq.getCapacity());
+        dq.addLast(4);
+        assertEquals(8, dq.getCapacity());
+        for (int i = 5; i < 100; i++)
+            dq.addLast(i);
+        assertEquals(128, dq.getCapacity());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i, (int) dq.removeFirst());
+    }
+
+    @Test
+    final void testToArrayTyped() {
+        ArrayCircularDeque<String> dq = new ArrayCircularDeque<String>(2);
+        dq.addLast("b");
+        dq.addFirst("a");
+        String[] small = dq.toArray(new String[0]);
+        assertArrayEquals(new String[] { "a", "b" }, small);
+        String[] big = { "x", "x", "x", "x" };
+        assertSame(big, dq.toArray(big));
+        assertArrayEquals(new String[] { "a", "b", null, "x" }, big);
+        assertThrows(NullPointerException.class,
+                () -> dq.toArray((String[]) null));
+        assertThrows(ArrayStoreException.class,
+                () -> dq.toArray(new Integer[0]));
+    }
+
+    @Test
+    final void testRemoveOccurrences() {
+        ArrayCircularDeque<String> dq = new ArrayCircularDeque<String>(4);
+        dq.addAll(Arrays.asList("a", "b", "a", "c", "a"));
+        assertTrue(dq.removeFirstOccurrence("a"));
+        assertArrayEquals(new Object[] { "b", "a", "c", "a" }, dq.toArray());
+        assertTrue(dq.removeLastOccurrence("a"));
+        assertArrayEquals(new Object[] { "b", "a", "c" }, dq.toArray());
+        assertTrue(dq.remove("c"));
+        assertFalse(dq.remove("c"));
+        assertFalse(dq.removeLastOccurrence("z"));
+        assertArrayEquals(new Object[] { "b", "a" }, dq.toArray());
+    }
+
+    @Test
+    final void testBulkOperations() {
+        ArrayCircularDeque<Integer> dq = new ArrayCircularDeque<Integer>(4);
+        for (int i = 0; i < 10; i++)
+            dq.addFirst(i);
+        assertTrue(dq.containsAll(Arrays.asList(0, 5, 9)));
+        assertFalse(dq.containsAll(Arrays.asList(0, 10)));
+        assertTrue(dq.removeAll(Arrays.asList(1, 3, 5, 7, 9, 11)));
+        assertFalse(dq.removeAll(Arrays.asList(1, 3)));
+        assertArrayEquals(new Object[] { 8, 6, 4, 2, 0 }, dq.toArray());
+        assertTrue(dq.retainAll(Arrays.asList(0, 4, 8)));
+        assertFalse(dq.retainAll(Arrays.asList(0, 4, 8)));
+        assertArrayEquals(new Object[] { 8, 4, 0 }, dq.toArray());
+        dq.clear();
+        assertTrue(dq.isEmpty());
+        assertFalse(dq.contains(8));
+    }
+
+    @Test
+    final void testIterators() {
+        ArrayCircularDeque<Integer> dq = new ArrayCircularDeque<Integer>(4);
+        for (int i = 0; i < 3; i++) {
+            dq.addLast(i + 3);
+            dq.addFirst(2 - i);
+        }
+        int expected = 0;
+        for (Integer i : dq)
+            assertEquals(expected++, (int) i);
+        assertEquals(6, expected);
+        Iterator<Integer> it = dq.descendingIterator();
+        for (int i = 5; i >= 0; i--)
+            assertEquals(i, (int) it.next());
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, () -> it.next());
+    }
+
+    @Test
+    final void testIteratorFailFast() {
+        ArrayCircularDeque<String> dq = new ArrayCircularDeque<String>();
+        dq.add("Pippo");
+        dq.add("Pluto");
+        Iterator<String> it = dq.iterator();
+        it.next();
+        dq.addFirst("Paperino");
+        assertThrows(ConcurrentModificationException.class, () -> it.next());
+        Iterator<String> desc = dq.descendingIterator();
+        dq.removeFirstOccurrence("Pluto");
+        assertThrows(ConcurrentModificationException.class, () -> desc.next());
+        Iterator<String> other = dq.iterator();
+        dq.retainAll(Arrays.asList("Pippo", "Paperino"));
+        // Nothing has been removed, so the deque has not changed
+        assertEquals("Paperino", other.next());
+    }
+
+    @Test
+    final void testAgainstArrayDeque() {
+        ArrayCircularDeque<Integer> dq = new ArrayCircularDeque<Integer>(1);
+        ArrayDeque<Integer> expected = new ArrayDeque<Integer>();
+        Random random = new Random(11);
+        for (int k = 0; k < 20000; k++) {
+            Integer x = random.nextInt(50);
+            switch (random.nextInt(6)) {
+            case 0:
+                dq.addFirst(x);
+                expected.addFirst(x);
+                break;
+            case 1:
+                dq.addLast(x);
+                expected.addLast(x);
+                break;
+            case 2:
+                assertEquals(expected.pollFirst(), dq.pollFirst());
+                break;
+            case 3:
+                assertEquals(expected.pollLast(), dq.pollLast());
+                break;
+            case 4:
+                assertEquals(expected.removeFirstOccurrence(x),
+                        dq.removeFirstOccurrence(x));
+                break;
+            default:
+                assertEquals(expected.removeLastOccurrence(x),
+                        dq.removeLastOccurrence(x));
+            }
+            assertEquals(expected.size(), dq.size());
+            assertEquals(expected.peekFirst(), dq.peekFirst());
+            assertEquals(expected.peekLast(), dq.peekLast());
+        }
+        assertArrayEquals(expected.toArray(), dq.toArray());
+    }
+
+}
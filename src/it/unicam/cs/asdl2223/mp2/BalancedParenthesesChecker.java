@@ -4,8 +4,8 @@ import java.util.Collections;
 import java.util.Iterator;
 
 /**
- * An object of this class is an actor that uses an ASDL2223Deque<Character> as
- * a Stack in order to check that a sequence containing the following
+ * An object of this class is an actor that uses an ArrayCircularDeque<Character>
+ * as a Stack in order to check that a sequence containing the following
  * characters: '(', ')', '[', ']', '{', '}' in any order is a string of balanced
  * parentheses or not. The input is given as a String in which white spaces,
  * tabs and newlines are ignored.
@@ -24,13 +24,13 @@ import java.util.Iterator;
 public class BalancedParenthesesChecker {
 
     // The stack is to be used to check the balanced parentheses
-    private ASDL2223Deque<Character> stack;
+    private ArrayCircularDeque<Character> stack;
 
     /**
      * Create a new checker.
      */
     public BalancedParenthesesChecker() {
-        this.stack = new ASDL2223Deque<Character>();
+        this.stack = new ArrayCircularDeque<Character>();
     }
 
     /**
@@ -0,0 +1,262 @@
+package it.unicam.cs.asdl2223.mp2;
+
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Thread-safe, lock-free implementation of the Java SE Double-ended Queue
+ * (Deque) interface (<code>java.util.Deque</code>), meant to be shared by many
+ * producer and consumer threads. Like <code>ASDL2223Deque</code>, this deque
+ * does not have capacity restrictions, permits duplicated elements and does
+ * not permit <code>null</code> elements.
+ *
+ * The elements are kept in a
+ * <code>java.util.concurrent.ConcurrentLinkedDeque</code> (written by Doug Lea
+ * and Martin Buchholz for JSR-166), a doubly linked list of nodes whose links
+ * are changed only with compare-and-set operations. Threads working at
+ * different ends, such as producers calling <code>addLast</code> and
+ * consumers calling <code>pollFirst</code>, do not contend on the same memory
+ * locations. This class adds the conventions of the course deques: every
+ * operation that receives a <code>null</code> element or collection, including
+ * <code>contains</code> and <code>remove</code>, throws
+ * <code>NullPointerException</code>, and <code>addAll</code> inserts nothing
+ * if one of the elements is <code>null</code>.
+ *
+ * Insertions and removals at the ends cost constant time. The size is not
+ * stored: <code>size()</code> counts the elements and costs linear time; its
+ * result may be inaccurate if the deque is modified during the count. The
+ * bulk operations (<code>addAll</code>, <code>removeAll</code>,
+ * <code>retainAll</code>, <code>clear</code>) are not atomic. The iterators
+ * are weakly consistent: they never throw
+ * <code>ConcurrentModificationException</code>, return every element present
+ * for their whole lifetime at most once and may or may not reflect later
+ * modifications. Their <code>remove()</code> removes the last returned
+ * element from the deque.
+ *
+ * @author collettiva
+ *
+ */
+public class ConcurrentASDL2223Deque<E> implements Deque<E> {
+
+    /*
+     * The elements of the deque
+     */
+    private final ConcurrentLinkedDeque<E> elements;
+
+    /**
+     * Constructs an empty deque.
+     */
+    public ConcurrentASDL2223Deque() {
+        this.elements = new ConcurrentLinkedDeque<E>();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.elements.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return this.elements.size();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return this.elements.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        if (a == null)
+            throw new NullPointerException("Array nullo");
+        return this.elements.toArray(a);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!this.contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione nulla");
+        if (c == this)
+            throw new IllegalArgumentException("Aggiunta della deque a se stessa");
+        // ConcurrentLinkedDeque checks every element while it links them in
+        // a private chain, and appends the chain only if none is null
+        return this.elements.addAll(c);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione nulla");
+        return this.elements.removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione nulla");
+        return this.elements.retainAll(c);
+    }
+
+    @Override
+    public void clear() {
+        this.elements.clear();
+    }
+
+    @Override
+    public void addFirst(E e) {
+        // Check if the given element is null
+        if (e == null)
+            throw new NullPointerException("L'elemento è nullo");
+        this.elements.addFirst(e);
+    }
+
+    @Override
+    public void addLast(E e) {
+        // Check if the given element is null
+        if (e == null)
+            throw new NullPointerException("L'elemento è nullo");
+        this.elements.addLast(e);
+    }
+
+    @Override
+    public boolean offerFirst(E e) {
+        this.addFirst(e);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+        this.addLast(e);
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        return this.elements.removeFirst();
+    }
+
+    @Override
+    public E removeLast() {
+        return this.elements.removeLast();
+    }
+
+    @Override
+    public E pollFirst() {
+        return this.elements.pollFirst();
+    }
+
+    @Override
+    public E pollLast() {
+        return this.elements.pollLast();
+    }
+
+    @Override
+    public E getFirst() {
+        return this.elements.getFirst();
+    }
+
+    @Override
+    public E getLast() {
+        return this.elements.getLast();
+    }
+
+    @Override
+    public E peekFirst() {
+        return this.elements.peekFirst();
+    }
+
+    @Override
+    public E peekLast() {
+        return this.elements.peekLast();
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento nullo");
+        return this.elements.removeFirstOccurrence(o);
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento nullo");
+        return this.elements.removeLastOccurrence(o);
+    }
+
+    @Override
+    public boolean add(E e) {
+        this.addLast(e);
+        return true;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        this.addLast(e);
+        return true;
+    }
+
+    @Override
+    public E remove() {
+        return this.removeFirst();
+    }
+
+    @Override
+    public E poll() {
+        return this.pollFirst();
+    }
+
+    @Override
+    public E element() {
+        return this.getFirst();
+    }
+
+    @Override
+    public E peek() {
+        return this.peekFirst();
+    }
+
+    @Override
+    public void push(E e) {
+        this.addFirst(e);
+    }
+
+    @Override
+    public E pop() {
+        return this.removeFirst();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return this.removeFirstOccurrence(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        // Check if the given object is null
+        if (o == null)
+            throw new NullPointerException();
+        return this.elements.contains(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return this.elements.iterator();
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return this.elements.descendingIterator();
+    }
+
+}
@@ -0,0 +1,317 @@
+package it.unicam.cs.asdl2223.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class ConcurrentASDL2223DequeTest {
+
+    @Test
+    final void testConcurrentASDL2223Deque() {
+        ConcurrentASDL2223Deque<String> dq = new ConcurrentASDL2223Deque<String>();
+        assertTrue(dq.isEmpty());
+        assertEquals(0, dq.size());
+        assertNull(dq.peekFirst());
+        assertNull(dq.pollLast());
+        assertThrows(NoSuchElementException.class, () -> dq.removeFirst());
+        assertThrows(NoSuchElementException.class, () -> dq.getLast());
+    }
+
+    @Test
+    final void testNulls() {
+        ConcurrentASDL2223Deque<String> dq = new ConcurrentASDL2223Deque<String>();
+        assertThrows(NullPointerException.class, () -> dq.addFirst(null));
+        assertThrows(NullPointerException.class, () -> dq.addLast(null));
+        assertThrows(NullPointerException.class, () -> dq.push(null));
+        assertThrows(NullPointerException.class, () -> dq.offer(null));
+        assertThrows(NullPointerException.class, () -> dq.contains(null));
+        assertThrows(NullPointerException.class, () -> dq.remove(null));
+        assertThrows(NullPointerException.class,
+                () -> dq.addAll(Arrays.asList("Pippo", null)));
+        assertTrue(dq.isEmpty());
+    }
+
+    @Test
+    final void testEnds() {
+        ConcurrentASDL2223Deque<String> dq = new ConcurrentASDL2223Deque<String>();
+        dq.addFirst("b");
+        dq.addFirst("a");
+        dq.addLast("c");
+        assertEquals(3, dq.size());
+        assertEquals("a", dq.getFirst());
+        assertEquals("c", dq.getLast());
+        ConcurrentASDL2223Deque<String> back = new ConcurrentASDL2223Deque<String>();
+        back.addAll(Arrays.asList("x", "y", "z"));
+        assertEquals("x", back.getFirst());
+        assertEquals("x", back.pollFirst());
+        assertEquals("z", back.pollLast());
+        assertEquals("y", back.pollFirst());
+        assertNull(back.pollFirst());
+        assertEquals("a", dq.pop());
+        assertEquals("c", dq.removeLast());
+        assertEquals("b", dq.poll());
+        assertTrue(dq.isEmpty());
+    }
+
+    @Test
+    final void testOccurrencesAndBulk() {
+        ConcurrentASDL2223Deque<Integer> dq = new ConcurrentASDL2223Deque<Integer>();
+        dq.addAll(Arrays.asList(1, 2, 3, 2, 1));
+        assertTrue(dq.contains(3));
+        assertFalse(dq.contains(4));
+        assertTrue(dq.removeFirstOccurrence(2));
+        assertArrayEquals(new Object[] { 1, 3, 2, 1 }, dq.toArray());
+        assertTrue(dq.removeLastOccurrence(1));
+        assertArrayEquals(new Integer[] { 1, 3, 2 },
+                dq.toArray(new Integer[0]));
+        assertFalse(dq.remove(7));
+        assertTrue(dq.containsAll(Arrays.asList(3, 1)));
+        assertTrue(dq.retainAll(Arrays.asList(1, 2)));
+        assertArrayEquals(new Object[] { 1, 2 }, dq.toArray());
+        assertTrue(dq.removeAll(Arrays.asList(2)));
+        assertFalse(dq.removeAll(Arrays.asList(2)));
+        assertEquals(1, dq.size());
+        dq.clear();
+        assertTrue(dq.isEmpty());
+    }
+
+    @Test
+    final void testAddAllNullHostileCollections() {
+        // Collections that throw on contains(null) are added normally
+        ConcurrentASDL2223Deque<String> dq = new ConcurrentASDL2223Deque<String>();
+        ArrayCircularDeque<String> other = new ArrayCircularDeque<String>();
+        other.addLast("a");
+        other.addLast("b");
+        assertTrue(dq.addAll(other));
+        assertTrue(dq.addAll(List.of("c")));
+        assertArrayEquals(new Object[] { "a", "b", "c" }, dq.toArray());
+        assertFalse(dq.addAll(List.of()));
+        assertThrows(NullPointerException.class, () -> dq.addAll(null));
+        assertThrows(IllegalArgumentException.class, () -> dq.addAll(dq));
+        assertEquals(3, dq.size());
+    }
+
+    @Test
+    final void testIterators() {
+        ConcurrentASDL2223Deque<Integer> dq = new ConcurrentASDL2223Deque<Integer>();
+        for (int i = 0; i < 5; i++)
+            dq.addLast(i);
+        dq.addFirst(-1);
+        int expected = -1;
+        for (Integer item : dq)
+            assertEquals(expected++, (int) item);
+        assertEquals(5, expected);
+        // Modifications during the iteration are seen and do not break it
+        Iterator<Integer> it = dq.iterator();
+        assertEquals(-1, (int) it.next());
+        dq.removeFirstOccurrence(1);
+        dq.addLast(5);
+        expected = 0;
+        while (it.hasNext()) {
+            assertEquals(expected, (int) it.next());
+            expected += expected == 0 ? 2 : 1;
+        }
+        assertEquals(6, expected);
+        assertThrows(NoSuchElementException.class, () -> it.next());
+        dq.clear();
+        dq.addAll(Arrays.asList(1, 2, 3));
+        Iterator<Integer> desc = dq.descendingIterator();
+        assertEquals(3, (int) desc.next());
+        assertEquals(2, (int) desc.next());
+        assertEquals(1, (int) desc.next());
+        assertFalse(desc.hasNext());
+    }
+
+    @Test
+    final void testIteratorRemove() {
+        ConcurrentASDL2223Deque<Integer> dq = new ConcurrentASDL2223Deque<Integer>();
+        dq.addAll(Arrays.asList(1, 2, 3));
+        Iterator<Integer> it = dq.iterator();
+        assertThrows(IllegalStateException.class, () -> it.remove());
+        assertEquals(1, (int) it.next());
+        it.remove();
+        assertThrows(IllegalStateException.class, () -> it.remove());
+        assertEquals(2, dq.size());
+        assertEquals(2, (int) dq.peekFirst());
+        Iterator<Integer> desc = dq.descendingIterator();
+        assertEquals(3, (int) desc.next());
+        desc.remove();
+        assertArrayEquals(new Object[] { 2 }, dq.toArray());
+        dq.addLast(4);
+        assertTrue(dq.removeIf(x -> true));
+        assertTrue(dq.isEmpty());
+        assertEquals(0, dq.size());
+    }
+
+    @Test
+    final void testSameBehaviourAsArrayDeque() {
+        ConcurrentASDL2223Deque<Integer> dq = new ConcurrentASDL2223Deque<Integer>();
+        ArrayDeque<Integer> ref = new ArrayDeque<Integer>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            int v = random.nextInt(50);
+            switch (random.nextInt(7)) {
+            case 0:
+                dq.addFirst(v);
+                ref.addFirst(v);
+                break;
+            case 1:
+            case 2:
+                dq.addLast(v);
+                ref.addLast(v);
+                break;
+            case 3:
+                assertEquals(ref.pollFirst(), dq.pollFirst());
+                break;
+            case 4:
+                assertEquals(ref.pollLast(), dq.pollLast());
+                break;
+            case 5:
+                assertEquals(ref.peekFirst(), dq.peekFirst());
+                assertEquals(ref.peekLast(), dq.peekLast());
+                break;
+            default:
+                assertEquals(ref.removeFirstOccurrence(v),
+                        dq.removeFirstOccurrence(v));
+            }
+            assertEquals(ref.size(), dq.size());
+        }
+        assertArrayEquals(ref.toArray(), dq.toArray());
+    }
+
+    @Test
+    @Timeout(60)
+    final void testProducersAndConsumers() throws InterruptedException {
+        final int threads = 4;
+        final int perProducer = 20000;
+        final int total = threads * perProducer;
+        ConcurrentASDL2223Deque<Integer> dq = new ConcurrentASDL2223Deque<Integer>();
+        AtomicLongArray seen = new AtomicLongArray(total);
+        AtomicInteger consumed = new AtomicInteger();
+        Thread[] workers = new Thread[2 * threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            // Producers insert their own range, alternating the two ends
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    Integer item = id * perProducer + i;
+                    if (i % 2 == 0)
+                        dq.addLast(item);
+                    else
+                        dq.addFirst(item);
+                }
+            });
+            // Consumers remove from both ends until everything is consumed
+            workers[threads + t] = new Thread(() -> {
+                int i = 0;
+                while (consumed.get() < total) {
+                    Integer item = (i++ % 3 == 0) ? dq.pollLast()
+                            : dq.pollFirst();
+                    if (item == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    seen.incrementAndGet(item);
+                    consumed.incrementAndGet();
+                }
+            });
+        }
+        for (Thread w : workers)
+            w.start();
+        for (Thread w : workers)
+            w.join();
+        assertTrue(dq.isEmpty());
+        assertEquals(total, consumed.get());
+        // Every element has been removed exactly once
+        for (int i = 0; i < total; i++)
+            assertEquals(1, seen.get(i));
+    }
+
+    @Test
+    @Timeout(60)
+    final void testFifoProducersAndConsumers() throws InterruptedException {
+        // Work queue pattern: producers only at the end, consumers only at
+        // the front
+        final int threads = 4;
+        final int perProducer = 50000;
+        final int total = threads * perProducer;
+        ConcurrentASDL2223Deque<Integer> dq = new ConcurrentASDL2223Deque<Integer>();
+        AtomicLongArray seen = new AtomicLongArray(total);
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        Thread[] workers = new Thread[2 * threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++)
+                    dq.addLast(id * perProducer + i);
+            });
+            workers[threads + t] = new Thread(() -> {
+                // The elements of a producer come out in insertion order
+                int[] lastSeen = new int[threads];
+                Arrays.fill(lastSeen, -1);
+                while (consumed.get() < total) {
+                    Integer item = dq.pollFirst();
+                    if (item == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    int producer = item / perProducer;
+                    if (item % perProducer <= lastSeen[producer])
+                        outOfOrder.incrementAndGet();
+                    lastSeen[producer] = item % perProducer;
+                    seen.incrementAndGet(item);
+                    consumed.incrementAndGet();
+                }
+            });
+        }
+        for (Thread w : workers)
+            w.start();
+        for (Thread w : workers)
+            w.join();
+        assertTrue(dq.isEmpty());
+        assertNull(dq.pollFirst());
+        assertEquals(total, consumed.get());
+        assertEquals(0, outOfOrder.get());
+        for (int i = 0; i < total; i++)
+            assertEquals(1, seen.get(i));
+    }
+
+    @Test
+    @Timeout(60)
+    final void testIterationDuringModifications() throws InterruptedException {
+        ConcurrentASDL2223Deque<Integer> dq = new ConcurrentASDL2223Deque<Integer>();
+        for (int i = 0; i < 1000; i++)
+            dq.addLast(i);
+        Thread writer = new Thread(() -> {
+            for (int i = 1000; i < 21000; i++) {
+                dq.addLast(i);
+                dq.pollFirst();
+                if (i % 100 == 0)
+                    dq.remove(i - 500);
+            }
+        });
+        writer.start();
+        // The deque is always sorted, and so is what the iterators return
+        while (writer.isAlive()) {
+            int previous = -1;
+            for (Integer item : dq) {
+                assertTrue(item > previous);
+                previous = item;
+            }
+        }
+        writer.join();
+        assertEquals(1000 - 200, dq.size());
+    }
+
+}
@@ -0,0 +1,160 @@
+package it.unicam.cs.asdl2223.mp2;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Measures how the throughput of a deque shared as a work queue scales with
+ * the number of threads. From 1 to MAX_THREADS threads, every thread inserts
+ * OPERATIONS_PER_THREAD elements and removes as many, in two workloads: in
+ * "Fifo" every thread inserts at the end and removes from the front, as in a
+ * work queue; in "Mixed" even threads do so while odd threads insert at the
+ * front and remove from the end. The deques
+ * compared are ASDL2223Deque guarded by <code>synchronized</code>, as it was
+ * used before, ConcurrentASDL2223Deque and, as a reference,
+ * java.util.concurrent.ConcurrentLinkedDeque. The number of operations per
+ * millisecond of all the threads together is written on a .csv (Comma
+ * Separated Values) file.
+ *
+ * The main method can be called with the name of the destination directory
+ * of the file as a command line parameter. If no parameter is given the
+ * current directory is used.
+ *
+ * @author collettiva
+ *
+ */
+public class ConcurrentDequeEvaluationFramework {
+
+    private static final String[] WORKLOADS = { "Fifo", "Mixed" };
+
+    private static final String[] DEQUES = { "SynchronizedASDL2223Deque",
+            "ConcurrentASDL2223Deque", "ConcurrentLinkedDeque" };
+
+    public static void main(String[] args) throws InterruptedException {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "concurrentdequeevalfram.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "concurrentdequeevalfram.csv");
+            System.exit(1);
+        }
+        o.print("Threads,Workload,Deque,OpsPerMs\n");
+        for (int threads = 1; threads <= ConcurrentDequeEvaluationFrameworkParameters.MAX_THREADS; threads++) {
+            for (int w = 0; w < WORKLOADS.length; w++) {
+                long[] totals = new long[DEQUES.length];
+                for (int s = 0; s < ConcurrentDequeEvaluationFrameworkParameters.NUMBER_OF_SAMPLES; s++)
+                    for (int d = 0; d < DEQUES.length; d++)
+                        totals[d] += measure(newWorkQueue(d), threads, w == 1);
+                long operations = 2L * threads
+                        * ConcurrentDequeEvaluationFrameworkParameters.OPERATIONS_PER_THREAD
+                        * ConcurrentDequeEvaluationFrameworkParameters.NUMBER_OF_SAMPLES;
+                for (int d = 0; d < DEQUES.length; d++)
+                    o.print(threads + "," + WORKLOADS[w] + "," + DEQUES[d] + ","
+                            + operations * 1000000L / Math.max(1, totals[d])
+                            + "\n");
+            }
+            System.out.println("Misurate deque con " + threads + " thread");
+        }
+        o.close();
+    }
+
+    /*
+     * The two operations of a work queue used by the threads.
+     */
+    private interface WorkQueue {
+        void put(Integer item, boolean last);
+
+        Integer take(boolean first);
+    }
+
+    private static WorkQueue newWorkQueue(int d) {
+        switch (d) {
+        case 0:
+            final ASDL2223Deque<Integer> deque = new ASDL2223Deque<Integer>();
+            return new WorkQueue() {
+                public void put(Integer item, boolean last) {
+                    synchronized (deque) {
+                        if (last)
+                            deque.addLast(item);
+                        else
+                            deque.addFirst(item);
+                    }
+                }
+
+                public Integer take(boolean first) {
+                    synchronized (deque) {
+                        return first ? deque.pollFirst() : deque.pollLast();
+                    }
+                }
+            };
+        case 1:
+            return wrap(new ConcurrentASDL2223Deque<Integer>());
+        default:
+            return wrap(new ConcurrentLinkedDeque<Integer>());
+        }
+    }
+
+    private static WorkQueue wrap(final Deque<Integer> deque) {
+        return new WorkQueue() {
+            public void put(Integer item, boolean last) {
+                if (last)
+                    deque.addLast(item);
+                else
+                    deque.addFirst(item);
+            }
+
+            public Integer take(boolean first) {
+                return first ? deque.pollFirst() : deque.pollLast();
+            }
+        };
+    }
+
+    /*
+     * Runs the given number of threads on the queue and returns the elapsed
+     * time in nanoseconds; if mixed is false all the threads insert at the
+     * end and remove from the front.
+     */
+    private static long measure(final WorkQueue queue, int threads,
+            boolean mixed) throws InterruptedException {
+        for (int i = 0; i < ConcurrentDequeEvaluationFrameworkParameters.INITIAL_ELEMENTS; i++)
+            queue.put(i, true);
+        Thread[] workers = new Thread[threads];
+        final long[] removed = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            final boolean last = !mixed || t % 2 == 0;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < ConcurrentDequeEvaluationFrameworkParameters.OPERATIONS_PER_THREAD; i++) {
+                    queue.put(i, last);
+                    if (queue.take(last) != null)
+                        removed[id]++;
+                }
+            });
+        }
+        long startTimeNano = System.nanoTime();
+        for (Thread w : workers)
+            w.start();
+        for (Thread w : workers)
+            w.join();
+        long elapsed = System.nanoTime() - startTimeNano;
+        // Every removal must find an element, the queue is never empty
+        long total = 0;
+        for (long r : removed)
+            total += r;
+        if (total != (long) threads
+                * ConcurrentDequeEvaluationFrameworkParameters.OPERATIONS_PER_THREAD)
+            throw new IllegalStateException("Risultati errati dalla deque");
+        return elapsed;
+    }
+
+}
@@ -0,0 +1,32 @@
+package it.unicam.cs.asdl2223.mp2;
+
+/**
+ * General parameters of the concurrent deque evaluation framework.
+ *
+ * @author collettiva
+ *
+ */
+public interface ConcurrentDequeEvaluationFrameworkParameters {
+    /**
+     * Maximum number of threads sharing the deque; the measures go from 1 to
+     * MAX_THREADS threads
+     */
+    public static int MAX_THREADS = 2
+            * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of insertions, each followed by a removal, done by every thread
+     */
+    public static int OPERATIONS_PER_THREAD = 200000;
+
+    /**
+     * Number of elements in the deque before the threads start
+     */
+    public static int INITIAL_ELEMENTS = 1000;
+
+    /**
+     * Number of repetitions of the measures for every number of threads
+     */
+    public static int NUMBER_OF_SAMPLES = 5;
+
+}
@@ -0,0 +1,120 @@
+package it.unicam.cs.asdl2223.mp2;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Compares the throughput of ASDL2223Deque, ArrayCircularDeque and, as a
+ * reference, java.util.ArrayDeque. For an increasing number of elements every
+ * deque is used as a stack (n push followed by n pop), as a queue (n offer
+ * followed by n poll), as a sliding window (n insertions at the end, each
+ * followed by a removal from the front once the window holds 64 elements) and
+ * is traversed with its iterator. The average time in nanoseconds of an
+ * operation is written on a .csv (Comma Separated Values) file.
+ *
+ * The main method can be called with the name of the destination directory
+ * of the file as a command line parameter. If no parameter is given the
+ * current directory is used.
+ *
+ * @author collettiva
+ *
+ */
+public class DequeEvaluationFramework {
+
+    private static final String[] DEQUES = { "ASDL2223Deque",
+            "ArrayCircularDeque", "ArrayDeque" };
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "dequeevalfram.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "dequeevalfram.csv");
+            System.exit(1);
+        }
+        o.print("Elements,Deque,StackTns,QueueTns,WindowTns,IterateTns\n");
+        Integer[] items = new Integer[DequeEvaluationFrameworkParameters.MAX_ELEMENTS];
+        for (int i = 0; i < items.length; i++)
+            items[i] = i;
+        for (int n = DequeEvaluationFrameworkParameters.MIN_ELEMENTS; n <= DequeEvaluationFrameworkParameters.MAX_ELEMENTS; n += DequeEvaluationFrameworkParameters.INCREMENTO_ELEMENTI) {
+            long[][] totals = new long[DEQUES.length][4];
+            for (int s = 0; s < DequeEvaluationFrameworkParameters.NUMBER_OF_SAMPLES; s++)
+                for (int d = 0; d < DEQUES.length; d++)
+                    measure(newDeque(d), items, n, totals[d]);
+            System.out.println("Misurate deque con " + n + " elementi");
+            long operations = 2L * n
+                    * DequeEvaluationFrameworkParameters.NUMBER_OF_SAMPLES;
+            for (int d = 0; d < DEQUES.length; d++)
+                o.print(n + "," + DEQUES[d] + "," + totals[d][0] / operations
+                        + "," + totals[d][1] / operations + ","
+                        + totals[d][2] / operations + ","
+                        + 2 * totals[d][3] / operations + "\n");
+        }
+        o.close();
+    }
+
+    private static Deque<Integer> newDeque(int d) {
+        switch (d) {
+        case 0:
+            return new ASDL2223Deque<Integer>();
+        case 1:
+            return new ArrayCircularDeque<Integer>();
+        default:
+            return new ArrayDeque<Integer>();
+        }
+    }
+
+    /*
+     * Runs the four workloads on an empty deque with the first n items and
+     * adds the times to totals.
+     */
+    private static void measure(Deque<Integer> deque, Integer[] items, int n,
+            long[] totals) {
+        long check = 0;
+        // Stack
+        long startTimeNano = System.nanoTime();
+        for (int i = 0; i < n; i++)
+            deque.push(items[i]);
+        for (int i = 0; i < n; i++)
+            check += deque.pop();
+        totals[0] += System.nanoTime() - startTimeNano;
+        // Queue
+        startTimeNano = System.nanoTime();
+        for (int i = 0; i < n; i++)
+            deque.offer(items[i]);
+        for (int i = 0; i < n; i++)
+            check -= deque.poll();
+        totals[1] += System.nanoTime() - startTimeNano;
+        // Sliding window
+        startTimeNano = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            deque.addLast(items[i]);
+            if (deque.size() > 64)
+                deque.removeFirst();
+        }
+        deque.clear();
+        totals[2] += System.nanoTime() - startTimeNano;
+        // Iteration
+        for (int i = 0; i < n; i++)
+            deque.addLast(items[i]);
+        startTimeNano = System.nanoTime();
+        for (Iterator<Integer> it = deque.iterator(); it.hasNext();)
+            check += it.next();
+        totals[3] += System.nanoTime() - startTimeNano;
+        // Check that the deque behaved as expected
+        if (check != (long) n * (n - 1) / 2)
+            throw new IllegalStateException(
+                    "Risultati errati dalla deque " + deque.getClass());
+    }
+
+}
@@ -0,0 +1,30 @@
+package it.unicam.cs.asdl2223.mp2;
+
+/**
+ * General parameters of the deque evaluation framework.
+ *
+ * @author collettiva
+ *
+ */
+public interface DequeEvaluationFrameworkParameters {
+    /**
+     * Minimum number of elements to insert
+     */
+    public static int MIN_ELEMENTS = 100000;
+
+    /**
+     * Increment of the number of elements from MIN_ELEMENTS to MAX_ELEMENTS
+     */
+    public static int INCREMENTO_ELEMENTI = 300000;
+
+    /**
+     * Maximum number of elements to insert
+     */
+    public static int MAX_ELEMENTS = 1000000;
+
+    /**
+     * Number of repetitions of the measures for every number of elements
+     */
+    public static int NUMBER_OF_SAMPLES = 5;
+
+}
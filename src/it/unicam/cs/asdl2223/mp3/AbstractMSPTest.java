@@ -0,0 +1,406 @@
+package it.unicam.cs.asdl2223.mp3;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test comuni a tutti gli algoritmi che calcolano un albero di copertura
+ * minimo (PrimMSP, KruskalMSP, BoruvkaMSP). Ogni sottoclasse indica
+ * l'algoritmo da verificare e aggiunge i test specifici.
+ * 
+ * @author Luca Tesei
+ *
+ */
+abstract class AbstractMSPTest {
+
+    /**
+     * Calcola l'albero di copertura minimo di un grafo con l'algoritmo da
+     * verificare.
+     * 
+     * @param g
+     *              il grafo
+     * @param s
+     *              il nodo sorgente, radice dell'albero
+     */
+    abstract <L> void computeMSP(Graph<L> g, GraphNode<L> s);
+
+    /**
+     * Crea un grafo connesso con n nodi: una catena tra nodi consecutivi più
+     * circa un terzo degli altri archi possibili, scelti a caso. Se
+     * distinctWeights è vero i pesi sono tutti diversi e l'albero di
+     * copertura minimo è unico, altrimenti sono presi da pochi valori e ci
+     * sono molti archi con lo stesso peso.
+     * 
+     * @param nodes
+     *                            la lista in cui vengono messi i nodi creati
+     * @param n
+     *                            il numero di nodi
+     * @param seed
+     *                            il seme dei numeri casuali
+     * @param distinctWeights
+     *                            se i pesi devono essere tutti diversi
+     * @return il grafo creato
+     */
+    static Graph<Integer> randomGraph(List<GraphNode<Integer>> nodes, int n,
+            long seed, boolean distinctWeights) {
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int k = 0; k < n; k++) {
+            nodes.add(new GraphNode<Integer>(k));
+            gr.addNode(nodes.get(k));
+        }
+        Random random = new Random(seed);
+        List<Integer> weights = new ArrayList<Integer>();
+        for (int k = 0; k < n * n; k++)
+            weights.add(distinctWeights ? k : k % 5);
+        Collections.shuffle(weights, random);
+        int w = 0;
+        for (int u = 0; u < n; u++)
+            for (int v = u + 1; v < n; v++)
+                if (v == u + 1 || random.nextInt(3) == 0)
+                    gr.addEdge(new GraphEdge<Integer>(nodes.get(u),
+                            nodes.get(v), false, weights.get(w++)));
+        return gr;
+    }
+
+    /**
+     * Peso totale dell'albero calcolato, cioè la somma dei pesi degli archi
+     * verso i padri, che gli algoritmi scrivono come distanza dei nodi.
+     * 
+     * @param nodes
+     *                  i nodi del grafo
+     * @return il peso totale dell'albero
+     */
+    static double treeWeight(List<GraphNode<Integer>> nodes) {
+        double weight = 0;
+        for (GraphNode<Integer> node : nodes)
+            if (node.getPrevious() != null)
+                weight += node.getFloatingPointDistance();
+        return weight;
+    }
+
+    @Test
+    final void testExceptions() {
+        assertThrows(NullPointerException.class,
+                () -> this.computeMSP(null, null));
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        assertThrows(NullPointerException.class,
+                () -> this.computeMSP(gr, null));
+        assertThrows(NullPointerException.class, () -> this.computeMSP(null, a));
+        GraphNode<String> b = new GraphNode<String>("b");
+        assertThrows(IllegalArgumentException.class,
+                () -> this.computeMSP(gr, b));
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        GraphNode<String> f = new GraphNode<String>("f");
+        gr.addNode(f);
+        GraphNode<String> g = new GraphNode<String>("g");
+        gr.addNode(g);
+        GraphNode<String> h = new GraphNode<String>("h");
+        gr.addNode(h);
+        GraphNode<String> i = new GraphNode<String>("i");
+        gr.addNode(i);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 4));
+        gr.addEdge(new GraphEdge<String>(a, h, false, 8.5));
+        gr.addEdge(new GraphEdge<String>(b, h, false, 11));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 8));
+        gr.addEdge(new GraphEdge<String>(c, i, false, 2));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 7));
+        gr.addEdge(new GraphEdge<String>(c, f, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, f, false, 14));
+        gr.addEdge(new GraphEdge<String>(d, e, false));
+        gr.addEdge(new GraphEdge<String>(e, f, false, 10));
+        gr.addEdge(new GraphEdge<String>(f, g, false, 2));
+        gr.addEdge(new GraphEdge<String>(g, i, false, 6));
+        gr.addEdge(new GraphEdge<String>(g, h, false, 1));
+        gr.addEdge(new GraphEdge<String>(h, i, false, 7));
+        assertThrows(IllegalArgumentException.class,
+                () -> this.computeMSP(gr, b));
+        gr.clear();
+        gr.addNode(a);
+        gr.addNode(b);
+        gr.addNode(c);
+        gr.addNode(d);
+        gr.addNode(e);
+        gr.addNode(f);
+        gr.addNode(g);
+        gr.addNode(h);
+        gr.addNode(i);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 4));
+        gr.addEdge(new GraphEdge<String>(a, h, false, 8.5));
+        gr.addEdge(new GraphEdge<String>(b, h, false, 11));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 8));
+        gr.addEdge(new GraphEdge<String>(c, i, false, 2));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 7));
+        gr.addEdge(new GraphEdge<String>(c, f, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, f, false, 14));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 9));
+        gr.addEdge(new GraphEdge<String>(e, f, false, 10));
+        gr.addEdge(new GraphEdge<String>(f, g, false, 2));
+        gr.addEdge(new GraphEdge<String>(g, i, false, -6));
+        gr.addEdge(new GraphEdge<String>(g, h, false, 1));
+        gr.addEdge(new GraphEdge<String>(h, i, false, 7));
+        assertThrows(IllegalArgumentException.class,
+                () -> this.computeMSP(gr, b));
+    }
+
+    @Test
+    final void testFindMSP1() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        GraphNode<String> f = new GraphNode<String>("f");
+        gr.addNode(f);
+        GraphNode<String> g = new GraphNode<String>("g");
+        gr.addNode(g);
+        GraphNode<String> h = new GraphNode<String>("h");
+        gr.addNode(h);
+        GraphNode<String> i = new GraphNode<String>("i");
+        gr.addNode(i);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 4));
+        gr.addEdge(new GraphEdge<String>(a, h, false, 8.5));
+        gr.addEdge(new GraphEdge<String>(b, h, false, 11));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 8));
+        gr.addEdge(new GraphEdge<String>(c, i, false, 2));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 7));
+        gr.addEdge(new GraphEdge<String>(c, f, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, f, false, 14));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 9));
+        gr.addEdge(new GraphEdge<String>(e, f, false, 10));
+        gr.addEdge(new GraphEdge<String>(f, g, false, 2));
+        gr.addEdge(new GraphEdge<String>(g, i, false, 6));
+        gr.addEdge(new GraphEdge<String>(g, h, false, 1));
+        gr.addEdge(new GraphEdge<String>(h, i, false, 7));
+        this.computeMSP(gr, a);
+        assertTrue(a.getPrevious() == null);
+        assertTrue(b.getPrevious() == a);
+        assertTrue(c.getPrevious() == b);
+        assertTrue(d.getPrevious() == c);
+        assertTrue(e.getPrevious() == d);
+        assertTrue(f.getPrevious() == c);
+        assertTrue(g.getPrevious() == f);
+        assertTrue(h.getPrevious() == g);
+        assertTrue(i.getPrevious() == c);
+    }
+
+    @Test
+    final void testFindMSP2() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 2));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        this.computeMSP(gr, a);
+        assertTrue(a.getPrevious() == null);
+        assertTrue(b.getPrevious() == a);
+        assertTrue(c.getPrevious() == b);
+        assertTrue(d.getPrevious() == b);
+    }
+
+    @Test
+    final void testFindMSP3() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 2));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        this.computeMSP(gr, b);
+        assertTrue(a.getPrevious() == b);
+        assertTrue(b.getPrevious() == null);
+        assertTrue(c.getPrevious() == b);
+        assertTrue(d.getPrevious() == b);
+    }
+
+    @Test
+    final void testFindMSP4() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 2));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        this.computeMSP(gr, c);
+        assertTrue(a.getPrevious() == b);
+        assertTrue(b.getPrevious() == c);
+        assertTrue(c.getPrevious() == null);
+        assertTrue(d.getPrevious() == b);
+    }
+
+    @Test
+    final void testFindMSP5() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 2));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        this.computeMSP(gr, d);
+        assertTrue(a.getPrevious() == b);
+        assertTrue(b.getPrevious() == d);
+        assertTrue(c.getPrevious() == b);
+        assertTrue(d.getPrevious() == null);
+    }
+
+    @Test
+    final void testFindMSP6() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        gr.addEdge(new GraphEdge<String>(a, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 10));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 2));
+        gr.addEdge(new GraphEdge<String>(c, e, false, 6));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 1));
+        gr.addEdge(new GraphEdge<String>(b, b, false, 7));
+        gr.addEdge(new GraphEdge<String>(c, c, false, 0));
+        this.computeMSP(gr, b);
+        assertTrue(a.getPrevious() == c);
+        assertTrue(a.getFloatingPointDistance() == 3.0);
+        assertTrue(a.getColor() == GraphNode.COLOR_BLACK);
+        assertTrue(b.getPrevious() == null);
+        assertTrue(b.getFloatingPointDistance() == 0);
+        assertTrue(b.getColor() == GraphNode.COLOR_BLACK);
+        assertTrue(c.getPrevious() == d);
+        assertTrue(c.getFloatingPointDistance() == 2.0);
+        assertTrue(c.getColor() == GraphNode.COLOR_BLACK);
+        assertTrue(d.getPrevious() == b);
+        assertTrue(d.getFloatingPointDistance() == 4.0);
+        assertTrue(d.getColor() == GraphNode.COLOR_BLACK);
+        assertTrue(e.getPrevious() == d);
+        assertTrue(e.getFloatingPointDistance() == 1.0);
+        assertTrue(e.getColor() == GraphNode.COLOR_BLACK);
+    }
+
+    @Test
+    final void testFindMSP7() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        this.computeMSP(gr, a);
+        assertTrue(a.getPrevious() == null);
+        assertTrue(a.getFloatingPointDistance() == 0);
+        assertTrue(a.getColor() == GraphNode.COLOR_BLACK);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        this.computeMSP(gr, a);
+        assertTrue(a.getPrevious() == null);
+        assertTrue(a.getFloatingPointDistance() == 0);
+        assertTrue(a.getColor() == GraphNode.COLOR_BLACK);
+        assertTrue(b.getPrevious() == null);
+        assertTrue(b.getFloatingPointDistance() == Double.POSITIVE_INFINITY);
+        assertTrue(b.getColor() == GraphNode.COLOR_BLACK);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 3));
+        this.computeMSP(gr, a);
+        assertTrue(a.getPrevious() == null);
+        assertTrue(a.getFloatingPointDistance() == 0);
+        assertTrue(a.getColor() == GraphNode.COLOR_BLACK);
+        assertTrue(b.getPrevious() == a);
+        assertTrue(b.getFloatingPointDistance() == 3);
+        assertTrue(b.getColor() == GraphNode.COLOR_BLACK);
+        assertTrue(c.getPrevious() == null);
+        assertTrue(c.getFloatingPointDistance() == Double.POSITIVE_INFINITY);
+        assertTrue(c.getColor() == GraphNode.COLOR_BLACK);
+    }
+
+    /*
+     * Su un grafo formato da una catena di archi leggeri e da archi pesanti
+     * casuali l'albero di copertura minimo è la catena.
+     */
+    @Test
+    final void testFindMSPChain() {
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        int n = 300;
+        List<GraphNode<Integer>> nodes = new ArrayList<GraphNode<Integer>>();
+        for (int k = 0; k < n; k++) {
+            nodes.add(new GraphNode<Integer>(k));
+            gr.addNode(nodes.get(k));
+        }
+        for (int k = 1; k < n; k++)
+            gr.addEdge(new GraphEdge<Integer>(nodes.get(k - 1), nodes.get(k),
+                    false, k % 7));
+        Random random = new Random(1);
+        for (int k = 0; k < 5 * n; k++) {
+            int x = random.nextInt(n);
+            int y = random.nextInt(n);
+            if (Math.abs(x - y) > 1)
+                gr.addEdge(new GraphEdge<Integer>(nodes.get(x), nodes.get(y),
+                        false, 10 + random.nextInt(100)));
+        }
+        this.computeMSP(gr, nodes.get(n / 2));
+        for (int k = 0; k < n; k++) {
+            GraphNode<Integer> node = nodes.get(k);
+            assertTrue(node.getColor() == GraphNode.COLOR_BLACK);
+            if (k == n / 2)
+                assertTrue(node.getPrevious() == null);
+            else if (k < n / 2)
+                assertTrue(node.getPrevious() == nodes.get(k + 1));
+            else
+                assertTrue(node.getPrevious() == nodes.get(k - 1));
+        }
+    }
+}
@@ -35,6 +35,19 @@ import java.util.*;
  * supporta tutti i metodi che usano indici, utilizzando l'indice assegnato a
  * ogni nodo in fase di inserimento.
  *
+ * Il numero di archi e il grado di ogni nodo sono mantenuti in contatori
+ * aggiornati a ogni inserimento e cancellazione, per cui edgeCount() e
+ * getDegreeOf costano O(1). Anche la ricerca di un nodo dato il suo indice
+ * costa O(1), grazie a una lista dei nodi in ordine di indice.
+ *
+ * Con il costruttore senza parametri il grafo è a indici stabili: cancellando
+ * un nodo, i nodi successivi mantengono l'ordine di inserimento e i loro
+ * indici vengono decrementati di uno, come richiesto da {@code Graph}. Con il
+ * costruttore {@link #AdjacencyMatrixUndirectedGraph(boolean)} si può invece
+ * chiedere che il nodo cancellato venga sostituito dall'ultimo: in questo caso
+ * cambia solo l'indice dell'ultimo nodo, che diventa quello del nodo
+ * cancellato, e la cancellazione costa O(n) invece di O(n^2).
+ *
  * @author Luca Tesei (template) Alessio Rubicini alessio.rubicini@studenti.unicam.it (implementazione)
  *
  *
@@ -59,12 +72,65 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
      */
     protected ArrayList<ArrayList<GraphEdge<L>>> matrix;
 
+    /*
+     * Nodi in ordine di indice
+     */
+    private final ArrayList<GraphNode<L>> nodes;
+
+    /*
+     * Grado di ogni nodo, in ordine di indice
+     */
+    private int[] degrees;
+
+    /*
+     * Numero di archi del grafo
+     */
+    private int edgeCount;
+
+    /*
+     * true se la cancellazione di un nodo mantiene l'ordine degli indici dei
+     * nodi successivi, false se il nodo cancellato viene sostituito
+     * dall'ultimo
+     */
+    private final boolean stableIndexes;
+
     /**
-     * Crea un grafo vuoto.
+     * Crea un grafo vuoto a indici stabili.
      */
     public AdjacencyMatrixUndirectedGraph() {
+        this(true);
+    }
+
+    /**
+     * Crea un grafo vuoto scegliendo come vengono aggiornati gli indici dei
+     * nodi quando un nodo viene cancellato.
+     *
+     * @param stableIndexes
+     *                          true se, dopo la cancellazione di un nodo, gli
+     *                          indici dei nodi successivi devono essere
+     *                          decrementati di uno mantenendo l'ordine di
+     *                          inserimento; false se il nodo cancellato deve
+     *                          essere sostituito dall'ultimo nodo, che ne
+     *                          prende l'indice
+     */
+    public AdjacencyMatrixUndirectedGraph(boolean stableIndexes) {
         this.matrix = new ArrayList<ArrayList<GraphEdge<L>>>();
         this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
+        this.nodes = new ArrayList<GraphNode<L>>();
+        this.degrees = new int[0];
+        this.edgeCount = 0;
+        this.stableIndexes = stableIndexes;
+    }
+
+    /**
+     * Determina se questo grafo mantiene l'ordine degli indici quando un nodo
+     * viene cancellato.
+     *
+     * @return true se il grafo è a indici stabili, false se il nodo
+     *         cancellato viene sostituito dall'ultimo
+     */
+    public boolean hasStableIndexes() {
+        return this.stableIndexes;
     }
 
     @Override
@@ -74,19 +140,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
 
     @Override
     public int edgeCount() {
-        // Inizializza il contatore di archi
-        int edgeCount = 0;
-        // Conta gli archi presenti nella matrice
-        for (int i = 0; i < matrix.size(); i++) {
-            for (int j = 0; j < matrix.get(i).size(); j++) {
-                if (matrix.get(i).get(j) != null) {
-                    edgeCount++;
-                }
-            }
-        }
-        // Ritorna il contatore diviso due
-        // (essendo un grafo non orientato consideriamo ogni arco una sola volta)
-        return edgeCount / 2;
+        return this.edgeCount;
     }
 
     @Override
@@ -95,6 +149,10 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         this.nodesIndex.clear();
         // Pulisce la matrice degli archi
         this.matrix.clear();
+        // Azzera i contatori
+        this.nodes.clear();
+        this.degrees = new int[0];
+        this.edgeCount = 0;
     }
 
     @Override
@@ -118,6 +176,13 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         } else {
             // Se non c'è, aggiunge il nodo e il suo indice alla mappa
             this.nodesIndex.put(node, nodesIndex.size());
+            this.nodes.add(node);
+            // Il grado del nuovo nodo è zero
+            if (this.degrees.length < this.nodes.size()) {
+                this.degrees = Arrays.copyOf(this.degrees,
+                        Math.max(8, 2 * this.degrees.length));
+            }
+            this.degrees[this.nodes.size() - 1] = 0;
             // Aggiunge una nuova colonna alla matrice degli archi
             for (ArrayList<GraphEdge<L>> row : this.matrix) {
                 row.add(null);
@@ -148,7 +213,8 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     /*
      * Gli indici dei nodi il cui valore sia maggiore dell'indice del nodo da
      * cancellare devono essere decrementati di uno dopo la cancellazione del
-     * nodo
+     * nodo, a meno che il grafo non sia stato creato senza indici stabili: in
+     * quel caso l'ultimo nodo prende l'indice del nodo cancellato
      */
     @Override
     public void removeNode(GraphNode<L> node) {
@@ -162,21 +228,43 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         }
         // Salva l'indice del nodo da rimuovere
         int nodeToRemoveIndex = nodesIndex.get(node);
+        int lastIndex = this.nodes.size() - 1;
+        // Aggiorna i contatori togliendo gli archi del nodo
+        ArrayList<GraphEdge<L>> removedRow = this.matrix.get(nodeToRemoveIndex);
+        for (int j = 0; j <= lastIndex; j++) {
+            if (removedRow.get(j) != null && j != nodeToRemoveIndex) {
+                this.degrees[j]--;
+            }
+        }
+        this.edgeCount -= this.degrees[nodeToRemoveIndex];
         // Elimina il nodo dalla mappa dei nodi
         this.nodesIndex.remove(node);
-        // Modifica l'indice dei nodi successivi nella mappa
-        for (Map.Entry<GraphNode<L>, Integer> entry : nodesIndex.entrySet()) {
-            // Ottiene l'indice del nodo corrente
-            int nodeIndex = entry.getValue();
-            // Se l'indice è maggiore, lo decrementa
-            if (nodeIndex > nodeToRemoveIndex) {
-                entry.setValue(nodeIndex - 1);
+        if (this.stableIndexes || nodeToRemoveIndex == lastIndex) {
+            // Decrementa l'indice dei nodi successivi
+            this.nodes.remove(nodeToRemoveIndex);
+            for (int i = nodeToRemoveIndex; i < lastIndex; i++) {
+                this.nodesIndex.put(this.nodes.get(i), i);
             }
-        }
-        // Elimina gli archi corrispondenti al nodo eliminato
-        this.matrix.remove(nodeToRemoveIndex);
-        for (ArrayList<GraphEdge<L>> row : this.matrix) {
-            row.remove(nodeToRemoveIndex);
+            System.arraycopy(this.degrees, nodeToRemoveIndex + 1, this.degrees,
+                    nodeToRemoveIndex, lastIndex - nodeToRemoveIndex);
+            // Elimina gli archi corrispondenti al nodo eliminato
+            this.matrix.remove(nodeToRemoveIndex);
+            for (ArrayList<GraphEdge<L>> row : this.matrix) {
+                row.remove(nodeToRemoveIndex);
+            }
+        } else {
+            // L'ultimo nodo prende il posto del nodo eliminato
+            GraphNode<L> lastNode = this.nodes.remove(lastIndex);
+            this.nodes.set(nodeToRemoveIndex, lastNode);
+            this.nodesIndex.put(lastNode, nodeToRemoveIndex);
+            this.degrees[nodeToRemoveIndex] = this.degrees[lastIndex];
+            // Sposta l'ultima colonna al posto di quella eliminata: nella riga
+            // dell'ultimo nodo il cappio finisce sulla diagonale
+            for (ArrayList<GraphEdge<L>> row : this.matrix) {
+                row.set(nodeToRemoveIndex, row.remove(lastIndex));
+            }
+            // Sposta l'ultima riga al posto di quella eliminata
+            this.matrix.set(nodeToRemoveIndex, this.matrix.remove(lastIndex));
         }
     }
 
@@ -224,15 +312,10 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if(node == null) {
             throw new NullPointerException("Il nodo dato è nullo");
         }
-        // Controlla se il nodo esiste
-        if(!this.nodesIndex.containsKey(node)) return null;
-        // Cerca e ritorna il nodo
-        for (GraphNode<L> currentNode : this.nodesIndex.keySet()) {
-            if(currentNode.equals(node)) {
-                return currentNode;
-            }
-        }
-        return null;
+        // Cerca l'indice del nodo
+        Integer nodeIndex = this.nodesIndex.get(node);
+        // Ritorna il nodo del grafo, se esiste
+        return nodeIndex == null ? null : this.nodes.get(nodeIndex);
     }
 
     @Override
@@ -253,14 +336,8 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if(i < 0 || i > this.nodeCount() - 1) {
             throw new IndexOutOfBoundsException("Indice non valido");
         }
-        // Itera sui nodi del grafo
-        for (GraphNode<L> node : nodesIndex.keySet()) {
-            // Quando incontra il nodo con l'indice dato, lo ritorna
-            if (nodesIndex.get(node) == i) {
-                return node;
-            }
-        }
-        return null;
+        // Ritorna il nodo con l'indice dato
+        return this.nodes.get(i);
     }
 
     @Override
@@ -319,6 +396,12 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         GraphEdge<L> reversedEdge = new GraphEdge<L>(edge.getNode2(), edge.getNode1(), false);
         reversedEdge.setWeight(edge.getWeight());
         this.matrix.get(node2Index).set(node1Index, reversedEdge);
+        // Aggiorna i contatori (un cappio conta una volta nel grado)
+        this.edgeCount++;
+        this.degrees[node1Index]++;
+        if (node1Index != node2Index) {
+            this.degrees[node2Index]++;
+        }
         return true;
     }
 
@@ -417,8 +500,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
             throw new IllegalArgumentException("L'arco non esiste nel grafo");
         }
         // Elimina le entry dell'arco dalla matrice (impostandole a null)
-        matrix.get(node1Index).set(node2Index, null);
-        matrix.get(node2Index).set(node1Index, null);
+        this.clearEdge(node1Index, node2Index);
     }
 
     @Override
@@ -471,8 +553,21 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
             throw new IllegalArgumentException("L'arco specificato non esiste nel grafo.");
         }
         // Imposta a null i valori nella matrice di adiacenza
-        matrix.get(i).set(j, null);
-        matrix.get(j).set(i, null);
+        this.clearEdge(i, j);
+    }
+
+    /*
+     * Toglie dalla matrice l'arco esistente tra i nodi di indice i e j e
+     * aggiorna i contatori.
+     */
+    private void clearEdge(int i, int j) {
+        this.matrix.get(i).set(j, null);
+        this.matrix.get(j).set(i, null);
+        this.edgeCount--;
+        this.degrees[i]--;
+        if (i != j) {
+            this.degrees[j]--;
+        }
     }
 
     @Override
@@ -527,10 +622,6 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if (i < 0 || i > this.nodeCount() - 1 || j < 0 || j > this.nodeCount() - 1) {
             throw new IndexOutOfBoundsException("Indici non validi");
         }
-        // Controlla se gli indici corrispondono a nodi esistenti
-        if(!this.nodesIndex.containsValue(i) || !this.nodesIndex.containsValue(j)) {
-            throw new IndexOutOfBoundsException("Indici non corrispondono a nessun nodo");
-        }
         // Ritorna l'arco che collega i due nodi
         return(this.matrix.get(i).get(j));
     }
@@ -670,6 +761,39 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
                 "Operazione non supportata in un grafo non orientato");
     }
 
+    /*
+     * Il grado viene letto dai contatori invece di contare gli archi del nodo
+     */
+    @Override
+    public int getDegreeOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+        Integer nodeIndex = this.nodesIndex.get(node);
+        if (nodeIndex == null)
+            throw new IllegalArgumentException(
+                    "Tentativo di calcolare il grado di un nodo non "
+                            + "presente in questo grafo");
+        return this.degrees[nodeIndex];
+    }
+
+    @Override
+    public int getDegreeOf(L label) {
+        if (label == null)
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+        return this.getDegreeOf(new GraphNode<L>(label));
+    }
+
+    @Override
+    public int getDegreeOf(int i) {
+        if (i < 0 || i > this.nodeCount() - 1)
+            throw new IndexOutOfBoundsException(
+                    "Tentativo di calcolare il grado di un nodo con indice "
+                            + "non valido");
+        return this.degrees[i];
+    }
+
     @Override
     public Set<GraphEdge<L>> getEdges() {
         // Crea un insieme di archi
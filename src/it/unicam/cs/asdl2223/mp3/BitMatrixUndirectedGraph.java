@@ -0,0 +1,667 @@
+package it.unicam.cs.asdl2223.mp3;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che implementa un grafo non orientato tramite una matrice di
+ * adiacenza di bit. Non sono accettate etichette dei nodi null e non sono
+ * accettate etichette duplicate nei nodi (che in quel caso sono lo stesso
+ * nodo).
+ *
+ * Come in {@code AdjacencyMatrixUndirectedGraph} i nodi sono indicizzati da 0
+ * a nodeCount() - 1 seguendo l'ordine del loro inserimento e, quando un nodo
+ * viene cancellato, gli indici dei nodi successivi vengono decrementati di
+ * uno.
+ *
+ * A differenza di {@code AdjacencyMatrixUndirectedGraph} la matrice non
+ * contiene oggetti: la presenza dell'arco tra i nodi i e j è un bit di un
+ * array di {@code long}, in cui ogni riga occupa un numero intero di parole
+ * da 64 bit, e il peso dell'arco è memorizzato una sola volta in un array di
+ * {@code double} che contiene la parte triangolare superiore della matrice
+ * dei pesi, organizzata per colonne in modo che l'aggiunta di un nodo
+ * aggiunga solo una colonna in fondo. L'array dei pesi viene allocato solo al
+ * primo arco pesato: un grafo con soli archi non pesati occupa circa n * n / 8
+ * byte, per cui anche grafi densi con 50000 nodi entrano in memoria. Gli
+ * oggetti GraphEdge<L> vengono creati solo quando sono restituiti dai metodi
+ * e sono copie: cambiare il peso di un arco restituito non modifica il
+ * grafo.
+ *
+ * Le operazioni sulle righe, come il calcolo dei nodi adiacenti, degli archi
+ * di un nodo e del grado, esaminano 64 possibili vicini alla volta saltando
+ * le parole nulle.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class BitMatrixUndirectedGraph<L> extends Graph<L> {
+
+    /**
+     * Numero massimo di nodi, oltre il quale l'array dei pesi non sarebbe
+     * indicizzabile con un int.
+     */
+    public static final int MAX_CAPACITY = 65535;
+
+    /*
+     * Capacità iniziale usata dal costruttore senza parametri.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /*
+     * Nodi in ordine di indice
+     */
+    private final ArrayList<GraphNode<L>> nodes;
+
+    /*
+     * Associazione di ogni nodo con il proprio indice
+     */
+    private final Map<GraphNode<L>, Integer> nodesIndex;
+
+    /*
+     * Numero di nodi per cui è allocato spazio
+     */
+    private int capacity;
+
+    /*
+     * Numero di parole da 64 bit di ogni riga della matrice di bit
+     */
+    private int words;
+
+    /*
+     * Matrice di adiacenza di bit: il bit j della riga i è il bit (j % 64)
+     * della parola adjacency[i * words + j / 64]
+     */
+    private long[] adjacency;
+
+    /*
+     * Pesi degli archi nella parte triangolare superiore della matrice, per
+     * colonne: il peso dell'arco tra i e j con i <= j è in posizione
+     * j * (j + 1) / 2 + i. Vale Double.NaN per gli archi non pesati ed è null
+     * finché non viene inserito un arco pesato.
+     */
+    private double[] weights;
+
+    /*
+     * Numero di archi del grafo
+     */
+    private int edgeCount;
+
+    /**
+     * Crea un grafo vuoto.
+     */
+    public BitMatrixUndirectedGraph() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea un grafo vuoto riservando lo spazio per un numero dato di nodi. Il
+     * grafo può comunque crescere oltre questa capacità.
+     *
+     * @param initialCapacity
+     *                            il numero di nodi per cui riservare lo spazio
+     * @throws IllegalArgumentException
+     *                                      se la capacità è negativa o
+     *                                      maggiore di {@link #MAX_CAPACITY}
+     */
+    public BitMatrixUndirectedGraph(int initialCapacity) {
+        if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY)
+            throw new IllegalArgumentException(
+                    "Capacità non valida: " + initialCapacity);
+        this.nodes = new ArrayList<GraphNode<L>>(initialCapacity);
+        this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
+        this.allocate(initialCapacity);
+    }
+
+    @Override
+    public int nodeCount() {
+        return this.nodes.size();
+    }
+
+    @Override
+    public int edgeCount() {
+        return this.edgeCount;
+    }
+
+    @Override
+    public void clear() {
+        this.nodes.clear();
+        this.nodesIndex.clear();
+        this.allocate(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    /*
+     * Gli indici dei nodi vanno assegnati nell'ordine di inserimento a partire
+     * da zero
+     */
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Il nodo dato è nullo");
+        if (this.nodesIndex.containsKey(node))
+            return false;
+        this.ensureCapacity(this.nodes.size() + 1);
+        // La riga e la colonna del nuovo nodo sono già nulle
+        this.nodesIndex.put(node, this.nodes.size());
+        this.nodes.add(node);
+        return true;
+    }
+
+    @Override
+    public boolean addNode(L label) {
+        if (label == null)
+            throw new NullPointerException("L'etichetta data è nulla");
+        return this.addNode(new GraphNode<L>(label));
+    }
+
+    /*
+     * Gli indici dei nodi il cui valore sia maggiore dell'indice del nodo da
+     * cancellare devono essere decrementati di uno dopo la cancellazione del
+     * nodo
+     */
+    @Override
+    public void removeNode(GraphNode<L> node) {
+        this.removeIndex(this.indexOf(node));
+    }
+
+    @Override
+    public void removeNode(L label) {
+        this.removeIndex(this.indexOf(label));
+    }
+
+    @Override
+    public void removeNode(int i) {
+        this.checkIndex(i);
+        this.removeIndex(i);
+    }
+
+    @Override
+    public GraphNode<L> getNode(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Il nodo dato è nullo");
+        Integer i = this.nodesIndex.get(node);
+        return i == null ? null : this.nodes.get(i);
+    }
+
+    @Override
+    public GraphNode<L> getNode(L label) {
+        if (label == null)
+            throw new NullPointerException("L'etichetta data è nulla");
+        return this.getNode(new GraphNode<L>(label));
+    }
+
+    @Override
+    public GraphNode<L> getNode(int i) {
+        this.checkIndex(i);
+        return this.nodes.get(i);
+    }
+
+    @Override
+    public int getNodeIndexOf(GraphNode<L> node) {
+        return this.indexOf(node);
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        return this.indexOf(label);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        return Collections.unmodifiableSet(this.nodesIndex.keySet());
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("L'arco dato è nullo");
+        if (edge.isDirected())
+            throw new IllegalArgumentException(
+                    "L'arco non può essere orientato");
+        return this.insert(this.indexOf(edge.getNode1()),
+                this.indexOf(edge.getNode2()), edge.getWeight());
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        return this.addWeightedEdge(node1, node2, Double.NaN);
+    }
+
+    @Override
+    public boolean addWeightedEdge(GraphNode<L> node1, GraphNode<L> node2,
+            double weight) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("I nodi dati sono nulli");
+        return this.insert(this.indexOf(node1), this.indexOf(node2), weight);
+    }
+
+    @Override
+    public boolean addEdge(L label1, L label2) {
+        return this.addWeightedEdge(label1, label2, Double.NaN);
+    }
+
+    @Override
+    public boolean addWeightedEdge(L label1, L label2, double weight) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Le etichette date sono nulle");
+        return this.insert(this.indexOf(label1), this.indexOf(label2),
+                weight);
+    }
+
+    @Override
+    public boolean addEdge(int i, int j) {
+        return this.addWeightedEdge(i, j, Double.NaN);
+    }
+
+    @Override
+    public boolean addWeightedEdge(int i, int j, double weight) {
+        this.checkIndex(i);
+        this.checkIndex(j);
+        return this.insert(i, j, weight);
+    }
+
+    @Override
+    public void removeEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("L'arco dato è nullo");
+        this.delete(this.indexOf(edge.getNode1()),
+                this.indexOf(edge.getNode2()));
+    }
+
+    @Override
+    public void removeEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("I nodi dati sono nulli");
+        this.delete(this.indexOf(node1), this.indexOf(node2));
+    }
+
+    @Override
+    public void removeEdge(L label1, L label2) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Le etichette date sono nulle");
+        this.delete(this.indexOf(label1), this.indexOf(label2));
+    }
+
+    @Override
+    public void removeEdge(int i, int j) {
+        this.checkIndex(i);
+        this.checkIndex(j);
+        this.delete(i, j);
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("L'arco dato è nullo");
+        return this.edge(this.indexOf(edge.getNode1()),
+                this.indexOf(edge.getNode2()));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("I nodi dati sono nulli");
+        return this.edge(this.indexOf(node1), this.indexOf(node2));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(L label1, L label2) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Le etichette date sono nulle");
+        return this.edge(this.indexOf(label1), this.indexOf(label2));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(int i, int j) {
+        this.checkIndex(i);
+        this.checkIndex(j);
+        return this.edge(i, j);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        return this.adjacentNodesOf(this.indexOf(node));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(L label) {
+        return this.adjacentNodesOf(this.indexOf(label));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(int i) {
+        this.checkIndex(i);
+        return this.adjacentNodesOf(i);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        return this.edgesOf(this.indexOf(node));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(L label) {
+        return this.edgesOf(this.indexOf(label));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(int i) {
+        this.checkIndex(i);
+        return this.edgesOf(i);
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        Set<GraphEdge<L>> edges = new HashSet<GraphEdge<L>>();
+        int n = this.nodes.size();
+        // Ogni arco viene preso una sola volta dalla parte j >= i della riga
+        for (int i = 0; i < n; i++) {
+            int base = i * this.words;
+            for (int w = i >>> 6; w < this.words; w++) {
+                long word = this.adjacency[base + w];
+                if (w == i >>> 6)
+                    word &= -1L << i;
+                while (word != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    edges.add(this.edge(i, j));
+                    word &= word - 1;
+                }
+            }
+        }
+        return edges;
+    }
+
+    /*
+     * Il grado è il numero di bit a 1 della riga del nodo.
+     */
+    @Override
+    public int getDegreeOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+        Integer i = this.nodesIndex.get(node);
+        if (i == null)
+            throw new IllegalArgumentException(
+                    "Tentativo di calcolare il grado di un nodo non "
+                            + "presente in questo grafo");
+        return this.degreeOf(i);
+    }
+
+    @Override
+    public int getDegreeOf(L label) {
+        if (label == null)
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+        return this.getDegreeOf(new GraphNode<L>(label));
+    }
+
+    @Override
+    public int getDegreeOf(int i) {
+        if (i < 0 || i >= this.nodes.size())
+            throw new IndexOutOfBoundsException(
+                    "Tentativo di calcolare il grado di un nodo con indice "
+                            + "non valido");
+        return this.degreeOf(i);
+    }
+
+    /*
+     * Restituisce l'indice di un nodo del grafo.
+     */
+    private int indexOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Il nodo dato è nullo");
+        Integer i = this.nodesIndex.get(node);
+        if (i == null)
+            throw new IllegalArgumentException(
+                    "Il nodo dato non esiste nel grafo");
+        return i;
+    }
+
+    /*
+     * Restituisce l'indice del nodo con l'etichetta data.
+     */
+    private int indexOf(L label) {
+        if (label == null)
+            throw new NullPointerException("L'etichetta data è nulla");
+        Integer i = this.nodesIndex.get(new GraphNode<L>(label));
+        if (i == null)
+            throw new IllegalArgumentException(
+                    "Non esiste un nodo con l'etichetta data");
+        return i;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= this.nodes.size())
+            throw new IndexOutOfBoundsException("Indice non valido: " + i);
+    }
+
+    private boolean hasEdge(int i, int j) {
+        return (this.adjacency[i * this.words + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    /*
+     * Posizione del peso dell'arco tra i e j nell'array dei pesi.
+     */
+    private static int triangular(int i, int j) {
+        int low = Math.min(i, j);
+        int high = Math.max(i, j);
+        return (int) ((long) high * (high + 1) / 2) + low;
+    }
+
+    /*
+     * Crea l'oggetto che rappresenta l'arco tra i e j, null se non esiste.
+     */
+    private GraphEdge<L> edge(int i, int j) {
+        if (!this.hasEdge(i, j))
+            return null;
+        double weight = this.weights == null ? Double.NaN
+                : this.weights[triangular(i, j)];
+        return new GraphEdge<L>(this.nodes.get(i), this.nodes.get(j), false,
+                weight);
+    }
+
+    private boolean insert(int i, int j, double weight) {
+        if (this.hasEdge(i, j))
+            return false;
+        this.adjacency[i * this.words + (j >>> 6)] |= 1L << j;
+        this.adjacency[j * this.words + (i >>> 6)] |= 1L << i;
+        if (this.weights == null && !Double.isNaN(weight)) {
+            // Primo arco pesato: tutti gli archi precedenti sono non pesati
+            this.weights = new double[triangular(0, this.capacity)];
+            Arrays.fill(this.weights, Double.NaN);
+        }
+        if (this.weights != null)
+            this.weights[triangular(i, j)] = weight;
+        this.edgeCount++;
+        return true;
+    }
+
+    private void delete(int i, int j) {
+        if (!this.hasEdge(i, j))
+            throw new IllegalArgumentException("L'arco non esiste nel grafo");
+        this.adjacency[i * this.words + (j >>> 6)] &= ~(1L << j);
+        this.adjacency[j * this.words + (i >>> 6)] &= ~(1L << i);
+        if (this.weights != null)
+            this.weights[triangular(i, j)] = Double.NaN;
+        this.edgeCount--;
+    }
+
+    private int degreeOf(int i) {
+        int degree = 0;
+        int base = i * this.words;
+        for (int w = 0; w < this.words; w++)
+            degree += Long.bitCount(this.adjacency[base + w]);
+        return degree;
+    }
+
+    private Set<GraphNode<L>> adjacentNodesOf(int i) {
+        Set<GraphNode<L>> adjacentNodes = new HashSet<GraphNode<L>>();
+        int base = i * this.words;
+        for (int w = 0; w < this.words; w++) {
+            long word = this.adjacency[base + w];
+            while (word != 0) {
+                adjacentNodes.add(this.nodes
+                        .get((w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return adjacentNodes;
+    }
+
+    /*
+     * Gli archi restituiti hanno come primo nodo il nodo di indice i.
+     */
+    private Set<GraphEdge<L>> edgesOf(int i) {
+        Set<GraphEdge<L>> edges = new HashSet<GraphEdge<L>>();
+        int base = i * this.words;
+        for (int w = 0; w < this.words; w++) {
+            long word = this.adjacency[base + w];
+            while (word != 0) {
+                edges.add(this.edge(i,
+                        (w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return edges;
+    }
+
+    /*
+     * Alloca strutture vuote per un numero dato di nodi.
+     */
+    private void allocate(int newCapacity) {
+        this.capacity = newCapacity;
+        this.words = (newCapacity + 63) >>> 6;
+        this.adjacency = new long[newCapacity * this.words];
+        this.weights = null;
+        this.edgeCount = 0;
+    }
+
+    /*
+     * Aumenta la capacità di almeno la metà se non basta per n nodi.
+     */
+    private void ensureCapacity(int n) {
+        if (n <= this.capacity)
+            return;
+        if (n > MAX_CAPACITY)
+            throw new IllegalStateException(
+                    "Superato il numero massimo di nodi " + MAX_CAPACITY);
+        int newCapacity = Math.max(n, Math.max(DEFAULT_CAPACITY,
+                this.capacity + (this.capacity >>> 1)));
+        newCapacity = Math.min(newCapacity, MAX_CAPACITY);
+        int newWords = (newCapacity + 63) >>> 6;
+        long[] newAdjacency = new long[newCapacity * newWords];
+        for (int i = 0; i < this.nodes.size(); i++)
+            System.arraycopy(this.adjacency, i * this.words, newAdjacency,
+                    i * newWords, this.words);
+        this.adjacency = newAdjacency;
+        this.words = newWords;
+        if (this.weights != null) {
+            // Le colonne sono in fondo all'array: basta allungarlo
+            int oldLength = this.weights.length;
+            this.weights = Arrays.copyOf(this.weights,
+                    triangular(0, newCapacity));
+            Arrays.fill(this.weights, oldLength, this.weights.length,
+                    Double.NaN);
+        }
+        this.capacity = newCapacity;
+    }
+
+    /*
+     * Cancella il nodo di indice k spostando indietro di una posizione righe,
+     * colonne e indici dei nodi successivi.
+     */
+    private void removeIndex(int k) {
+        int n = this.nodes.size();
+        this.edgeCount -= this.degreeOf(k);
+        // Aggiorna i nodi e i loro indici
+        this.nodesIndex.remove(this.nodes.remove(k));
+        for (int i = k; i < n - 1; i++)
+            this.nodesIndex.put(this.nodes.get(i), i);
+        // Sposta indietro le righe successive e toglie la colonna k
+        int used = (n + 63) >>> 6;
+        for (int i = 0; i < n - 1; i++) {
+            if (i >= k)
+                System.arraycopy(this.adjacency, (i + 1) * this.words,
+                        this.adjacency, i * this.words, used);
+            this.removeColumn(i * this.words, k, used);
+        }
+        Arrays.fill(this.adjacency, (n - 1) * this.words, n * this.words, 0L);
+        if (this.weights != null) {
+            // Compatta la parte triangolare: ogni peso si sposta verso
+            // sinistra, per cui si può copiare in avanti sullo stesso array
+            int target = triangular(0, k);
+            for (int j = k + 1; j < n; j++)
+                for (int i = 0; i <= j; i++)
+                    if (i != k)
+                        this.weights[target++] = this.weights[triangular(i,
+                                j)];
+            Arrays.fill(this.weights, target, triangular(0, n), Double.NaN);
+        }
+    }
+
+    /*
+     * Toglie il bit k dalla riga che inizia in base, spostando di una
+     * posizione verso il basso i bit successivi.
+     */
+    private void removeColumn(int base, int k, int used) {
+        int w = k >>> 6;
+        long word = this.adjacency[base + w];
+        long lowMask = (1L << k) - 1;
+        long shifted = (word & lowMask) | ((word >>> 1) & ~lowMask);
+        for (int x = w; x < used; x++) {
+            long next = x + 1 < used ? this.adjacency[base + x + 1] : 0L;
+            this.adjacency[base + x] = shifted | (next << 63);
+            shifted = next >>> 1;
+        }
+    }
+
+}
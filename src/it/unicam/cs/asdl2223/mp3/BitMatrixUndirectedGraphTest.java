@@ -0,0 +1,156 @@
+package it.unicam.cs.asdl2223.mp3;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe BitMatrixUndirectedGraph. I test comuni a
+ * tutti i grafi non orientati sono in AbstractUndirectedGraphTest; qui ci
+ * sono solo i casi legati alla rappresentazione a bit.
+ * 
+ * @author collettiva
+ */
+class BitMatrixUndirectedGraphTest extends AbstractUndirectedGraphTest {
+
+    @Override
+    <L> Graph<L> createGraph() {
+        return new BitMatrixUndirectedGraph<L>();
+    }
+
+    @Test
+    final void testBitMatrixUndirectedGraphCapacity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BitMatrixUndirectedGraph<String>(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BitMatrixUndirectedGraph<String>(
+                        BitMatrixUndirectedGraph.MAX_CAPACITY + 1));
+        Graph<Integer> g = new BitMatrixUndirectedGraph<Integer>(0);
+        // La capacità cresce oltre quella iniziale e oltre una parola
+        for (int i = 0; i < 200; i++)
+            assertTrue(g.addNode(i));
+        assertTrue(g.addWeightedEdge(0, 199, 3.5));
+        assertTrue(g.addEdge(64, 63));
+        assertEquals(3.5, g.getEdge(199, 0).getWeight());
+        assertTrue(Double.isNaN(g.getEdge(63, 64).getWeight()));
+        assertEquals(2, g.edgeCount());
+    }
+
+    @Test
+    final void testRemoveNodeAcrossWords() {
+        // Confronta con AdjacencyMatrixUndirectedGraph dopo cancellazioni
+        // di nodi in posizioni diverse rispetto ai confini delle parole
+        Random random = new Random(11);
+        Graph<Integer> g = new BitMatrixUndirectedGraph<Integer>();
+        Graph<Integer> expected = new AdjacencyMatrixUndirectedGraph<Integer>();
+        int n = 150;
+        for (int i = 0; i < n; i++) {
+            g.addNode(i);
+            expected.addNode(i);
+        }
+        for (int k = 0; k < 1500; k++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            double w = random.nextInt(4) == 0 ? Double.NaN
+                    : random.nextInt(100);
+            assertEquals(expected.addWeightedEdge(i, j, w),
+                    g.addWeightedEdge(i, j, w));
+        }
+        int[] removed = { 149, 64, 0, 63, 70, 127, 1 };
+        for (int r : removed) {
+            g.removeNode(r);
+            expected.removeNode(r);
+            assertEquals(expected.nodeCount(), g.nodeCount());
+            assertEquals(expected.getEdges().size(), g.edgeCount());
+            assertEquals(expected.getEdges(), g.getEdges());
+            for (int i = 0; i < g.nodeCount(); i++) {
+                assertEquals(expected.getNode(i), g.getNode(i));
+                assertEquals(expected.getNodeIndexOf(expected.getNode(i)),
+                        g.getNodeIndexOf(g.getNode(i)));
+                assertEquals(expected.getAdjacentNodesOf(i),
+                        g.getAdjacentNodesOf(i));
+                assertEquals(expected.getEdgesOf(i).size(), g.getDegreeOf(i));
+                for (int j = 0; j < g.nodeCount(); j++) {
+                    GraphEdge<Integer> e = expected.getEdge(i, j);
+                    GraphEdge<Integer> a = g.getEdge(i, j);
+                    if (e == null) {
+                        assertNull(a);
+                    } else {
+                        assertEquals(e, a);
+                        assertEquals(Double.doubleToLongBits(e.getWeight()),
+                                Double.doubleToLongBits(a.getWeight()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    final void testWordBoundaries() {
+        // Righe che occupano una parola piena, oppure una parola e un bit
+        for (int n = 63; n <= 65; n++) {
+            Graph<String> g = new BitMatrixUndirectedGraph<String>(63);
+            for (int i = 0; i < n; i++)
+                assertTrue(g.addNode("v" + i));
+            String last = "v" + (n - 1);
+            assertTrue(g.addEdge("v0", last));
+            assertTrue(g.addEdge(last, last));
+            assertTrue(g.addWeightedEdge("v61", last, 2.0));
+            assertTrue(g.addEdge("v1", "v61"));
+            assertFalse(g.addEdge(last, "v0"));
+            assertEquals(4, g.edgeCount());
+            assertEquals(3, g.getDegreeOf(last));
+            assertEquals(2, g.getDegreeOf("v61"));
+            assertTrue(g.getAdjacentNodesOf(last).contains(g.getNode("v0")));
+            assertEquals(2.0, g.getEdge(last, "v61").getWeight());
+            // Togliendo il primo nodo tutti i bit scorrono di una posizione,
+            // anche a cavallo tra due parole
+            g.removeNode("v0");
+            assertEquals(n - 1, g.nodeCount());
+            assertEquals(n - 2, g.getNodeIndexOf(last));
+            assertEquals(3, g.edgeCount());
+            assertEquals(2, g.getDegreeOf(last));
+            assertTrue(g.getEdge(n - 2, n - 2) != null);
+            assertTrue(g.getEdge(0, 60) != null);
+            assertEquals(2.0, g.getEdge(60, n - 2).getWeight());
+            assertNull(g.getEdge(0, n - 2));
+            assertEquals(3, g.getEdges().size());
+        }
+    }
+
+    @Test
+    final void testWeightsCompactedAfterRemoveNode() {
+        // Grafo completo con cappi in cui il peso dell'arco tra vi e vj,
+        // con i <= j, è 100 * i + j: dopo ogni cancellazione tutti i pesi
+        // devono seguire i propri nodi nella parte triangolare compattata
+        int n = 70;
+        Graph<String> g = new BitMatrixUndirectedGraph<String>();
+        for (int i = 0; i < n; i++)
+            g.addNode("v" + i);
+        for (int j = 0; j < n; j++)
+            for (int i = 0; i <= j; i++)
+                assertTrue(g.addWeightedEdge("v" + i, "v" + j, 100 * i + j));
+        int[] removed = { 35, 0, 69, 64, 63 };
+        boolean[] gone = new boolean[n];
+        for (int r : removed) {
+            g.removeNode("v" + r);
+            gone[r] = true;
+            for (int j = 0; j < n; j++)
+                for (int i = 0; i <= j; i++)
+                    if (!gone[i] && !gone[j])
+                        assertEquals(100 * i + j, g
+                                .getEdge("v" + j, "v" + i).getWeight());
+        }
+        int m = n - removed.length;
+        assertEquals(m * (m + 1) / 2, g.edgeCount());
+        // Le posizioni liberate in fondo tornano a indicare archi non pesati
+        g.addNode("w");
+        assertTrue(g.addEdge("w", "v1"));
+        assertTrue(g.addEdge("w", "w"));
+        assertTrue(Double.isNaN(g.getEdge("v1", "w").getWeight()));
+        assertTrue(Double.isNaN(g.getEdge("w", "w").getWeight()));
+    }
+
+}
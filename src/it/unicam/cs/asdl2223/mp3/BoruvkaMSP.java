@@ -0,0 +1,213 @@
+package it.unicam.cs.asdl2223.mp3;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Classe singoletto che implementa l'algoritmo di Boruvka per trovare un
+ * Minimum Spanning Tree di un grafo non orientato, pesato e con pesi non
+ * negativi.
+ *
+ * L'algoritmo procede a fasi: in ogni fase ogni componente sceglie l'arco più
+ * leggero che la collega a un'altra componente e tutti gli archi scelti
+ * vengono aggiunti all'albero. Ogni fase almeno dimezza il numero di
+ * componenti, per cui le fasi sono al più log n. La ricerca degli archi più
+ * leggeri esamina tutti gli archi in parallelo su un {@code ForkJoinPool}:
+ * ogni task aggiorna il miglior arco di una componente con un'operazione
+ * compare-and-set su un {@code AtomicIntegerArray}. A parità di peso vince
+ * l'arco di indice minore, in modo che gli archi scelti non formino cicli.
+ * Le componenti sono mantenute con una struttura union-find con compressione
+ * dei cammini e unione per rango.
+ *
+ * Il risultato è scritto nei nodi come fa {@code PrimMSP}: il campo previous
+ * di ogni nodo punta al padre nell'albero radicato nel nodo sorgente, la
+ * distanza è il peso dell'arco verso il padre e tutti i nodi sono neri. Se
+ * l'albero di copertura minimo è unico, ad esempio perché i pesi sono tutti
+ * diversi, i puntatori coincidono con quelli calcolati da {@code PrimMSP}.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ *
+ */
+public class BoruvkaMSP<L> {
+
+    /*
+     * Numero di archi al di sotto del quale la ricerca degli archi più
+     * leggeri viene eseguita sequenzialmente.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 2048;
+
+    // Pool di thread su cui vengono cercati gli archi più leggeri
+    private final ForkJoinPool pool;
+
+    /**
+     * Crea un nuovo algoritmo che usa il pool comune di thread.
+     */
+    public BoruvkaMSP() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un nuovo algoritmo che usa il pool di thread dato.
+     *
+     * @param pool
+     *                 il pool di thread su cui cercare gli archi più leggeri
+     * @throws NullPointerException
+     *                                  se il pool passato è nullo
+     */
+    public BoruvkaMSP(ForkJoinPool pool) {
+        if (pool == null)
+            throw new NullPointerException("Pool nullo");
+        this.pool = pool;
+    }
+
+    /**
+     * Utilizza l'algoritmo di Boruvka per trovare un albero di copertura
+     * minimo in un grafo non orientato e pesato, con pesi degli archi non
+     * negativi. Dopo l'esecuzione del metodo nei nodi del grafo il campo
+     * previous contiene un puntatore a un nodo in accordo all'albero di
+     * copertura minimo calcolato, la cui radice è il nodo sorgente passato.
+     *
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @param s
+     *              il nodo del grafo g sorgente, che sarà la radice
+     *              dell'albero di copertura trovato
+     *
+     * @throw NullPointerException se il grafo g o il nodo sorgente s sono nulli
+     * @throw IllegalArgumentException se il nodo sorgente s non esiste in g
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    public void computeMSP(Graph<L> g, GraphNode<L> s) {
+        // Controlla se il grafo e il nodo sorgente sono validi
+        SpanningForest.check(g, s);
+        SpanningForest<L> forest = new SpanningForest<L>(g);
+        int n = forest.size();
+        // Copia gli archi in array di primitivi indicizzati
+        Set<GraphEdge<L>> edges = g.getEdges();
+        int m = edges.size();
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        m = 0;
+        for (GraphEdge<L> edge : edges) {
+            sources[m] = forest.indexOf(edge.getNode1());
+            targets[m] = forest.indexOf(edge.getNode2());
+            weights[m] = edge.getWeight();
+            m++;
+        }
+        // Componente di ogni nodo nella fase corrente
+        int[] components = new int[n];
+        // Arco più leggero uscente da ogni componente, -1 se non trovato
+        AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+        boolean merged = true;
+        while (merged) {
+            for (int i = 0; i < n; i++) {
+                components[i] = forest.find(i);
+                cheapest.set(i, -1);
+            }
+            // Cerca in parallelo l'arco più leggero di ogni componente
+            CheapestEdgeTask task = new CheapestEdgeTask(sources, targets,
+                    weights, components, cheapest, 0, m);
+            if (m <= SEQUENTIAL_THRESHOLD)
+                task.compute();
+            else
+                this.pool.invoke(task);
+            // Aggiunge gli archi scelti
+            merged = false;
+            for (int i = 0; i < n; i++) {
+                int e = cheapest.get(i);
+                if (e >= 0 && forest.union(sources[e], targets[e], weights[e]))
+                    merged = true;
+            }
+        }
+        // Scrive nei nodi l'albero radicato nella sorgente
+        forest.orientFrom(s);
+    }
+
+    /*
+     * Task che esamina un intervallo di archi aggiornando l'arco più leggero
+     * delle componenti dei suoi estremi, dividendo a metà l'intervallo finché
+     * non diventa abbastanza piccolo.
+     */
+    @SuppressWarnings("serial")
+    private static class CheapestEdgeTask extends RecursiveAction {
+
+        private final int[] sources;
+
+        private final int[] targets;
+
+        private final double[] weights;
+
+        private final int[] components;
+
+        private final AtomicIntegerArray cheapest;
+
+        private final int from;
+
+        private final int to;
+
+        private CheapestEdgeTask(int[] sources, int[] targets,
+                double[] weights, int[] components,
+                AtomicIntegerArray cheapest, int from, int to) {
+            this.sources = sources;
+            this.targets = targets;
+            this.weights = weights;
+            this.components = components;
+            this.cheapest = cheapest;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= SEQUENTIAL_THRESHOLD) {
+                for (int e = this.from; e < this.to; e++) {
+                    int cu = this.components[this.sources[e]];
+                    int cv = this.components[this.targets[e]];
+                    if (cu == cv)
+                        continue;
+                    this.offer(cu, e);
+                    this.offer(cv, e);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(
+                    new CheapestEdgeTask(this.sources, this.targets,
+                            this.weights, this.components, this.cheapest,
+                            this.from, middle),
+                    new CheapestEdgeTask(this.sources, this.targets,
+                            this.weights, this.components, this.cheapest,
+                            middle, this.to));
+        }
+
+        /*
+         * Sostituisce il miglior arco della componente con e se e è più
+         * leggero, ripetendo il tentativo se un altro thread lo ha cambiato
+         * nel frattempo.
+         */
+        private void offer(int component, int e) {
+            while (true) {
+                int current = this.cheapest.get(component);
+                if (current >= 0 && !this.lighter(e, current))
+                    return;
+                if (this.cheapest.compareAndSet(component, current, e))
+                    return;
+            }
+        }
+
+        private boolean lighter(int e, int f) {
+            return this.weights[e] < this.weights[f]
+                    || (this.weights[e] == this.weights[f] && e < f);
+        }
+    }
+
+}
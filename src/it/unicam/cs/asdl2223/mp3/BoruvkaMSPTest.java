@@ -0,0 +1,71 @@
+package it.unicam.cs.asdl2223.mp3;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe BoruvkaMSP.
+ * 
+ * @author collettiva
+ *
+ */
+class BoruvkaMSPTest extends AbstractMSPTest {
+
+    @Override
+    <L> void computeMSP(Graph<L> g, GraphNode<L> s) {
+        new BoruvkaMSP<L>().computeMSP(g, s);
+    }
+
+    @Test
+    final void testConstructorNullPool() {
+        assertThrows(NullPointerException.class,
+                () -> new BoruvkaMSP<Integer>(null));
+    }
+
+    @Test
+    final void testFindMSPParallelAgreesWithPrim() {
+        // Pesi tutti diversi: l'albero di copertura minimo è unico
+        List<GraphNode<Integer>> nodes = new ArrayList<GraphNode<Integer>>();
+        Graph<Integer> gr = randomGraph(nodes, 120, 7, true);
+        new PrimMSP<Integer>().computeMSP(gr, nodes.get(0));
+        List<GraphNode<Integer>> primPrevious = new ArrayList<GraphNode<Integer>>();
+        for (GraphNode<Integer> node : nodes)
+            primPrevious.add(node.getPrevious());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        new BoruvkaMSP<Integer>(pool).computeMSP(gr, nodes.get(0));
+        pool.shutdown();
+        for (int k = 0; k < nodes.size(); k++) {
+            assertTrue(nodes.get(k).getPrevious() == primPrevious.get(k));
+            assertTrue(nodes.get(k).getColor() == GraphNode.COLOR_BLACK);
+        }
+    }
+
+    @Test
+    final void testFindMSPParallelEqualWeights() {
+        // Con pesi uguali le componenti devono scegliere gli archi minimi
+        // in modo coerente, altrimenti si formano cicli
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (long seed = 0; seed < 5; seed++) {
+            List<GraphNode<Integer>> nodes = new ArrayList<GraphNode<Integer>>();
+            Graph<Integer> gr = randomGraph(nodes, 100, seed, false);
+            new PrimMSP<Integer>().computeMSP(gr, nodes.get(0));
+            double primWeight = treeWeight(nodes);
+            new BoruvkaMSP<Integer>(pool).computeMSP(gr, nodes.get(0));
+            assertEquals(primWeight, treeWeight(nodes));
+            // Risalendo i padri da ogni nodo si arriva alla radice
+            for (GraphNode<Integer> node : nodes) {
+                int steps = 0;
+                for (GraphNode<Integer> p = node; p != nodes.get(0); p = p
+                        .getPrevious())
+                    assertTrue(++steps < nodes.size());
+            }
+        }
+        pool.shutdown();
+    }
+
+}
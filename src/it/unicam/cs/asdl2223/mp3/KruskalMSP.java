@@ -0,0 +1,79 @@
+package it.unicam.cs.asdl2223.mp3;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Classe singoletto che implementa l'algoritmo di Kruskal per trovare un
+ * Minimum Spanning Tree di un grafo non orientato, pesato e con pesi non
+ * negativi.
+ *
+ * Gli archi vengono ordinati per peso crescente con un ordinamento parallelo
+ * ({@code Arrays.parallelSort}) e poi esaminati in ordine: un arco viene
+ * aggiunto all'albero se collega due componenti diverse. Le componenti sono
+ * mantenute con una struttura union-find con compressione dei cammini e
+ * unione per rango, per cui il costo è dominato dall'ordinamento, O(m log m).
+ *
+ * Il risultato è scritto nei nodi come fa {@code PrimMSP}: il campo previous
+ * di ogni nodo punta al padre nell'albero radicato nel nodo sorgente, la
+ * distanza è il peso dell'arco verso il padre e tutti i nodi sono neri. Se
+ * l'albero di copertura minimo è unico, ad esempio perché i pesi sono tutti
+ * diversi, i puntatori coincidono con quelli calcolati da {@code PrimMSP}.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ *
+ */
+public class KruskalMSP<L> {
+
+    /**
+     * Crea un nuovo algoritmo.
+     */
+    public KruskalMSP() {
+    }
+
+    /**
+     * Utilizza l'algoritmo goloso di Kruskal per trovare un albero di
+     * copertura minimo in un grafo non orientato e pesato, con pesi degli
+     * archi non negativi. Dopo l'esecuzione del metodo nei nodi del grafo il
+     * campo previous contiene un puntatore a un nodo in accordo all'albero di
+     * copertura minimo calcolato, la cui radice è il nodo sorgente passato.
+     *
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @param s
+     *              il nodo del grafo g sorgente, che sarà la radice
+     *              dell'albero di copertura trovato
+     *
+     * @throw NullPointerException se il grafo g o il nodo sorgente s sono nulli
+     * @throw IllegalArgumentException se il nodo sorgente s non esiste in g
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    public void computeMSP(Graph<L> g, GraphNode<L> s) {
+        // Controlla se il grafo e il nodo sorgente sono validi
+        SpanningForest.check(g, s);
+        SpanningForest<L> forest = new SpanningForest<L>(g);
+        // Ordina gli archi per peso crescente; l'array di GraphEdge<?> contiene
+        // solo archi di g
+        @SuppressWarnings("unchecked")
+        GraphEdge<L>[] edges = (GraphEdge<L>[]) g.getEdges()
+                .toArray(new GraphEdge<?>[0]);
+        Arrays.parallelSort(edges,
+                Comparator.comparingDouble(GraphEdge<L>::getWeight));
+        // Aggiunge gli archi che collegano componenti diverse finché l'albero
+        // non è completo
+        for (int k = 0; k < edges.length
+                && forest.treeSize() < forest.size() - 1; k++)
+            forest.union(forest.indexOf(edges[k].getNode1()),
+                    forest.indexOf(edges[k].getNode2()),
+                    edges[k].getWeight());
+        // Scrive nei nodi l'albero radicato nella sorgente
+        forest.orientFrom(s);
+    }
+
+}
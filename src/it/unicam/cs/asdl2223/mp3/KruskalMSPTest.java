@@ -0,0 +1,57 @@
+package it.unicam.cs.asdl2223.mp3;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe KruskalMSP.
+ * 
+ * @author collettiva
+ *
+ */
+class KruskalMSPTest extends AbstractMSPTest {
+
+    @Override
+    <L> void computeMSP(Graph<L> g, GraphNode<L> s) {
+        new KruskalMSP<L>().computeMSP(g, s);
+    }
+
+    @Test
+    final void testAgreesWithPrimDistinctWeights() {
+        // L'albero è unico: i puntatori devono coincidere
+        for (long seed = 0; seed < 5; seed++) {
+            List<GraphNode<Integer>> nodes = new ArrayList<GraphNode<Integer>>();
+            Graph<Integer> gr = randomGraph(nodes, 80, seed, true);
+            new PrimMSP<Integer>().computeMSP(gr, nodes.get(0));
+            List<GraphNode<Integer>> primPrevious = new ArrayList<GraphNode<Integer>>();
+            for (GraphNode<Integer> node : nodes)
+                primPrevious.add(node.getPrevious());
+            new KruskalMSP<Integer>().computeMSP(gr, nodes.get(0));
+            for (int k = 0; k < nodes.size(); k++)
+                assertTrue(nodes.get(k).getPrevious() == primPrevious.get(k));
+        }
+    }
+
+    @Test
+    final void testAgreesWithPrimEqualWeights() {
+        // Con molti pesi uguali gli alberi possono differire, il loro peso
+        // no
+        for (long seed = 0; seed < 5; seed++) {
+            List<GraphNode<Integer>> nodes = new ArrayList<GraphNode<Integer>>();
+            Graph<Integer> gr = randomGraph(nodes, 80, seed, false);
+            new PrimMSP<Integer>().computeMSP(gr, nodes.get(3));
+            double primWeight = treeWeight(nodes);
+            new KruskalMSP<Integer>().computeMSP(gr, nodes.get(3));
+            assertEquals(primWeight, treeWeight(nodes));
+            // Ogni nodo tranne la radice ha un padre collegato da un arco
+            for (GraphNode<Integer> node : nodes)
+                if (node != nodes.get(3))
+                    assertTrue(gr.getEdge(node, node.getPrevious()) != null);
+        }
+    }
+
+}
@@ -3,19 +3,25 @@ package it.unicam.cs.asdl2223.mp3;
 //ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+
+import it.unicam.cs.asdl2223.mp2.PriorityQueueElement;
 
 /**
  * Classe singoletto che implementa l'algoritmo di Prim per trovare un Minimum
  * Spanning Tree di un grafo non orientato, pesato e con pesi non negativi.
  * 
- * L'algoritmo richiede l'uso di una coda di min priorità tra i nodi che può
- * essere realizzata con una semplice ArrayList (non c'è bisogno di ottimizzare
- * le operazioni di inserimento, di estrazione del minimo, o di decremento della
- * priorità).
+ * La coda di min priorità tra i nodi è realizzata con uno heap binario
+ * indicizzato: ogni nodo è rappresentato da un elemento che implementa
+ * {@code PriorityQueueElement} e ne ricorda la posizione nello heap (handle),
+ * per cui l'estrazione del minimo e il decremento della priorità costano
+ * O(log n) e l'algoritmo costa O(m log n) sui grafi che elencano gli archi di
+ * un nodo in tempo proporzionale al suo grado.
  * 
- * Si possono usare i colori dei nodi per registrare la scoperta e la visita
- * effettuata dei nodi.
+ * I colori dei nodi registrano lo stato della visita: un nodo è grigio finché
+ * si trova nella coda e diventa nero quando viene estratto, per cui per sapere
+ * se un nodo è ancora nella coda basta controllarne il colore.
  * 
  * @author Luca Tesei (template) Alessio Rubicini alessio.rubicini@studenti.unicam.it (implementazione)
  * 
@@ -25,22 +31,20 @@ import java.util.List;
  */
 public class PrimMSP<L> {
 
-    // Coda di priorità per l'algoritmo di Prim
-    private List<GraphNode<L>> priorityQueue;
+    // Heap binario che realizza la coda di priorità per l'algoritmo di Prim
+    private ArrayList<PriorityQueueElement> priorityQueue;
 
-    /*
-     * In particolare: si deve usare una coda con priorità che può semplicemente
-     * essere realizzata con una List<GraphNode<L>> e si deve mantenere un
-     * insieme dei nodi già visitati
-     */
+    // Associa ad ogni nodo del grafo il corrispondente elemento della coda
+    private Map<GraphNode<L>, NodeElement<L>> elements;
 
     /**
      * Crea un nuovo algoritmo e inizializza la coda di priorità con una coda
      * vuota.
      */
     public PrimMSP() {
-        // Inizializza la coda di priorità come lista vuota
-        this.priorityQueue = new ArrayList<GraphNode<L>>();
+        // Inizializza la coda di priorità come heap vuoto
+        this.priorityQueue = new ArrayList<PriorityQueueElement>();
+        this.elements = new HashMap<GraphNode<L>, NodeElement<L>>();
     }
 
     /**
@@ -69,24 +73,31 @@ public class PrimMSP<L> {
         this.initializeNodesForPrim(g, s);
         // Finché la coda di priorità non è vuota
         while (!priorityQueue.isEmpty()) {
-            // Estra il primo nodo dalla coda di priorità
+            // Estra il nodo con chiave minima dalla coda di priorità
             GraphNode<L> extractedNode = this.extractMinimumFromQueue();
             // Colora il nodo come visitato (nero)
             extractedNode.setColor(GraphNode.COLOR_BLACK);
-            // Itera sui nodi adiacenti al nodo estratto
-            for(GraphNode<L> currentNode: g.getAdjacentNodesOf(extractedNode)) {
-                // Ottiene l'arco che collega il nodo estratto al nodo corrente
-                GraphEdge<L> edge = g.getEdge(extractedNode, currentNode);
-                // Se la coda di priorità contiene il nodo corrente
-                // e il peso dell'arco è minore del valore chiave (distanza) del nodo corrente
-                if(priorityQueue.contains(currentNode) && edge.getWeight() < currentNode.getFloatingPointDistance()) {
+            // Itera sugli archi del nodo estratto
+            for (GraphEdge<L> edge : g.getEdgesOf(extractedNode)) {
+                // Ottiene l'elemento del nodo all'altro estremo dell'arco
+                GraphNode<L> other = edge.getNode1().equals(extractedNode)
+                        ? edge.getNode2()
+                        : edge.getNode1();
+                NodeElement<L> element = this.elements.get(other);
+                GraphNode<L> currentNode = element.node;
+                // Se il nodo corrente è ancora nella coda (grigio) e il peso
+                // dell'arco è minore del suo valore chiave (distanza)
+                if (currentNode.getColor() == GraphNode.COLOR_GREY
+                        && edge.getWeight() < element.getPriority()) {
                     // Imposta il nodo estratto come parent del nodo corrente
                     currentNode.setPrevious(extractedNode);
                     // Imposta come valore chiave (distanza) il peso dell'arco
                     currentNode.setFloatingPointDistance(edge.getWeight());
+                    this.decreasePriority(element, edge.getWeight());
                 }
             }
         }
+        this.elements.clear();
     }
 
     /**
@@ -94,18 +105,82 @@ public class PrimMSP<L> {
      * @return il nodo con chiave (distanza) minima
      */
     private GraphNode<L> extractMinimumFromQueue() {
-        // Prende come riferimento il primo elemento
-        GraphNode<L> minimum = priorityQueue.get(0);
-        // Scorre la coda di priorità cercando il minimo
-        for(GraphNode<L> node: priorityQueue) {
-            if(node.getFloatingPointDistance() < minimum.getFloatingPointDistance()) {
-                minimum = node;
-            }
+        // Il minimo è nella radice dello heap
+        @SuppressWarnings("unchecked")
+        NodeElement<L> minimum = (NodeElement<L>) priorityQueue.get(0);
+        // Sposta l'ultimo elemento nella radice e lo fa scendere
+        PriorityQueueElement last = priorityQueue
+                .remove(priorityQueue.size() - 1);
+        if (!priorityQueue.isEmpty()) {
+            this.place(last, 0);
+            this.siftDown(0);
         }
-        // Rimuove il minimo trovato dalla coda
-        priorityQueue.remove(minimum);
-        // Ritorna il minimo trovato
-        return minimum;
+        // Ritorna il nodo minimo trovato
+        return minimum.node;
+    }
+
+    /**
+     * Decrementa la priorità di un elemento presente nella coda e lo fa
+     * risalire nello heap partendo dalla posizione indicata dal suo handle.
+     * 
+     * @param element
+     *                        l'elemento di cui decrementare la priorità
+     * @param newPriority
+     *                        la nuova priorità, minore di quella attuale
+     */
+    private void decreasePriority(PriorityQueueElement element,
+            double newPriority) {
+        element.setPriority(newPriority);
+        this.siftUp(element.getHandle());
+    }
+
+    /*
+     * Fa risalire l'elemento in posizione i finché il padre non ha priorità
+     * minore o uguale.
+     */
+    private void siftUp(int i) {
+        PriorityQueueElement element = priorityQueue.get(i);
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            PriorityQueueElement p = priorityQueue.get(parent);
+            if (p.getPriority() <= element.getPriority())
+                break;
+            this.place(p, i);
+            i = parent;
+        }
+        this.place(element, i);
+    }
+
+    /*
+     * Fa scendere l'elemento in posizione i finché i figli non hanno priorità
+     * maggiore o uguale.
+     */
+    private void siftDown(int i) {
+        PriorityQueueElement element = priorityQueue.get(i);
+        int size = priorityQueue.size();
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size)
+                break;
+            // Sceglie il figlio con priorità minore
+            if (child + 1 < size && priorityQueue.get(child + 1)
+                    .getPriority() < priorityQueue.get(child).getPriority())
+                child++;
+            PriorityQueueElement c = priorityQueue.get(child);
+            if (c.getPriority() >= element.getPriority())
+                break;
+            this.place(c, i);
+            i = child;
+        }
+        this.place(element, i);
+    }
+
+    /*
+     * Mette un elemento in una posizione dello heap aggiornandone l'handle.
+     */
+    private void place(PriorityQueueElement element, int i) {
+        priorityQueue.set(i, element);
+        element.setHandle(i);
     }
 
     /**
@@ -151,19 +226,74 @@ public class PrimMSP<L> {
      *              dell'albero di copertura trovato
      */
     private void initializeNodesForPrim(Graph<L> g, GraphNode<L> s) {
+        priorityQueue.clear();
+        elements.clear();
+        // Il nodo sorgente va nella radice dello heap: gli altri nodi hanno
+        // tutti priorità infinita, per cui lo heap è già ordinato
+        GraphNode<L> source = null;
         // Itera su tutti i nodi del grafo
         for(GraphNode<L> node: g.getNodes()) {
             // Imposta distanza a infinito
             node.setFloatingPointDistance(Double.POSITIVE_INFINITY);
-            // Colora nodo come non visitato (bianco)
-            node.setColor(GraphNode.COLOR_WHITE);
+            // Colora il nodo come presente nella coda (grigio)
+            node.setColor(GraphNode.COLOR_GREY);
             // Imposta il predecessore a null
             node.setPrevious(null);
-            // Aggiunge il nodo inizializzato alla coda di priorità
-            priorityQueue.add(node);
+            // Crea l'elemento della coda di priorità associato al nodo
+            elements.put(node, new NodeElement<L>(node));
+            if (node.equals(s))
+                source = node;
+            else {
+                elements.get(node).setHandle(priorityQueue.size());
+                priorityQueue.add(elements.get(node));
+            }
+        }
+        // Imposta la distanza del nodo sorgente a 0 e lo mette nella radice
+        source.setFloatingPointDistance(0);
+        elements.get(source).setPriority(0);
+        priorityQueue.add(elements.get(source));
+        this.place(priorityQueue.get(0), priorityQueue.size() - 1);
+        this.place(elements.get(source), 0);
+    }
+
+    /*
+     * Elemento della coda di priorità che rappresenta un nodo del grafo. La
+     * priorità è il peso dell'arco più leggero che collega il nodo all'albero
+     * costruito finora, l'handle è la posizione del nodo nello heap.
+     */
+    private static class NodeElement<L> implements PriorityQueueElement {
+
+        private final GraphNode<L> node;
+
+        private double priority;
+
+        private int handle;
+
+        private NodeElement(GraphNode<L> node) {
+            this.node = node;
+            this.priority = Double.POSITIVE_INFINITY;
+            this.handle = -1;
+        }
+
+        @Override
+        public double getPriority() {
+            return this.priority;
+        }
+
+        @Override
+        public void setPriority(double newPriority) {
+            this.priority = newPriority;
+        }
+
+        @Override
+        public int getHandle() {
+            return this.handle;
+        }
+
+        @Override
+        public void setHandle(int newHandle) {
+            this.handle = newHandle;
         }
-        // Imposta la distanza del nodo sorgente a 0
-        s.setFloatingPointDistance(0);
     }
 
 }
@@ -0,0 +1,242 @@
+package it.unicam.cs.asdl2223.mp3;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Struttura di supporto per gli algoritmi che costruiscono un albero di
+ * copertura minimo unendo componenti, come quelli di Kruskal e di Boruvka.
+ * Assegna ai nodi del grafo gli indici da 0 a n - 1, mantiene le componenti
+ * con una struttura union-find con compressione dei cammini e unione per
+ * rango e raccoglie gli archi scelti. Al termine
+ * {@link #orientFrom(GraphNode)} scrive nei nodi lo stesso risultato prodotto
+ * da {@code PrimMSP}: il campo previous di ogni nodo punta al padre
+ * nell'albero radicato nella sorgente e la distanza è il peso dell'arco che lo
+ * collega al padre.
+ *
+ * @author collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+class SpanningForest<L> {
+
+    // Nodi del grafo in ordine di indice
+    private final List<GraphNode<L>> nodes;
+
+    // Indice di ogni nodo
+    private final Map<GraphNode<L>, Integer> indexes;
+
+    // Padre di ogni nodo nella struttura union-find
+    private final int[] parent;
+
+    // Limite superiore dell'altezza dell'albero di ogni radice
+    private final int[] rank;
+
+    // Archi dell'albero di copertura: estremi e peso
+    private final int[] treeSources;
+
+    private final int[] treeTargets;
+
+    private final double[] treeWeights;
+
+    private int treeSize;
+
+    /**
+     * Crea una foresta in cui ogni nodo del grafo è una componente.
+     *
+     * @param g
+     *              il grafo di cui costruire l'albero di copertura
+     */
+    SpanningForest(Graph<L> g) {
+        int n = g.nodeCount();
+        this.nodes = new ArrayList<GraphNode<L>>(g.getNodes());
+        this.indexes = new HashMap<GraphNode<L>, Integer>();
+        for (int i = 0; i < n; i++)
+            this.indexes.put(this.nodes.get(i), i);
+        this.parent = new int[n];
+        this.rank = new int[n];
+        for (int i = 0; i < n; i++)
+            this.parent[i] = i;
+        this.treeSources = new int[Math.max(n - 1, 0)];
+        this.treeTargets = new int[Math.max(n - 1, 0)];
+        this.treeWeights = new double[Math.max(n - 1, 0)];
+        this.treeSize = 0;
+    }
+
+    /**
+     * Controlla i parametri di un calcolo dell'albero di copertura minimo come
+     * fa {@code PrimMSP}.
+     *
+     * @throws NullPointerException
+     *                                      se il grafo g o il nodo sorgente s
+     *                                      sono nulli
+     * @throws IllegalArgumentException
+     *                                      se il nodo sorgente s non esiste in
+     *                                      g
+     * @throws IllegalArgumentException
+     *                                      se il grafo g è orientato, non
+     *                                      pesato o con pesi negativi
+     */
+    static <L> void check(Graph<L> g, GraphNode<L> s) {
+        if (g == null || s == null)
+            throw new NullPointerException("Grafo o nodo sorgente nulli");
+        if (g.getNode(s) == null)
+            throw new IllegalArgumentException(
+                    "Nodo sorgente non esistente nel grafo");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Grafo orientato");
+        for (GraphEdge<L> edge : g.getEdges()) {
+            if (Double.isNaN(edge.getWeight()))
+                throw new IllegalArgumentException("Trovato arco non pesato.");
+            if (edge.getWeight() < 0)
+                throw new IllegalArgumentException(
+                        "Trovato arco con peso negativo.");
+        }
+    }
+
+    /**
+     * Restituisce il numero di nodi del grafo.
+     *
+     * @return il numero di nodi
+     */
+    int size() {
+        return this.nodes.size();
+    }
+
+    /**
+     * Restituisce l'indice di un nodo del grafo.
+     *
+     * @param node
+     *                 un nodo del grafo
+     * @return l'indice del nodo
+     */
+    int indexOf(GraphNode<L> node) {
+        return this.indexes.get(node);
+    }
+
+    /**
+     * Restituisce il rappresentante della componente di un nodo, comprimendo
+     * il cammino verso la radice.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return l'indice del rappresentante della componente
+     */
+    int find(int i) {
+        int root = i;
+        while (this.parent[root] != root)
+            root = this.parent[root];
+        // Compressione: tutti i nodi del cammino puntano alla radice
+        while (this.parent[i] != root) {
+            int next = this.parent[i];
+            this.parent[i] = root;
+            i = next;
+        }
+        return root;
+    }
+
+    /**
+     * Unisce le componenti di due nodi aggiungendo all'albero l'arco che li
+     * collega, se si trovano in componenti diverse.
+     *
+     * @param i
+     *                   l'indice del primo nodo
+     * @param j
+     *                   l'indice del secondo nodo
+     * @param weight
+     *                   il peso dell'arco
+     * @return true se l'arco è stato aggiunto, false se i nodi erano già
+     *         nella stessa componente
+     */
+    boolean union(int i, int j, double weight) {
+        int ri = this.find(i);
+        int rj = this.find(j);
+        if (ri == rj)
+            return false;
+        // Unione per rango: l'albero più basso va sotto l'altro
+        if (this.rank[ri] < this.rank[rj]) {
+            this.parent[ri] = rj;
+        } else {
+            this.parent[rj] = ri;
+            if (this.rank[ri] == this.rank[rj])
+                this.rank[ri]++;
+        }
+        this.treeSources[this.treeSize] = i;
+        this.treeTargets[this.treeSize] = j;
+        this.treeWeights[this.treeSize] = weight;
+        this.treeSize++;
+        return true;
+    }
+
+    /**
+     * Restituisce il numero di archi scelti finora.
+     *
+     * @return il numero di archi dell'albero
+     */
+    int treeSize() {
+        return this.treeSize;
+    }
+
+    /**
+     * Scrive nei nodi del grafo l'albero di copertura della componente della
+     * sorgente, radicato nella sorgente. Tutti i nodi vengono colorati di
+     * nero; i nodi non raggiungibili dalla sorgente hanno previous null e
+     * distanza infinita.
+     *
+     * @param s
+     *              il nodo sorgente
+     */
+    void orientFrom(GraphNode<L> s) {
+        int n = this.nodes.size();
+        // Liste di adiacenza dell'albero in formato compresso
+        int[] start = new int[n + 1];
+        for (int k = 0; k < this.treeSize; k++) {
+            start[this.treeSources[k] + 1]++;
+            start[this.treeTargets[k] + 1]++;
+        }
+        for (int i = 0; i < n; i++)
+            start[i + 1] += start[i];
+        int[] next = start.clone();
+        int[] adjacent = new int[2 * this.treeSize];
+        int[] edges = new int[2 * this.treeSize];
+        for (int k = 0; k < this.treeSize; k++) {
+            adjacent[next[this.treeSources[k]]] = this.treeTargets[k];
+            edges[next[this.treeSources[k]]++] = k;
+            adjacent[next[this.treeTargets[k]]] = this.treeSources[k];
+            edges[next[this.treeTargets[k]]++] = k;
+        }
+        for (GraphNode<L> node : this.nodes) {
+            node.setFloatingPointDistance(Double.POSITIVE_INFINITY);
+            node.setColor(GraphNode.COLOR_BLACK);
+            node.setPrevious(null);
+        }
+        // Visita in ampiezza dell'albero a partire dalla sorgente
+        boolean[] visited = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        int root = this.indexOf(s);
+        this.nodes.get(root).setFloatingPointDistance(0);
+        visited[root] = true;
+        queue[tail++] = root;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int k = start[u]; k < start[u + 1]; k++) {
+                int v = adjacent[k];
+                if (visited[v])
+                    continue;
+                visited[v] = true;
+                GraphNode<L> node = this.nodes.get(v);
+                node.setPrevious(this.nodes.get(u));
+                node.setFloatingPointDistance(this.treeWeights[edges[k]]);
+                queue[tail++] = v;
+            }
+        }
+    }
+
+}